@@ -1,52 +1,236 @@
 // file: src/jmh/java/org/example/napdkg/bench/BenchmarkState.java
 package org.example.napdkg.bench;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.client.CachingPbbClient;
 import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.client.InMemoryPbbClient;
 import org.example.napdkg.client.InstrumentedPbbClient;
+import org.example.napdkg.client.LatencyInjectingPbbClient;
 import org.example.napdkg.client.PbbClient;
-import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DkgContextRegistry;
 import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.SetupPhasePublisher;
+import org.example.napdkg.core.SetupPhaseWaiter;
+import org.example.napdkg.core.ShareVerificationPublish;
+import org.example.napdkg.core.SharingPhase;
+import org.example.napdkg.core.VerificationPhase;
 import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.ShareVerificationOutputDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.server.PbbServer;
 import org.example.napdkg.util.DkgContext;
-import org.example.napdkg.util.GroupGenerator;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
+/**
+ * One protocol run's worth of state for the phase benchmarks.
+ *
+ * Board backends (-p backend=…):
+ * inmemory InMemoryPbbClient, no network at all
+ * embedded a PbbServer on an ephemeral localhost port, over HttpPbbClient
+ * http an external board at -Dpbb.url (default http://127.0.0.1:3010),
+ * emptied before every run; not in the default set since it needs a
+ * board to be running
+ *
+ * -p wan=… puts a {@link LatencyInjectingPbbClient} between each party (and
+ * its own cache) and the board, e.g. -p wan="rtt=50;rtt=200,jitter=40";
+ * profiles go to parties round robin, seeded per party. "none" = direct.
+ *
+ * Each phase benchmark subclasses this as its own @State and, per
+ * iteration, calls {@link #freshRun(Stage)}: new board, new parties, and
+ * every stage before the measured one. The benchmark method then runs exactly
+ * one {@link Stage} for all n parties, so no benchmark depends on what
+ * another one left on the board.
+ *
+ * The board is wrapped in an {@link InstrumentedPbbClient} ({@link #traffic}),
+ * reset once the earlier stages are done, so it counts the measured stage
+ * only; the last iteration's counts are printed at the end of the trial.
+ */
 @State(Scope.Benchmark)
 public class BenchmarkState {
-    public int n = 8;
-    public int t = 3;
+    @Param({ "inmemory", "embedded" })
+    public String backend;
+
+    @Param({ "8" })
+    public int n;
+
+    @Param({ "none" })
+    public String wan;
+
+    /** Base seed for the WAN links; party i gets seed + i. */
+    public long seed = 1;
+
+    public int t;
     public int fa = 1;
 
     public DkgContext ctx;
+    /** The board, below any caches and links; {@link #traffic} itself. */
     public PbbClient pbb;
+    /** Board traffic of the current iteration's measured stage. */
+    public InstrumentedPbbClient traffic;
     public List<PartyContext> parties;
+    public List<SharingPhase> sharers;
+    public List<VerificationPhase> verifiers;
+
+    private PbbServer server;
+
+    /** The protocol steps, in order; each runs for every party. */
+    public enum Stage {
+        SETUP, SHARING, VERIFICATION, THRESHOLD, RECONSTRUCTION
+    }
 
     @Setup(Level.Trial)
     public void setupTrial() throws Exception {
-        // 1) Build DkgContext
-        var gp = GroupGenerator.generateGroup();
-        ctx = DHPVSS_Setup.dhPvssSetup(gp, t, n);
+        // the smoke test's shape: n=8 → t=3 (n − t − 2 > 0 must hold)
+        init(Math.max(1, (n - 2) / 2));
+    }
 
-        // 2) Wrap a real HTTP PBB in an InstrumentedPbbClient (for bandwidth logging)
-        pbb = new InstrumentedPbbClient(
-                new HttpPbbClient("http://127.0.0.1:3010"),
-                new com.google.gson.Gson());
+    /** Fixes the threshold and builds the context for the current n. */
+    public void init(int threshold) throws Exception {
+        t = threshold;
+        ctx = DkgContextRegistry.get(t, n);
+    }
 
-        // 3) Clear any old ephemeral keys on the PBB
-        for (EphemeralKeyDTO e : pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class)) {
-            pbb.delete("ephemeralKeys", e.id);
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        if (traffic != null) {
+            System.out.println(traffic.snapshotJson());
+            traffic = null;
+        }
+        if (server != null) {
+            server.close();
+            server = null;
         }
+    }
 
-        // 4) Instantiate n PartyContext instances
+    /** New board and parties, then every stage before {@code measured}. */
+    public void freshRun(Stage measured) throws Exception {
+        traffic = new InstrumentedPbbClient(newBoard());
+        pbb = traffic;
         parties = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            parties.add(new PartyContext(i, ctx, pbb, n, t, fa));
+        List<CachingPbbClient> caches = new ArrayList<>();
+        if ("none".equals(wan)) {
+            // one cache shared by all parties, as in the smoke test
+            CachingPbbClient shared = new CachingPbbClient(pbb);
+            caches.add(shared);
+            for (int i = 0; i < n; i++) {
+                parties.add(new PartyContext(i, ctx, shared, n, t, fa));
+            }
+        } else {
+            // every party has its own link and, on its side of it, its own cache
+            List<LatencyInjectingPbbClient.Options> links = LatencyInjectingPbbClient.Options.parseProfiles(wan);
+            for (int i = 0; i < n; i++) {
+                CachingPbbClient own = new CachingPbbClient(
+                        new LatencyInjectingPbbClient(pbb, links.get(i % links.size()), seed + i));
+                caches.add(own);
+                parties.add(new PartyContext(i, ctx, own, n, t, fa));
+            }
+        }
+        sharers = new ArrayList<>(n);
+        verifiers = new ArrayList<>(n);
+        for (Stage s : Stage.values()) {
+            if (s == measured) {
+                traffic.reset();
+                return;
+            }
+            run(s);
+            if (s == Stage.SETUP) {
+                // as in the smoke test: the key set is final from here on
+                caches.forEach(c -> c.markImmutable("ephemeralKeys"));
+            }
+        }
+    }
+
+    /** Runs one stage for all parties. */
+    public void run(Stage stage) throws Exception {
+        switch (stage) {
+            case SETUP:
+                for (PartyContext P : parties) {
+                    SetupPhasePublisher.publishEphemeralKey(P);
+                }
+                for (PartyContext P : parties) {
+                    SetupPhaseWaiter.awaitAllEphemeralKeys(P, n);
+                }
+                break;
+            case SHARING:
+                for (PartyContext P : parties) {
+                    SharingPhase sp = new SharingPhase(P, t);
+                    sharers.add(sp);
+                    sp.runSharingAsDealer2();
+                }
+                break;
+            case VERIFICATION:
+                ECPoint groupKey = expectedGroupKey();
+                for (PartyContext P : parties) {
+                    VerificationPhase vp = new VerificationPhase(P);
+                    vp.setTrueGroupKey(groupKey);
+                    verifiers.add(vp);
+                    for (int dealer = 0; dealer < n; dealer++) {
+                        vp.VerifySharesFor(dealer);
+                    }
+                }
+                break;
+            case THRESHOLD:
+                for (VerificationPhase vp : verifiers) {
+                    vp.publishThresholdOutput();
+                }
+                break;
+            case RECONSTRUCTION:
+                for (VerificationPhase vp : verifiers) {
+                    List<ShareVerificationPublish> Q2 = vp.collectAndPruneThresholdOutputs();
+                    vp.finalReconstruction(vp.getQ1(), Q2);
+                }
+                break;
+        }
+    }
+
+    /** Y = G·Σ r_i over all dealers; finalReconstruction checks against it. */
+    private ECPoint expectedGroupKey() {
+        BigInteger sum = BigInteger.ZERO;
+        for (SharingPhase sp : sharers) {
+            sum = sum.add(sp.getSecretShare()).mod(ctx.getOrder());
+        }
+        return ctx.getGenerator().multiply(sum).normalize();
+    }
+
+    private PbbClient newBoard() throws Exception {
+        switch (backend) {
+            case "inmemory":
+                return new InMemoryPbbClient();
+            case "embedded":
+                // a new server per run is cheaper than deleting the last run's entries
+                if (server != null)
+                    server.close();
+                server = PbbServer.start(0);
+                return new HttpPbbClient(server.baseUrl());
+            case "http":
+                HttpPbbClient http = new HttpPbbClient(System.getProperty("pbb.url", "http://127.0.0.1:3010"));
+                clear(http);
+                return http;
+            default:
+                throw new IllegalArgumentException("backend must be inmemory, embedded or http, not " + backend);
+        }
+    }
+
+    private static void clear(PbbClient board) throws Exception {
+        for (EphemeralKeyDTO e : board.fetch("ephemeralKeys", EphemeralKeyDTO.class)) {
+            board.delete("ephemeralKeys", e.id);
+        }
+        for (SharingOutputDTO sh : board.fetch("DealerPublish", SharingOutputDTO.class)) {
+            board.delete("DealerPublish", sh.id);
+        }
+        for (ShareVerificationOutputDTO so : board.fetch("ShareVerificationOutput",
+                ShareVerificationOutputDTO.class)) {
+            board.delete("ShareVerificationOutput", so.id);
         }
     }
 }
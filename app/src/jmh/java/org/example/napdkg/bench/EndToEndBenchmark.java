@@ -1,20 +1,42 @@
+// file: src/jmh/java/org/example/napdkg/bench/EndToEndBenchmark.java
 package org.example.napdkg.bench;
 
-import org.example.napdkg.cli.SmokeTestN3T1;
-import org.openjdk.jmh.annotations.*;
-import org.example.napdkg.core.PartyContext;
-import org.example.napdkg.core.VerificationPhase;
+import java.util.concurrent.TimeUnit;
+
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
 
+/**
+ * A whole DKG, setup through reconstruction, on a fresh board. The sum of
+ * the phase benchmarks should land close to this; a gap means time spent
+ * between phases (or a phase benchmark that isn't measuring what it should).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
 public class EndToEndBenchmark {
 
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.SETUP);
+        }
+    }
+
     @Benchmark
-    public void runFullProtocol() throws Exception {
-        // You will need to rename your SmokeTest (e.g. SmokeTestN3T1) to a static
-        // method.
-        // For example, if your class has:
-        // public static void runOnce() throws Exception { …all of the steps… }
-        // then do:
-        SmokeTestN3T1.runOnce();
+    public void runFullProtocol(Before state) throws Exception {
+        for (BenchmarkState.Stage s : BenchmarkState.Stage.values()) {
+            state.run(s);
+        }
     }
 }
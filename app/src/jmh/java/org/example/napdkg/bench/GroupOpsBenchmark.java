@@ -0,0 +1,117 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DhKeyPair;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.NizkDlProof;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.example.napdkg.util.MaskedShareCHat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Fixed‐size building blocks: the two NIZKs, share masking and point
+ * (de)serialization. None of these depend on n, so there is no @Param; the
+ * n‐dependent ones are in {@link PolynomialBenchmark}.
+ *
+ * Inputs are built once per trial; every benchmark returns its result so JMH
+ * can't eliminate the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroupOpsBenchmark {
+    private DkgContext ctx;
+    private BigInteger p;
+
+    // DLEQ: x = α·G, y = α·h
+    private BigInteger alpha;
+    private ECPoint x, h, y;
+    private NizkDlEqProof dleq;
+
+    // DL: pub = sk·G
+    private DhKeyPair keyPair;
+    private NizkDlProof dl;
+
+    // masking: Ĉ = a ⊕ H′(A)
+    private ECPoint A;
+    private BigInteger share;
+    private BigInteger cHat;
+
+    private byte[] compressed;
+
+    @Setup
+    public void setup() throws Exception {
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 1, 4);
+        p = ctx.getOrder();
+        ECPoint G = ctx.getGenerator();
+        SecureRandom rnd = new SecureRandom();
+
+        alpha = new BigInteger(p.bitLength() - 1, rnd);
+        h = G.multiply(new BigInteger(p.bitLength() - 1, rnd)).normalize();
+        x = G.multiply(alpha).normalize();
+        y = h.multiply(alpha).normalize();
+        dleq = NizkDlEqProof.generateProof(ctx, x, h, y, alpha);
+
+        keyPair = DhKeyPair.generate(ctx);
+        dl = NizkDlProof.generateProof(ctx, keyPair);
+
+        share = new BigInteger(p.bitLength() - 1, rnd);
+        A = G.multiply(share).normalize();
+        cHat = MaskedShareCHat.maskShare(A, share, p);
+
+        compressed = A.getEncoded(true);
+    }
+
+    @Benchmark
+    public NizkDlEqProof dleqProve() {
+        return NizkDlEqProof.generateProof(ctx, x, h, y, alpha);
+    }
+
+    @Benchmark
+    public boolean dleqVerify() {
+        return NizkDlEqProof.verifyProof(ctx, x, h, y, dleq);
+    }
+
+    @Benchmark
+    public NizkDlProof dlProve() throws Exception {
+        return NizkDlProof.generateProof(ctx, keyPair);
+    }
+
+    @Benchmark
+    public boolean dlVerify() throws Exception {
+        return NizkDlProof.verifyProof(ctx, keyPair.getPublic(), dl);
+    }
+
+    @Benchmark
+    public BigInteger maskShare() {
+        return MaskedShareCHat.maskShare(A, share, p);
+    }
+
+    @Benchmark
+    public BigInteger unmaskShare() {
+        return MaskedShareCHat.unmaskShare(A, cHat, p);
+    }
+
+    /** Compressed decode: includes the field square root. */
+    @Benchmark
+    public ECPoint decodePoint() {
+        return ctx.getCurve().decodePoint(compressed);
+    }
+
+    @Benchmark
+    public byte[] encodePoint() {
+        return A.getEncoded(true);
+    }
+}
@@ -1,60 +1,240 @@
 package org.example.napdkg.bench;
 
 import java.io.FileReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 /**
  * After running `./gradlew jmh`, point this LogAnalyzer at
- * “build/reports/jmh/benchmarks.json” to print a nice summary table.
+ * “build/logs/benchmarks.json” to print a nice summary table.
+ *
+ * LogAnalyzer <benchmarks.json> [--budgets file] [--baseline file]
+ * [--tolerance 0.10] [--save-baseline file]
+ *
+ * With the gc profiler on (the default, see build.gradle) each row also shows
+ * bytes allocated per operation, and for the phase benchmarks per party
+ * (B/op ÷ n, since one op runs the phase for all n parties). Then:
+ *
+ * budgets per‐party allocation above its declared budget is flagged; the
+ * default budgets are allocation-budgets.json on the classpath
+ * baseline score or B/op worse than a stored run by more than the
+ * tolerance (default 10 %) is flagged
+ *
+ * Exits 1 if anything was flagged, so it can gate a build.
  */
 public class LogAnalyzer {
+
+    /** One benchmark × parameter combination from the JMH results file. */
+    static final class Row {
+        String name; // “SetupBenchmark.publishAndAwaitAllKeys”
+        Map<String, String> params = new TreeMap<>();
+        String mode;
+        double score;
+        double scoreError;
+        String unit;
+        double allocPerOp = Double.NaN; // gc.alloc.rate.norm, B/op
+
+        String key() {
+            return params.isEmpty() ? name : name + params;
+        }
+
+        /** Phase benchmarks run all n parties per op; everything else is per op. */
+        double allocPerParty() {
+            if (params.containsKey("backend") && params.containsKey("n"))
+                return allocPerOp / Integer.parseInt(params.get("n"));
+            return allocPerOp;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    /** One entry of allocation-budgets.json. */
+    static final class Budget {
+        String benchmark;
+        Map<String, String> params = new TreeMap<>();
+        long bytesPerParty;
+    }
+
     public static void main(String[] args) throws Exception {
-        if (args.length != 1) {
-            System.err.println("Usage: LogAnalyzer <path/to/benchmarks.json>");
+        if (args.length < 1) {
+            System.err.println("Usage: LogAnalyzer <path/to/benchmarks.json> [--budgets file] [--baseline file]"
+                    + " [--tolerance 0.10] [--save-baseline file]");
             System.exit(1);
         }
 
         String path = args[0];
-        Gson gson = new Gson();
-        List<Map<String, Object>> results = gson.fromJson(new FileReader(path),
-                new TypeToken<List<Map<String, Object>>>() {
-                }.getType());
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            opts.put(args[i], args[i + 1]);
+        }
+        double tolerance = Double.parseDouble(opts.getOrDefault("--tolerance", "0.10"));
 
-        System.out.println("Benchmark         Mode  Ops/sec (mean ± stdDev)");
-        System.out.println("------------------------------------------------");
+        List<Row> rows = load(path);
+        print(rows);
 
-        DecimalFormat df = new DecimalFormat("0.000");
+        List<String> flagged = new ArrayList<>();
+        List<Budget> budgets = opts.containsKey("--budgets")
+                ? loadBudgets(new FileReader(opts.get("--budgets")))
+                : loadBudgets(new InputStreamReader(
+                        LogAnalyzer.class.getResourceAsStream("/allocation-budgets.json"), StandardCharsets.UTF_8));
+        flagged.addAll(checkBudgets(rows, budgets));
+        if (opts.containsKey("--baseline")) {
+            Path baseline = Path.of(opts.get("--baseline"));
+            if (Files.exists(baseline)) {
+                flagged.addAll(checkBaseline(rows, load(baseline.toString()), tolerance));
+            } else {
+                System.out.println("(no baseline at " + baseline + " yet)");
+            }
+        }
+        if (opts.containsKey("--save-baseline")) {
+            Path to = Path.of(opts.get("--save-baseline"));
+            if (to.getParent() != null)
+                Files.createDirectories(to.getParent());
+            Files.copy(Path.of(path), to, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("baseline saved to " + to);
+        }
+
+        if (!flagged.isEmpty()) {
+            System.out.println();
+            System.out.println("REGRESSIONS (" + flagged.size() + "):");
+            flagged.forEach(f -> System.out.println("  " + f));
+            System.exit(1);
+        }
+    }
 
+    static List<Row> load(String path) throws Exception {
+        Gson gson = new Gson();
+        List<Map<String, Object>> results;
+        try (Reader r = new FileReader(path)) {
+            results = gson.fromJson(r, new TypeToken<List<Map<String, Object>>>() {
+            }.getType());
+        }
+        List<Row> rows = new ArrayList<>();
         for (Map<String, Object> entry : results) {
             // Each entry in the array is a JSON object with keys like:
             // "benchmark" :
             // "org.example.napdkg.bench.SetupBenchmark.publishAndAwaitAllKeys",
-            // "mode": "thrpt",
-            // "primaryMetric" : { "score": xxx, "scoreError": yyy, ... }
-            String benchFullName = (String) entry.get("benchmark");
-            String[] parts = benchFullName.split("\\.");
+            // "mode": "ss", "params": { "backend": "inmemory", "n": "8" },
+            // "primaryMetric" : { "score": xxx, "scoreError": yyy, ... },
+            // "secondaryMetrics" : { "·gc.alloc.rate.norm": { "score": … }, … }
+            Row row = new Row();
+            String[] parts = ((String) entry.get("benchmark")).split("\\.");
             // We just want “SetupBenchmark.publishAndAwaitAllKeys”
-            String shortName = parts[parts.length - 2] + "." + parts[parts.length - 1];
+            row.name = parts[parts.length - 2] + "." + parts[parts.length - 1];
+            row.mode = (String) entry.get("mode");
 
-            String mode = (String) entry.get("mode");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> params = (Map<String, Object>) entry.get("params");
+            if (params != null)
+                params.forEach((k, v) -> row.params.put(k, String.valueOf(v)));
 
             @SuppressWarnings("unchecked")
             Map<String, Object> primary = (Map<String, Object>) entry.get("primaryMetric");
+            row.score = ((Number) primary.get("score")).doubleValue();
+            Object err = primary.get("scoreError");
+            row.scoreError = err instanceof Number ? ((Number) err).doubleValue() : Double.NaN;
+            row.unit = (String) primary.get("scoreUnit");
+
+            @SuppressWarnings("unchecked")
+            Map<String, Map<String, Object>> secondary = (Map<String, Map<String, Object>>) entry
+                    .get("secondaryMetrics");
+            if (secondary != null) {
+                for (Map.Entry<String, Map<String, Object>> m : secondary.entrySet()) {
+                    if (m.getKey().endsWith("gc.alloc.rate.norm"))
+                        row.allocPerOp = ((Number) m.getValue().get("score")).doubleValue();
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    static List<Budget> loadBudgets(Reader r) throws Exception {
+        try (r) {
+            return new Gson().fromJson(r, new TypeToken<List<Budget>>() {
+            }.getType());
+        }
+    }
 
-            double score = ((Number) primary.get("score")).doubleValue();
-            double scoreError = ((Number) primary.get("scoreError")).doubleValue();
+    private static void print(List<Row> rows) {
+        System.out.println(String.format("%-62s %-5s %21s  %-10s %10s %12s",
+                "Benchmark", "Mode", "Score (mean ± err)", "Unit", "B/op", "B/party"));
+        System.out.println("-".repeat(127));
 
-            String line = String.format("%-35s %-5s %7s ± %5s",
-                    shortName,
-                    mode,
-                    df.format(score),
-                    df.format(scoreError));
+        DecimalFormat df = new DecimalFormat("0.000");
+        for (Row row : rows) {
+            String line = String.format("%-62s %-5s %9s ± %-9s %-10s %10s %12s",
+                    row.key(),
+                    row.mode,
+                    df.format(row.score),
+                    df.format(row.scoreError),
+                    row.unit,
+                    Double.isNaN(row.allocPerOp) ? "-" : bytes(row.allocPerOp),
+                    Double.isNaN(row.allocPerOp) ? "-" : bytes(row.allocPerParty()));
             System.out.println(line);
         }
     }
+
+    static List<String> checkBudgets(List<Row> rows, List<Budget> budgets) {
+        List<String> flagged = new ArrayList<>();
+        for (Row row : rows) {
+            if (Double.isNaN(row.allocPerOp))
+                continue;
+            for (Budget b : budgets) {
+                if (b.benchmark.equals(row.name) && row.params.entrySet().containsAll(b.params.entrySet())
+                        && row.allocPerParty() > b.bytesPerParty) {
+                    flagged.add(String.format("%s allocates %s per party, budget %s",
+                            row.key(), bytes(row.allocPerParty()), bytes(b.bytesPerParty)));
+                }
+            }
+        }
+        return flagged;
+    }
+
+    static List<String> checkBaseline(List<Row> rows, List<Row> baseline, double tolerance) {
+        Map<String, Row> before = new LinkedHashMap<>();
+        for (Row r : baseline)
+            before.put(r.key(), r);
+        List<String> flagged = new ArrayList<>();
+        for (Row now : rows) {
+            Row was = before.get(now.key());
+            if (was == null || !was.mode.equals(now.mode))
+                continue;
+            double change = now.score / was.score - 1;
+            if (now.higherIsBetter() ? change < -tolerance : change > tolerance) {
+                flagged.add(String.format("%s %s %.3f → %.3f %s (%+.1f %%)",
+                        now.key(), now.mode, was.score, now.score, now.unit, 100 * change));
+            }
+            if (!Double.isNaN(now.allocPerOp) && !Double.isNaN(was.allocPerOp)
+                    && now.allocPerOp > was.allocPerOp * (1 + tolerance)) {
+                flagged.add(String.format("%s allocation %s → %s per op (%+.1f %%)",
+                        now.key(), bytes(was.allocPerOp), bytes(now.allocPerOp),
+                        100 * (now.allocPerOp / was.allocPerOp - 1)));
+            }
+        }
+        return flagged;
+    }
+
+    private static String bytes(double b) {
+        if (b >= 1 << 20)
+            return String.format("%.2f MiB", b / (1 << 20));
+        if (b >= 1 << 10)
+            return String.format("%.1f KiB", b / (1 << 10));
+        return String.format("%.0f B", b);
+    }
 }
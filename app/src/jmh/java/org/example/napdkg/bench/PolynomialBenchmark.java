@@ -0,0 +1,122 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.GShamirShareDKG;
+import org.example.napdkg.core.Share;
+import org.example.napdkg.util.DhPvssUtils;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EvaluationTools;
+import org.example.napdkg.util.GroupGenerator;
+import org.example.napdkg.util.HashingTools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Building blocks whose cost grows with the number of parties n; the
+ * threshold is t = ⌊(n−2)/2⌋, the largest that still leaves the SCRAPE
+ * polynomial m* a positive degree n−t−2.
+ *
+ * Run a single size with e.g. {@code -p n=256}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PolynomialBenchmark {
+    @Param({ "16", "64", "256" })
+    public int n;
+
+    private int t;
+    private DkgContext ctx;
+    private BigInteger p;
+    private BigInteger[] alphas;
+
+    // a dealer's published transcript: pk_i, E[n], C[n], Ĉ[n]
+    private ECPoint dealerPub;
+    private ECPoint[] E;
+    private ECPoint[] C;
+    private BigInteger[] CHat;
+    private BigInteger[] mStar;
+
+    private BigInteger secret;
+    private Share[] quorum;
+    private int[] quorumIdx;
+
+    @Setup
+    public void setup() throws Exception {
+        t = (n - 2) / 2;
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        p = ctx.getOrder();
+        alphas = ctx.getAlphas();
+        ECPoint G = ctx.getGenerator();
+        SecureRandom rnd = new SecureRandom();
+
+        dealerPub = G.multiply(new BigInteger(p.bitLength() - 1, rnd)).normalize();
+        E = new ECPoint[n];
+        C = new ECPoint[n];
+        CHat = new BigInteger[n];
+        for (int j = 0; j < n; j++) {
+            E[j] = G.multiply(new BigInteger(p.bitLength() - 1, rnd)).normalize();
+            C[j] = G.multiply(new BigInteger(p.bitLength() - 1, rnd)).normalize();
+            CHat[j] = new BigInteger(p.bitLength() - 1, rnd);
+        }
+        mStar = HashingTools.deriveMStar(ctx, dealerPub, E, C, CHat, n, t);
+
+        secret = new BigInteger(p.bitLength() - 1, rnd);
+        Share[] shares = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, secret).shares;
+        quorum = Arrays.copyOf(shares, t + 1);
+        quorumIdx = new int[t + 1];
+        for (int k = 0; k <= t; k++)
+            quorumIdx[k] = k + 1;
+    }
+
+    /** m* = H(pk_i, E, C, Ĉ): one hash over ~n points plus the PRG expansion. */
+    @Benchmark
+    public BigInteger[] deriveMStar() throws Exception {
+        return HashingTools.deriveMStar(ctx, dealerPub, E, C, CHat, n, t);
+    }
+
+    /** m*(α₁…αₙ), Horner per point. */
+    @Benchmark
+    public BigInteger[] evalAll() {
+        return EvaluationTools.evalAll(mStar, alphas, p);
+    }
+
+    /**
+     * SCRAPE dual‐code coefficients v₁…vₙ as setup derives them: the closed
+     * form for αᵢ = i, O(n) products and a single inversion.
+     */
+    @Benchmark
+    public BigInteger[] deriveScrapeCoeffs() {
+        return DhPvssUtils.deriveSequentialScrapeCoeffs(p, n);
+    }
+
+    /** The same v₁…vₙ for arbitrary α: O(n²) products and inversions. */
+    @Benchmark
+    public BigInteger[] deriveScrapeCoeffsGeneral() {
+        return DhPvssUtils.deriveShrapeCoeffs(p, alphas, n);
+    }
+
+    /** Dealer: degree‐t polynomial, n scalar shares and their points a_i·G. */
+    @Benchmark
+    public GShamirShareDKG.ShamirSharingResult generateShares() {
+        return GShamirShareDKG.ShamirSharingResult.generateShares(ctx, secret);
+    }
+
+    /** Lagrange in the exponent over t+1 shares. */
+    @Benchmark
+    public ECPoint reconstructSecretEC() {
+        return GShamirShareDKG.ShamirSharingResult.reconstructSecretEC(ctx, quorum, quorumIdx);
+    }
+}
@@ -0,0 +1,39 @@
+// file: src/jmh/java/org/example/napdkg/bench/ReconstructionBenchmark.java
+package org.example.napdkg.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reconstruction: every party collects and prunes the threshold outputs,
+ * then rebuilds the group key and checks it against Y = G·Σ r_i.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class ReconstructionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.RECONSTRUCTION);
+        }
+    }
+
+    @Benchmark
+    public void collectAndReconstruct(Before state) throws Exception {
+        state.run(BenchmarkState.Stage.RECONSTRUCTION);
+    }
+}
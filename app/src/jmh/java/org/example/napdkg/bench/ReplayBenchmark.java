@@ -0,0 +1,137 @@
+// file: src/jmh/java/org/example/napdkg/bench/ReplayBenchmark.java
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.cli.TranscriptGenerator;
+import org.example.napdkg.client.CachingPbbClient;
+import org.example.napdkg.client.ReplayPbbClient;
+import org.example.napdkg.client.Transcript;
+import org.example.napdkg.core.DkgContextRegistry;
+import org.example.napdkg.core.DhKeyPair;
+import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.ReconstructionPhase;
+import org.example.napdkg.core.ShareVerificationPublish;
+import org.example.napdkg.core.SharingOutput;
+import org.example.napdkg.core.VerificationPhase;
+import org.example.napdkg.util.DkgContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One party's verification and reconstruction against a recorded board, so
+ * dealing is never re-run:
+ *
+ * -p transcript=build/t2000.ntr (from TranscriptGenerator … threshold)
+ * -p party=17 (whose view to take)
+ *
+ * Without a transcript an n=16 one is generated in memory at trial start.
+ * The replayed board is read‐only; the party has its own cache over it, as it
+ * would in a real run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class ReplayBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Replay {
+        @Param({ "" })
+        public String transcript;
+
+        @Param({ "0" })
+        public int party;
+
+        Transcript tr;
+        ReplayPbbClient board;
+        DkgContext ctx;
+        ECPoint groupKey;
+
+        @Setup(Level.Trial)
+        public void load() throws Exception {
+            tr = transcript.isEmpty()
+                    ? TranscriptGenerator.generate(16, 6, 1, true, Runtime.getRuntime().availableProcessors())
+                    : Transcript.read(Path.of(transcript));
+            if (tr.header.secretKeys.size() <= party) {
+                throw new IllegalStateException("transcript has no secret key for party " + party);
+            }
+            board = new ReplayPbbClient(tr);
+            ctx = DkgContextRegistry.get(tr.header.t, tr.header.n);
+            groupKey = tr.header.groupKey == null ? null
+                    : ctx.getGenerator().getCurve().decodePoint(Hex.decode(tr.header.groupKey));
+        }
+
+        /** A fresh view of the board as {@code party}, with its recorded ephemeral key. */
+        PartyContext partyView() {
+            CachingPbbClient cache = new CachingPbbClient(board);
+            cache.markImmutable(Transcript.EPHEMERAL_KEYS);
+            PartyContext P = new PartyContext(party, ctx, cache, tr.header.n, tr.header.t, tr.header.fa);
+            BigInteger sk = new BigInteger(tr.header.secretKeys.get(party), 16);
+            P.ephKey = new DhKeyPair(sk, ctx.getGenerator().multiply(sk).normalize());
+            return P;
+        }
+
+        VerificationPhase verifier() {
+            VerificationPhase vp = new VerificationPhase(partyView());
+            if (groupKey != null)
+                vp.setTrueGroupKey(groupKey);
+            return vp;
+        }
+    }
+
+    /** The party after verifying every dealer, i.e. holding Q1. */
+    @State(Scope.Benchmark)
+    public static class Verified {
+        VerificationPhase vp;
+
+        @Setup(Level.Iteration)
+        public void verify(Replay r) throws Exception {
+            if (r.tr.count(Transcript.SHARE_VERIFICATION) < r.tr.header.t + r.tr.header.fa) {
+                throw new IllegalStateException("transcript has too few threshold outputs;"
+                        + " generate it with \"threshold\"");
+            }
+            vp = r.verifier();
+            for (int dealer = 0; dealer < r.tr.header.n; dealer++) {
+                vp.VerifySharesFor(dealer);
+            }
+        }
+    }
+
+    /** Verification of all n dealers by one party. */
+    @Benchmark
+    public List<SharingOutput> verifyAllDealers(Replay r) throws Exception {
+        VerificationPhase vp = r.verifier();
+        for (int dealer = 0; dealer < r.tr.header.n; dealer++) {
+            vp.VerifySharesFor(dealer);
+        }
+        return vp.getQ1();
+    }
+
+    /** Collect and prune Q2, then rebuild Y, as the phase benchmarks do. */
+    @Benchmark
+    public void reconstruct(Verified v) throws Exception {
+        List<ShareVerificationPublish> Q2 = v.vp.collectAndPruneThresholdOutputs();
+        v.vp.finalReconstruction(v.vp.getQ1(), Q2);
+    }
+
+    /** The standalone ReconstructionPhase over the same Q1. */
+    @Benchmark
+    public void reconstructionPhase(Replay r, Verified v) throws Exception {
+        new ReconstructionPhase(r.partyView()).runReconstruction(v.vp.getQ1());
+    }
+}
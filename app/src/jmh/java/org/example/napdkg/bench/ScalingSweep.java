@@ -0,0 +1,242 @@
+// file: src/jmh/java/org/example/napdkg/bench/ScalingSweep.java
+package org.example.napdkg.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Capacity-planning sweep: whole DKGs over the in‐memory board, one JVM, for
+ * every n in a list and every threshold ratio t/n, then a power‐law fit
+ * time ≈ a·nᵇ per phase and ratio.
+ *
+ * Not a JMH benchmark: the interesting output is the curve across n, and the
+ * larger points take minutes per run, so JMH's forks and iterations buy
+ * nothing. One untimed run at the smallest n warms up the JIT first.
+ *
+ * Usage: ScalingSweep [nList] [ratioList] [outDir] [reps]
+ * defaults 16,32,64,128,256,512,1024 0.1,0.25,0.45 build/scaling 1
+ * or ./gradlew scalingSweep --args="16,32,64 0.25 build/scaling 3"
+ *
+ * t = clamp(round(ratio·n), 1, n−3), since m* needs degree n−t−2 ≥ 1. With
+ * reps > 1 every number is the median over the reps.
+ *
+ * Writes scaling.csv (one row per point) and scaling.json (points plus fits).
+ * Progress goes to stderr; the parties' own logging stays on stdout, so
+ * redirect it for the large points.
+ */
+public class ScalingSweep {
+
+    /** One (n, t) point. */
+    public static final class Point {
+        public int n;
+        public int t;
+        public double ratio;
+        public Map<BenchmarkState.Stage, Double> phaseMs = new EnumMap<>(BenchmarkState.Stage.class);
+        public double totalMs;
+        /** Final board contents as JSON, all topics. */
+        public long boardBytes;
+        /** Σ per-pool heap peaks during the run, uncollected garbage included. */
+        public long peakHeapBytes;
+    }
+
+    /** time ≈ a·nᵇ for one phase at one ratio, least squares in log–log. */
+    public static final class Fit {
+        public double ratio;
+        public String phase;
+        public double exponent;
+        public double coefficientMs;
+        public double r2;
+        public int points;
+    }
+
+    public static final class Result {
+        public List<Point> points = new ArrayList<>();
+        public List<Fit> fits = new ArrayList<>();
+    }
+
+    private static final String[] TOPICS = { "ephemeralKeys", "DealerPublish", "ShareVerificationOutput" };
+
+    public static void main(String[] args) throws Exception {
+        int[] ns = Arrays.stream(arg(args, 0, "16,32,64,128,256,512,1024").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        double[] ratios = Arrays.stream(arg(args, 1, "0.1,0.25,0.45").split(","))
+                .mapToDouble(s -> Double.parseDouble(s.trim())).toArray();
+        Path out = Path.of(arg(args, 2, "build/scaling"));
+        int reps = Integer.parseInt(arg(args, 3, "1"));
+
+        Files.createDirectories(out);
+        System.err.printf("scaling sweep: n=%s ratios=%s reps=%d → %s%n",
+                Arrays.toString(ns), Arrays.toString(ratios), reps, out.toAbsolutePath());
+
+        // warm-up: one untimed run at the smallest size
+        measure(Arrays.stream(ns).min().getAsInt(), ratios[0]);
+
+        Result result = new Result();
+        for (double ratio : ratios) {
+            for (int n : ns) {
+                List<Point> runs = new ArrayList<>(reps);
+                for (int r = 0; r < reps; r++) {
+                    runs.add(measure(n, ratio));
+                }
+                Point p = median(runs);
+                result.points.add(p);
+                System.err.printf("n=%4d t=%4d total %10.1f ms  board %,d B  peak heap %,d MB  %s%n",
+                        p.n, p.t, p.totalMs, p.boardBytes, p.peakHeapBytes >> 20, p.phaseMs);
+                // rewritten after every point so a long sweep leaves partial results behind
+                Files.writeString(out.resolve("scaling.csv"), toCsv(result.points));
+            }
+        }
+        result.fits = fit(result.points);
+        for (Fit f : result.fits) {
+            System.err.printf("t/n=%.2f %-15s time ≈ %.3g ms · n^%.2f (R² %.3f, %d points)%n",
+                    f.ratio, f.phase, f.coefficientMs, f.exponent, f.r2, f.points);
+        }
+        Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+        Files.writeString(out.resolve("scaling.json"), gson.toJson(result));
+        System.exit(0);
+    }
+
+    private static String arg(String[] args, int i, String dflt) {
+        return args.length > i ? args[i] : dflt;
+    }
+
+    /** One full DKG on a fresh in-memory board. */
+    static Point measure(int n, double ratio) throws Exception {
+        BenchmarkState s = new BenchmarkState();
+        s.backend = "inmemory";
+        s.n = n;
+        s.init(Math.max(1, Math.min(n - 3, (int) Math.round(ratio * n))));
+        s.freshRun(BenchmarkState.Stage.SETUP);
+
+        List<MemoryPoolMXBean> heap = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heap.add(pool);
+            }
+        }
+        System.gc();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        Point p = new Point();
+        p.n = n;
+        p.t = s.t;
+        p.ratio = ratio;
+        for (BenchmarkState.Stage stage : BenchmarkState.Stage.values()) {
+            long t0 = System.nanoTime();
+            s.run(stage);
+            double ms = (System.nanoTime() - t0) / 1e6;
+            p.phaseMs.put(stage, ms);
+            p.totalMs += ms;
+        }
+        for (MemoryPoolMXBean pool : heap) {
+            p.peakHeapBytes += pool.getPeakUsage().getUsed();
+        }
+        Gson gson = new Gson();
+        for (String topic : TOPICS) {
+            for (Object msg : s.pbb.fetch(topic, Object.class)) {
+                p.boardBytes += gson.toJson(msg).getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return p;
+    }
+
+    /** Element-wise median over repeated runs of the same point. */
+    private static Point median(List<Point> runs) {
+        if (runs.size() == 1)
+            return runs.get(0);
+        Point m = new Point();
+        m.n = runs.get(0).n;
+        m.t = runs.get(0).t;
+        m.ratio = runs.get(0).ratio;
+        for (BenchmarkState.Stage stage : BenchmarkState.Stage.values()) {
+            m.phaseMs.put(stage, median(runs.stream().mapToDouble(r -> r.phaseMs.get(stage)).toArray()));
+        }
+        m.totalMs = median(runs.stream().mapToDouble(r -> r.totalMs).toArray());
+        m.boardBytes = (long) median(runs.stream().mapToDouble(r -> r.boardBytes).toArray());
+        m.peakHeapBytes = (long) median(runs.stream().mapToDouble(r -> r.peakHeapBytes).toArray());
+        return m;
+    }
+
+    private static double median(double[] xs) {
+        Arrays.sort(xs);
+        int k = xs.length / 2;
+        return xs.length % 2 == 1 ? xs[k] : (xs[k - 1] + xs[k]) / 2;
+    }
+
+    /** Per ratio: each phase and the total, log(ms) = log(a) + b·log(n). */
+    static List<Fit> fit(List<Point> points) {
+        Map<Double, List<Point>> byRatio = new LinkedHashMap<>();
+        for (Point p : points) {
+            byRatio.computeIfAbsent(p.ratio, r -> new ArrayList<>()).add(p);
+        }
+        List<Fit> fits = new ArrayList<>();
+        for (Map.Entry<Double, List<Point>> e : byRatio.entrySet()) {
+            List<Point> ps = e.getValue();
+            if (ps.size() < 2)
+                continue;
+            double[] x = ps.stream().mapToDouble(p -> Math.log(p.n)).toArray();
+            for (BenchmarkState.Stage stage : BenchmarkState.Stage.values()) {
+                fits.add(powerLaw(e.getKey(), stage.name(), x,
+                        ps.stream().mapToDouble(p -> p.phaseMs.get(stage)).toArray()));
+            }
+            fits.add(powerLaw(e.getKey(), "TOTAL", x, ps.stream().mapToDouble(p -> p.totalMs).toArray()));
+        }
+        return fits;
+    }
+
+    static Fit powerLaw(double ratio, String phase, double[] logN, double[] ms) {
+        int k = logN.length;
+        double[] y = new double[k];
+        double mx = 0, my = 0;
+        for (int i = 0; i < k; i++) {
+            y[i] = Math.log(Math.max(ms[i], 1e-3)); // sub-µs phases would otherwise be log(0)
+            mx += logN[i];
+            my += y[i];
+        }
+        mx /= k;
+        my /= k;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int i = 0; i < k; i++) {
+            sxy += (logN[i] - mx) * (y[i] - my);
+            sxx += (logN[i] - mx) * (logN[i] - mx);
+            syy += (y[i] - my) * (y[i] - my);
+        }
+        Fit f = new Fit();
+        f.ratio = ratio;
+        f.phase = phase;
+        f.points = k;
+        f.exponent = sxy / sxx;
+        f.coefficientMs = Math.exp(my - f.exponent * mx);
+        f.r2 = syy == 0 ? 1.0 : (sxy * sxy) / (sxx * syy);
+        return f;
+    }
+
+    static String toCsv(List<Point> points) {
+        StringBuilder sb = new StringBuilder("n,t,ratio");
+        for (BenchmarkState.Stage stage : BenchmarkState.Stage.values()) {
+            sb.append(',').append(stage.name().toLowerCase()).append("Ms");
+        }
+        sb.append(",totalMs,boardBytes,peakHeapBytes\n");
+        for (Point p : points) {
+            sb.append(p.n).append(',').append(p.t).append(',').append(p.ratio);
+            for (BenchmarkState.Stage stage : BenchmarkState.Stage.values()) {
+                sb.append(String.format(",%.3f", p.phaseMs.get(stage)));
+            }
+            sb.append(String.format(",%.3f,%d,%d%n", p.totalMs, p.boardBytes, p.peakHeapBytes));
+        }
+        return sb.toString();
+    }
+}
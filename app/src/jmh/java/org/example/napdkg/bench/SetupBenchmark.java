@@ -1,25 +1,36 @@
 // file: src/jmh/java/org/example/napdkg/bench/SetupBenchmark.java
 package org.example.napdkg.bench;
 
-import org.example.napdkg.core.SetupPhasePublisher;
-import org.example.napdkg.core.SetupPhaseWaiter;
+import java.util.concurrent.TimeUnit;
+
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
 
+/** Setup: every party publishes its ephemeral key, then waits for all n. */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
 public class SetupBenchmark {
 
-    @Benchmark
-    public void publishAndAwaitAllKeys(BenchmarkState state) throws Exception {
-        var parties = state.parties;
-        int n = state.n;
-
-        // (A) Publish ephemeral keys for all n parties
-        for (var P : parties) {
-            SetupPhasePublisher.publishEphemeralKey(P);
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.SETUP);
         }
+    }
 
-        // (B) Wait until each party sees all n ephemeral keys
-        for (var P : parties) {
-            SetupPhaseWaiter.awaitAllEphemeralKeys(P, n);
-        }
+    @Benchmark
+    public void publishAndAwaitAllKeys(Before state) throws Exception {
+        state.run(BenchmarkState.Stage.SETUP);
     }
 }
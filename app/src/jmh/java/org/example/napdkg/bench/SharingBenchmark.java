@@ -1,43 +1,69 @@
+// file: src/jmh/java/org/example/napdkg/bench/SharingBenchmark.java
+package org.example.napdkg.bench;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.example.napdkg.core.PartyContext;
-import org.example.napdkg.core.SharingPhase;
+import org.example.napdkg.core.PrecomputationPool;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
 
-package org.e
-
-import java.util.List;
-
-import org.openjdk.jmh.annotations.Benchmark;
+/**
+ * Sharing: every party deals (runSharingAsDealer2). Setup is already on the
+ * board, so the awaited key fetch returns at once.
+ *
+ * With precompute=true every party has a full {@link PrecomputationPool}
+ * before the iteration starts, so what is timed is the online part only:
+ * encryption under the others' keys, the SCRAPE sums and a₂ of the proof.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class SharingBenchmark {
 
-import org.example.napdkg.core.SharingPhase;
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Param({ "false", "true" })
+        public boolean precompute;
 
-public class SharingBenchmark {
+        private final List<PrecomputationPool> pools = new ArrayList<>();
 
-    @Benchmark
-    public void generateAndPublishShares(BenchmarkState state) throws Exception {
-        List<PartyContext> parties = state.parties;
-        int            n          = state.n;
-        int            t          = state.t;
-
-        // (A) Clear any old “DealerPublish” entries on the PBB
-        for (var each : state.pbb.fetch("DealerPublish", 
-                     org.example.napdkg.dto.SharingOutputDTO.class)) {
-            state.pbb.delete("DealerPublish", each.id);
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.SHARING);
+            if (precompute) {
+                for (PartyContext P : parties) {
+                    PrecomputationPool pool = new PrecomputationPool(ctx,
+                            new PrecomputationPool.Options().dealings(1).nonces(1));
+                    pool.fill();
+                    pools.add(pool);
+                    P.precomp = pool;
+                }
+            }
         }
 
-        // (B) Now, each party runs runSharingAsDealer2()
-        for (var P : parties) {
-            var sp = new SharingPhase(P, t);
-            sp.runSharingAsDealer2();
+        @TearDown(Level.Iteration)
+        public void closePools() {
+            pools.forEach(PrecomputationPool::close);
+            pools.clear();
         }
+    }
 
-        // (C) Block until at least (t+fa) DealerPublish messages appear
-        List<?> shares;
-        do {
-            Thread.sleep(200);
-            shares = state.pbb.fetch("DealerPublish", 
-                         org.example.napdkg.dto.SharingOutputDTO.class);
-        } while (shares.size() < (state.t + state.fa));
+    @Benchmark
+    public void generateAndPublishShares(Before state) throws Exception {
+        state.run(BenchmarkState.Stage.SHARING);
     }
 }
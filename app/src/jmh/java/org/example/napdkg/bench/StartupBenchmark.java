@@ -0,0 +1,133 @@
+// file: src/jmh/java/org/example/napdkg/bench/StartupBenchmark.java
+package org.example.napdkg.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Time to first publish of a fresh party process, without and with the
+ * AppCDS archive from {@code ./gradlew appCds}:
+ *
+ * StartupBenchmark [installDir] [reps] [outFile]
+ * defaults build/install/app 10 build/startup.json
+ * or ./gradlew startupBench
+ *
+ * Each launch runs {@code FirstPublish} in a new JVM with the installed
+ * distribution's classpath (read from lib/napdkg.classpath, which appCds
+ * writes — an archive only maps for the exact classpath it was dumped
+ * with) and is timed from spawn to its "first-publish" line. Modes:
+ *
+ * off -Xshare:off, every class parsed from its jar
+ * jdk the JDK's default CDS archive (java.base etc. only)
+ * appcds lib/napdkg.jsa on top of it: BouncyCastle, Gson and ours too
+ *
+ * Launches are interleaved across modes so background noise hits all of
+ * them alike; reported numbers are medians.
+ *
+ * Not a JMH benchmark: JMH measures inside one JVM, and what is measured
+ * here is the JVM.
+ */
+public class StartupBenchmark {
+
+    public static final class ModeResult {
+        public String mode;
+        public List<String> jvmArgs;
+        /** Spawn → "first-publish" line, as the launcher sees it. */
+        public double medianSpawnMs;
+        /** main() → publish done, as FirstPublish reports it. */
+        public double medianMainMs;
+        public double[] spawnMs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path home = Path.of(args.length > 0 ? args[0] : "build/install/app");
+        int reps = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Path out = Path.of(args.length > 2 ? args[2] : "build/startup.json");
+
+        Path cpFile = home.resolve("lib/napdkg.classpath");
+        Path archive = home.resolve("lib/napdkg.jsa");
+        if (!Files.exists(cpFile) || !Files.exists(archive)) {
+            throw new IllegalStateException("no AppCDS archive under " + home + "/lib; run ./gradlew appCds first");
+        }
+        String classpath = Files.readString(cpFile).trim();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("off", List.of("-Xshare:off"));
+        modes.put("jdk", List.of("-Xshare:auto"));
+        modes.put("appcds", List.of("-XX:SharedArchiveFile=" + archive.toAbsolutePath(), "-Xshare:auto"));
+
+        Map<String, double[]> spawn = new LinkedHashMap<>();
+        Map<String, double[]> main = new LinkedHashMap<>();
+        modes.keySet().forEach(m -> {
+            spawn.put(m, new double[reps]);
+            main.put(m, new double[reps]);
+        });
+        for (int r = 0; r < reps; r++) {
+            for (Map.Entry<String, List<String>> m : modes.entrySet()) {
+                double[] t = launch(java, m.getValue(), classpath);
+                spawn.get(m.getKey())[r] = t[0];
+                main.get(m.getKey())[r] = t[1];
+            }
+        }
+
+        List<ModeResult> results = new ArrayList<>();
+        System.out.printf("time to first publish, median of %d launches:%n", reps);
+        for (Map.Entry<String, List<String>> m : modes.entrySet()) {
+            ModeResult res = new ModeResult();
+            res.mode = m.getKey();
+            res.jvmArgs = m.getValue();
+            res.spawnMs = spawn.get(m.getKey());
+            res.medianSpawnMs = median(res.spawnMs);
+            res.medianMainMs = median(main.get(m.getKey()));
+            results.add(res);
+            System.out.printf("  %-7s spawn→publish %7.1f ms   main→publish %7.1f ms%n",
+                    res.mode, res.medianSpawnMs, res.medianMainMs);
+        }
+        if (out.getParent() != null)
+            Files.createDirectories(out.getParent());
+        Files.writeString(out, new GsonBuilder().setPrettyPrinting().create().toJson(results));
+    }
+
+    /** @return {spawn→line ms, main→publish ms} for one launch */
+    private static double[] launch(String java, List<String> jvmArgs, String classpath) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        cmd.addAll(jvmArgs);
+        cmd.addAll(Arrays.asList("-cp", classpath, "org.example.napdkg.cli.FirstPublish"));
+        long t0 = System.nanoTime();
+        Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        double spawnMs = -1, mainMs = -1;
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("first-publish ")) {
+                    spawnMs = (System.nanoTime() - t0) / 1e6;
+                    mainMs = Double.parseDouble(line.substring("first-publish ".length()).trim());
+                }
+            }
+        }
+        if (p.waitFor() != 0 || spawnMs < 0) {
+            throw new IllegalStateException("FirstPublish failed (exit " + p.exitValue() + "): " + cmd);
+        }
+        return new double[] { spawnMs, mainMs };
+    }
+
+    private static double median(double[] xs) {
+        double[] s = xs.clone();
+        Arrays.sort(s);
+        int m = s.length / 2;
+        return s.length % 2 == 1 ? s[m] : (s[m - 1] + s[m]) / 2;
+    }
+}
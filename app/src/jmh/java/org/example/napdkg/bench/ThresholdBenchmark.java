@@ -1,57 +1,39 @@
+// file: src/jmh/java/org/example/napdkg/bench/ThresholdBenchmark.java
 package org.example.napdkg.bench;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import org.example.napdkg.core.PartyContext;
-import org.example.napdkg.core.ShareVerificationPublish;
-import org.example.napdkg.core.VerificationPhase;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Threshold: every party publishes its aggregated share with its DLEQ proof.
+ * Reconstruction from those outputs is {@link ReconstructionBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
 public class ThresholdBenchmark {
 
-    @Setup(Level.Invocation)
-    public void prepareVerifiers(BenchmarkState state) throws Exception {
-        // Ensure each party has done VerificationPhase.VerifySharesFor(...) for all
-        // dealers
-        // and has published its threshold output.
-
-        int needed = state.t + state.fa;
-
-        // 1) If necessary, run the sharing‐and‐verification so that we have enough
-        // “valid” shares
-        // (basically same as in VerificationBenchmark).
-        // We skip that here, assuming VerificationBenchmark already ran.
-
-        // 2) Now each party publishes its threshold output
-        for (PartyContext P : state.parties) {
-            VerificationPhase vp = new VerificationPhase(P);
-            vp.publishThresholdOutput();
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.THRESHOLD);
         }
-
-        // 3) Make sure at least (t + fa) threshold outputs exist in
-        // "ShareVerificationOutput"
-        List<ShareVerificationPublish> all;
-        do {
-            Thread.sleep(100);
-            all = state.pbb.fetch("ShareVerificationOutput", ShareVerificationPublish.class);
-        } while (all.size() < needed);
     }
 
     @Benchmark
-    public void publishAndReconstructThreshold(BenchmarkState state) throws Exception {
-        int needed = state.t + state.fa;
-
-        // 4) Each party collects Q2 = ‘needed’ threshold outputs and calls
-        // finalReconstruction
-        for (PartyContext P : state.parties) {
-            VerificationPhase vp = new VerificationPhase(P);
-
-            // A) Collect + prune threshold outputs
-            List<ShareVerificationPublish> Q2 = vp.collectAndPruneThresholdOutputs();
-
-            // B) Reconstruct group key (inside finalReconstruction):
-            vp.finalReconstruction(vp.getQ1(), Q2);
-        }
+    public void publishThresholdOutputs(Before state) throws Exception {
+        state.run(BenchmarkState.Stage.THRESHOLD);
     }
 }
@@ -1,44 +1,39 @@
+// file: src/jmh/java/org/example/napdkg/bench/VerificationBenchmark.java
 package org.example.napdkg.bench;
 
-import org.example.napdkg.core.SharingPhase;
-import org.example.napdkg.core.VerificationPhase;
-import org.example.napdkg.dto.SharingOutputDTO;
+import java.util.concurrent.TimeUnit;
+
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
 
-import java.util.List;
-
+/**
+ * Verification: every party checks all n dealers' transcripts (DLEQ,
+ * SCRAPE check, unmasking its own share).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
 public class VerificationBenchmark {
 
-    @Setup(Level.Invocation)
-    public void prepareShares(BenchmarkState state) throws Exception {
-        // Ensure there are at least (t + fa) DealerPublish outputs on the PBB, so that verification can proceed.
-        int needed = state.t + state.fa;
-        List<SharingOutputDTO> existing = state.pbb.fetch("DealerPublish", SharingOutputDTO.class);
-        if (existing.size() < needed) {
-            // If not enough, force‐run the sharing phase for everyone (just like in SharingBenchmark).
-            for (PartyContext P : state.parties) {
-                SharingPhase sp = new SharingPhase(P, state.t);
-                sp.runSharingAsDealer2();
-            }
-            // Wait until threshold reached
-            List<SharingOutputDTO> all;
-            do {
-                Thread.sleep(100);
-                all = state.pbb.fetch("DealerPublish", SharingOutputDTO.class);
-            } while (all.size() < needed);
+    @State(Scope.Benchmark)
+    public static class Before extends BenchmarkState {
+        @Setup(Level.Iteration)
+        public void prepare() throws Exception {
+            freshRun(Stage.VERIFICATION);
         }
     }
 
     @Benchmark
-    public void verifyAllShares(BenchmarkState state) throws Exception {
-        // For each party, run VerificationPhase.VerifySharesFor(dealerIndex) for all dealers 0..n−1:
-        for (PartyContext P : state.parties) {
-            VerificationPhase vp = new VerificationPhase(P);
-            for (int dealerIndex = 0; dealerIndex < state.n; dealerIndex++) {
-                vp.VerifySharesFor(dealerIndex);
-            }
-        }
+    public void verifyAllShares(Before state) throws Exception {
+        state.run(BenchmarkState.Stage.VERIFICATION);
     }
 }
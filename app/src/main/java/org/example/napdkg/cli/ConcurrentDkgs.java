@@ -0,0 +1,32 @@
+package org.example.napdkg.cli;
+
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.core.ConcurrentDkgRunner;
+import org.example.napdkg.server.PbbServer;
+
+/**
+ * Throughput of independent key ceremonies on one board:
+ *
+ * ConcurrentDkgs [sessions=32,threads=8,n=8,t=3,precompute=true]
+ *
+ * runs them against -Dpbb.url if given, else an in‐process PbbServer, and
+ * prints the {@link ConcurrentDkgRunner.Report}, DKGs per minute included.
+ * Exits non‐zero if any session failed.
+ */
+public class ConcurrentDkgs {
+
+    public static void main(String[] args) throws Exception {
+        ConcurrentDkgRunner.Options o = ConcurrentDkgRunner.Options.parse(args.length > 0 ? args[0] : null);
+        String url = System.getProperty("pbb.url");
+        ConcurrentDkgRunner.Report r;
+        if (url != null) {
+            r = ConcurrentDkgRunner.run(new HttpPbbClient(url), o);
+        } else {
+            try (PbbServer board = PbbServer.start(0)) {
+                r = ConcurrentDkgRunner.run(new HttpPbbClient(board.baseUrl()), o);
+            }
+        }
+        System.out.println(r);
+        System.exit(r.failed == 0 ? 0 : 1);
+    }
+}
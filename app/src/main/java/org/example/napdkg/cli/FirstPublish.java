@@ -0,0 +1,45 @@
+package org.example.napdkg.cli;
+
+import java.util.Locale;
+
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.SetupPhasePublisher;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+
+/**
+ * The start of a short‐lived party process, up to its first board write:
+ *
+ * FirstPublish [n] [t] [party]
+ *
+ * builds the context, generates the ephemeral key and its DL proof and
+ * publishes it (to -Dpbb.url if given, else an in‐memory board), then prints
+ *
+ * first-publish <ms since main()>
+ *
+ * and exits. StartupBenchmark launches it with and without the AppCDS
+ * archive and times it from process spawn; it is also a cheap AppCDS
+ * training run for the setup path.
+ */
+public class FirstPublish {
+
+    public static void main(String[] args) throws Exception {
+        long t0 = System.nanoTime();
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int t = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int party = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        String url = System.getProperty("pbb.url");
+        PbbClient pbb = url == null ? new InMemoryPbbClient() : new HttpPbbClient(url);
+        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        PartyContext P = new PartyContext(party, ctx, pbb, n, t, 1);
+        SetupPhasePublisher.publishEphemeralKey(P);
+
+        System.out.printf(Locale.ROOT, "first-publish %.1f%n", (System.nanoTime() - t0) / 1e6);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.napdkg.cli;
+
+import java.nio.file.Path;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.core.CheckpointStore;
+import org.example.napdkg.core.CheckpointedParty;
+import org.example.napdkg.core.DkgContextRegistry;
+import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.PrecomputationPool;
+import org.example.napdkg.util.DkgContext;
+
+/**
+ * One party of a DKG as its own process, against the board at -Dpbb.url:
+ *
+ * PartyProcess <n> <t> <party> <checkpointDir> [keyFile]
+ *
+ * checkpointing into checkpointDir (key from keyFile, default
+ * checkpointDir/../checkpoint.key, created if missing). Started again after
+ * a crash with the same arguments, it resumes from its last checkpoint. Prints
+ * "Y <hex>" when done. With -Dnapdkg.precompute[=dealings=…,nonces=…] the
+ * dealing and proof nonces are computed in the background while the party
+ * waits for the others' keys.
+ */
+public class PartyProcess {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: PartyProcess <n> <t> <party> <checkpointDir> [keyFile]");
+            System.exit(1);
+        }
+        int n = Integer.parseInt(args[0]);
+        int t = Integer.parseInt(args[1]);
+        int party = Integer.parseInt(args[2]);
+        Path dir = Path.of(args[3]).toAbsolutePath();
+        Path keyFile = args.length > 4 ? Path.of(args[4]) : dir.resolveSibling("checkpoint.key");
+        String url = System.getProperty("pbb.url");
+        if (url == null) {
+            System.err.println("-Dpbb.url is required");
+            System.exit(1);
+        }
+
+        DkgContext ctx = DkgContextRegistry.get(t, n);
+        PrecomputationPool pool = PrecomputationPool.fromSystemProperty(ctx);
+        try (CheckpointStore store = new CheckpointStore(dir, CheckpointStore.readOrCreateKey(keyFile))) {
+            PartyContext P = new PartyContext(party, ctx, new HttpPbbClient(url), n, t, 1);
+            P.precomp = pool;
+            CheckpointedParty me = new CheckpointedParty(P, store);
+            me.resume();
+            ECPoint Y = me.run();
+            System.out.println("Y " + Hex.toHexString(Y.getEncoded(true)));
+        } finally {
+            if (pool != null)
+                pool.close();
+        }
+        System.exit(0);
+    }
+}
@@ -1,42 +1,67 @@
 package org.example.napdkg.cli;
 
 import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.bouncycastle.math.ec.ECPoint;
-import org.example.napdkg.client.GsonFactory;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.CachingPbbClient;
 import org.example.napdkg.client.HttpPbbClient;
 import org.example.napdkg.client.InstrumentedPbbClient;
 import org.example.napdkg.client.PbbClient;
-import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.client.SessionPbbClient;
+import org.example.napdkg.client.Transcript;
+import org.example.napdkg.core.DkgContextRegistry;
 import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.PhaseMetrics;
 import org.example.napdkg.core.SetupPhasePublisher;
 import org.example.napdkg.core.SetupPhaseWaiter;
 import org.example.napdkg.core.ShareVerificationPublish;
 import org.example.napdkg.core.SharingPhase;
 import org.example.napdkg.core.VerificationPhase;
+import org.example.napdkg.core.WarmUp;
 import org.example.napdkg.dto.EphemeralKeyDTO;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.server.PbbServer;
 import org.example.napdkg.util.DkgContext;
-import org.example.napdkg.util.GroupGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 public class SmokeTestN3T1 {
 
+    /**
+     * Runs against an in‐process {@link PbbServer}, or against an external
+     * board (e.g. json-server) when {@code -Dpbb.url=http://127.0.0.1:3010} is
+     * given. {@code -Dnapdkg.warmup=true} (or e.g. {@code =n=16,rounds=10})
+     * first runs {@link WarmUp} sessions in memory. {@code -Dnapdkg.session=id}
+     * runs in that session's topics (see {@link SessionPbbClient}) instead of
+     * clearing the board's plain ones first.
+     */
     public static void runOnce() throws Exception {
+        WarmUp.fromSystemProperty();
+        String external = System.getProperty("pbb.url");
+        if (external != null) {
+            runOnce(external);
+            return;
+        }
+        try (PbbServer board = PbbServer.start(0)) {
+            runOnce(board.baseUrl());
+        }
+    }
+
+    private static void runOnce(String boardUrl) throws Exception {
         final Logger log = LoggerFactory.getLogger(SmokeTestN3T1.class);
         int n = 8, t = 3, fa = 1;
 
-        // 1) Generate the group params (secp256r1 or whichever your code uses)
-        GroupGenerator.GroupParameters gp = GroupGenerator.generateGroup();
-        // 2) Build the DkgContext with n=3, t=1
-        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(gp, t, n);
+        // 1–2) The shared context for (t, n): group params, α, v and tables
+        DkgContext ctx = DkgContextRegistry.get(t, n);
         BigInteger[] α = ctx.getAlphas();
         BigInteger[] v = ctx.getVs();
         System.out.println(" α = " + Arrays.toString(α));
@@ -44,54 +69,65 @@ public class SmokeTestN3T1 {
         BigInteger order = ctx.getOrder();
         System.out.println("order is  " + order.toString(16));
 
-        Gson gson = GsonFactory.createGson();
         // 3) Initialize the Public Bulletin Board
-        // Adjust the URL if needed for your local PBB
-        PbbClient raw = new HttpPbbClient("http://127.0.0.1:3010");
-        PbbClient pbb = new InstrumentedPbbClient(raw, gson);
-
-        log.info("Clearing old ephemeralKeys, old shares, old thresholds...");
-        // Clear out old ephemeral keys, shares, threshold outputs, etc.
-        for (EphemeralKeyDTO e : pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class)) {
-            pbb.delete("ephemeralKeys", e.id);
-        }
-        for (SharingOutputDTO sh : pbb.fetch("DealerPublish", SharingOutputDTO.class)) {
-            pbb.delete("DealerPublish", sh.id);
-        }
-        for (ShareVerificationOutputDTO so : pbb.fetch("ShareVerificationOutput", ShareVerificationOutputDTO.class)) {
-            pbb.delete("ShareVerificationOutput", so.id);
+        PbbClient raw = new HttpPbbClient(boardUrl);
+        // the cache sits outside the instrumentation, so only real board traffic is counted
+        // a small run, so also size every message in both formats for the report
+        InstrumentedPbbClient traffic = new InstrumentedPbbClient(raw, new GsonBuilder().setPrettyPrinting().create(), true);
+        CachingPbbClient pbb = new CachingPbbClient(traffic);
+
+        String session = System.getProperty("napdkg.session", "");
+        if (session.isEmpty()) {
+            log.info("Clearing old ephemeralKeys, old shares, old thresholds...");
+            // Clear out old ephemeral keys, shares, threshold outputs, etc.
+            for (EphemeralKeyDTO e : pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class)) {
+                pbb.delete("ephemeralKeys", e.id);
+            }
+            for (SharingOutputDTO sh : pbb.fetch("DealerPublish", SharingOutputDTO.class)) {
+                pbb.delete("DealerPublish", sh.id);
+            }
+            for (ShareVerificationOutputDTO so : pbb.fetch("ShareVerificationOutput",
+                    ShareVerificationOutputDTO.class)) {
+                pbb.delete("ShareVerificationOutput", so.id);
+            }
+        } else {
+            log.info("Running in session {}", session);
         }
 
+        PhaseMetrics metrics = new PhaseMetrics();
+
         // 4) Create exactly n=3 PartyContext objects
         List<PartyContext> parties = new ArrayList<>(n);
         for (int i = 0; i < n; i++) {
-            parties.add(new PartyContext(i, ctx, pbb, n, t, fa));
+            parties.add(new PartyContext(i, ctx, pbb, n, t, fa, session));
         }
         BigInteger[] vs = ctx.getVs();
         System.out.println("Here are the vs from SMOKETESTN3T1 environment " + Arrays.toString(vs));
         // 5) Publish ephemeral keys
         log.info("Publishing ephemeral keys for each party...");
         for (PartyContext P : parties) {
-            SetupPhasePublisher.publishEphemeralKey(P);
+            metrics.run(P.id, PhaseMetrics.SETUP, () -> SetupPhasePublisher.publishEphemeralKey(P));
         }
         // Wait until each sees all n=3 ephemeral keys
         for (PartyContext P : parties) {
-            SetupPhaseWaiter.awaitAllEphemeralKeys(P, n);
+            metrics.run(P.id, PhaseMetrics.SETUP_AWAIT, () -> SetupPhaseWaiter.awaitAllEphemeralKeys(P, n));
         }
         log.info("✅ Setup for n= " + n + "t= " + t + " complete!");
+        // all n keys are on the board now and will never change
+        pbb.markImmutable(SessionPbbClient.topic(session, "ephemeralKeys"));
 
         // 6) Run sharing phase: each party is a dealer
         List<SharingPhase> sharers = new ArrayList<>(n);
         for (PartyContext pc : parties) {
             SharingPhase sp = new SharingPhase(pc, t);
             sharers.add(sp);
-            sp.runSharingAsDealer2(); // post Sh_i to PBB
+            metrics.run(pc.id, PhaseMetrics.SHARING, sp::runSharingAsDealer2); // post Sh_i to PBB
         }
         // Wait until at least t+fa=2 shares are published
         List<SharingOutputDTO> shares;
         do {
             Thread.sleep(200);
-            shares = pbb.fetch("DealerPublish", SharingOutputDTO.class);
+            shares = pbb.fetch(SessionPbbClient.topic(session, "DealerPublish"), SharingOutputDTO.class);
         } while (shares.size() < (t + fa)); // 2 in this scenario
         log.info("✅ At least {} dealers have published shares (we can verify).", shares.size());
 
@@ -118,9 +154,11 @@ public class SmokeTestN3T1 {
             vps.add(vp);
 
             // Verify each of the 3 dealers
-            for (int dealerIndex = 0; dealerIndex < n; dealerIndex++) {
-                vp.VerifySharesFor(dealerIndex);
-            }
+            metrics.run(P.id, PhaseMetrics.VERIFICATION, () -> {
+                for (int dealerIndex = 0; dealerIndex < n; dealerIndex++) {
+                    vp.VerifySharesFor(dealerIndex);
+                }
+            });
             // now the party presumably has a Q1 with all the validated dealers
         }
 
@@ -134,15 +172,41 @@ public class SmokeTestN3T1 {
 
         // 10) Now each party publishes threshold output
         for (VerificationPhase vp : vps) {
-            vp.publishThresholdOutput();
+            metrics.run(vp.getMe(), PhaseMetrics.THRESHOLD, vp::publishThresholdOutput);
         }
 
         // 11) Each party collects t+fa=2 threshold outputs -> Q2, then reconstruct
         for (VerificationPhase vp : vps) {
-            List<ShareVerificationPublish> Q2 = vp.collectAndPruneThresholdOutputs();
-            log.info("✅ Q2 formed for party {} with size {}", vp.getMe(), Q2.size());
+            metrics.run(vp.getMe(), PhaseMetrics.RECONSTRUCTION, () -> {
+                List<ShareVerificationPublish> Q2 = vp.collectAndPruneThresholdOutputs();
+                log.info("✅ Q2 formed for party {} with size {}", vp.getMe(), Q2.size());
 
-            vp.finalReconstruction(vp.getQ1(), Q2);
+                vp.finalReconstruction(vp.getQ1(), Q2);
+            });
+        }
+        log.info(pbb.cacheReport());
+        log.info(traffic.bandwidthReport());
+        log.debug("board traffic:\n{}", traffic.snapshotJson());
+        log.info(metrics.report());
+        String out = System.getProperty("napdkg.metrics.out");
+        if (out != null) {
+            // -Dnapdkg.metrics.out=dir → phases.json, phases.csv, parties.csv
+            Path dir = Files.createDirectories(Path.of(out));
+            Files.writeString(dir.resolve("phases.json"), metrics.toJson());
+            Files.writeString(dir.resolve("phases.csv"), metrics.toCsv());
+            Files.writeString(dir.resolve("parties.csv"), metrics.partiesCsv());
+            Files.writeString(dir.resolve("traffic.json"), traffic.snapshotJson());
+        }
+        String transcript = System.getProperty("napdkg.transcript.out");
+        if (transcript != null) {
+            // -Dnapdkg.transcript.out=file → the board plus every party's secret, for ReplayBenchmark
+            List<String> secrets = new ArrayList<>(n);
+            for (PartyContext P : parties) {
+                secrets.add(P.ephKey.getSecretKey().toString(16));
+            }
+            PbbClient board = session.isEmpty() ? raw : new SessionPbbClient(raw, session);
+            Transcript.capture(board, n, t, fa, secrets, Hex.toHexString(Y_debug.getEncoded(true)))
+                    .write(Path.of(transcript));
         }
     }
 
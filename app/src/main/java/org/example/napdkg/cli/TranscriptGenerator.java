@@ -0,0 +1,135 @@
+package org.example.napdkg.cli;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.CachingPbbClient;
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.Transcript;
+import org.example.napdkg.core.DkgContextRegistry;
+import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.Phase;
+import org.example.napdkg.core.SetupPhasePublisher;
+import org.example.napdkg.core.SharingPhase;
+import org.example.napdkg.core.VerificationPhase;
+import org.example.napdkg.util.DkgContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Produces a {@link Transcript} offline, for replaying large‐n verification
+ * and reconstruction without dealing first:
+ *
+ * TranscriptGenerator <n> <t> <out> [dealing|threshold]
+ *
+ * Setup runs in party order (verifiers index the ephemeral keys by board
+ * position); dealing, the expensive part at O(n) group operations per
+ * dealer, runs on every core. "threshold" additionally lets the first t+fa
+ * parties verify all dealers and publish their threshold outputs, which is
+ * what a reconstruction replay needs.
+ */
+public class TranscriptGenerator {
+    private static final Logger log = LoggerFactory.getLogger(TranscriptGenerator.class);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: TranscriptGenerator <n> <t> <out> [dealing|threshold]");
+            System.exit(1);
+        }
+        int n = Integer.parseInt(args[0]);
+        int t = Integer.parseInt(args[1]);
+        Path out = Path.of(args[2]);
+        boolean threshold = args.length > 3 && args[3].equals("threshold");
+
+        long t0 = System.nanoTime();
+        Transcript tr = generate(n, t, 1, threshold, Runtime.getRuntime().availableProcessors());
+        tr.write(out);
+        log.info("transcript n={} t={}: {} keys, {} dealings, {} threshold outputs, {} KiB in {} s → {}",
+                n, t, tr.count(Transcript.EPHEMERAL_KEYS), tr.count(Transcript.DEALER_PUBLISH),
+                tr.count(Transcript.SHARE_VERIFICATION), Files.size(out) >> 10,
+                (System.nanoTime() - t0) / 1_000_000_000, out);
+        System.exit(0);
+    }
+
+    /**
+     * Runs setup and dealing (and, with {@code threshold}, verification and
+     * threshold publishing for t+fa parties) on an in‐memory board and captures it.
+     */
+    public static Transcript generate(int n, int t, int fa, boolean threshold, int threads) throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(t, n);
+        InMemoryPbbClient board = new InMemoryPbbClient();
+        CachingPbbClient pbb = new CachingPbbClient(board);
+
+        List<PartyContext> parties = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            parties.add(new PartyContext(i, ctx, pbb, n, t, fa));
+        }
+        // in party order: the board position of a key is its owner's index
+        for (PartyContext P : parties) {
+            SetupPhasePublisher.publishEphemeralKey(P);
+        }
+        pbb.markImmutable(Transcript.EPHEMERAL_KEYS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<SharingPhase> dealers = new ArrayList<>(n);
+            List<Phase> dealing = new ArrayList<>(n);
+            for (PartyContext P : parties) {
+                SharingPhase sp = new SharingPhase(P, t);
+                dealers.add(sp);
+                dealing.add(sp::runSharingAsDealer2);
+            }
+            runAll(pool, dealing);
+            log.info("{} dealers published", n);
+
+            if (threshold) {
+                List<Phase> verifying = new ArrayList<>();
+                for (PartyContext P : parties.subList(0, t + fa)) {
+                    verifying.add(() -> {
+                        VerificationPhase vp = new VerificationPhase(P);
+                        for (int dealer = 0; dealer < n; dealer++) {
+                            vp.VerifySharesFor(dealer);
+                        }
+                        vp.publishThresholdOutput();
+                    });
+                }
+                runAll(pool, verifying);
+            }
+
+            BigInteger sum = BigInteger.ZERO;
+            for (SharingPhase sp : dealers) {
+                sum = sum.add(sp.getSecretShare()).mod(ctx.getOrder());
+            }
+            ECPoint Y = ctx.getGenerator().multiply(sum).normalize();
+
+            List<String> secrets = new ArrayList<>(n);
+            for (PartyContext P : parties) {
+                secrets.add(P.ephKey.getSecretKey().toString(16));
+            }
+            return Transcript.capture(board, n, t, fa, secrets, Hex.toHexString(Y.getEncoded(true)));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void runAll(ExecutorService pool, List<Phase> steps) throws Exception {
+        List<Future<Object>> running = new ArrayList<>(steps.size());
+        for (Phase step : steps) {
+            running.add(pool.submit(() -> {
+                step.run();
+                return null;
+            }));
+        }
+        for (Future<Object> f : running) {
+            f.get();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.example.napdkg.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read‐through cache in front of any PbbClient, meant to be shared by all
+ * in‐process parties:
+ *
+ * • topics declared {@link #markImmutable immutable} (e.g. "ephemeralKeys"
+ * once setup is over) are fetched once and then served from memory;
+ * • other topics are served from memory for at most {@code maxStalenessMs}
+ * (0 = never, the default — polling loops must see new entries);
+ * • identical fetches that overlap in time share one request to the board
+ * (single flight), which is what n parties polling the same topic do;
+ * • our own publish/delete on a topic drops everything cached for it.
+ *
+ * At most {@code maxEntries} lists are held, least recently used out first,
+ * and a topic that is gone for good (e.g. a finished session's) is dropped
+ * with {@link #forget}. Callers get their own copy of the list, but the DTOs
+ * in it are shared.
+ */
+public class CachingPbbClient implements PbbClient {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final PbbClient delegate;
+    private final long maxStaleNanos;
+    private final int maxEntries;
+
+    private final Set<String> immutable = ConcurrentHashMap.newKeySet();
+    // access‐ordered LRU, guarded by itself
+    private final Map<Key, Entry> cache;
+    private final ConcurrentHashMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    // bumped on every local write to a topic, so a fetch that raced a publish
+    // is neither cached nor joined by a later caller
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CachingPbbClient(PbbClient delegate) {
+        this(delegate, 0);
+    }
+
+    public CachingPbbClient(PbbClient delegate, long maxStalenessMs) {
+        this(delegate, maxStalenessMs, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingPbbClient(PbbClient delegate, long maxStalenessMs, int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries must be positive, was " + maxEntries);
+        this.delegate = delegate;
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > CachingPbbClient.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Declares that {@code topic} will not change any more. Whatever is cached
+     * for it now is dropped, so the next fetch pins the complete topic.
+     */
+    public void markImmutable(String topic) {
+        immutable.add(topic);
+        invalidate(topic);
+    }
+
+    public boolean isImmutable(String topic) {
+        return immutable.contains(topic);
+    }
+
+    /** Drops every cached view of {@code topic}. */
+    public void invalidate(String topic) {
+        AtomicLong gen = generations.get(topic);
+        if (gen != null)
+            gen.incrementAndGet();
+        synchronized (cache) {
+            cache.keySet().removeIf(k -> k.topic.equals(topic));
+        }
+    }
+
+    /**
+     * Drops everything known about {@code topic}, its immutable mark
+     * included; for topics that won't be read again, so they don't pile up
+     * over a long‐lived cache.
+     */
+    public void forget(String topic) {
+        invalidate(topic);
+        generations.remove(topic);
+        immutable.remove(topic);
+    }
+
+    /** Lists currently cached. */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        try {
+            delegate.publish(topic, msg);
+        } finally {
+            invalidate(topic);
+        }
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        try {
+            delegate.publishAll(topic, msgs);
+        } finally {
+            invalidate(topic);
+        }
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        return load(new Key(topic, clazz, null, null), () -> delegate.fetch(topic, clazz));
+    }
+
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) throws Exception {
+        return load(new Key(topic, clazz, field, FieldFilter.key(value)),
+                () -> delegate.fetchWhere(topic, field, value, clazz));
+    }
+
+    /** Waiting is never answered from the cache; the delegate knows best how to wait. */
+    @Override
+    public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws Exception {
+        return delegate.awaitAtLeast(topic, count, clazz);
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        try {
+            delegate.delete(topic, id);
+        } finally {
+            invalidate(topic);
+        }
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return delegate.wireFormat();
+    }
+
+    @Override
+    public boolean addTrafficListener(TrafficListener listener) {
+        return delegate.addTrafficListener(listener);
+    }
+
+    // —— cache core —— //
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        List<T> load() throws Exception;
+    }
+
+    private <T> List<T> load(Key key, Loader<T> loader) throws Exception {
+        Entry e;
+        synchronized (cache) {
+            e = cache.get(key);
+        }
+        if (e != null && fresh(key.topic, e)) {
+            hits.increment();
+            return copy(e.value);
+        }
+
+        AtomicLong generation = generation(key.topic);
+        long gen = generation.get();
+        Flight mine = new Flight(generation, gen);
+        Flight running = inFlight.putIfAbsent(key, mine);
+        if (running != null && running.generation == generation && running.gen == gen) {
+            coalesced.increment();
+            return copy(await(running.result));
+        }
+
+        misses.increment();
+        try {
+            List<T> fresh = loader.load();
+            // with no staleness allowed only an immutable topic is ever read back;
+            // a forgotten topic's counter is no longer in the map
+            if ((maxStaleNanos > 0 || immutable.contains(key.topic))
+                    && generations.get(key.topic) == generation && generation.get() == gen) {
+                synchronized (cache) {
+                    cache.put(key, new Entry(new ArrayList<>(fresh), System.nanoTime()));
+                }
+            }
+            mine.result.complete(fresh);
+            return copy(fresh);
+        } catch (Exception ex) {
+            mine.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private boolean fresh(String topic, Entry e) {
+        return immutable.contains(topic) || System.nanoTime() - e.fetchedAt <= maxStaleNanos;
+    }
+
+    private AtomicLong generation(String topic) {
+        return generations.computeIfAbsent(topic, k -> new AtomicLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> copy(List<?> cached) {
+        return new ArrayList<>((List<T>) cached);
+    }
+
+    private static List<?> await(CompletableFuture<List<?>> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw ex;
+        }
+    }
+
+    // —— metrics —— //
+
+    /** Fetches answered from the cache. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Fetches that went to the board. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Fetches that piggy‐backed on an identical request already in flight. */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /** Share of fetches that did not cost a board request of their own. */
+    public double hitRate() {
+        long saved = getHits() + getCoalesced();
+        long total = saved + getMisses();
+        return total == 0 ? 0.0 : (double) saved / total;
+    }
+
+    /** One‐line summary, e.g. for the end of a smoke test. */
+    public String cacheReport() {
+        return String.format("cache: hits=%d coalesced=%d misses=%d (hit rate %.1f%%) immutable=%s",
+                getHits(), getCoalesced(), getMisses(), 100 * hitRate(), immutable);
+    }
+
+    private static final class Key {
+        final String topic;
+        final Class<?> clazz;
+        final String field;
+        final String value;
+
+        Key(String topic, Class<?> clazz, String field, String value) {
+            this.topic = topic;
+            this.clazz = clazz;
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return topic.equals(k.topic) && clazz == k.clazz
+                    && Objects.equals(field, k.field) && Objects.equals(value, k.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, clazz, field, value);
+        }
+    }
+
+    private static final class Entry {
+        final List<?> value;
+        final long fetchedAt;
+
+        Entry(List<?> value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private static final class Flight {
+        final AtomicLong generation;
+        final long gen;
+        final CompletableFuture<List<?>> result = new CompletableFuture<>();
+
+        Flight(AtomicLong generation, long gen) {
+            this.generation = generation;
+            this.gen = gen;
+        }
+    }
+}
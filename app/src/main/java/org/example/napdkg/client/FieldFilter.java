@@ -0,0 +1,59 @@
+package org.example.napdkg.client;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Field‐equality matching for {@link PbbClient#fetchWhere}.
+ *
+ * Values are compared by their string form, the same way json-server compares
+ * a query parameter against a stored JSON value, so {@code 5} and {@code "5"}
+ * select the same entries on every backend.
+ */
+final class FieldFilter {
+
+    // DTO class → (field name → public Field), so reflection happens once per
+    // field
+    private static final ClassValue<Map<String, Optional<Field>>> FIELDS = new ClassValue<>() {
+        @Override
+        protected Map<String, Optional<Field>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private FieldFilter() {
+        /* no-op */ }
+
+    /** Normalized index key for a filter value (or a stored field value). */
+    static String key(Object value) {
+        return String.valueOf(value);
+    }
+
+    /**
+     * @return the value of public field {@code field} on {@code dto}, or null if
+     *         the DTO has no such field (so it never matches a non-null value)
+     */
+    static Object read(Object dto, String field) {
+        Optional<Field> f = FIELDS.get(dto.getClass()).computeIfAbsent(field, name -> {
+            try {
+                return Optional.of(dto.getClass().getField(name));
+            } catch (NoSuchFieldException e) {
+                return Optional.empty();
+            }
+        });
+        if (f.isEmpty()) {
+            return null;
+        }
+        try {
+            return f.get().get(dto);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean matches(Object dto, String field, Object value) {
+        return key(read(dto, field)).equals(key(value));
+    }
+}
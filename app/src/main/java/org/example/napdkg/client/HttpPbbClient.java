@@ -1,81 +1,615 @@
 // src/main/java/org/example/pvss/HttpPbbClient.java
 package org.example.napdkg.client;
 
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.example.napdkg.core.NapDkgParty;
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.example.napdkg.jfr.BoardTransferEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
+/**
+ * PbbClient over the board's REST shape (json-server or our own board):
+ *
+ * POST /topic publish one DTO
+ * POST /topic/_batch publish a JSON array / binary list frame at once
+ * GET /topic[?field=value] fetch (optionally filtered)
+ * DELETE /topic/id delete
+ *
+ * Every call is built on {@link HttpClient#sendAsync}; the blocking methods
+ * just wait for the future, and the *Async variants let many parties keep
+ * requests in flight on a few shared (HTTP/2‐multiplexed, if enabled)
+ * connections. Optional board features — binary frames, gzip request bodies,
+ * batch publishing — are discovered with one OPTIONS probe and are never
+ * used against a board that didn't advertise them (json-server advertises
+ * none). The probe is itself async: the first calls chain onto it rather
+ * than wait for it, and response bodies are decoded on the client's own
+ * {@link #CALLBACKS} threads, never on the caller's.
+ *
+ * Bodies are streamed both ways: requests are written by a JsonWriter into a
+ * pipe feeding {@link HttpRequest.BodyPublishers#ofInputStream}, responses
+ * are parsed element by element off the socket. At n=2000 a DealerPublish
+ * topic is tens of MB, and neither side ever holds it as a String/byte[].
+ *
+ * Body bytes are counted on the socket side of compression and reported to
+ * any {@link TrafficListener}s once each request is done, and to a running
+ * flight recording as a {@link BoardTransferEvent}.
+ */
 public class HttpPbbClient implements PbbClient {
     final Logger log = LoggerFactory.getLogger(NapDkgParty.class);
-    private final HttpClient client = HttpClient.newBuilder()
-            .version(HttpClient.Version.HTTP_1_1).build();
+
+    /** Board feature names in the {@code X-Pbb-Features} OPTIONS header. */
+    static final String FEATURE_BATCH = "batch";
+    static final String FEATURE_GZIP = "gzip";
+
+    /** Pipe size between the body writer thread and the HTTP client. */
+    private static final int PIPE_BYTES = 64 * 1024;
+
+    /** Writes one request body; runs on {@link #BODY_WRITERS}. */
+    @FunctionalInterface
+    private interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // one shared pool of daemon threads that pump request bodies into pipes
+    private static final ExecutorService BODY_WRITERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "pbb-body-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // the HttpClient's executor, and where responses are decoded: a blocking
+    // read off a streamed body must not hold up the caller or a selector thread
+    private static final ExecutorService CALLBACKS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "pbb-client");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Client‐side knobs; the defaults reproduce the original HTTP/1.1 JSON client. */
+    public static final class Options {
+        private WireFormat format = WireFormat.JSON;
+        private boolean http2 = false;
+        private boolean compression = false;
+
+        /** Prefer {@link WireFormat#BINARY} bodies when the board supports them. */
+        public Options format(WireFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Negotiate HTTP/2 (h2c upgrade on http://, ALPN on https://); falls back
+         * to HTTP/1.1 when the board doesn't speak it.
+         */
+        public Options http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * Ask for gzip/deflate responses and gzip our request bodies if the board
+         * accepts them.
+         */
+        public Options compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+    }
+
+    private final HttpClient client;
     private final URI base;
     private final Gson gson = new Gson();
+    private final Options options;
+    // what the board has agreed to; stays JSON / plain until the OPTIONS probe
+    // shows the board understands more
+    private volatile WireFormat negotiated = WireFormat.JSON;
+    private volatile boolean boardGzip;
+    private volatile boolean boardBatch;
+    // the OPTIONS probe, started by the first call that needs it
+    private volatile CompletableFuture<Void> probe;
+    private final List<TrafficListener> listeners = new CopyOnWriteArrayList<>();
 
     public HttpPbbClient(String baseUrl) {
+        this(baseUrl, new Options());
+    }
+
+    /**
+     * @param preferred BINARY to use {@link BinaryDtoCodec} frames whenever the
+     *                  board advertises them (json-server never does, so this
+     *                  silently stays on JSON there)
+     */
+    public HttpPbbClient(String baseUrl, WireFormat preferred) {
+        this(baseUrl, new Options().format(preferred));
+    }
+
+    public HttpPbbClient(String baseUrl, Options options) {
         this.base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(options.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .executor(CALLBACKS)
+                .build();
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return negotiated;
+    }
+
+    /** Registers a listener for the wire bytes of every request from now on. */
+    @Override
+    public boolean addTrafficListener(TrafficListener listener) {
+        listeners.add(listener);
+        return true;
+    }
+
+    private void traffic(String method, String topic, Class<?> type, long sent, long received) {
+        BoardTransferEvent ev = new BoardTransferEvent();
+        if (ev.shouldCommit()) {
+            ev.method = method;
+            ev.topic = topic;
+            ev.type = type;
+            ev.bytesSent = sent;
+            ev.bytesReceived = received;
+            ev.commit();
+        }
+        for (TrafficListener l : listeners) {
+            l.onExchange(method, topic, type, sent, received);
+        }
     }
 
+    private boolean wantsProbe() {
+        return options.format == WireFormat.BINARY || options.compression;
+    }
+
+    /**
+     * One‐time probe: a board that accepts binary bodies lists our media type in
+     * the {@code Accept-Post} header of its OPTIONS response, and names its
+     * other extras (batch, gzip) in {@code X-Pbb-Features}. The future is
+     * cached, so concurrent first calls share one probe; it never fails — a
+     * board that doesn't answer is treated as plain JSON.
+     */
+    private CompletableFuture<Void> negotiate() {
+        CompletableFuture<Void> p = probe;
+        if (p != null)
+            return p;
+        if (!wantsProbe())
+            return probe = CompletableFuture.completedFuture(null);
+        synchronized (this) {
+            if (probe == null) {
+                HttpRequest req = HttpRequest.newBuilder(base)
+                        .method("OPTIONS", HttpRequest.BodyPublishers.noBody())
+                        .build();
+                probe = client.sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(resp -> {
+                            if (resp.statusCode() >= 400)
+                                return;
+                            String accepts = resp.headers().firstValue("Accept-Post").orElse("");
+                            List<String> features = Arrays.asList(
+                                    resp.headers().firstValue("X-Pbb-Features").orElse("").split("\\s*,\\s*"));
+                            if (options.format == WireFormat.BINARY && accepts.contains(BinaryDtoCodec.MEDIA_TYPE))
+                                negotiated = WireFormat.BINARY;
+                            boardGzip = options.compression && features.contains(FEATURE_GZIP);
+                            boardBatch = features.contains(FEATURE_BATCH);
+                        })
+                        .exceptionally(e -> {
+                            log.debug("board feature probe failed, staying on plain JSON", e);
+                            return null;
+                        });
+            }
+            return probe;
+        }
+    }
+
+    // —— blocking API (waits for the async one) —— //
+
     @Override
     public void publishAll(String topic, Object[] msgs) throws Exception {
-        for (Object m : msgs)
-            publish(topic, m);
+        join(publishAllAsync(topic, msgs));
     }
 
     @Override
     public void publish(String topic, Object bean) throws IOException, InterruptedException {
-        String body = gson.toJson(bean);
-        URI uri = base.resolve(topic);
-        HttpRequest req = HttpRequest.newBuilder(uri)
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
-        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
-        if (resp.statusCode() >= 400) {
-            throw new IOException("publish “" + topic + "” failed: "
-                    + resp.statusCode() + " / " + resp.body());
-        }
+        join(publishAsync(topic, bean));
     }
 
     @Override
     public <T> List<T> fetch(String topic, Class<T> clazz)
             throws IOException, InterruptedException {
-        URI uri = base.resolve(topic);
-        HttpRequest req = HttpRequest.newBuilder(uri).GET().build();
-        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
-        if (resp.statusCode() >= 400) {
-            throw new IOException("fetch “" + topic + "” failed: "
-                    + resp.statusCode() + " / " + resp.body());
-        }
-        Type listType = TypeToken.getParameterized(List.class, clazz).getType();
-        return gson.fromJson(resp.body(), listType);
+        return join(fetchAsync(topic, clazz));
+    }
+
+    /**
+     * Pushes the equality filter to the board as {@code GET /topic?field=value},
+     * so only the matching DTOs cross the wire. json-server lets entries that
+     * lack the field through, hence the cheap local re-check.
+     */
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz)
+            throws IOException, InterruptedException {
+        return join(fetchWhereAsync(topic, field, value, clazz));
     }
 
     @Override
     public void delete(String topic, String id) throws IOException, InterruptedException {
-        URI uri = base.resolve(topic + "/" + id);
-        // log.info("[HTTP DELETE] DELETE " + uri);
-        HttpRequest req = HttpRequest.newBuilder(uri)
+        join(deleteAsync(topic, id));
+    }
+
+    // —— async API —— //
+
+    public CompletableFuture<Void> publishAsync(String topic, Object bean) {
+        return negotiate().thenCompose(probed -> postOne(topic, bean));
+    }
+
+    private CompletableFuture<Void> postOne(String topic, Object bean) {
+        boolean binary = negotiated == WireFormat.BINARY && BinaryDtoCodec.supports(bean.getClass());
+        BodyWriter body = binary
+                ? out -> out.write(BinaryDtoCodec.encode(bean))
+                : out -> writeJson(out, w -> gson.toJson(bean, bean.getClass(), w));
+        return post(base.resolve(topic), topic, bean.getClass(), body, binary)
+                .thenCompose(resp -> {
+                    if (binary && resp.statusCode() == 415) {
+                        // board changed its mind (e.g. restarted as json-server): fall back
+                        negotiated = WireFormat.JSON;
+                        return postOne(topic, bean);
+                    }
+                    check(resp, "publish “" + topic + "”");
+                    return CompletableFuture.<Void>completedFuture(null);
+                });
+    }
+
+    /**
+     * Publishes all messages. If the board supports it they go out as one
+     * {@code POST /topic/_batch}; otherwise they are POSTed one after the
+     * other, each once the previous one was accepted. Either way they land on
+     * the board in {@code msgs} order, which the first‐t+fa / Q1 selection
+     * reads.
+     */
+    public CompletableFuture<Void> publishAllAsync(String topic, Object[] msgs) {
+        return negotiate().thenCompose(probed -> postAll(topic, msgs));
+    }
+
+    private CompletableFuture<Void> postAll(String topic, Object[] msgs) {
+        if (boardBatch && msgs.length > 1) {
+            List<Object> all = Arrays.asList(msgs);
+            boolean binary = negotiated == WireFormat.BINARY && all.stream()
+                    .allMatch(m -> BinaryDtoCodec.supports(m.getClass()));
+            BodyWriter body = binary
+                    ? out -> BinaryDtoCodec.encodeList(all, out)
+                    : out -> writeJson(out, w -> {
+                        w.beginArray();
+                        for (Object m : all) {
+                            gson.toJson(m, m.getClass(), w);
+                        }
+                        w.endArray();
+                    });
+            return post(base.resolve(topic + "/_batch"), topic, msgs[0].getClass(), body, binary)
+                    .thenApply(resp -> check(resp, "batch publish “" + topic + "”"))
+                    .thenApply(resp -> null);
+        }
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Object m : msgs) {
+            chain = chain.thenCompose(done -> postOne(topic, m));
+        }
+        return chain;
+    }
+
+    public <T> CompletableFuture<List<T>> fetchAsync(String topic, Class<T> clazz) {
+        return get(base.resolve(topic), topic, clazz);
+    }
+
+    public <T> CompletableFuture<List<T>> fetchWhereAsync(String topic, String field, Object value,
+            Class<T> clazz) {
+        URI uri = base.resolve(topic + "?"
+                + URLEncoder.encode(field, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(FieldFilter.key(value), StandardCharsets.UTF_8));
+        return get(uri, topic, clazz).thenApply(out -> {
+            out.removeIf(dto -> !FieldFilter.matches(dto, field, value));
+            return out;
+        });
+    }
+
+    public CompletableFuture<Void> deleteAsync(String topic, String id) {
+        HttpRequest req = HttpRequest.newBuilder(base.resolve(topic + "/" + id))
                 .DELETE()
                 .build();
-        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
-        // log.info("[HTTP DELETE] RESP code = " + resp.statusCode());
-        // log.info("[HTTP DELETE] RESP body = " + resp.body());
+        return client.sendAsync(req, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(resp -> {
+                    traffic("DELETE", topic, null, 0, resp.body().length);
+                    return check(resp, "delete “" + topic + "/" + id + "”");
+                })
+                .thenApply(resp -> null);
+    }
+
+    // —— transport —— //
+
+    private CompletableFuture<HttpResponse<byte[]>> post(URI uri, String topic, Class<?> type,
+            BodyWriter body, boolean binary) {
+        boolean gzip = boardGzip;
+        AtomicLong sent = new AtomicLong();
+        HttpRequest.Builder req = HttpRequest.newBuilder(uri)
+                .header("Content-Type", binary ? WireFormat.BINARY.mediaType() : "application/json");
+        if (gzip) {
+            req.header("Content-Encoding", "gzip");
+        }
+        Pipes pipes = new Pipes();
+        req.POST(HttpRequest.BodyPublishers.ofInputStream(() -> piped(body, gzip, sent, pipes)));
+        // the response to a POST is just the echoed entry (or an error), so buffering it is fine
+        return client.sendAsync(req.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((resp, e) -> pipes.close())
+                .thenApply(resp -> {
+                    traffic("POST", topic, type, sent.get(), resp.body().length);
+                    return resp;
+                });
+    }
+
+    /**
+     * Runs {@code body} on a writer thread and hands back the reading end of the
+     * pipe; the HTTP client pulls from it as the socket drains, so at most
+     * {@link #PIPE_BYTES} of the request sit in memory. A writer failure closes
+     * the reading end, which fails the request instead of posting a truncated
+     * body. {@code sent} ends up holding the bytes that went into the pipe,
+     * i.e. after gzip. Once the request is over, successfully or not,
+     * {@code pipes} closes the reading end and stops the writer, which would
+     * otherwise wait forever on a full pipe nobody reads.
+     */
+    private InputStream piped(BodyWriter body, boolean gzip, AtomicLong sent, Pipes pipes) {
+        PipedInputStream in = new PipedInputStream(PIPE_BYTES);
+        OutputStream sink;
+        try {
+            sink = new CountingOutputStream(new PipedOutputStream(in), sent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Future<?> writer = BODY_WRITERS.submit(() -> {
+            try (OutputStream out = gzip ? new GZIPOutputStream(sink, 8192) : sink) {
+                body.writeTo(out);
+            } catch (IOException | RuntimeException e) {
+                if (pipes.isClosed()) {
+                    log.debug("request over before its body was written: {}", e.toString());
+                } else {
+                    log.warn("writing request body failed", e);
+                }
+                closeQuietly(in);
+            }
+        });
+        pipes.add(in, writer);
+        return in;
+    }
+
+    /** The pipes of one request; the body publisher may open more than one. */
+    private static final class Pipes {
+        private final List<PipedInputStream> ins = new ArrayList<>();
+        private final List<Future<?>> writers = new ArrayList<>();
+        private boolean closed;
+
+        synchronized void add(PipedInputStream in, Future<?> writer) {
+            if (closed) {
+                writer.cancel(true);
+                closeQuietly(in);
+                return;
+            }
+            ins.add(in);
+            writers.add(writer);
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Future<?> w : writers)
+                w.cancel(true);
+            for (PipedInputStream in : ins)
+                closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonWriter w) throws IOException;
+    }
+
+    private static void writeJson(OutputStream out, JsonBody body) throws IOException {
+        JsonWriter w = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        body.write(w);
+        w.flush();
+    }
+
+    private <T> CompletableFuture<List<T>> get(URI uri, String topic, Class<T> clazz) {
+        return negotiate().thenCompose(probed -> send(uri, topic, clazz));
+    }
+
+    private <T> CompletableFuture<List<T>> send(URI uri, String topic, Class<T> clazz) {
+        boolean binary = negotiated == WireFormat.BINARY && BinaryDtoCodec.supports(clazz);
+        HttpRequest.Builder req = HttpRequest.newBuilder(uri)
+                .header("Accept", binary
+                        ? WireFormat.BINARY.mediaType() + ", application/json;q=0.5"
+                        : "application/json");
+        if (binary) {
+            // tells a board that has only seen JSON on this topic how to frame it
+            req.header("X-Pbb-Type", Integer.toString(BinaryDtoCodec.tagOf(clazz)));
+        }
+        if (options.compression) {
+            req.header("Accept-Encoding", "gzip, deflate");
+        }
+        // decoding blocks on the socket as the body streams in
+        return client.sendAsync(req.GET().build(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(resp -> {
+                    CountingInputStream wire = new CountingInputStream(resp.body());
+                    try (InputStream in = decoded(resp, wire)) {
+                        if (resp.statusCode() >= 400) {
+                            throw new IOException("fetch “" + topic + "” failed: "
+                                    + resp.statusCode() + " / "
+                                    + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                        }
+                        return decodeList(in, resp, clazz);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        traffic("GET", topic, clazz, 0, wire.count);
+                    }
+                }, CALLBACKS);
+    }
+
+    private <T> List<T> decodeList(InputStream in, HttpResponse<?> resp, Class<T> clazz) throws IOException {
+        String contentType = resp.headers().firstValue("Content-Type").orElse(null);
+        if (WireFormat.fromContentType(contentType) == WireFormat.BINARY) {
+            return BinaryDtoCodec.decodeList(in, clazz);
+        }
+        // pull one array element at a time straight off the (decoded) socket stream
+        List<T> out = new ArrayList<>();
+        JsonReader r = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if (r.peek() == JsonToken.NULL)
+                return out;
+        } catch (EOFException empty) {
+            return out; // empty body, same as gson.fromJson("") → null
+        }
+        r.beginArray();
+        while (r.hasNext()) {
+            out.add(gson.fromJson(r, clazz));
+        }
+        r.endArray();
+        return out;
+    }
+
+    /** Undo the response's Content-Encoding (gzip / deflate / identity). */
+    private static InputStream decoded(HttpResponse<?> resp, InputStream raw) throws IOException {
+        String enc = resp.headers().firstValue("Content-Encoding").orElse("identity");
+        switch (enc) {
+            case "gzip":
+                return new GZIPInputStream(raw);
+            case "deflate":
+                return new InflaterInputStream(raw);
+            default:
+                return raw;
+        }
+    }
+
+    /** Counts the bytes read off the socket; read by one thread only. */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0)
+                count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /** Counts the bytes written into the request pipe (read from the client's thread). */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+
+    private static HttpResponse<byte[]> check(HttpResponse<byte[]> resp, String what) {
         if (resp.statusCode() >= 400) {
-            throw new IOException("delete \"" + topic + "/" + id
-                    + "\" failed: " + resp.statusCode() + " / " + resp.body());
+            throw new UncheckedIOException(new IOException(what + " failed: "
+                    + resp.statusCode() + " / " + new String(resp.body(), StandardCharsets.UTF_8)));
         }
+        return resp;
     }
 
+    /** Waits for a future and rethrows its failure the way the blocking API always has. */
+    private static <T> T join(CompletableFuture<T> f) throws IOException, InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
 }
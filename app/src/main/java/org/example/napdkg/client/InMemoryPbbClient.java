@@ -1,79 +1,382 @@
 package org.example.napdkg.client;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * InMemoryPbbClient keeps all “published” objects in memory, keyed by topic.
+ * InMemoryPbbClient keeps every topic as an append‐only log in publish order,
+ * which is what the “first t+fa to publish” rules for Q1/Q2 need.
  *
- * Internally:
- * storage: Map<String topicName, Map<String id, Object dto>>
+ * Internally, per topic:
+ * log: chunks of 1024 slots; a publisher claims slot i with one atomic
+ * increment, fills it and makes it visible once slots < i are — no lock
+ * except to hang a new chunk every 1024 publishes. A publisher that fails
+ * between claim and fill still makes its slot visible, as a hole readers
+ * skip, so the ones after it never wait for it in vain
+ * byId: id → entry, for delete and re‐publish
+ * indexes: field → (value → entries), built on the first fetchWhere and
+ * brought up to date lazily by the next query, so publishing never
+ * touches them
  *
- * fetch(...) on a missing topic now returns a mutable empty ArrayList<> (not
- * Collections.emptyList()).
- * publish(...) stores dto under its “id” (via reflection).
- * delete(...) on a missing (topic, id) now throws an IllegalArgumentException,
- * exactly what testDeleteThrows expects.
+ * Every entry also carries a board‐wide sequence number.
+ *
+ * Deletes only mark entries; every 1024 of them, the sealed chunks (all
+ * slots published) are swept: deleted slots become holes, chunks left with
+ * nothing but holes are dropped, and the indexes forget deleted entries.
+ * Slot numbers never change, so publishers and indexes are unaffected.
+ *
+ * fetch(...) returns a fresh ArrayList of the live entries, empty for an
+ * unknown topic; callers may modify it.
+ * publish(...) reads the DTO's id through a per‐class cached accessor
+ * (public field “id”, else getId(), else toString()); a null id is replaced
+ * by the sequence number, like json-server assigns ids. Publishing an id
+ * that already exists replaces the old entry.
+ * delete(...) on a missing (topic, id) throws an IllegalArgumentException.
+ * awaitAtLeast(...) parks the caller and is unparked by the publishes
+ * themselves, so thousands of in‐JVM parties wait without polling.
  */
 public class InMemoryPbbClient implements PbbClient {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, TopicLog> topics = new ConcurrentHashMap<>();
+    // topic → threads parked in awaitAtLeast
+    private final Map<String, Set<Thread>> waiters = new ConcurrentHashMap<>();
 
-    // topicName → (id → dto)
-    private final Map<String, Map<String, Object>> storage = new ConcurrentHashMap<>();
+    /** One published DTO. */
+    static final class Entry {
+        final long seq;
+        final String id;
+        final Object dto;
+        volatile boolean deleted;
+
+        Entry(long seq, String id, Object dto) {
+            this.seq = seq;
+            this.id = id;
+            this.dto = dto;
+        }
+    }
+
+    static class TopicLog {
+        private volatile Entry[][] chunks = new Entry[4][];
+        private final AtomicInteger claimed = new AtomicInteger();
+        private volatile int published;
+        final Map<String, Entry> byId = new ConcurrentHashMap<>();
+        final AtomicInteger deletions = new AtomicInteger();
+        // deletions since the last sweep
+        private final AtomicInteger unswept = new AtomicInteger();
+        final Map<String, FieldIndex> indexes = new ConcurrentHashMap<>();
+
+        void append(Entry e) {
+            int i = claimed.getAndIncrement();
+            boolean filled = false;
+            try {
+                chunk(i >>> CHUNK_BITS)[i & MASK] = e;
+                filled = true;
+            } finally {
+                if (!filled)
+                    deletions.incrementAndGet(); // slot i stays a hole
+                // publish in slot order: wait for the (at most few) earlier
+                // claimers, which get here even when they fail
+                awaitTurn(i);
+                published = i + 1;
+            }
+        }
+
+        private void awaitTurn(int i) {
+            for (int spins = 0; published != i; spins++) {
+                if (spins < 64)
+                    Thread.onSpinWait();
+                else if (spins < 256)
+                    Thread.yield();
+                else
+                    LockSupport.parkNanos(10_000);
+            }
+        }
+
+        Entry[] chunk(int c) {
+            Entry[][] cs = chunks;
+            if (c < cs.length && cs[c] != null)
+                return cs[c];
+            synchronized (this) {
+                cs = chunks;
+                if (c >= cs.length)
+                    cs = Arrays.copyOf(cs, Math.max(c + 1, cs.length * 2));
+                if (cs[c] == null)
+                    cs[c] = new Entry[CHUNK];
+                chunks = cs;
+                return cs[c];
+            }
+        }
+
+        int live() {
+            return Math.max(0, published - deletions.get());
+        }
+
+        /** Counts a deleted entry, sweeping once enough have piled up. */
+        void deleted(Entry e) {
+            e.deleted = true;
+            deletions.incrementAndGet();
+            if (unswept.incrementAndGet() >= CHUNK) {
+                unswept.set(0);
+                sweep();
+            }
+        }
+
+        /**
+         * Turns the deleted entries of sealed chunks into holes, drops chunks
+         * that hold only holes and prunes the indexes. Shares the lock only
+         * with hanging a new chunk, which never touches a sealed one.
+         */
+        synchronized void sweep() {
+            int sealed = published >>> CHUNK_BITS;
+            Entry[][] cs = chunks;
+            boolean dropped = false;
+            for (int c = 0; c < Math.min(sealed, cs.length); c++) {
+                Entry[] chunk = cs[c];
+                if (chunk == null)
+                    continue;
+                boolean empty = true;
+                for (int j = 0; j < CHUNK; j++) {
+                    Entry e = chunk[j];
+                    if (e != null && e.deleted)
+                        chunk[j] = e = null;
+                    empty &= e == null;
+                }
+                if (empty) {
+                    if (!dropped)
+                        cs = cs.clone();
+                    cs[c] = null;
+                    dropped = true;
+                }
+            }
+            if (dropped)
+                chunks = cs;
+            for (FieldIndex index : indexes.values()) {
+                synchronized (index) {
+                    for (List<Entry> hits : index.byValue.values())
+                        hits.removeIf(e -> e.deleted);
+                    index.byValue.values().removeIf(List::isEmpty);
+                }
+            }
+        }
+
+        /** Chunks still held, for tests. */
+        int chunksHeld() {
+            int held = 0;
+            for (Entry[] chunk : chunks)
+                if (chunk != null)
+                    held++;
+            return held;
+        }
+    }
+
+    /** Slot i of a log, or null for a hole. */
+    private static Entry slot(Entry[][] chunks, int i) {
+        int c = i >>> CHUNK_BITS;
+        return c < chunks.length && chunks[c] != null ? chunks[c][i & MASK] : null;
+    }
+
+    /** The log of a new topic. */
+    TopicLog newTopicLog() {
+        return new TopicLog();
+    }
+
+    static final class FieldIndex {
+        int covered; // log slots [0, covered) are indexed
+        final Map<String, List<Entry>> byValue = new HashMap<>();
+    }
 
     @Override
     public <T> List<T> fetch(String topic, Class<T> clazz) {
-        Map<String, Object> topicMap = storage.get(topic);
-        if (topicMap == null) {
-            // return a new, mutable empty list (not Collections.emptyList())
+        TopicLog log = topics.get(topic);
+        if (log == null) {
             return new ArrayList<>();
         }
-        List<T> result = new ArrayList<>();
-        for (Object o : topicMap.values()) {
-            @SuppressWarnings("unchecked")
-            T t = (T) o;
-            result.add(t);
+        // read the count before the chunks: every slot below it is then reachable
+        int n = log.published;
+        Entry[][] chunks = log.chunks;
+        List<T> result = new ArrayList<>(log.live());
+        for (int i = 0; i < n; i++) {
+            Entry e = slot(chunks, i);
+            if (e != null && !e.deleted) {
+                @SuppressWarnings("unchecked")
+                T t = (T) e.dto;
+                result.add(t);
+            }
         }
         return result;
     }
 
     @Override
-    public void publish(String topic, Object dto) {
-        // ensure there is a map for this topic
-        Map<String, Object> topicMap = storage.computeIfAbsent(topic,
-                k -> new ConcurrentHashMap<>());
-
-        // “id” extraction logic: try public field “id”, then getId(), else fallback to
-        // toString()
-        String id;
-        try {
-            java.lang.reflect.Field f = dto.getClass().getField("id");
-            id = (String) f.get(dto);
-        } catch (Exception e1) {
-            try {
-                java.lang.reflect.Method m = dto.getClass().getMethod("getId");
-                id = (String) m.invoke(dto);
-            } catch (Exception e2) {
-                id = dto.toString();
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) {
+        TopicLog log = topics.get(topic);
+        if (log == null) {
+            return new ArrayList<>();
+        }
+        FieldIndex index = log.indexes.computeIfAbsent(field, f -> new FieldIndex());
+        List<T> result = new ArrayList<>();
+        synchronized (index) {
+            int n = log.published;
+            Entry[][] chunks = log.chunks;
+            for (int i = index.covered; i < n; i++) {
+                Entry e = slot(chunks, i);
+                if (e == null)
+                    continue;
+                index.byValue.computeIfAbsent(FieldFilter.key(FieldFilter.read(e.dto, field)),
+                        k -> new ArrayList<>()).add(e);
+            }
+            index.covered = n;
+            for (Entry e : index.byValue.getOrDefault(FieldFilter.key(value), List.of())) {
+                if (!e.deleted) {
+                    @SuppressWarnings("unchecked")
+                    T t = (T) e.dto;
+                    result.add(t);
+                }
             }
         }
+        return result;
+    }
 
-        topicMap.put(id, dto);
+    @Override
+    public void publish(String topic, Object dto) {
+        TopicLog log = topics.computeIfAbsent(topic, k -> newTopicLog());
+        long seq = sequence.incrementAndGet();
+        IdAccessor ids = ID_ACCESSORS.get(dto.getClass());
+        String id = ids.read(dto);
+        if (id == null) {
+            id = Long.toString(seq);
+            ids.write(dto, id);
+        }
+        Entry e = new Entry(seq, id, dto);
+        log.append(e);
+        Entry previous = log.byId.put(id, e);
+        if (previous != null)
+            log.deleted(previous);
+        wake(topic);
     }
 
     @Override
     public void delete(String topic, String id) {
-        Map<String, Object> topicMap = storage.get(topic);
+        TopicLog log = topics.get(topic);
+        Entry removed = log == null ? null : log.byId.remove(id);
         // If topic is missing or id is not present, throw IllegalArgumentException
-        if (topicMap == null || !topicMap.containsKey(id)) {
+        if (removed == null) {
             throw new IllegalArgumentException(
                     "No such ID '" + id + "' in topic '" + topic + "'");
         }
-        // Otherwise remove
-        topicMap.remove(id);
-        if (topicMap.isEmpty()) {
-            storage.remove(topic);
+        log.deleted(removed);
+    }
+
+    /** Parks until {@code topic} holds {@code count} entries; woken by {@link #publish}. */
+    @Override
+    public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws InterruptedException {
+        Thread me = Thread.currentThread();
+        Set<Thread> parked = waiters.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet());
+        // register before checking, so a publish in between can't be missed
+        parked.add(me);
+        try {
+            while (true) {
+                List<T> got = fetch(topic, clazz);
+                if (got.size() >= count)
+                    return got;
+                LockSupport.park(this);
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            }
+        } finally {
+            parked.remove(me);
+        }
+    }
+
+    private void wake(String topic) {
+        Set<Thread> parked = waiters.get(topic);
+        if (parked != null) {
+            for (Thread t : parked)
+                LockSupport.unpark(t);
+        }
+    }
+
+    /** Board‐wide number of publishes so far (the last sequence number handed out). */
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    // —— id access, resolved once per DTO class —— //
+
+    private static final ClassValue<IdAccessor> ID_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected IdAccessor computeValue(Class<?> type) {
+            return IdAccessor.of(type);
+        }
+    };
+
+    private static final class IdAccessor {
+        private static final MethodType GET = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SET = MethodType.methodType(void.class, Object.class, String.class);
+
+        final MethodHandle getter; // null → toString()
+        final MethodHandle setter; // null → can't assign ids
+
+        private IdAccessor(MethodHandle getter, MethodHandle setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        static IdAccessor of(Class<?> type) {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            try {
+                Field f = type.getField("id");
+                MethodHandle set = f.getType() == String.class && !Modifier.isFinal(f.getModifiers())
+                        ? lookup.unreflectSetter(f).asType(SET)
+                        : null;
+                return new IdAccessor(lookup.unreflectGetter(f).asType(GET), set);
+            } catch (NoSuchFieldException | IllegalAccessException noField) {
+                // fall through to getId()
+            }
+            try {
+                Method m = type.getMethod("getId");
+                return new IdAccessor(lookup.unreflect(m).asType(GET), null);
+            } catch (NoSuchMethodException | IllegalAccessException noGetter) {
+                return new IdAccessor(null, null);
+            }
+        }
+
+        String read(Object dto) {
+            if (getter == null)
+                return dto.toString();
+            try {
+                Object id = (Object) getter.invokeExact(dto);
+                return id == null ? null : id.toString();
+            } catch (Throwable t) {
+                return dto.toString();
+            }
+        }
+
+        void write(Object dto, String id) {
+            if (setter == null)
+                return;
+            try {
+                setter.invokeExact(dto, id);
+            } catch (Throwable ignored) {
+                // the entry keeps the id; only the DTO doesn't show it
+            }
         }
     }
 }
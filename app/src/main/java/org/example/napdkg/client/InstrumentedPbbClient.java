@@ -1,57 +1,387 @@
 package org.example.napdkg.client;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.example.napdkg.util.LatencyHistogram;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 /**
- * Wraps any PbbClient and counts bytes sent/received in JSON form.
+ * Wraps any PbbClient and keeps traffic statistics that all parties sharing
+ * it can update without contention:
+ *
+ * • bytes and message counts per (topic, direction, DTO type) — the bytes
+ * are what the transport really put on / took off the wire (compressed,
+ * in the negotiated {@link WireFormat}), reported through the
+ * {@link PbbClient#addTrafficListener} hook, which caching, latency,
+ * session and metering wrappers pass down to the {@link HttpPbbClient};
+ * a chain with no transport at the bottom counts 0 bytes;
+ * • requests per HTTP method, i.e. including every poll of a wait loop;
+ * • a latency histogram per PbbClient call (publish, fetch, …).
+ *
+ * Nothing is serialized a second time to measure it, unless the format
+ * comparison is switched on ({@code -Dnapdkg.traffic.compareFormats=true}
+ * or the constructor flag): then every message is also sized as a JSON
+ * body and as a {@link BinaryDtoCodec} frame, whatever the wire carried,
+ * so one run shows what the other format would have cost.
+ * {@link #snapshot()} freezes everything into plain DTOs;
+ * {@link #snapshotJson()} renders them for benchmark reports.
  */
 public class InstrumentedPbbClient implements PbbClient {
+    public static final String SENT = "sent";
+    public static final String RECEIVED = "received";
+    public static final boolean COMPARE_FORMATS = Boolean.getBoolean("napdkg.traffic.compareFormats");
+
     private final PbbClient delegate;
     private final Gson gson;
-    private long bytesSent = 0;
-    private long bytesReceived = 0;
+    private final boolean wireBytes;
+    private final boolean compareFormats;
+    // sizes the JSON side of the comparison, like HttpPbbClient's bodies
+    private final Gson plain = new Gson();
+
+    private final ConcurrentHashMap<TrafficKey, Counter> traffic = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> latency = new ConcurrentHashMap<>();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder jsonBytesSent = new LongAdder();
+    private final LongAdder jsonBytesReceived = new LongAdder();
+    private final LongAdder binaryBytesSent = new LongAdder();
+    private final LongAdder binaryBytesReceived = new LongAdder();
+
+    public InstrumentedPbbClient(PbbClient delegate) {
+        this(delegate, new GsonBuilder().setPrettyPrinting().create());
+    }
 
+    /** @param gson renders {@link #snapshotJson()} */
     public InstrumentedPbbClient(PbbClient delegate, Gson gson) {
+        this(delegate, gson, COMPARE_FORMATS);
+    }
+
+    /**
+     * @param gson           renders {@link #snapshotJson()}
+     * @param compareFormats also size every message as JSON and as binary
+     */
+    public InstrumentedPbbClient(PbbClient delegate, Gson gson, boolean compareFormats) {
         this.delegate = delegate;
         this.gson = gson;
+        this.compareFormats = compareFormats;
+        this.wireBytes = delegate.addTrafficListener(this::onExchange);
+    }
+
+    private void onExchange(String method, String topic, Class<?> type, long sent, long received) {
+        requests.computeIfAbsent(method, k -> new LongAdder()).increment();
+        if (sent > 0) {
+            counter(topic, SENT, type).bytes.add(sent);
+            bytesSent.add(sent);
+        }
+        if (received > 0) {
+            counter(topic, RECEIVED, type).bytes.add(received);
+            bytesReceived.add(received);
+        }
     }
 
     @Override
     public void publish(String topic, Object msg) throws Exception {
-        byte[] data = gson.toJson(msg).getBytes(StandardCharsets.UTF_8);
-        bytesSent += data.length;
-        delegate.publish(topic, msg);
+        long t0 = System.nanoTime();
+        try {
+            delegate.publish(topic, msg);
+        } finally {
+            timed("publish", t0);
+        }
+        counter(topic, SENT, msg.getClass()).messages.increment();
+        if (compareFormats)
+            sizeFormats(List.of(msg), jsonBytesSent, binaryBytesSent);
     }
 
     @Override
     public void publishAll(String topic, Object[] msgs) throws Exception {
+        long t0 = System.nanoTime();
+        try {
+            delegate.publishAll(topic, msgs);
+        } finally {
+            timed("publishAll", t0);
+        }
         for (Object m : msgs)
-            publish(topic, m);
+            counter(topic, SENT, m.getClass()).messages.increment();
+        if (compareFormats)
+            sizeFormats(Arrays.asList(msgs), jsonBytesSent, binaryBytesSent);
     }
 
     @Override
     public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
-        List<T> out = delegate.fetch(topic, clazz);
-        String json = gson.toJson(out);
-        bytesReceived += json.getBytes(StandardCharsets.UTF_8).length;
+        long t0 = System.nanoTime();
+        List<T> out;
+        try {
+            out = delegate.fetch(topic, clazz);
+        } finally {
+            timed("fetch", t0);
+        }
+        received(topic, clazz, out);
+        return out;
+    }
+
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) throws Exception {
+        long t0 = System.nanoTime();
+        List<T> out;
+        try {
+            out = delegate.fetchWhere(topic, field, value, clazz);
+        } finally {
+            timed("fetchWhere", t0);
+        }
+        received(topic, clazz, out);
+        return out;
+    }
+
+    @Override
+    public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws Exception {
+        long t0 = System.nanoTime();
+        List<T> out;
+        try {
+            out = delegate.awaitAtLeast(topic, count, clazz);
+        } finally {
+            timed("awaitAtLeast", t0);
+        }
+        received(topic, clazz, out);
         return out;
     }
 
     @Override
     public void delete(String topic, String id) throws Exception {
-        delegate.delete(topic, id);
+        long t0 = System.nanoTime();
+        try {
+            delegate.delete(topic, id);
+        } finally {
+            timed("delete", t0);
+        }
     }
 
-    /** How many bytes have we sent so far? */
+    @Override
+    public WireFormat wireFormat() {
+        return delegate.wireFormat();
+    }
+
+    @Override
+    public boolean addTrafficListener(TrafficListener listener) {
+        return delegate.addTrafficListener(listener);
+    }
+
+    private void received(String topic, Class<?> clazz, List<?> out) {
+        counter(topic, RECEIVED, clazz).messages.add(out.size());
+        if (compareFormats)
+            sizeFormats(out, jsonBytesReceived, binaryBytesReceived);
+    }
+
+    /**
+     * Adds what {@code msgs} cost as a JSON body and as a binary frame;
+     * payloads the codec doesn't cover count their JSON size for both.
+     */
+    private void sizeFormats(List<?> msgs, LongAdder json, LongAdder binary) {
+        if (msgs.isEmpty())
+            return;
+        long jsonLen = plain.toJson(msgs.size() == 1 ? msgs.get(0) : msgs).getBytes(StandardCharsets.UTF_8).length;
+        long binLen = jsonLen;
+        try {
+            boolean supported = true;
+            for (Object m : msgs)
+                supported &= BinaryDtoCodec.supports(m.getClass());
+            if (supported)
+                binLen = BinaryDtoCodec.encodeList(msgs).length;
+        } catch (IllegalArgumentException notEncodable) {
+        }
+        json.add(jsonLen);
+        binary.add(binLen);
+    }
+
+    private void timed(String op, long t0) {
+        latency.computeIfAbsent(op, k -> new LatencyHistogram()).record(System.nanoTime() - t0);
+    }
+
+    private Counter counter(String topic, String direction, Class<?> type) {
+        return traffic.computeIfAbsent(new TrafficKey(topic, direction, type), k -> new Counter());
+    }
+
+    // —— readout —— //
+
+    /** Wire bytes sent so far (0 without a transport under the delegate). */
     public long getBytesSent() {
-        return bytesSent;
+        return bytesSent.sum();
     }
 
-    /** How many bytes have we received so far? */
+    /** Wire bytes received so far (0 without a transport under the delegate). */
     public long getBytesReceived() {
-        return bytesReceived;
+        return bytesReceived.sum();
+    }
+
+    /** What the sent traffic costs as JSON bodies (0 unless comparing formats). */
+    public long getJsonBytesSent() {
+        return jsonBytesSent.sum();
+    }
+
+    /** What the received traffic costs as JSON bodies (0 unless comparing formats). */
+    public long getJsonBytesReceived() {
+        return jsonBytesReceived.sum();
+    }
+
+    /** What the sent traffic costs as binary frames (0 unless comparing formats). */
+    public long getBinaryBytesSent() {
+        return binaryBytesSent.sum();
+    }
+
+    /** What the received traffic costs as binary frames (0 unless comparing formats). */
+    public long getBinaryBytesReceived() {
+        return binaryBytesReceived.sum();
+    }
+
+    /** Board requests so far, over all methods. */
+    public long getRequests() {
+        long n = 0;
+        for (LongAdder a : requests.values())
+            n += a.sum();
+        return n;
+    }
+
+    /** Call latency of one PbbClient operation ("publish", "fetch", …), or null if never called. */
+    public LatencyHistogram latencyOf(String op) {
+        return latency.get(op);
+    }
+
+    /** One‐line summary, e.g. for the end of a smoke test. */
+    public String bandwidthReport() {
+        String report = String.format("wire=%s  sent=%d B  recv=%d B  requests=%d %s",
+                delegate.wireFormat(), getBytesSent(), getBytesReceived(), getRequests(),
+                wireBytes ? "" : "(no transport, bytes not counted)");
+        if (!compareFormats)
+            return report;
+        Formats f = formats();
+        return report + String.format("%n  json: sent=%d recv=%d  binary: sent=%d recv=%d  (binary/json = %.2f)",
+                f.jsonSent, f.jsonReceived, f.binarySent, f.binaryReceived, f.binaryToJson);
+    }
+
+    /**
+     * Zeroes every counter and histogram, e.g. between benchmark iterations;
+     * calls still in flight may land on either side of it.
+     */
+    public void reset() {
+        traffic.clear();
+        requests.clear();
+        latency.clear();
+        bytesSent.reset();
+        bytesReceived.reset();
+        jsonBytesSent.reset();
+        jsonBytesReceived.reset();
+        binaryBytesSent.reset();
+        binaryBytesReceived.reset();
+    }
+
+    /** Point‐in‐time copy of all counters. */
+    public Snapshot snapshot() {
+        Snapshot s = new Snapshot();
+        s.wireFormat = delegate.wireFormat().name();
+        s.wireBytes = wireBytes;
+        s.bytesSent = getBytesSent();
+        s.bytesReceived = getBytesReceived();
+        s.formats = compareFormats ? formats() : null;
+        requests.forEach((m, a) -> s.requests.put(m, a.sum()));
+        latency.forEach((op, h) -> s.latency.put(op, h.summary()));
+        traffic.forEach((k, c) -> {
+            Traffic t = new Traffic();
+            t.topic = k.topic;
+            t.direction = k.direction;
+            t.type = k.type == null ? "-" : k.type.getSimpleName();
+            t.bytes = c.bytes.sum();
+            t.messages = c.messages.sum();
+            s.traffic.add(t);
+        });
+        s.traffic.sort((a, b) -> a.topic.equals(b.topic)
+                ? a.direction.compareTo(b.direction)
+                : a.topic.compareTo(b.topic));
+        return s;
+    }
+
+    private Formats formats() {
+        Formats f = new Formats();
+        f.jsonSent = getJsonBytesSent();
+        f.jsonReceived = getJsonBytesReceived();
+        f.binarySent = getBinaryBytesSent();
+        f.binaryReceived = getBinaryBytesReceived();
+        long json = f.jsonSent + f.jsonReceived;
+        f.binaryToJson = json == 0 ? 1.0 : (double) (f.binarySent + f.binaryReceived) / json;
+        return f;
+    }
+
+    /** {@link #snapshot()} as JSON. */
+    public String snapshotJson() {
+        return gson.toJson(snapshot());
+    }
+
+    /** Gson‐friendly view of the counters. */
+    public static final class Snapshot {
+        public String wireFormat;
+        public boolean wireBytes; // false → the delegate has no transport, bytes are 0
+        public long bytesSent;
+        public long bytesReceived;
+        public Formats formats; // null unless comparing formats
+        public Map<String, Long> requests = new TreeMap<>();
+        public Map<String, LatencyHistogram.Summary> latency = new TreeMap<>();
+        public List<Traffic> traffic = new ArrayList<>();
+    }
+
+    /** The same messages sized in both wire formats. */
+    public static final class Formats {
+        public long jsonSent;
+        public long jsonReceived;
+        public long binarySent;
+        public long binaryReceived;
+        public double binaryToJson;
+    }
+
+    public static final class Traffic {
+        public String topic;
+        public String direction;
+        public String type;
+        public long bytes;
+        public long messages;
+    }
+
+    private static final class Counter {
+        final LongAdder bytes = new LongAdder();
+        final LongAdder messages = new LongAdder();
+    }
+
+    private static final class TrafficKey {
+        final String topic;
+        final String direction;
+        final Class<?> type;
+
+        TrafficKey(String topic, String direction, Class<?> type) {
+            this.topic = topic;
+            this.direction = direction;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TrafficKey))
+                return false;
+            TrafficKey k = (TrafficKey) o;
+            return topic.equals(k.topic) && direction.equals(k.direction) && type == k.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topic, direction, type);
+        }
     }
 }
@@ -0,0 +1,283 @@
+package org.example.napdkg.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+
+/**
+ * Puts one party's WAN link in front of a board: every request pays a sampled
+ * round trip, optional transfer time under a bandwidth cap, and may be lost
+ * and retransmitted.
+ *
+ * Per request: RTT ~ max(0, N(rtt, jitter²)), half before the delegate call
+ * (so a publish becomes visible half an RTT late) and half after; plus
+ * bytes ÷ bandwidth for the request body before and the response body after.
+ * With probability {@code drop} a request is lost on the way up; the caller
+ * notices after {@code rto} and sends it again, so every request still
+ * arrives exactly once, only later.
+ *
+ * {@link #awaitAtLeast} is the interface default on purpose: it polls through
+ * this client's fetch, so each poll pays a round trip just like the phase
+ * loops' polling does against a remote board.
+ *
+ * Wrap each party separately, each with its own seed, under that party's
+ * cache (cache hits don't touch the network). The same seed gives the same
+ * delays and drops for the same request sequence.
+ */
+public class LatencyInjectingPbbClient implements PbbClient {
+
+    /** One link profile; everything off by default. */
+    public static final class Options {
+        private double rttMs;
+        private double jitterMs;
+        private long bandwidth; // bytes/s, 0 = unlimited
+        private double drop;
+        private double rtoMs = -1; // < 0 → 3·rtt, at least 200 ms
+
+        /** Mean round‐trip time. */
+        public Options rtt(double ms) {
+            this.rttMs = ms;
+            return this;
+        }
+
+        /** Standard deviation of the round‐trip time. */
+        public Options jitter(double ms) {
+            this.jitterMs = ms;
+            return this;
+        }
+
+        /** Link capacity in bytes per second, each direction; 0 = no cap. */
+        public Options bandwidth(long bytesPerSecond) {
+            this.bandwidth = bytesPerSecond;
+            return this;
+        }
+
+        /** Probability that a request is lost and must be retransmitted. */
+        public Options drop(double probability) {
+            if (probability < 0 || probability >= 1)
+                throw new IllegalArgumentException("drop must be in [0, 1), was " + probability);
+            this.drop = probability;
+            return this;
+        }
+
+        /** How long the sender waits before retransmitting a lost request. */
+        public Options rto(double ms) {
+            this.rtoMs = ms;
+            return this;
+        }
+
+        double rtoMs() {
+            return rtoMs >= 0 ? rtoMs : Math.max(200, 3 * rttMs);
+        }
+
+        /**
+         * Parses one profile, e.g. {@code rtt=120,jitter=15,bw=2m,drop=0.01}.
+         * Keys: rtt, jitter, rto (ms), bw (bytes/s, k/m/g suffix ×1000), drop.
+         */
+        public static Options parse(String spec) {
+            Options o = new Options();
+            for (String kv : spec.split(",")) {
+                if (kv.isBlank())
+                    continue;
+                String[] p = kv.trim().split("=", 2);
+                if (p.length != 2)
+                    throw new IllegalArgumentException("expected key=value, got \"" + kv + "\"");
+                String v = p[1].trim();
+                switch (p[0].trim()) {
+                    case "rtt":
+                        o.rtt(Double.parseDouble(v));
+                        break;
+                    case "jitter":
+                        o.jitter(Double.parseDouble(v));
+                        break;
+                    case "bw":
+                        o.bandwidth(parseRate(v));
+                        break;
+                    case "drop":
+                        o.drop(Double.parseDouble(v));
+                        break;
+                    case "rto":
+                        o.rto(Double.parseDouble(v));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown link option \"" + p[0] + "\"");
+                }
+            }
+            return o;
+        }
+
+        /**
+         * Parses {@code ;}‐separated profiles, handed to parties round robin:
+         * {@code rtt=40;rtt=180,jitter=30} puts even parties near the board and
+         * odd ones far away.
+         */
+        public static List<Options> parseProfiles(String spec) {
+            List<Options> out = new ArrayList<>();
+            for (String one : spec.split(";")) {
+                out.add(parse(one));
+            }
+            return out;
+        }
+
+        private static long parseRate(String v) {
+            char unit = Character.toLowerCase(v.charAt(v.length() - 1));
+            long mul = unit == 'k' ? 1_000L : unit == 'm' ? 1_000_000L : unit == 'g' ? 1_000_000_000L : 1;
+            String digits = mul == 1 ? v : v.substring(0, v.length() - 1);
+            return (long) (Double.parseDouble(digits) * mul);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rtt=%.0fms±%.0f bw=%s drop=%.3f rto=%.0fms",
+                    rttMs, jitterMs, bandwidth == 0 ? "∞" : bandwidth + "B/s", drop, rtoMs());
+        }
+    }
+
+    private final PbbClient delegate;
+    private final Options link;
+    private final Random rnd;
+    private final Gson gson = new Gson();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final LongAdder injectedNanos = new LongAdder();
+
+    public LatencyInjectingPbbClient(PbbClient delegate, Options link, long seed) {
+        this.delegate = delegate;
+        this.link = link;
+        this.rnd = new Random(seed);
+    }
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        long rtt = up(sizeOf(msg));
+        delegate.publish(topic, msg);
+        down(rtt, 0);
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        long rtt = up(sizeOf(msgs));
+        delegate.publishAll(topic, msgs);
+        down(rtt, 0);
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        long rtt = up(0);
+        List<T> out = delegate.fetch(topic, clazz);
+        down(rtt, sizeOf(out));
+        return out;
+    }
+
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) throws Exception {
+        long rtt = up(0);
+        List<T> out = delegate.fetchWhere(topic, field, value, clazz);
+        down(rtt, sizeOf(out));
+        return out;
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        long rtt = up(0);
+        delegate.delete(topic, id);
+        down(rtt, 0);
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return delegate.wireFormat();
+    }
+
+    @Override
+    public boolean addTrafficListener(TrafficListener listener) {
+        return delegate.addTrafficListener(listener);
+    }
+
+    public Options link() {
+        return link;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getDrops() {
+        return drops.sum();
+    }
+
+    /** Total time this client has slept on behalf of the network. */
+    public long getInjectedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(injectedNanos.sum());
+    }
+
+    // —— the link —— //
+
+    /**
+     * Request leg: retransmissions, then half the round trip and the body's
+     * transfer time.
+     *
+     * @return the sampled RTT, whose other half {@link #down} sleeps
+     */
+    private long up(long bytes) throws InterruptedException {
+        requests.increment();
+        long rto = msToNanos(link.rtoMs());
+        while (link.drop > 0 && nextDouble() < link.drop) {
+            drops.increment();
+            sleep(rto);
+        }
+        long rtt = sampleRttNanos();
+        sleep(rtt / 2 + transferNanos(bytes));
+        return rtt;
+    }
+
+    /** Response leg: the rest of the round trip and the body's transfer time. */
+    private void down(long rtt, long bytes) throws InterruptedException {
+        sleep(rtt - rtt / 2 + transferNanos(bytes));
+    }
+
+    /** Next round trip, N(rtt, jitter²) clipped at 0. */
+    long sampleRttNanos() {
+        double g;
+        synchronized (rnd) {
+            g = rnd.nextGaussian();
+        }
+        return Math.max(0, msToNanos(link.rttMs + link.jitterMs * g));
+    }
+
+    private double nextDouble() {
+        synchronized (rnd) {
+            return rnd.nextDouble();
+        }
+    }
+
+    private long transferNanos(long bytes) {
+        if (link.bandwidth <= 0 || bytes == 0)
+            return 0;
+        return bytes * 1_000_000_000L / link.bandwidth;
+    }
+
+    /** JSON size of a body; only computed when there is a bandwidth cap. */
+    private long sizeOf(Object body) {
+        if (link.bandwidth <= 0)
+            return 0;
+        return gson.toJson(body).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void sleep(long nanos) throws InterruptedException {
+        if (nanos <= 0)
+            return;
+        injectedNanos.add(nanos);
+        TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    private static long msToNanos(double ms) {
+        return (long) (ms * 1_000_000);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.napdkg.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,6 +21,63 @@ public interface PbbClient {
         <T> List<T> fetch(String topic, Class<T> clazz)
                         throws IOException, InterruptedException, Exception;
 
+        /**
+         * Fetches only the entries of {@code topic} whose top‐level field
+         * {@code field} equals {@code value}, e.g.
+         * {@code fetchWhere("DealerPublish", "dealerIndexDTO", 5, SharingOutputDTO.class)}.
+         *
+         * The default falls back to a full {@link #fetch} and filters locally;
+         * implementations that can push the filter to the board override it so
+         * only the matching DTOs are transferred.
+         */
+        default <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz)
+                        throws Exception {
+                List<T> out = new ArrayList<>();
+                for (T dto : fetch(topic, clazz)) {
+                        if (FieldFilter.matches(dto, field, value))
+                                out.add(dto);
+                }
+                return out;
+        }
+
         void delete(String topic, String id) throws Exception;
 
+        /** How often the default {@link #awaitAtLeast} polls the board. */
+        long AWAIT_POLL_MS = 100;
+
+        /**
+         * Blocks until {@code topic} holds at least {@code count} entries and
+         * returns them. The default polls {@link #fetch} every
+         * {@link #AWAIT_POLL_MS}, as the phase loops always did; a board in this
+         * JVM overrides it to wake the caller on the publish itself.
+         */
+        default <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz)
+                        throws Exception {
+                List<T> got = fetch(topic, clazz);
+                while (got.size() < count) {
+                        Thread.sleep(AWAIT_POLL_MS);
+                        got = fetch(topic, clazz);
+                }
+                return got;
+        }
+
+        /**
+         * @return the body encoding currently used on the wire; JSON unless the
+         *         implementation negotiated the compact binary frame with its board
+         */
+        default WireFormat wireFormat() {
+                return WireFormat.JSON;
+        }
+
+        /**
+         * Registers {@code listener} for the wire bytes of every request the
+         * transport underneath makes from now on. Wrappers hand it on to their
+         * delegate, so it reaches the transport through any chain of them.
+         *
+         * @return false if there is no transport underneath to report bytes
+         */
+        default boolean addTrafficListener(TrafficListener listener) {
+                return false;
+        }
+
 }
@@ -0,0 +1,69 @@
+package org.example.napdkg.client;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A board frozen at the end of a recorded session: every read answers from
+ * the {@link Transcript}, every write is refused. Verification and
+ * reconstruction only read, so they can run against it over and over without
+ * redoing setup and dealing.
+ *
+ * Backed by an {@link InMemoryPbbClient}, so fetchWhere has its field index
+ * and awaitAtLeast returns at once when the transcript holds enough entries
+ * (and would wait forever when it doesn't — fail fast instead, see
+ * {@link #awaitAtLeast}).
+ */
+public class ReplayPbbClient implements PbbClient {
+    private final InMemoryPbbClient board = new InMemoryPbbClient();
+    private final Transcript transcript;
+
+    public ReplayPbbClient(Transcript transcript) {
+        this.transcript = transcript;
+        for (Map.Entry<String, List<Object>> e : transcript.topics.entrySet()) {
+            for (Object dto : e.getValue()) {
+                board.publish(e.getKey(), dto);
+            }
+        }
+    }
+
+    public Transcript transcript() {
+        return transcript;
+    }
+
+    @Override
+    public void publish(String topic, Object msg) {
+        throw new UnsupportedOperationException("replayed board is read-only (publish to " + topic + ")");
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) {
+        throw new UnsupportedOperationException("replayed board is read-only (publish to " + topic + ")");
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) {
+        return board.fetch(topic, clazz);
+    }
+
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) {
+        return board.fetchWhere(topic, field, value, clazz);
+    }
+
+    /** Nothing will ever be published here, so asking for more than was recorded is an error. */
+    @Override
+    public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) {
+        List<T> got = board.fetch(topic, clazz);
+        if (got.size() < count) {
+            throw new IllegalStateException("transcript holds " + got.size() + " entries on " + topic
+                    + ", " + count + " requested");
+        }
+        return got;
+    }
+
+    @Override
+    public void delete(String topic, String id) {
+        throw new UnsupportedOperationException("replayed board is read-only (delete " + topic + "/" + id + ")");
+    }
+}
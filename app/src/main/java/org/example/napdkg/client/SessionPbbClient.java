@@ -0,0 +1,106 @@
+package org.example.napdkg.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * One DKG session's view of a shared board: every topic is namespaced as
+ * {@code <session>.<topic>}, so "ephemeralKeys" of session s7 is stored as
+ * "s7.ephemeralKeys" and never seen by any other session. Any number of
+ * sessions can then run on one board at the same time, and none has to
+ * clear the board first.
+ *
+ * Session ids are letters, digits, '_' and '-', so the namespaced topic is
+ * still a single URL path segment. Code that talks to the board directly
+ * (e.g. to mark a cache topic immutable) names topics with {@link #topic}.
+ */
+public class SessionPbbClient implements PbbClient {
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final PbbClient delegate;
+    private final String session;
+    private final String prefix;
+
+    public SessionPbbClient(PbbClient delegate, String session) {
+        if (session == null || !ID.matcher(session).matches())
+            throw new IllegalArgumentException("session id must match " + ID + ", was \"" + session + "\"");
+        this.delegate = delegate;
+        this.session = session;
+        this.prefix = session + ".";
+    }
+
+    /** {@code topic} as stored on the board for {@code session}; "" = no session. */
+    public static String topic(String session, String topic) {
+        return session == null || session.isEmpty() ? topic : session + "." + topic;
+    }
+
+    public String session() {
+        return session;
+    }
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        delegate.publish(prefix + topic, msg);
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        delegate.publishAll(prefix + topic, msgs);
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        return delegate.fetch(prefix + topic, clazz);
+    }
+
+    @Override
+    public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) throws Exception {
+        return delegate.fetchWhere(prefix + topic, field, value, clazz);
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        delegate.delete(prefix + topic, id);
+    }
+
+    @Override
+    public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws Exception {
+        return delegate.awaitAtLeast(prefix + topic, count, clazz);
+    }
+
+    /**
+     * Deletes every entry of this session's {@code topics} (topic → DTO type,
+     * e.g. {@link Transcript#TOPICS}), one delete per entry, since the board
+     * has no whole‐topic delete. DTOs are found by their public "id" field.
+     *
+     * @return the number of entries deleted
+     */
+    public int clear(Map<String, Class<?>> topics) throws Exception {
+        int deleted = 0;
+        for (Map.Entry<String, Class<?>> t : topics.entrySet()) {
+            for (Object dto : fetch(t.getKey(), t.getValue())) {
+                Object id = FieldFilter.read(dto, "id");
+                if (id != null) {
+                    delete(t.getKey(), id.toString());
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return delegate.wireFormat();
+    }
+
+    /** Passes on this session's traffic only, under the unprefixed topic. */
+    @Override
+    public boolean addTrafficListener(TrafficListener listener) {
+        return delegate.addTrafficListener((method, topic, type, sent, received) -> {
+            if (topic.startsWith(prefix))
+                listener.onExchange(method, topic.substring(prefix.length()), type, sent, received);
+        });
+    }
+}
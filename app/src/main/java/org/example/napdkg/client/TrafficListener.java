@@ -0,0 +1,19 @@
+package org.example.napdkg.client;
+
+/**
+ * Told about every request a transport has completed, with the body bytes
+ * that actually crossed the wire (after compression, in whatever
+ * {@link WireFormat} was negotiated). Called on the transport's threads, so
+ * implementations must be thread‐safe and quick.
+ */
+@FunctionalInterface
+public interface TrafficListener {
+    /**
+     * @param method        HTTP method (POST, GET, DELETE)
+     * @param topic         board topic
+     * @param type          DTO class the request carried, null if none (DELETE)
+     * @param bytesSent     request body bytes
+     * @param bytesReceived response body bytes
+     */
+    void onExchange(String method, String topic, Class<?> type, long bytesSent, long bytesReceived);
+}
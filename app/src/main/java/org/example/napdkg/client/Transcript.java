@@ -0,0 +1,182 @@
+package org.example.napdkg.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.ShareVerificationOutputDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * A captured session: everything a board held for one DKG, plus what a
+ * replay needs to act as any of its parties.
+ *
+ * File layout (written by {@link #write}):
+ *
+ * "NTR" ∥ version ∥ int(len) ∥ header JSON ∥ one BinaryDtoCodec frame per
+ * topic, in header.topics order
+ *
+ * The header holds n, t, fa, the topic names, every party's ephemeral secret
+ * key (hex; without them nobody could verify their own shares on replay)
+ * and, if known, the group key Y = G·Σ r_i. Frames are the board's own
+ * binary wire format, so a large transcript costs ~65 bytes per (dealer,
+ * recipient) pair and loads without touching JSON.
+ *
+ * {@link #read} also takes a json-server db.json (topic → array); that gives
+ * the board contents but no secrets.
+ */
+public class Transcript {
+    public static final String EPHEMERAL_KEYS = "ephemeralKeys";
+    public static final String DEALER_PUBLISH = "DealerPublish";
+    public static final String SHARE_VERIFICATION = "ShareVerificationOutput";
+
+    /** The topics a DKG session leaves on the board, with their DTO types. */
+    public static final Map<String, Class<?>> TOPICS = new LinkedHashMap<>();
+    static {
+        TOPICS.put(EPHEMERAL_KEYS, EphemeralKeyDTO.class);
+        TOPICS.put(DEALER_PUBLISH, SharingOutputDTO.class);
+        TOPICS.put(SHARE_VERIFICATION, ShareVerificationOutputDTO.class);
+    }
+
+    private static final byte[] MAGIC = { 'N', 'T', 'R' };
+    private static final int VERSION = 1;
+
+    /** Everything but the board contents. */
+    public static final class Header {
+        public int n;
+        public int t;
+        public int fa;
+        public List<String> topics = new ArrayList<>();
+        /** Party i's ephemeral secret key, hex; empty for a db.json import. */
+        public List<String> secretKeys = new ArrayList<>();
+        /** Compressed hex of Y, or null. */
+        public String groupKey;
+    }
+
+    public final Header header;
+    /** topic → its entries, in board order. */
+    public final Map<String, List<Object>> topics;
+
+    public Transcript(Header header, Map<String, List<Object>> topics) {
+        this.header = header;
+        this.topics = topics;
+    }
+
+    /**
+     * Reads the session's topics off {@code board}.
+     *
+     * @param secretKeys party i's ephemeral secret at index i (hex), or empty
+     * @param groupKey   compressed hex of Y, or null
+     */
+    public static Transcript capture(PbbClient board, int n, int t, int fa, List<String> secretKeys,
+            String groupKey) throws Exception {
+        Header h = new Header();
+        h.n = n;
+        h.t = t;
+        h.fa = fa;
+        h.secretKeys = new ArrayList<>(secretKeys);
+        h.groupKey = groupKey;
+        Map<String, List<Object>> topics = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<?>> e : TOPICS.entrySet()) {
+            List<Object> entries = new ArrayList<>(board.fetch(e.getKey(), e.getValue()));
+            if (!entries.isEmpty()) {
+                topics.put(e.getKey(), entries);
+                h.topics.add(e.getKey());
+            }
+        }
+        return new Transcript(h, topics);
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(os);
+            out.write(MAGIC);
+            out.write(VERSION);
+            byte[] json = new Gson().toJson(header).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(json.length);
+            out.write(json);
+            for (String topic : header.topics) {
+                BinaryDtoCodec.encodeList(topics.get(topic), out);
+            }
+            out.flush();
+        }
+    }
+
+    public static Transcript read(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            is.mark(1);
+            int first = is.read();
+            is.reset();
+            return first == '{' ? readDbJson(is) : readBinary(is);
+        }
+    }
+
+    private static Transcript readBinary(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        byte[] magic = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("not a transcript file");
+        }
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("unsupported transcript version " + version);
+        }
+        byte[] json = in.readNBytes(in.readInt());
+        Header h = new Gson().fromJson(new String(json, StandardCharsets.UTF_8), Header.class);
+        Map<String, List<Object>> topics = new LinkedHashMap<>();
+        for (String topic : h.topics) {
+            topics.put(topic, BinaryDtoCodec.decodeList(in, Object.class));
+        }
+        return new Transcript(h, topics);
+    }
+
+    /** json-server layout: { "ephemeralKeys": [...], "DealerPublish": [...], ... }. */
+    private static Transcript readDbJson(InputStream is) throws IOException {
+        JsonObject root = JsonParser.parseReader(new InputStreamReader(is, StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        Gson gson = new Gson();
+        Header h = new Header();
+        Map<String, List<Object>> topics = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<?>> e : TOPICS.entrySet()) {
+            JsonElement arr = root.get(e.getKey());
+            if (arr == null || !arr.isJsonArray() || ((JsonArray) arr).size() == 0)
+                continue;
+            List<Object> entries = new ArrayList<>();
+            for (JsonElement el : arr.getAsJsonArray()) {
+                entries.add(gson.fromJson(el, e.getValue()));
+            }
+            topics.put(e.getKey(), entries);
+            h.topics.add(e.getKey());
+        }
+        h.n = topics.getOrDefault(EPHEMERAL_KEYS, List.of()).size();
+        return new Transcript(h, topics);
+    }
+
+    /** Number of entries on {@code topic}. */
+    public int count(String topic) {
+        return topics.getOrDefault(topic, List.of()).size();
+    }
+}
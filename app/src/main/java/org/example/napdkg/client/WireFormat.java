@@ -0,0 +1,32 @@
+package org.example.napdkg.client;
+
+import org.example.napdkg.dto.BinaryDtoCodec;
+
+/**
+ * Body encodings a {@link PbbClient} can speak with its board.
+ *
+ * JSON is what json-server understands and is always available; BINARY is
+ * the compact {@link BinaryDtoCodec} frame and is only used once the board
+ * has shown it understands it.
+ */
+public enum WireFormat {
+    JSON("application/json"),
+    BINARY(BinaryDtoCodec.MEDIA_TYPE);
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /** Maps a Content-Type header value back to a format (JSON if unknown). */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.startsWith(BINARY.mediaType))
+            return BINARY;
+        return JSON;
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.napdkg.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * party-<id>.ckpt files in one directory, one per party, each the latest
+ * {@link PartyCheckpoint} of that party.
+ *
+ * {@link #save} only queues: a single writer thread encrypts and writes, and
+ * if a party saves again before its previous checkpoint was written, only
+ * the newer one is. A write goes to a temporary file, is forced to disk and
+ * then renamed over the old one, so a crash leaves either the old
+ * checkpoint or the new one, never a torn file. The directory is forced
+ * after the rename as well, so the new name survives a power cut too (see
+ * {@link #syncDirectory} for where that isn't possible).
+ *
+ * Secrets are sealed with a 256‐bit AES key held outside the checkpoint
+ * directory — see {@link #readOrCreateKey}.
+ */
+public class CheckpointStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private final Path dir;
+    private final SecretKey key;
+    private final SecureRandom rnd = new SecureRandom();
+    private final ConcurrentMap<Integer, PartyCheckpoint> pending = new ConcurrentHashMap<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread th = new Thread(r, "checkpoint-writer");
+        th.setDaemon(true);
+        return th;
+    });
+
+    public CheckpointStore(Path dir, byte[] key) throws IOException {
+        if (key.length != 32)
+            throw new IllegalArgumentException("checkpoint key must be 32 bytes");
+        this.dir = Files.createDirectories(dir);
+        this.key = new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * The 32‐byte key in {@code file}, created (owner‐only where the file
+     * system allows) on first use. Keep it off the checkpoint volume: a copy
+     * of the checkpoints alone then reveals no secret.
+     */
+    public static byte[] readOrCreateKey(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            if (file.toAbsolutePath().getParent() != null)
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            try {
+                try {
+                    Files.createFile(file, PosixFilePermissions.asFileAttribute(
+                            PosixFilePermissions.fromString("rw-------")));
+                } catch (UnsupportedOperationException e) {
+                    Files.createFile(file);
+                }
+                Files.write(file, key);
+                return key;
+            } catch (FileAlreadyExistsException raced) {
+                // another party process made it first
+            }
+        }
+        byte[] key = Files.readAllBytes(file);
+        if (key.length != 32)
+            throw new IOException("checkpoint key " + file + " is " + key.length + " bytes, expected 32");
+        return key;
+    }
+
+    public Path fileFor(int party) {
+        return dir.resolve("party-" + party + ".ckpt");
+    }
+
+    /**
+     * Queues {@code cp} for writing and returns at once. The caller must not
+     * change it afterwards.
+     */
+    public void save(PartyCheckpoint cp) {
+        if (pending.put(cp.party, cp) == null)
+            writer.execute(() -> writePending(cp.party));
+    }
+
+    /** Waits until everything saved so far is on disk. */
+    public void flush() throws IOException {
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted waiting for checkpoints", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        IOException e = failure.getAndSet(null);
+        if (e != null)
+            throw e;
+    }
+
+    /** {@link #save} then {@link #flush}: for state that must not be lost. */
+    public void saveNow(PartyCheckpoint cp) throws IOException {
+        save(cp);
+        flush();
+    }
+
+    /** @return the party's last checkpoint, or null if it has none */
+    public PartyCheckpoint load(int party, ECCurve curve) throws IOException {
+        Path file = fileFor(party);
+        if (!Files.exists(file))
+            return null;
+        PartyCheckpoint cp = PartyCheckpoint.decode(Files.readAllBytes(file), key, curve);
+        if (cp.party != party)
+            throw new IOException(file + " belongs to party " + cp.party);
+        return cp;
+    }
+
+    public void delete(int party) throws IOException {
+        pending.remove(party);
+        Files.deleteIfExists(fileFor(party));
+    }
+
+    private void writePending(int party) {
+        PartyCheckpoint cp = pending.remove(party);
+        if (cp == null)
+            return;
+        long t0 = System.nanoTime();
+        Path file = fileFor(party);
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        try {
+            byte[] data = cp.encode(key, rnd);
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(data);
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            log.debug("party {} checkpoint after {}: {} bytes in {} µs", party, cp.completed, data.length,
+                    (System.nanoTime() - t0) / 1000);
+        } catch (IOException e) {
+            log.warn("party {} checkpoint failed: {}", party, e.toString());
+            failure.set(e);
+        }
+    }
+
+    /**
+     * fsyncs {@link #dir}, making the last rename in it durable; until then
+     * ext4, XFS and the like may lose it in a power cut even though the file's
+     * data was forced. Linux and macOS let a directory be opened and forced.
+     * Windows refuses to open a directory as a channel (NTFS journals the
+     * rename itself), as do some network filesystems; there this is a no‐op
+     * and the rename is as durable as the filesystem makes it.
+     */
+    private void syncDirectory() {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            log.debug("cannot fsync checkpoint directory {}: {}", dir, e.toString());
+        }
+    }
+
+    /** Writes what is queued, then stops the writer. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+        }
+    }
+}
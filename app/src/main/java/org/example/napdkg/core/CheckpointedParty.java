@@ -0,0 +1,198 @@
+package org.example.napdkg.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.PartyCheckpoint.Stage;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.ShareVerificationOutputDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One party's run of the protocol, checkpointed after every phase and every
+ * verified dealer, so a restarted process continues where the last one
+ * stopped:
+ *
+ * CheckpointedParty me = new CheckpointedParty(P, store);
+ * me.resume(); // no‐op on a first start
+ * me.run(); // skips what is already done
+ *
+ * Only the key pair is saved before it is used: a party that published a
+ * key and then lost it could never decrypt its shares. Every other
+ * checkpoint is written in the background, and a step whose checkpoint
+ * didn't land before a crash is recognised by its output already being on
+ * the board (key, sharing or threshold output under this party's index) and
+ * not repeated. A sharing published that way leaves {@link #getDealerSecret}
+ * null.
+ */
+public class CheckpointedParty {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointedParty.class);
+
+    private final PartyContext P;
+    private final CheckpointStore store;
+    private final VerificationPhase vp;
+    private Stage completed = Stage.NONE;
+    private BigInteger dealerSecret;
+    private ECPoint groupKey;
+    private int dealersVerifiedHere;
+
+    public CheckpointedParty(PartyContext P, CheckpointStore store) {
+        this.P = P;
+        this.store = store;
+        this.vp = new VerificationPhase(P);
+    }
+
+    /**
+     * Loads this party's checkpoint, if any, into P and the verification
+     * state.
+     *
+     * @return the last stage it had completed
+     */
+    public Stage resume() throws Exception {
+        PartyCheckpoint cp = store.load(P.id, P.ctx.getCurve());
+        if (cp == null)
+            return completed;
+        if (cp.n != P.n || cp.t != P.t || cp.fa != P.fa)
+            throw new IllegalStateException(String.format("checkpoint of party %d is for n=%d t=%d fa=%d",
+                    P.id, cp.n, cp.t, cp.fa));
+        P.ephKey = cp.ephKey;
+        dealerSecret = cp.dealerSecret;
+        vp.restore(cp.verifiedDealers, cp.q1, cp.shareCommitments, cp.shares);
+        completed = cp.completed;
+        log.info("party {} resumes after {} ({} dealers verified)", P.id, completed, cp.verifiedDealers.size());
+        return completed;
+    }
+
+    /** Every remaining step, in order. */
+    public ECPoint run() throws Exception {
+        publishKey();
+        awaitKeys();
+        deal();
+        verifyAll();
+        publishThreshold();
+        return reconstruct();
+    }
+
+    public void publishKey() throws Exception {
+        if (done(Stage.SETUP))
+            return;
+        if (P.ephKey == null) {
+            P.ephKey = DhKeyPair.generate(P.ctx);
+            completed = Stage.KEY;
+            store.saveNow(capture());
+        } else if (onBoard("ephemeralKeys", "partyIndex", EphemeralKeyDTO.class)) {
+            return;
+        }
+        SetupPhasePublisher.publishEphemeralKey(P);
+    }
+
+    public void awaitKeys() throws Exception {
+        if (done(Stage.SETUP))
+            return;
+        SetupPhaseWaiter.awaitAllEphemeralKeys(P, P.n);
+        complete(Stage.SETUP);
+    }
+
+    public void deal() throws Exception {
+        if (done(Stage.SHARING))
+            return;
+        if (onBoard("DealerPublish", "dealerIndexDTO", SharingOutputDTO.class)) {
+            log.warn("party {} dealt before its last checkpoint; dealer secret not recovered", P.id);
+        } else {
+            SharingPhase sp = new SharingPhase(P, P.t);
+            sp.runSharingAsDealer2();
+            dealerSecret = sp.getSecretShare();
+        }
+        complete(Stage.SHARING);
+    }
+
+    /** Verifies every dealer not verified before, checkpointing after each. */
+    public void verifyAll() throws Exception {
+        if (done(Stage.VERIFICATION))
+            return;
+        for (int dealer = 0; dealer < P.n; dealer++) {
+            verify(dealer);
+        }
+        complete(Stage.VERIFICATION);
+    }
+
+    public void verify(int dealer) throws Exception {
+        if (vp.getVerifiedDealers().contains(dealer))
+            return;
+        vp.VerifySharesFor(dealer);
+        dealersVerifiedHere++;
+        store.save(capture());
+    }
+
+    public void publishThreshold() throws Exception {
+        if (done(Stage.THRESHOLD))
+            return;
+        if (!onBoard("ShareVerificationOutput", "verifierIndex", ShareVerificationOutputDTO.class))
+            vp.publishThresholdOutput();
+        complete(Stage.THRESHOLD);
+    }
+
+    /** Rebuilds Y from the threshold outputs; waits for the checkpoint to land. */
+    public ECPoint reconstruct() throws Exception {
+        if (groupKey == null)
+            groupKey = vp.reconstructUnchecked(vp.getQ1(), vp.collectAndPruneThresholdOutputs());
+        if (!done(Stage.RECONSTRUCTION))
+            complete(Stage.RECONSTRUCTION);
+        store.flush();
+        return groupKey;
+    }
+
+    public Stage getCompleted() {
+        return completed;
+    }
+
+    public BigInteger getDealerSecret() {
+        return dealerSecret;
+    }
+
+    public VerificationPhase getVerification() {
+        return vp;
+    }
+
+    /** Dealers verified by this process, i.e. not skipped thanks to a checkpoint. */
+    public int getDealersVerifiedHere() {
+        return dealersVerifiedHere;
+    }
+
+    private boolean done(Stage s) {
+        return completed.compareTo(s) >= 0;
+    }
+
+    private void complete(Stage s) {
+        completed = s;
+        store.save(capture());
+    }
+
+    /** Is there already an entry of ours on the board under {@code topic}? */
+    private boolean onBoard(String topic, String indexField, Class<?> type) throws Exception {
+        return !P.pbb.fetchWhere(topic, indexField, P.id, type).isEmpty();
+    }
+
+    /** A copy of the current state, safe to hand to the writer thread. */
+    private PartyCheckpoint capture() {
+        PartyCheckpoint cp = new PartyCheckpoint();
+        cp.party = P.id;
+        cp.n = P.n;
+        cp.t = P.t;
+        cp.fa = P.fa;
+        cp.completed = completed;
+        cp.ephKey = P.ephKey;
+        cp.dealerSecret = dealerSecret;
+        cp.verifiedDealers = new ArrayList<>(vp.getVerifiedDealers());
+        for (SharingOutput so : vp.getQ1()) {
+            cp.q1.add(so.getDealerIndex());
+        }
+        cp.shareCommitments = new TreeMap<>(vp.getShareCommitments());
+        cp.shares = new TreeMap<>(vp.getShares());
+        return cp;
+    }
+}
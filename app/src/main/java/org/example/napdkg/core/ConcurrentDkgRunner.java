@@ -0,0 +1,277 @@
+package org.example.napdkg.core;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.CachingPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.SessionPbbClient;
+import org.example.napdkg.client.Transcript;
+import org.example.napdkg.util.DkgContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Many independent DKGs over one board, concurrently:
+ *
+ * Report r = ConcurrentDkgRunner.run(board, Options.parse("sessions=32,threads=8"));
+ *
+ * Every session gets its own id and thus its own topics (see
+ * {@link SessionPbbClient}); the board, a read‐through cache in front of it,
+ * the DkgContext (from {@link DkgContextRegistry}) and, with precompute,
+ * one {@link PrecomputationPool} are shared by all of them.
+ *
+ * A session is one task on a fixed pool of {@code threads}: its n parties
+ * run phase by phase on that task's thread, as in the smoke test. A party
+ * never blocks waiting for a party of a task that hasn't started, so any
+ * number of sessions fits any pool size. Each session checks its
+ * reconstructed Y against G·Σ dealer secrets, and then, passed or failed,
+ * deletes its topics from the board and forgets them in the cache (unless
+ * {@code keep}), so a long run doesn't grow either.
+ */
+public class ConcurrentDkgRunner {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentDkgRunner.class);
+
+    public static final class Options {
+        private int sessions = 16;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int n = 8;
+        private int t = -1; // < 0 → n/2 − 1
+        private boolean precompute;
+        private boolean keep;
+        private String prefix = "s" + Long.toString(System.currentTimeMillis(), 36);
+
+        /** Number of DKGs to run. */
+        public Options sessions(int count) {
+            this.sessions = count;
+            return this;
+        }
+
+        /** Size of the shared pool the sessions run on. */
+        public Options threads(int count) {
+            this.threads = count;
+            return this;
+        }
+
+        public Options n(int parties) {
+            this.n = parties;
+            return this;
+        }
+
+        public Options t(int threshold) {
+            this.t = threshold;
+            return this;
+        }
+
+        /** Share a background {@link PrecomputationPool} between all sessions. */
+        public Options precompute(boolean on) {
+            this.precompute = on;
+            return this;
+        }
+
+        /** Leave every session's topics on the board afterwards, e.g. to inspect them. */
+        public Options keep(boolean on) {
+            this.keep = on;
+            return this;
+        }
+
+        /** Session ids are {@code <prefix>-<k>}; the default is unique per run. */
+        public Options prefix(String p) {
+            this.prefix = p;
+            return this;
+        }
+
+        int t() {
+            return t >= 0 ? t : n / 2 - 1;
+        }
+
+        /** e.g. "sessions=32,threads=8,n=16,t=7,precompute=true,keep=false". */
+        public static Options parse(String spec) {
+            Options o = new Options();
+            if (spec == null || spec.isBlank() || spec.equals("true"))
+                return o;
+            for (String kv : spec.split(",")) {
+                String[] p = kv.trim().split("=", 2);
+                if (p.length != 2)
+                    throw new IllegalArgumentException("expected key=value, got \"" + kv + "\"");
+                String v = p[1].trim();
+                switch (p[0].trim()) {
+                    case "sessions":
+                        o.sessions(Integer.parseInt(v));
+                        break;
+                    case "threads":
+                        o.threads(Integer.parseInt(v));
+                        break;
+                    case "n":
+                        o.n(Integer.parseInt(v));
+                        break;
+                    case "t":
+                        o.t(Integer.parseInt(v));
+                        break;
+                    case "precompute":
+                        o.precompute(Boolean.parseBoolean(v));
+                        break;
+                    case "keep":
+                        o.keep(Boolean.parseBoolean(v));
+                        break;
+                    case "prefix":
+                        o.prefix(v);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown session option " + p[0]);
+                }
+            }
+            return o;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "sessions=%d threads=%d n=%d t=%d precompute=%b",
+                    sessions, threads, n, t(), precompute);
+        }
+    }
+
+    public static final class Report {
+        public int sessions;
+        public int failed;
+        public double wallMs;
+        public double dkgsPerMinute;
+        public double meanSessionMs;
+        public double maxSessionMs;
+        public String[] sessionIds;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d DKGs (%d failed) in %.0f ms: %.1f DKGs/min, session mean %.0f ms, max %.0f ms",
+                    sessions, failed, wallMs, dkgsPerMinute, meanSessionMs, maxSessionMs);
+        }
+    }
+
+    /** @param board used as the sessions' shared cache if it is a {@link CachingPbbClient} */
+    public static Report run(PbbClient board, Options o) throws InterruptedException {
+        int n = o.n, t = o.t();
+        log.info("concurrent DKGs: {}", o);
+        DkgContext ctx = DkgContextRegistry.get(t, n);
+        CachingPbbClient pbb = board instanceof CachingPbbClient ? (CachingPbbClient) board
+                : new CachingPbbClient(board);
+        PrecomputationPool pool = o.precompute
+                ? new PrecomputationPool(ctx, new PrecomputationPool.Options().dealings(n).nonces(3 * n)).start()
+                : null;
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService exec = Executors.newFixedThreadPool(o.threads, r -> {
+            Thread th = new Thread(r, "dkg-session-" + next.getAndIncrement());
+            th.setDaemon(true);
+            return th;
+        });
+
+        Report r = new Report();
+        r.sessions = o.sessions;
+        r.sessionIds = new String[o.sessions];
+        List<Future<Double>> running = new ArrayList<>(o.sessions);
+        long start = System.nanoTime();
+        try {
+            for (int k = 0; k < o.sessions; k++) {
+                String id = o.prefix + "-" + k;
+                r.sessionIds[k] = id;
+                running.add(exec.submit(() -> {
+                    try {
+                        return session(ctx, pbb, pool, id, n, t);
+                    } finally {
+                        if (!o.keep)
+                            teardown(pbb, id);
+                    }
+                }));
+            }
+            double sum = 0;
+            for (int k = 0; k < running.size(); k++) {
+                try {
+                    double ms = running.get(k).get();
+                    sum += ms;
+                    r.maxSessionMs = Math.max(r.maxSessionMs, ms);
+                } catch (ExecutionException e) {
+                    r.failed++;
+                    log.warn("session {} failed", r.sessionIds[k], e.getCause());
+                }
+            }
+            r.wallMs = (System.nanoTime() - start) / 1e6;
+            int ok = r.sessions - r.failed;
+            r.meanSessionMs = ok > 0 ? sum / ok : 0;
+            r.dkgsPerMinute = ok * 60_000.0 / r.wallMs;
+        } finally {
+            exec.shutdownNow();
+            if (pool != null)
+                pool.close();
+        }
+        log.info(r.toString());
+        return r;
+    }
+
+    /** One full session; returns its wall time in ms. */
+    private static double session(DkgContext ctx, CachingPbbClient pbb, PrecomputationPool pool, String id,
+            int n, int t) throws Exception {
+        long t0 = System.nanoTime();
+        int fa = 1;
+        List<PartyContext> parties = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            PartyContext P = new PartyContext(i, ctx, pbb, n, t, fa, id);
+            P.precomp = pool;
+            parties.add(P);
+        }
+        for (PartyContext P : parties) {
+            SetupPhasePublisher.publishEphemeralKey(P);
+        }
+        for (PartyContext P : parties) {
+            SetupPhaseWaiter.awaitAllEphemeralKeys(P, n);
+        }
+        pbb.markImmutable(SessionPbbClient.topic(id, "ephemeralKeys"));
+
+        BigInteger secret = BigInteger.ZERO;
+        for (PartyContext P : parties) {
+            SharingPhase sp = new SharingPhase(P, t);
+            sp.runSharingAsDealer2();
+            secret = secret.add(sp.getSecretShare()).mod(ctx.getOrder());
+        }
+        ECPoint expected = ctx.getGenerator().multiply(secret).normalize();
+
+        List<VerificationPhase> vps = new ArrayList<>(n);
+        for (PartyContext P : parties) {
+            VerificationPhase vp = new VerificationPhase(P);
+            vp.setTrueGroupKey(expected);
+            vps.add(vp);
+            for (int dealer = 0; dealer < n; dealer++) {
+                vp.VerifySharesFor(dealer);
+            }
+        }
+        for (VerificationPhase vp : vps) {
+            vp.publishThresholdOutput();
+        }
+        for (VerificationPhase vp : vps) {
+            ECPoint Y = vp.finalReconstruction(vp.getQ1(), vp.collectAndPruneThresholdOutputs()).normalize();
+            if (!Y.equals(expected))
+                throw new IllegalStateException("session " + id + ": party " + vp.getMe() + " reconstructed "
+                        + Hex.toHexString(Y.getEncoded(true)) + ", expected G·Σs");
+        }
+        return (System.nanoTime() - t0) / 1e6;
+    }
+
+    /** Deletes session {@code id}'s topics from the board and drops them from the cache. */
+    private static void teardown(CachingPbbClient pbb, String id) {
+        try {
+            new SessionPbbClient(pbb, id).clear(Transcript.TOPICS);
+        } catch (Exception e) {
+            log.warn("session {}: could not delete its topics", id, e);
+        }
+        for (String topic : Transcript.TOPICS.keySet())
+            pbb.forget(SessionPbbClient.topic(id, topic));
+    }
+}
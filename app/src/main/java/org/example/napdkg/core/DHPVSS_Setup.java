@@ -1,6 +1,7 @@
 package org.example.napdkg.core;
 
 import java.math.BigInteger;
+import java.util.function.Supplier;
 
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DhPvssUtils;
@@ -44,11 +45,10 @@ public class DHPVSS_Setup {
         }
         // BigInteger[] vjs = DhPvssUtils.deriveDkgWeights(alphas, p);
 
-        // 4) Compute dual‐code weights v₁ … vₙ:
-        // vᵢ = ∏_{j≠i} (α₀ − αⱼ)/(αᵢ − αⱼ) mod p
-        BigInteger[] vs = DhPvssUtils.deriveShrapeCoeffs(
+        // 4) Dual‐code weights v₁ … vₙ, computed on first use:
+        // vᵢ = ∏_{j≠i} (α₀ − αⱼ)/(αᵢ − αⱼ) mod p, in closed form for αᵢ = i
+        Supplier<BigInteger[]> vs = () -> DhPvssUtils.deriveSequentialScrapeCoeffs(
                 groupParams.getgroupOrd(),
-                alphas, // end index
                 n);
 
         // 5) Package everything into the context:
@@ -5,6 +5,7 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
 
 /**
  * A Diffie–Hellman key pair over the elliptic‑curve group 𝔾 of prime order p.
@@ -67,7 +68,7 @@ public class DhKeyPair {
         } while (sk.compareTo(p) >= 0);
 
         // PK = sk · G
-        ECPoint PK = G.multiply(sk).normalize();
+        ECPoint PK = EcOps.normalize(EcOps.mul(G, sk));
 
         return new DhKeyPair(sk, PK);
     }
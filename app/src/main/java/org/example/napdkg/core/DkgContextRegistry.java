@@ -0,0 +1,206 @@
+package org.example.napdkg.core;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.example.napdkg.util.DhPvssUtils;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.example.napdkg.util.GroupGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One immutable {@link DkgContext} per (curve, t, n, α‐scheme), shared by
+ * every party and session in the process, with its tables built once:
+ *
+ * • {v₁,…,vₙ} in closed form, O(n) instead of n² inversions
+ * • (αᵢ − αⱼ)⁻¹ for all i − j ∈ [−n, n], so Lagrange coefficients in
+ * reconstruction need no inversion
+ * • BouncyCastle's fixed‐base comb for G, used by {@link EcOps#mul} for
+ * every k·G (keys, proofs, share checks)
+ *
+ * Polynomial evaluation at αᵢ needs no table: αᵢ = i is a single word, and
+ * Horner over it is cheaper than looking up full‐width powers.
+ *
+ * With -Dnapdkg.snapshots=<dir> each context is also kept on disk as a
+ * {@link DkgContextSnapshot}: the first process to need (t, n) writes it,
+ * later ones map it instead of building. A snapshot that fails its checks is
+ * logged and rebuilt over.
+ *
+ * A context is built (or mapped) by the first caller that asks for it,
+ * outside any map lock; concurrent callers for the same key wait for that
+ * one build, and a failed build is dropped so the next caller tries again.
+ *
+ * Contexts from {@link DHPVSS_Setup#dhPvssSetup} directly are still private
+ * to their caller and build nothing up front; this is for hosts that run many
+ * parties or sessions.
+ */
+public final class DkgContextRegistry {
+    private static final Logger log = LoggerFactory.getLogger(DkgContextRegistry.class);
+
+    public static final String SECP256R1 = "secp256r1";
+
+    /** How α₀…αₙ are chosen. */
+    public enum AlphaScheme {
+        /** αᵢ = i, as DHPVSS_Setup does. */
+        SEQUENTIAL
+    }
+
+    private static final ConcurrentMap<Key, FutureTask<DkgContext>> CONTEXTS = new ConcurrentHashMap<>();
+
+    private DkgContextRegistry() {
+    }
+
+    /** The secp256r1, αᵢ = i context for (t, n). */
+    public static DkgContext get(int t, int n) {
+        return get(SECP256R1, t, n, AlphaScheme.SEQUENTIAL);
+    }
+
+    public static DkgContext get(String curve, int t, int n, AlphaScheme alphas) {
+        Key k = new Key(curve, t, n, alphas);
+        FutureTask<DkgContext> task = CONTEXTS.get(k);
+        if (task == null) {
+            FutureTask<DkgContext> mine = new FutureTask<>(() -> build(k));
+            task = CONTEXTS.putIfAbsent(k, mine);
+            if (task == null) {
+                task = mine;
+                mine.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            CONTEXTS.remove(k, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException("building context " + k + " failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for context " + k, e);
+        }
+    }
+
+    /** Number of contexts held. */
+    public static int size() {
+        return CONTEXTS.size();
+    }
+
+    /** Drops every context; ones already handed out stay valid. */
+    public static void clear() {
+        CONTEXTS.clear();
+    }
+
+    /**
+     * Adds the context stored in {@code file}, unless one for its key is held
+     * already.
+     *
+     * @return the context now held for that key
+     */
+    public static DkgContext load(Path file) throws IOException {
+        DkgContextSnapshot s = DkgContextSnapshot.read(file);
+        DkgContext ctx = s.context;
+        Key k = new Key(s.curve, ctx.getThreshold(), ctx.getNumParticipants(), s.alphas);
+        FutureTask<DkgContext> loaded = new FutureTask<>(() -> ctx);
+        loaded.run();
+        FutureTask<DkgContext> held = CONTEXTS.putIfAbsent(k, loaded);
+        return held != null ? get(s.curve, k.t, k.n, s.alphas) : ctx;
+    }
+
+    /** Where -Dnapdkg.snapshots keeps (curve, t, n, α‐scheme), or null if unset. */
+    public static Path snapshotFile(String curve, int t, int n, AlphaScheme alphas) {
+        String dir = System.getProperty("napdkg.snapshots");
+        if (dir == null || dir.isEmpty())
+            return null;
+        return Path.of(dir, curve + "-t" + t + "-n" + n + "-" + alphas.name().toLowerCase(Locale.ROOT) + ".ndks");
+    }
+
+    private static DkgContext build(Key k) {
+        if (!SECP256R1.equals(k.curve))
+            throw new IllegalArgumentException("unsupported curve \"" + k.curve + "\"");
+        if (k.n - k.t - 2 <= 0)
+            throw new IllegalArgumentException("Requires n − t − 2 > 0");
+        // the curve is built once per process either way; time only the tables
+        GroupGenerator.GroupParameters gp = GroupGenerator.generateGroup();
+        long t0 = System.nanoTime();
+        Path file = snapshotFile(k.curve, k.t, k.n, k.alphas);
+        if (file != null && Files.exists(file)) {
+            try {
+                DkgContextSnapshot s = DkgContextSnapshot.read(file);
+                DkgContext ctx = s.context;
+                if (!k.equals(new Key(s.curve, ctx.getThreshold(), ctx.getNumParticipants(), s.alphas)))
+                    throw new IOException("it holds a different context");
+                log.info("context {} mapped from {} in {} ms", k, file, (System.nanoTime() - t0) / 1_000_000);
+                return ctx;
+            } catch (IOException | RuntimeException e) {
+                log.warn("ignoring snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        DkgContext ctx = compute(k, gp);
+        log.info("context {} built in {} ms", k, (System.nanoTime() - t0) / 1_000_000);
+        if (file != null) {
+            try {
+                DkgContextSnapshot.write(file, k.curve, k.alphas, ctx);
+            } catch (IOException e) {
+                log.warn("could not write snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        return ctx;
+    }
+
+    private static DkgContext compute(Key k, GroupGenerator.GroupParameters gp) {
+        BigInteger p = gp.getgroupOrd();
+
+        BigInteger[] alphas = new BigInteger[k.n + 1];
+        for (int i = 0; i <= k.n; i++) {
+            alphas[i] = BigInteger.valueOf(i);
+        }
+        BigInteger[] v = DhPvssUtils.deriveSequentialScrapeCoeffs(p, k.n);
+        BigInteger[] diffInverses = DhPvssUtils.sequentialDiffInverses(p, k.n);
+        EcOps.precomputeFixedBase(gp.getG());
+        return new DkgContext(gp, k.t, k.n, alphas, v, diffInverses);
+    }
+
+    private static final class Key {
+        final String curve;
+        final int t;
+        final int n;
+        final AlphaScheme alphas;
+
+        Key(String curve, int t, int n, AlphaScheme alphas) {
+            this.curve = Objects.requireNonNull(curve);
+            this.t = t;
+            this.n = n;
+            this.alphas = Objects.requireNonNull(alphas);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return t == k.t && n == k.n && curve.equals(k.curve) && alphas == k.alphas;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(curve, t, n, alphas);
+        }
+
+        @Override
+        public String toString() {
+            return curve + " t=" + t + " n=" + n + " " + alphas;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.example.napdkg.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECLookupTable;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointPreCompInfo;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.example.napdkg.util.GroupGenerator;
+
+/**
+ * A registry context's precomputation on disk, so a restarted process maps
+ * it instead of recomputing it.
+ *
+ * File layout (big‐endian, written by {@link #write}):
+ *
+ * "NDKS" ∥ version ∥ UTF(curve) ∥ UTF(α‐scheme) ∥ int t ∥ int n
+ * ∥ int(len) ∥ p ∥ int(len) ∥ G compressed ∥ int w (scalar bytes)
+ * ∥ int comb width ∥ comb offset ∥ int k ∥ k comb points (all uncompressed)
+ * ∥ v₁…vₙ ∥ (αᵢ−αⱼ)⁻¹ for i−j = −n…n (w bytes each, i=j zero)
+ * ∥ CRC32C of everything before it
+ *
+ * Fixed‐width scalars keep every table at a known offset. {@link #read}
+ * maps the file read‐only, so parties on one host share its pages through
+ * the page cache, and checks the CRC and that p and G are this process's
+ * group. G's comb table goes onto G, where {@link EcOps#mul} picks it up;
+ * v and the inverse table are left in the mapping and decoded on first use
+ * (BigInteger can't view a buffer).
+ *
+ * The CRC only catches accidents, so before anything is installed a few
+ * samples are recomputed: k·G through the comb for {@link #SPOT_CHECKS}
+ * random k against plain {@code G.multiply(k)}, one random vⱼ and one random
+ * (αᵢ−αⱼ)⁻¹ (checked by multiplying back, no inversion). A snapshot that
+ * fails is rejected like a corrupt one.
+ */
+public final class DkgContextSnapshot {
+    private static final byte[] MAGIC = { 'N', 'D', 'K', 'S' };
+    private static final int VERSION = 1;
+    /** Random k·G checked through the loaded comb before it is installed. */
+    private static final int SPOT_CHECKS = 4;
+
+    public final String curve;
+    public final DkgContextRegistry.AlphaScheme alphas;
+    public final DkgContext context;
+
+    private DkgContextSnapshot(String curve, DkgContextRegistry.AlphaScheme alphas, DkgContext context) {
+        this.curve = curve;
+        this.alphas = alphas;
+        this.context = context;
+    }
+
+    /**
+     * Writes {@code ctx}'s tables and G's comb (built here if it isn't yet).
+     * The file appears atomically, so concurrent readers never see half of it.
+     */
+    public static void write(Path file, String curve, DkgContextRegistry.AlphaScheme alphas, DkgContext ctx)
+            throws IOException {
+        BigInteger[] diffInverses = ctx.getAlphaDiffInverses();
+        if (diffInverses == null)
+            throw new IllegalArgumentException("context has no (αᵢ−αⱼ)⁻¹ table; take it from DkgContextRegistry");
+        BigInteger p = ctx.getOrder();
+        int w = (p.bitLength() + 7) / 8;
+        FixedPointPreCompInfo comb = FixedPointUtil.precompute(ctx.getGenerator());
+        ECLookupTable table = comb.getLookupTable();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(os, crc));
+                out.write(MAGIC);
+                out.write(VERSION);
+                out.writeUTF(curve);
+                out.writeUTF(alphas.name());
+                out.writeInt(ctx.getThreshold());
+                out.writeInt(ctx.getNumParticipants());
+                writeBytes(out, p.toByteArray());
+                writeBytes(out, ctx.getGenerator().getEncoded(true));
+                out.writeInt(w);
+                out.writeInt(comb.getWidth());
+                writeBytes(out, comb.getOffset().normalize().getEncoded(false));
+                out.writeInt(table.getSize());
+                for (int i = 0; i < table.getSize(); i++) {
+                    writeBytes(out, table.lookup(i).normalize().getEncoded(false));
+                }
+                for (BigInteger v : ctx.getVs()) {
+                    writeScalar(out, v, w);
+                }
+                for (BigInteger x : diffInverses) {
+                    writeScalar(out, x == null ? BigInteger.ZERO : x, w);
+                }
+                out.flush();
+                new DataOutputStream(os).writeInt((int) crc.getValue());
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static DkgContextSnapshot read(Path file) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < MAGIC.length + 4 || ch.size() > Integer.MAX_VALUE)
+                throw new IOException("not a context snapshot: " + file);
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        int end = buf.limit() - 4;
+        CRC32C crc = new CRC32C();
+        crc.update(buf.duplicate().limit(end));
+        if ((int) crc.getValue() != buf.getInt(end))
+            throw new IOException("context snapshot checksum mismatch: " + file);
+        buf.limit(end);
+        try {
+            return parse(buf);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("corrupt context snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static DkgContextSnapshot parse(ByteBuffer in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC))
+            throw new IOException("not a context snapshot");
+        int version = in.get();
+        if (version != VERSION)
+            throw new IOException("unsupported context snapshot version " + version);
+        String curve = readUtf(in);
+        DkgContextRegistry.AlphaScheme alphas = DkgContextRegistry.AlphaScheme.valueOf(readUtf(in));
+        int t = in.getInt();
+        int n = in.getInt();
+
+        // only secp256r1 exists here; a snapshot of anything else is foreign
+        GroupGenerator.GroupParameters gp = GroupGenerator.generateGroup();
+        ECPoint G = gp.getG();
+        ECCurve ec = G.getCurve();
+        if (!DkgContextRegistry.SECP256R1.equals(curve)
+                || !new BigInteger(readBytes(in)).equals(gp.getgroupOrd())
+                || !Arrays.equals(readBytes(in), G.getEncoded(true)))
+            throw new IOException("context snapshot is for another group (" + curve + ")");
+        int w = in.getInt();
+
+        FixedPointPreCompInfo comb = new FixedPointPreCompInfo();
+        comb.setWidth(in.getInt());
+        comb.setOffset(EcOps.decode(ec, readBytes(in)));
+        ECPoint[] points = new ECPoint[in.getInt()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = EcOps.decode(ec, readBytes(in));
+        }
+        comb.setLookupTable(ec.createCacheSafeLookupTable(points, 0, points.length));
+
+        // the tables stay in the mapping until first use
+        ByteBuffer vs = in.slice().limit(n * w);
+        ByteBuffer diffs = in.position(in.position() + n * w).slice().limit((2 * n + 1) * w);
+        if (in.remaining() != (2 * n + 1) * w)
+            throw new IOException("context snapshot tables are " + in.remaining() + " bytes, expected "
+                    + (2 * n + 1) * w);
+        spotCheck(G, comb, gp.getgroupOrd(), n, w, vs, diffs);
+        Supplier<BigInteger[]> v = () -> readScalars(vs.duplicate(), n, w);
+        Supplier<BigInteger[]> diffInverses = () -> {
+            BigInteger[] d = readScalars(diffs.duplicate(), 2 * n + 1, w);
+            d[n] = null;
+            return d;
+        };
+
+        // hand G the comb unless it already has one
+        ec.precompute(G, FixedPointUtil.PRECOMP_NAME, existing -> {
+            FixedPointPreCompInfo fp = FixedPointUtil.getFixedPointPreCompInfo(existing);
+            return fp != null && fp.getLookupTable() != null ? fp : comb;
+        });
+        EcOps.precomputeFixedBase(G);
+
+        BigInteger[] alphaPoints = new BigInteger[n + 1];
+        for (int i = 0; i <= n; i++) {
+            alphaPoints[i] = BigInteger.valueOf(i);
+        }
+        return new DkgContextSnapshot(curve, alphas, new DkgContext(gp, t, n, alphaPoints, v, diffInverses));
+    }
+
+    /** Recomputes a sample of each table; see the class comment. */
+    private static void spotCheck(ECPoint G, FixedPointPreCompInfo comb, BigInteger p, int n, int w,
+            ByteBuffer vs, ByteBuffer diffs) throws IOException {
+        SecureRandom rnd = new SecureRandom();
+        // the comb goes onto a copy of G first, so a bad one never reaches G
+        ECCurve ec = G.getCurve();
+        ECPoint probe = ec.createPoint(G.getAffineXCoord().toBigInteger(), G.getAffineYCoord().toBigInteger());
+        ec.precompute(probe, FixedPointUtil.PRECOMP_NAME, existing -> comb);
+        FixedPointCombMultiplier combMul = new FixedPointCombMultiplier();
+        for (int i = 0; i < SPOT_CHECKS; i++) {
+            BigInteger k = new BigInteger(p.bitLength(), rnd).mod(p);
+            ECPoint viaComb;
+            try {
+                viaComb = combMul.multiply(probe, k);
+            } catch (RuntimeException e) {
+                throw new IOException("context snapshot comb is unusable: " + e, e);
+            }
+            if (!viaComb.equals(G.multiply(k)))
+                throw new IOException("context snapshot comb gives a wrong k·G");
+        }
+
+        // vⱼ · ∏_{k≠j} (j − k) = 1
+        int j = 1 + rnd.nextInt(n);
+        BigInteger prod = BigInteger.ONE;
+        for (int k = 1; k <= n; k++) {
+            if (k != j)
+                prod = prod.multiply(BigInteger.valueOf(j - k)).mod(p);
+        }
+        if (!scalarAt(vs, j - 1, w).multiply(prod).mod(p).equals(BigInteger.ONE))
+            throw new IOException("context snapshot v" + j + " is wrong");
+
+        // (αᵢ−αⱼ)⁻¹ · d = 1 for d = i − j ≠ 0
+        int d = 1 + rnd.nextInt(n);
+        if (rnd.nextBoolean())
+            d = -d;
+        if (!scalarAt(diffs, d + n, w).multiply(BigInteger.valueOf(d)).mod(p).equals(BigInteger.ONE))
+            throw new IOException("context snapshot inverse of " + d + " is wrong");
+    }
+
+    private static BigInteger scalarAt(ByteBuffer table, int index, int w) {
+        byte[] b = new byte[w];
+        table.get(index * w, b);
+        return new BigInteger(1, b);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static void writeScalar(DataOutputStream out, BigInteger x, int w) throws IOException {
+        byte[] b = x.toByteArray(); // may carry a leading sign byte
+        int skip = b.length > w ? b.length - w : 0;
+        out.write(new byte[w - (b.length - skip)]);
+        out.write(b, skip, b.length - skip);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] b = new byte[in.getInt()];
+        in.get(b);
+        return b;
+    }
+
+    private static String readUtf(ByteBuffer in) {
+        byte[] b = new byte[in.getShort() & 0xffff];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static BigInteger[] readScalars(ByteBuffer in, int count, int w) {
+        BigInteger[] out = new BigInteger[count];
+        byte[] b = new byte[w];
+        for (int i = 0; i < count; i++) {
+            in.get(b);
+            out[i] = new BigInteger(1, b);
+        }
+        return out;
+    }
+}
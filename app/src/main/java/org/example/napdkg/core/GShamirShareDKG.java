@@ -5,7 +5,9 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.jfr.ReconstructionEvent;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,7 +62,7 @@ public class GShamirShareDKG {
                 }
                 // System.out.println("Generated a_i = " + a_i);
 
-                ECPoint A_i = G.multiply(a_i).normalize();
+                ECPoint A_i = EcOps.normalize(EcOps.mul(G, a_i));
                 out[i - 1] = new Share(a_i, A_i);
             }
 
@@ -104,10 +106,9 @@ public class GShamirShareDKG {
                         continue;
                     int j = indices[m];
                     BigInteger num = x0.subtract(alphas[j]).mod(p);
-                    BigInteger den = alphas[i].subtract(alphas[j]).mod(p);
                     lambda = lambda
                             .multiply(num)
-                            .multiply(den.modInverse(p))
+                            .multiply(ctx.inverseAlphaDiff(i, j))
                             .mod(p);
                 }
                 // System.out.printf(
@@ -139,6 +140,8 @@ public class GShamirShareDKG {
             if (shares.length != indices.length) {
                 throw new IllegalArgumentException("share count ≠ indices count");
             }
+            ReconstructionEvent ev = new ReconstructionEvent();
+            ev.begin();
 
             BigInteger p = ctx.getOrder();
             BigInteger[] alphas = ctx.getAlphas(); // [α₀, α₁, …, αₙ]
@@ -158,10 +161,9 @@ public class GShamirShareDKG {
                         continue;
                     int j = indices[m];
                     BigInteger num = x0.subtract(alphas[j]).mod(p);
-                    BigInteger den = alphas[i].subtract(alphas[j]).mod(p);
                     lambda = lambda
                             .multiply(num)
-                            .multiply(den.modInverse(p))
+                            .multiply(ctx.inverseAlphaDiff(i, j))
                             .mod(p);
                 }
                 log.info(String.format(
@@ -170,21 +172,23 @@ public class GShamirShareDKG {
                         alphas[i].toString(16), // α_i in hex
                         lambda.toString(16) // λ_i in hex
                 ));
-                ECPoint termPoint = Ai.multiply(lambda).normalize();
+                ECPoint termPoint = EcOps.normalize(EcOps.mul(Ai, lambda));
                 log.info(String.format(
                         "     → A_{%d} = %s\n       so A_{%d}·λ_%d = %s",
                         i,
-                        Hex.toHexString(Ai.getEncoded(true)),
+                        Hex.toHexString(EcOps.encode(Ai, true)),
                         i, i,
-                        Hex.toHexString(termPoint.getEncoded(true))));
+                        Hex.toHexString(EcOps.encode(termPoint, true))));
 
-                Srec = Srec.add(Ai.multiply(lambda));
-                log.info(" ⇒ In reconstructSecretEC: final Srec = {}", Hex.toHexString(Srec.getEncoded(true)));
+                Srec = EcOps.add(Srec, EcOps.mul(Ai, lambda));
+                log.info(" ⇒ In reconstructSecretEC: final Srec = {}", Hex.toHexString(EcOps.encode(Srec, true)));
 
             }
             // System.out.println("⇒ sRec = " + Srec);
 
-            return Srec.normalize();
+            Srec = EcOps.normalize(Srec);
+            ev.finish(shares.length);
+            return Srec;
         }
     }
 }
@@ -17,7 +17,6 @@ import org.example.napdkg.dto.SharingOutputDTO;
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DkgUtils;
 import org.example.napdkg.util.EvaluationTools;
-import org.example.napdkg.util.GroupGenerator;
 import org.example.napdkg.util.HashingTools;
 import org.example.napdkg.util.MaskedShareCHat;
 import org.slf4j.Logger;
@@ -39,7 +38,7 @@ public class NapDkgParty {
         this.n = n;
         this.t = t;
         this.fa = fa;
-        this.ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        this.ctx = DkgContextRegistry.get(t, n);
         this.pbb = pbb;
         this.ephKeys = new DhKeyPair[n];
     }
@@ -89,18 +88,21 @@ public class NapDkgParty {
     private static final int POLL_MS = 100;
 
     /**
-     * Polls the PBB until one DTO matching `selector` appears, then
-     * applies `decoder` to it and returns the domain‐object.
+     * Polls the PBB until one DTO with `field == value` (filtered on the board)
+     * and matching `selector` appears, then applies `decoder` to it and returns
+     * the domain‐object.
      */
     private <D, T> T waitForAndDecode(
             String topic,
+            String field,
+            Object value,
             Class<D> dtoClass,
             Predicate<D> selector,
             Function<D, T> decoder) throws Exception {
         T result = null;
         while (result == null) {
             Thread.sleep(POLL_MS);
-            for (D dto : pbb.fetch(topic, dtoClass)) {
+            for (D dto : pbb.fetchWhere(topic, field, value, dtoClass)) {
                 if (!selector.test(dto))
                     continue;
                 result = decoder.apply(dto);
@@ -117,6 +119,8 @@ public class NapDkgParty {
     private SharingOutput fetchSharingOutput(int dealerIndex) throws Exception {
         return waitForAndDecode(
                 "DealerPublish",
+                "dealerIndexDTO",
+                dealerIndex,
                 SharingOutputDTO.class,
                 dto -> dto.dealerIndexDTO == dealerIndex,
                 dto -> {
@@ -342,11 +346,9 @@ public class NapDkgParty {
         while (so == null) {
             Thread.sleep(100);
 
-            dtoList = pbb.fetch("DealerPublish", SharingOutputDTO.class);
+            // only dealer i's entry is sent back by the board
+            dtoList = pbb.fetchWhere("DealerPublish", "publisherindexDTO", dealerIndex, SharingOutputDTO.class);
             for (SharingOutputDTO dto : dtoList) {
-                // We don't want to fetch our own dealer index, as we know this
-                if (dto.publisherindexDTO != dealerIndex)
-                    continue;
                 // decode the DTO back to domain SharingOutput:
                 ECPoint dealerPub = ctx.getGenerator()
                         .getCurve()
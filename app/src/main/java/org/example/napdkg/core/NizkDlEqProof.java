@@ -6,6 +6,8 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.example.napdkg.jfr.ProofEvent;
 import org.example.napdkg.util.HashingTools;
 
 /**
@@ -82,7 +84,6 @@ public class NizkDlEqProof {
             ECPoint y,
             BigInteger alpha) {
         BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
 
         // 1) random w ∈ [1, p−1]
         BigInteger w;
@@ -91,10 +92,41 @@ public class NizkDlEqProof {
         } while (w.signum() == 0 || w.compareTo(p) >= 0);
 
         // System.out.println(" [DLEQ] w = " + w.toString(16));
+        return generateProof(ctx, x, h, y, alpha, w, null);
+    }
+
+    /**
+     * As above with w and a₁ = [w]·G taken from a
+     * {@link PrecomputationPool}, leaving only a₂ = [w]·h to compute.
+     */
+    public static NizkDlEqProof generateProof(
+            DkgContext ctx,
+            ECPoint x,
+            ECPoint h,
+            ECPoint y,
+            BigInteger alpha,
+            PrecomputationPool.Nonce nonce) {
+        ECPoint a1 = nonce.commitment;
+        return generateProof(ctx, x, h, y, alpha, nonce.secret(), a1);
+    }
+
+    private static NizkDlEqProof generateProof(
+            DkgContext ctx,
+            ECPoint x,
+            ECPoint h,
+            ECPoint y,
+            BigInteger alpha,
+            BigInteger w,
+            ECPoint a1) {
+        ProofEvent ev = new ProofEvent();
+        ev.begin();
+        BigInteger p = ctx.getOrder();
+        ECPoint G = ctx.getGenerator();
 
         // 2) commitments a1 = w·G, a2 = w·h
-        ECPoint a1 = G.multiply(w).normalize();
-        ECPoint a2 = h.multiply(w).normalize();
+        if (a1 == null)
+            a1 = EcOps.normalize(EcOps.mul(G, w));
+        ECPoint a2 = EcOps.normalize(EcOps.mul(h, w));
         // System.out.println(" [DLEQ] a1 = " + a1);
         // System.out.println(" [DLEQ] a2 = " + a2);
 
@@ -121,6 +153,7 @@ public class NizkDlEqProof {
         BigInteger z = w.subtract(e.multiply(alpha)).mod(p);
         // System.out.println(" [DLEQ] z = " + z.toString(16));
 
+        ev.finish(ProofEvent.DLEQ, false, true);
         return new NizkDlEqProof(e, z);
     }
 
@@ -148,6 +181,8 @@ public class NizkDlEqProof {
             ECPoint h,
             ECPoint y,
             NizkDlEqProof prf) {
+        ProofEvent ev = new ProofEvent();
+        ev.begin();
         BigInteger p = ctx.getOrder();
         ECPoint G = ctx.getGenerator();
 
@@ -155,10 +190,10 @@ public class NizkDlEqProof {
         BigInteger z = prf.getResponse();
 
         // 1) a₁' = z·G + e·x
-        ECPoint a1p = G.multiply(z).add(x.multiply(e)).normalize();
+        ECPoint a1p = EcOps.normalize(EcOps.add(EcOps.mul(G, z), EcOps.mul(x, e)));
         // System.out.println(" [DLEQ.verify] recomputed a1′ = " + a1p);
         // a₂' = z·h + e·y
-        ECPoint a2p = h.multiply(z).add(y.multiply(e)).normalize();
+        ECPoint a2p = EcOps.normalize(EcOps.add(EcOps.mul(h, z), EcOps.mul(y, e)));
         // System.out.println(" [DLEQ.verify] recomputed a2′ = " + a2p);
         // 2) H' = Hash(G,x,h,y,a₁',a₂') mod p
         BigInteger Hp = HashingTools
@@ -180,7 +215,9 @@ public class NizkDlEqProof {
         } while (e2.signum() == 0 || e2.compareTo(p) >= 0);
         // System.out.println(" [DLEQ.verify] e′ recomputed = " + e2);
         // 4) accept iff e2 == e
-        return e2.equals(e);
+        boolean valid = e2.equals(e);
+        ev.finish(ProofEvent.DLEQ, true, valid);
+        return valid;
 
     }
 
@@ -6,6 +6,8 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.example.napdkg.jfr.ProofEvent;
 import org.example.napdkg.util.HashingTools;
 
 /**
@@ -54,16 +56,27 @@ public class NizkDlProof {
     public static NizkDlProof generateProof(DkgContext ctx, DhKeyPair keyPair)
             throws NoSuchAlgorithmException {
         BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
-        ECPoint pub = keyPair.getPublic();
-        BigInteger x = keyPair.getSecretKey();
-
         BigInteger r;
         do {
             r = new BigInteger(p.bitLength(), random);
         } while (r.signum() <= 0 || r.compareTo(p) >= 0);
+        return generateProof(ctx, keyPair, r, EcOps.mul(ctx.getGenerator(), r));
+    }
+
+    /** As above with (r, A) taken from a {@link PrecomputationPool}. */
+    public static NizkDlProof generateProof(DkgContext ctx, DhKeyPair keyPair, PrecomputationPool.Nonce nonce)
+            throws NoSuchAlgorithmException {
+        ECPoint A = nonce.commitment;
+        return generateProof(ctx, keyPair, nonce.secret(), A);
+    }
 
-        ECPoint A = G.multiply(r);
+    private static NizkDlProof generateProof(DkgContext ctx, DhKeyPair keyPair, BigInteger r, ECPoint A)
+            throws NoSuchAlgorithmException {
+        ProofEvent ev = new ProofEvent();
+        ev.begin();
+        BigInteger p = ctx.getOrder();
+        ECPoint pub = keyPair.getPublic();
+        BigInteger x = keyPair.getSecretKey();
 
         BigInteger seed = HashingTools.hashElements(ctx, pub, A).mod(p);
         SecureRandom prg = SecureRandom.getInstance("SHA1PRNG");
@@ -75,6 +88,7 @@ public class NizkDlProof {
         } while (e.signum() <= 0 || e.compareTo(p) >= 0);
 
         BigInteger z = r.subtract(e.multiply(x)).mod(p);
+        ev.finish(ProofEvent.DL, false, true);
         return new NizkDlProof(e, z);
     }
 
@@ -85,12 +99,14 @@ public class NizkDlProof {
      */
     public static boolean verifyProof(DkgContext ctx, ECPoint pub, NizkDlProof proof)
             throws NoSuchAlgorithmException {
+        ProofEvent ev = new ProofEvent();
+        ev.begin();
         BigInteger p = ctx.getOrder();
         ECPoint G = ctx.getGenerator();
         BigInteger e = proof.getChallenge();
         BigInteger z = proof.getResponse();
 
-        ECPoint Aprime = G.multiply(z).add(pub.multiply(e));
+        ECPoint Aprime = EcOps.add(EcOps.mul(G, z), EcOps.mul(pub, e));
         BigInteger seed = HashingTools.hashElements(ctx, pub, Aprime).mod(p);
         SecureRandom prg = SecureRandom.getInstance("SHA1PRNG");
         prg.setSeed(seed.toByteArray());
@@ -100,6 +116,8 @@ public class NizkDlProof {
             e2 = new BigInteger(p.bitLength(), prg);
         } while (e2.signum() <= 0 || e2.compareTo(p) >= 0);
 
-        return e2.equals(e);
+        boolean valid = e2.equals(e);
+        ev.finish(ProofEvent.DL, true, valid);
+        return valid;
     }
 }
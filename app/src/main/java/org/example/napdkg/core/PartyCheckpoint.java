@@ -0,0 +1,239 @@
+package org.example.napdkg.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.EcOps;
+
+/**
+ * What one party needs to pick a DKG up again after a crash: its ephemeral
+ * key pair, its dealer secret, which dealers it has verified, Q1 (as dealer
+ * indices — the sharings themselves stay on the board) and its decrypted
+ * shares A_{j,i}, a_{j,i}.
+ *
+ * Binary layout ({@link #encode}):
+ *
+ * "NCK" ∥ version ∥ party ∥ n ∥ t ∥ fa ∥ stage ∥ pk
+ * ∥ verified dealers ∥ Q1 dealers ∥ {j, A_{j,i}}
+ * ∥ 12‐byte nonce ∥ AES‐GCM(sk ∥ s ∥ {j, a_{j,i}})
+ *
+ * with points compressed and ints/lengths as 4 bytes. Only the secrets are
+ * encrypted; everything before the nonce is the GCM associated data, so the
+ * tag covers the public part too and any edit fails {@link #decode}. The
+ * plaintext is assembled in one exactly sized array, and it and every scalar's
+ * byte copy are zeroed once encryption (or decryption) is done.
+ */
+public final class PartyCheckpoint {
+    private static final byte[] MAGIC = { 'N', 'C', 'K' };
+    private static final int VERSION = 1;
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    /** The last step a party finished, in protocol order. */
+    public enum Stage {
+        NONE,
+        /** key pair chosen (and saved) but maybe not yet on the board */
+        KEY,
+        /** key published and all n keys seen */
+        SETUP,
+        SHARING,
+        VERIFICATION,
+        THRESHOLD,
+        RECONSTRUCTION
+    }
+
+    public int party, n, t, fa;
+    public Stage completed = Stage.NONE;
+    public DhKeyPair ephKey;
+    /** The secret this party dealt, null if unknown. */
+    public BigInteger dealerSecret;
+    public List<Integer> verifiedDealers = new ArrayList<>();
+    public List<Integer> q1 = new ArrayList<>();
+    public Map<Integer, ECPoint> shareCommitments = new TreeMap<>();
+    public Map<Integer, BigInteger> shares = new TreeMap<>();
+
+    public byte[] encode(SecretKey key, SecureRandom rnd) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.writeInt(party);
+        out.writeInt(n);
+        out.writeInt(t);
+        out.writeInt(fa);
+        out.write(completed.ordinal());
+        writeBytes(out, ephKey == null ? new byte[0] : EcOps.encode(ephKey.getPublic(), true));
+        writeInts(out, verifiedDealers);
+        writeInts(out, q1);
+        out.writeInt(shareCommitments.size());
+        for (Map.Entry<Integer, ECPoint> e : shareCommitments.entrySet()) {
+            out.writeInt(e.getKey());
+            writeBytes(out, EcOps.encode(e.getValue(), true));
+        }
+        byte[] aad = bytes.toByteArray();
+
+        BigInteger sk = ephKey == null ? null : ephKey.getSecretKey();
+        int size = scalarSize(sk) + scalarSize(dealerSecret) + 4;
+        for (BigInteger a : shares.values()) {
+            size += 4 + scalarSize(a);
+        }
+        // fixed size, so no growable buffer leaves stale copies behind
+        byte[] plain = new byte[size];
+        try {
+            ByteBuffer sec = ByteBuffer.wrap(plain);
+            putScalar(sec, sk);
+            putScalar(sec, dealerSecret);
+            sec.putInt(shares.size());
+            for (Map.Entry<Integer, BigInteger> e : shares.entrySet()) {
+                sec.putInt(e.getKey());
+                putScalar(sec, e.getValue());
+            }
+
+            byte[] nonce = new byte[NONCE_BYTES];
+            rnd.nextBytes(nonce);
+            Cipher gcm = Cipher.getInstance("AES/GCM/NoPadding");
+            gcm.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            gcm.updateAAD(aad);
+            out.write(nonce);
+            out.write(gcm.doFinal(plain));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("checkpoint encryption failed", e);
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the bytes are not a checkpoint, were written
+     *                     under another key, or were altered
+     */
+    public static PartyCheckpoint decode(byte[] data, SecretKey key, ECCurve curve) throws IOException {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            byte[] magic = in.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC))
+                throw new IOException("not a party checkpoint");
+            int version = in.read();
+            if (version != VERSION)
+                throw new IOException("unsupported checkpoint version " + version);
+            PartyCheckpoint cp = new PartyCheckpoint();
+            cp.party = in.readInt();
+            cp.n = in.readInt();
+            cp.t = in.readInt();
+            cp.fa = in.readInt();
+            cp.completed = Stage.values()[in.read()];
+            byte[] pk = readBytes(in);
+            cp.verifiedDealers = readInts(in);
+            cp.q1 = readInts(in);
+            for (int k = in.readInt(); k > 0; k--) {
+                int j = in.readInt();
+                cp.shareCommitments.put(j, EcOps.decode(curve, readBytes(in)));
+            }
+            int aadLength = data.length - in.available();
+            byte[] nonce = in.readNBytes(NONCE_BYTES);
+            if (nonce.length != NONCE_BYTES)
+                throw new EOFException();
+
+            Cipher gcm = Cipher.getInstance("AES/GCM/NoPadding");
+            gcm.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            gcm.updateAAD(data, 0, aadLength);
+            byte[] plain = gcm.doFinal(data, aadLength + NONCE_BYTES, data.length - aadLength - NONCE_BYTES);
+            try {
+                DataInputStream sec = new DataInputStream(new ByteArrayInputStream(plain));
+                BigInteger sk = readScalar(sec);
+                if (sk != null)
+                    cp.ephKey = new DhKeyPair(sk, EcOps.decode(curve, pk));
+                cp.dealerSecret = readScalar(sec);
+                for (int k = sec.readInt(); k > 0; k--) {
+                    int j = sec.readInt();
+                    cp.shares.put(j, readScalar(sec));
+                }
+            } finally {
+                Arrays.fill(plain, (byte) 0);
+            }
+            return cp;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("checkpoint failed authentication (wrong key or altered)", e);
+        } catch (EOFException | ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("truncated or corrupt checkpoint", e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > in.available())
+            throw new EOFException();
+        return in.readNBytes(len);
+    }
+
+    private static void writeInts(DataOutputStream out, List<Integer> xs) throws IOException {
+        out.writeInt(xs.size());
+        for (int x : xs) {
+            out.writeInt(x);
+        }
+    }
+
+    private static List<Integer> readInts(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > in.available() / 4)
+            throw new EOFException();
+        List<Integer> xs = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            xs.add(in.readInt());
+        }
+        return xs;
+    }
+
+    /** Bytes {@link #putScalar} writes for {@code x}: the length, then toByteArray(). */
+    private static int scalarSize(BigInteger x) {
+        return 4 + (x == null ? 0 : x.bitLength() / 8 + 1);
+    }
+
+    /** null as an empty byte string; the temporary copy is wiped */
+    private static void putScalar(ByteBuffer out, BigInteger x) {
+        if (x == null) {
+            out.putInt(0);
+            return;
+        }
+        byte[] b = x.toByteArray();
+        try {
+            out.putInt(b.length).put(b);
+        } finally {
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+
+    private static BigInteger readScalar(DataInputStream in) throws IOException {
+        byte[] b = readBytes(in);
+        try {
+            return b.length == 0 ? null : new BigInteger(b);
+        } finally {
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package org.example.napdkg.core;
 
 import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.SessionPbbClient;
 import org.example.napdkg.util.DkgContext;
 
 public class PartyContext {
     public final int id, n, t, fa;
     public final DkgContext ctx;
     public final PbbClient pbb;
+    // DKG session this party belongs to; "" = the board's plain topics
+    public final String session;
 
     // YOUR OWN keypair:
     public DhKeyPair ephKey;
@@ -15,14 +18,28 @@ public class PartyContext {
     // (you only store the public ECPoint + proof part, not their secrets)
     public PublicKeysWithProofs[] allEphPubs;
 
+    // dealings and proof nonces computed ahead of time; null = compute inline
+    public PrecomputationPool precomp;
+
     public PartyContext(int id, DkgContext ctx, PbbClient pbb, int n, int t, int fa) {
+        this(id, ctx, pbb, n, t, fa, "");
+    }
+
+    /**
+     * A party of DKG session {@code session}: all its board traffic goes to
+     * that session's topics (see {@link SessionPbbClient}), so sessions
+     * sharing a board and a DkgContext don't see each other.
+     */
+    public PartyContext(int id, DkgContext ctx, PbbClient pbb, int n, int t, int fa, String session) {
         this.id = id;
         this.ctx = ctx;
         this.n = n;
         this.t = t;
 
         this.fa = fa;
-        this.pbb = pbb;
+        this.session = session;
+        // board calls made inside a PhaseMetrics span are charged to it
+        this.pbb = PhaseMetrics.metered(session.isEmpty() ? pbb : new SessionPbbClient(pbb, session));
         this.allEphPubs = new PublicKeysWithProofs[n];
     }
 }
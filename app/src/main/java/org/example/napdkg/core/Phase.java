@@ -1,5 +1,7 @@
 package org.example.napdkg.core;
 
+/** One step of a party's run; see {@link PhaseMetrics#run}. */
+@FunctionalInterface
 public interface Phase {
     void run() throws Exception;
 }
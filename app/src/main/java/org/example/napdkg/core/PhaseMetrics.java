@@ -0,0 +1,447 @@
+package org.example.napdkg.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.TrafficListener;
+import org.example.napdkg.client.WireFormat;
+import org.example.napdkg.jfr.BoardCallEvent;
+import org.example.napdkg.jfr.PhaseEvent;
+import org.example.napdkg.util.EcOps;
+import org.example.napdkg.util.LatencyHistogram;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Per‐party, per‐phase timing. A driver runs each step of a party through
+ * {@link #run}/{@link #call}, which opens a span on the current thread and on
+ * close records three numbers:
+ *
+ * wall time System.nanoTime() across the step
+ * CPU time ThreadMXBean current‐thread CPU time across the step
+ * board time time spent inside PbbClient calls made from the step (needs
+ * the party's client to be {@link #metered}, which PartyContext
+ * does for every party)
+ *
+ * Each phase keeps one {@link LatencyHistogram} per number (p50/p99/p999 over
+ * all parties) plus running totals per party. A span costs two nanoTime()
+ * and two CPU‐time reads, a board call two nanoTime() and a ThreadLocal
+ * lookup, so it can stay on; -Dnapdkg.metrics=false turns both into no‐ops.
+ * Spans nest: board time is charged to the innermost open span only.
+ *
+ * With -Dnapdkg.ecops=true every span is also an {@link EcOps} scope, and
+ * the group/hash operation counts land next to the timings.
+ *
+ * Under Java Flight Recorder every span is also a {@link PhaseEvent} and
+ * every metered board call a {@link BoardCallEvent} (see napdkg.jfc); with
+ * no recording running they are never committed.
+ *
+ * Export: {@link #toJson()} for reports, {@link #toCsv()} one row per
+ * (phase, metric), {@link #partiesCsv()} one row per (phase, party).
+ */
+public class PhaseMetrics {
+    public static final String SETUP = "setup";
+    public static final String SETUP_AWAIT = "setup.await";
+    public static final String SHARING = "sharing";
+    public static final String VERIFICATION = "verification";
+    public static final String THRESHOLD = "threshold";
+    public static final String RECONSTRUCTION = "reconstruction";
+
+    static final boolean ENABLED = !"false".equals(System.getProperty("napdkg.metrics"));
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = cpuTimeAvailable();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<String, PhaseStats> phases = new ConcurrentHashMap<>();
+
+    private static boolean cpuTimeAvailable() {
+        try {
+            if (!THREADS.isCurrentThreadCpuTimeSupported())
+                return false;
+            if (!THREADS.isThreadCpuTimeEnabled())
+                THREADS.setThreadCpuTimeEnabled(true);
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static long cpuNow() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    // —— recording —— //
+
+    /** Runs {@code step} as {@code phase} of {@code party}. */
+    public void run(int party, String phase, Phase step) throws Exception {
+        Span s = start(party, phase);
+        try {
+            step.run();
+        } finally {
+            s.close();
+        }
+    }
+
+    /** Like {@link #run}, for steps that return something (e.g. Q2). */
+    public <T> T call(int party, String phase, Callable<T> step) throws Exception {
+        Span s = start(party, phase);
+        try {
+            return step.call();
+        } finally {
+            s.close();
+        }
+    }
+
+    /** Opens a span by hand; close it on the same thread. */
+    public Span start(int party, String phase) {
+        if (!ENABLED)
+            return Span.NOOP;
+        return new Span(this, party, phase);
+    }
+
+    /** A timed step; {@link #close()} records it. */
+    public static class Span implements AutoCloseable {
+        static final Span NOOP = new Span();
+
+        private final PhaseMetrics owner;
+        private final int party;
+        private final String phase;
+        private final Span parent;
+        private final long wall0;
+        private final long cpu0;
+        private final long[] outerOps;
+        private final PhaseEvent event;
+        private long boardNanos;
+
+        private Span() {
+            owner = null;
+            party = -1;
+            phase = null;
+            parent = null;
+            outerOps = null;
+            event = null;
+            wall0 = cpu0 = 0;
+        }
+
+        Span(PhaseMetrics owner, int party, String phase) {
+            this.owner = owner;
+            this.party = party;
+            this.phase = phase;
+            this.parent = CURRENT.get();
+            CURRENT.set(this);
+            this.outerOps = EcOps.enter();
+            this.event = new PhaseEvent();
+            event.begin();
+            this.cpu0 = cpuNow();
+            this.wall0 = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (owner == null)
+                return;
+            long wall = System.nanoTime() - wall0;
+            long cpu = cpuNow() - cpu0;
+            long[] ops = EcOps.exit(outerOps);
+            event.finish(party, phase, -1, true);
+            if (parent == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(parent);
+            owner.stats(phase).record(party, wall, cpu, boardNanos, ops);
+        }
+    }
+
+    /** Charges {@code nanos} of board time to the span open on this thread, if any. */
+    static void chargeBoard(long nanos) {
+        Span s = CURRENT.get();
+        if (s != null)
+            s.boardNanos += nanos;
+    }
+
+    /**
+     * Wraps {@code pbb} so the time each call blocks is charged to the
+     * caller's open span. Returns {@code pbb} itself when metrics are off or it
+     * is already metered.
+     */
+    public static PbbClient metered(PbbClient pbb) {
+        if (!ENABLED || pbb instanceof MeteredPbbClient)
+            return pbb;
+        return new MeteredPbbClient(pbb);
+    }
+
+    private PhaseStats stats(String phase) {
+        return phases.computeIfAbsent(phase, k -> new PhaseStats());
+    }
+
+    private static final class PhaseStats {
+        final LatencyHistogram wall = new LatencyHistogram();
+        final LatencyHistogram cpu = new LatencyHistogram();
+        final LatencyHistogram board = new LatencyHistogram();
+        final ConcurrentHashMap<Integer, PartyTotals> byParty = new ConcurrentHashMap<>();
+
+        void record(int party, long wallNs, long cpuNs, long boardNs, long[] ops) {
+            wall.record(wallNs);
+            if (CPU_TIME)
+                cpu.record(cpuNs);
+            board.record(boardNs);
+            PartyTotals p = byParty.computeIfAbsent(party, k -> new PartyTotals());
+            p.calls.increment();
+            p.wallNs.add(wallNs);
+            p.cpuNs.add(cpuNs);
+            p.boardNs.add(boardNs);
+            if (ops != null) {
+                for (int i = 0; i < ops.length; i++)
+                    p.ops[i].add(ops[i]);
+            }
+        }
+    }
+
+    private static final class PartyTotals {
+        final LongAdder calls = new LongAdder();
+        final LongAdder wallNs = new LongAdder();
+        final LongAdder cpuNs = new LongAdder();
+        final LongAdder boardNs = new LongAdder();
+        final LongAdder[] ops = new LongAdder[EcOps.opCount()];
+
+        PartyTotals() {
+            for (int i = 0; i < ops.length; i++)
+                ops[i] = new LongAdder();
+        }
+
+        long[] opCounts() {
+            long[] c = new long[ops.length];
+            for (int i = 0; i < ops.length; i++)
+                c[i] = ops[i].sum();
+            return c;
+        }
+    }
+
+    // —— readout —— //
+
+    /** Wall‐time histogram of one phase, or null if it never ran. */
+    public LatencyHistogram wallOf(String phase) {
+        PhaseStats s = phases.get(phase);
+        return s == null ? null : s.wall;
+    }
+
+    /** Gson‐friendly snapshot: phase → {wall, cpu, board, parties}. */
+    public Map<String, PhaseSummary> snapshot() {
+        Map<String, PhaseSummary> out = new TreeMap<>();
+        phases.forEach((name, s) -> {
+            PhaseSummary p = new PhaseSummary();
+            p.wall = s.wall.summary();
+            p.cpu = CPU_TIME ? s.cpu.summary() : null;
+            p.board = s.board.summary();
+            long[] phaseOps = new long[EcOps.opCount()];
+            s.byParty.forEach((party, t) -> {
+                PartySummary ps = new PartySummary();
+                ps.calls = t.calls.sum();
+                ps.wallMs = t.wallNs.sum() / 1e6;
+                ps.cpuMs = CPU_TIME ? t.cpuNs.sum() / 1e6 : Double.NaN;
+                ps.boardMs = t.boardNs.sum() / 1e6;
+                if (EcOps.ENABLED) {
+                    long[] c = t.opCounts();
+                    ps.ops = EcOps.toMap(c);
+                    for (int i = 0; i < c.length; i++)
+                        phaseOps[i] += c[i];
+                }
+                p.parties.put(party, ps);
+            });
+            p.ops = EcOps.ENABLED ? EcOps.toMap(phaseOps) : null;
+            out.put(name, p);
+        });
+        return out;
+    }
+
+    public static final class PhaseSummary {
+        public LatencyHistogram.Summary wall;
+        public LatencyHistogram.Summary cpu; // null if the JVM can't measure thread CPU time
+        public LatencyHistogram.Summary board;
+        public Map<EcOps.Op, Long> ops; // summed over parties; null unless -Dnapdkg.ecops=true
+        public Map<Integer, PartySummary> parties = new TreeMap<>();
+    }
+
+    public static final class PartySummary {
+        public long calls;
+        public double wallMs;
+        public double cpuMs;
+        public double boardMs;
+        public Map<EcOps.Op, Long> ops;
+    }
+
+    public String toJson() {
+        Gson gson = new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create();
+        return gson.toJson(snapshot());
+    }
+
+    /** phase,metric,count,mean_us,p50_us,p90_us,p99_us,p999_us,max_us */
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder("phase,metric,count,mean_us,p50_us,p90_us,p99_us,p999_us,max_us\n");
+        snapshot().forEach((phase, p) -> {
+            csvRow(sb, phase, "wall", p.wall);
+            if (p.cpu != null)
+                csvRow(sb, phase, "cpu", p.cpu);
+            csvRow(sb, phase, "board", p.board);
+        });
+        return sb.toString();
+    }
+
+    private static void csvRow(StringBuilder sb, String phase, String metric, LatencyHistogram.Summary s) {
+        sb.append(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                phase, metric, s.count, s.meanUs, s.p50Us, s.p90Us, s.p99Us, s.p999Us, s.maxUs));
+    }
+
+    /** phase,party,calls,wall_ms,cpu_ms,board_ms[,one column per EcOps.Op] */
+    public String partiesCsv() {
+        StringBuilder sb = new StringBuilder("phase,party,calls,wall_ms,cpu_ms,board_ms");
+        if (EcOps.ENABLED) {
+            for (EcOps.Op op : EcOps.Op.values())
+                sb.append(',').append(op.name().toLowerCase(Locale.ROOT));
+        }
+        sb.append('\n');
+        snapshot().forEach((phase, p) -> p.parties.forEach((party, t) -> {
+            sb.append(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f",
+                    phase, party, t.calls, t.wallMs, t.cpuMs, t.boardMs));
+            if (t.ops != null) {
+                for (EcOps.Op op : EcOps.Op.values())
+                    sb.append(',').append(t.ops.getOrDefault(op, 0L));
+            }
+            sb.append('\n');
+        }));
+        return sb.toString();
+    }
+
+    /** One line per phase, e.g. for the end of a smoke test. */
+    public String report() {
+        StringBuilder sb = new StringBuilder("phase timings (wall / cpu / board, over all parties):");
+        snapshot().forEach((phase, p) -> sb.append(String.format(Locale.ROOT,
+                "%n  %-16s n=%-4d wall p50=%.1fms p99=%.1fms  cpu p50=%s  board p50=%.1fms",
+                phase, p.wall.count, p.wall.p50Us / 1e3, p.wall.p99Us / 1e3,
+                p.cpu == null ? "n/a" : String.format(Locale.ROOT, "%.1fms", p.cpu.p50Us / 1e3),
+                p.board.p50Us / 1e3)));
+        if (EcOps.ENABLED) {
+            sb.append(String.format("%nop counts (summed over parties):"));
+            snapshot().forEach((phase, p) -> sb.append(String.format("%n  %-16s %s", phase, p.ops)));
+            sb.append(String.format("%n  %-16s %s", "(no phase)", EcOps.unscoped()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Charges every board call's blocking time to the caller's open span, and
+     * reports each call as a {@link BoardCallEvent}.
+     */
+    private static final class MeteredPbbClient implements PbbClient {
+        private final PbbClient delegate;
+
+        MeteredPbbClient(PbbClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void publish(String topic, Object msg) throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            try {
+                delegate.publish(topic, msg);
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("publish", topic, msg.getClass(), 1);
+            }
+        }
+
+        @Override
+        public void publishAll(String topic, Object[] msgs) throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            try {
+                delegate.publishAll(topic, msgs);
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("publishAll", topic, msgs.getClass().getComponentType(), msgs.length);
+            }
+        }
+
+        @Override
+        public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            List<T> out = null;
+            try {
+                out = delegate.fetch(topic, clazz);
+                return out;
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("fetch", topic, clazz, out == null ? -1 : out.size());
+            }
+        }
+
+        @Override
+        public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz)
+                throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            List<T> out = null;
+            try {
+                out = delegate.fetchWhere(topic, field, value, clazz);
+                return out;
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("fetchWhere", topic, clazz, out == null ? -1 : out.size());
+            }
+        }
+
+        @Override
+        public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            List<T> out = null;
+            try {
+                out = delegate.awaitAtLeast(topic, count, clazz);
+                return out;
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("awaitAtLeast", topic, clazz, out == null ? -1 : out.size());
+            }
+        }
+
+        @Override
+        public void delete(String topic, String id) throws Exception {
+            BoardCallEvent ev = new BoardCallEvent();
+            ev.begin();
+            long t0 = System.nanoTime();
+            try {
+                delegate.delete(topic, id);
+            } finally {
+                chargeBoard(System.nanoTime() - t0);
+                ev.finish("delete", topic, null, 0);
+            }
+        }
+
+        @Override
+        public WireFormat wireFormat() {
+            return delegate.wireFormat();
+        }
+
+        @Override
+        public boolean addTrafficListener(TrafficListener listener) {
+            return delegate.addTrafficListener(listener);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.napdkg.core;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The key‐independent half of dealing, computed ahead of time:
+ *
+ * • dealings: s, the polynomial m(X) with m(α₀) = s, aᵢ = m(αᵢ) and
+ * Aᵢ = aᵢ·G for i = 1…n (n fixed‐base multiplications each)
+ * • nonces: (w, w·G), the first commitment of a DLEQ proof (a₁) or the
+ * Schnorr commitment of a DL proof (A)
+ *
+ * so that once setup is over a dealer only does what needs the other
+ * parties' keys (Eⱼ·skᵢ, w·h, m*(X) and the U, V sums). Set it as
+ * {@link PartyContext#precomp}; SharingPhase, SetupPhasePublisher and the
+ * threshold proof then take from it, and compute inline when it is empty.
+ *
+ * Each kind sits in a bounded queue (plus the one item its filler holds
+ * while the queue is full), filled by a low‐priority daemon thread from
+ * {@link #start} or synchronously by {@link #fill}. Every item is handed out
+ * once. Pooled secrets are kept as byte arrays and zeroed when taken and on
+ * {@link #close}, as are the temporary copies made packing and unpacking
+ * them; the BigIntegers handed to the protocol are immutable and
+ * can't be wiped, which is no worse than computing them inline.
+ */
+public class PrecomputationPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PrecomputationPool.class);
+
+    public static final class Options {
+        private int dealings = 1;
+        private int nonces = 4;
+
+        /** Dealings kept ready; a party normally deals once per session. */
+        public Options dealings(int count) {
+            this.dealings = count;
+            return this;
+        }
+
+        /** Nonce pairs kept ready; a session takes three (DL, sharing, threshold). */
+        public Options nonces(int count) {
+            this.nonces = count;
+            return this;
+        }
+
+        /** "dealings=2,nonces=8"; missing keys keep their defaults. */
+        public static Options parse(String spec) {
+            Options o = new Options();
+            if (spec == null || spec.isBlank() || spec.equals("true"))
+                return o;
+            for (String kv : spec.split(",")) {
+                String[] p = kv.trim().split("=", 2);
+                if (p.length != 2)
+                    throw new IllegalArgumentException("expected key=value, got \"" + kv + "\"");
+                String v = p[1].trim();
+                switch (p[0].trim()) {
+                    case "dealings":
+                        o.dealings(Integer.parseInt(v));
+                        break;
+                    case "nonces":
+                        o.nonces(Integer.parseInt(v));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown precomputation option " + p[0]);
+                }
+            }
+            return o;
+        }
+    }
+
+    /** One proof nonce w with its commitment w·G; {@link #secret} may be read once. */
+    public static final class Nonce {
+        private byte[] w;
+        public final ECPoint commitment;
+
+        Nonce(byte[] w, ECPoint commitment) {
+            this.w = w;
+            this.commitment = commitment;
+        }
+
+        /** w as a scalar; wipes the pooled copy. */
+        public BigInteger secret() {
+            if (w == null)
+                throw new IllegalStateException("nonce already used");
+            BigInteger x = new BigInteger(1, w);
+            wipe();
+            return x;
+        }
+
+        void wipe() {
+            if (w != null) {
+                Arrays.fill(w, (byte) 0);
+                w = null;
+            }
+        }
+    }
+
+    /** s, m(X)'s other coefficients and a₁…aₙ, packed w bytes each, then A₁…Aₙ. */
+    private static final class Dealing {
+        final byte[] scalars;
+        final ECPoint[] A;
+
+        Dealing(byte[] scalars, ECPoint[] A) {
+            this.scalars = scalars;
+            this.A = A;
+        }
+    }
+
+    private final DkgContext ctx;
+    private final int w;
+    private final SecureRandom rnd = new SecureRandom();
+    private final BlockingQueue<Dealing> dealings;
+    private final BlockingQueue<Nonce> nonces;
+    private final List<Thread> fillers = new ArrayList<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean closed;
+
+    public PrecomputationPool(DkgContext ctx, Options o) {
+        this.ctx = ctx;
+        this.w = (ctx.getOrder().bitLength() + 7) / 8;
+        this.dealings = new ArrayBlockingQueue<>(Math.max(1, o.dealings));
+        this.nonces = new ArrayBlockingQueue<>(Math.max(1, o.nonces));
+    }
+
+    /**
+     * A started pool with -Dnapdkg.precompute options, or null (compute
+     * inline) if it is unset.
+     */
+    public static PrecomputationPool fromSystemProperty(DkgContext ctx) {
+        String spec = System.getProperty("napdkg.precompute");
+        if (spec == null || spec.equals("false"))
+            return null;
+        return new PrecomputationPool(ctx, Options.parse(spec)).start();
+    }
+
+    /** Starts the background fillers. */
+    public PrecomputationPool start() {
+        fillers.add(filler("dealings", dealings, this::newDealing));
+        fillers.add(filler("nonces", nonces, this::newNonce));
+        fillers.forEach(Thread::start);
+        return this;
+    }
+
+    /** Fills both queues to capacity on the calling thread. */
+    public void fill() {
+        while (!closed && dealings.remainingCapacity() > 0)
+            dealings.offer(newDealing());
+        while (!closed && nonces.remainingCapacity() > 0)
+            nonces.offer(newNonce());
+    }
+
+    /** A fresh sharing of a fresh secret, precomputed if one is ready. */
+    public GShamirShareDKG.ShamirSharingResult takeDealing() {
+        Dealing d = dealings.poll();
+        if (d == null) {
+            misses.increment();
+            d = newDealing();
+        } else {
+            hits.increment();
+        }
+        int n = ctx.getNumParticipants();
+        int t = ctx.getThreshold();
+        BigInteger[] coeffs = new BigInteger[t + 1];
+        Share[] shares = new Share[n];
+        for (int j = 0; j <= t; j++)
+            coeffs[j] = scalar(d.scalars, j);
+        for (int i = 0; i < n; i++)
+            shares[i] = new Share(scalar(d.scalars, t + 1 + i), d.A[i]);
+        Arrays.fill(d.scalars, (byte) 0);
+        return new GShamirShareDKG.ShamirSharingResult(shares, coeffs);
+    }
+
+    /** A nonce for one proof, precomputed if one is ready. */
+    public Nonce takeNonce() {
+        Nonce x = nonces.poll();
+        if (x == null) {
+            misses.increment();
+            return newNonce();
+        }
+        hits.increment();
+        return x;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** Takes that found their queue empty and were computed inline. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Stops the fillers and wipes everything still pooled. */
+    @Override
+    public void close() {
+        closed = true;
+        fillers.forEach(Thread::interrupt);
+        for (Thread th : fillers) {
+            try {
+                th.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Dealing d; (d = dealings.poll()) != null;)
+            Arrays.fill(d.scalars, (byte) 0);
+        for (Nonce x; (x = nonces.poll()) != null;)
+            x.wipe();
+    }
+
+    private Dealing newDealing() {
+        BigInteger p = ctx.getOrder();
+        BigInteger s = new BigInteger(p.bitLength(), rnd).mod(p);
+        GShamirShareDKG.ShamirSharingResult res = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, s);
+        int n = res.shares.length;
+        int t = res.coeffs.length - 1;
+        byte[] scalars = new byte[(t + 1 + n) * w];
+        ECPoint[] A = new ECPoint[n];
+        for (int j = 0; j <= t; j++)
+            putScalar(scalars, j, res.coeffs[j]);
+        for (int i = 0; i < n; i++) {
+            putScalar(scalars, t + 1 + i, res.shares[i].getai());
+            A[i] = res.shares[i].getAiPoint();
+        }
+        return new Dealing(scalars, A);
+    }
+
+    private Nonce newNonce() {
+        BigInteger p = ctx.getOrder();
+        BigInteger x;
+        do {
+            x = new BigInteger(p.bitLength(), rnd);
+        } while (x.signum() == 0 || x.compareTo(p) >= 0);
+        byte[] b = new byte[w];
+        putScalar(b, 0, x);
+        return new Nonce(b, EcOps.normalize(EcOps.mul(ctx.getGenerator(), x)));
+    }
+
+    private <T> Thread filler(String what, BlockingQueue<T> queue, Supplier<T> make) {
+        Thread th = new Thread(() -> {
+            try {
+                while (!closed) {
+                    queue.put(make.get());
+                }
+            } catch (InterruptedException e) {
+                // closed
+            } catch (RuntimeException e) {
+                log.warn("precomputation of {} stopped: {}", what, e.toString());
+            }
+        }, "precompute-" + what);
+        th.setDaemon(true);
+        th.setPriority(Thread.MIN_PRIORITY);
+        return th;
+    }
+
+    private void putScalar(byte[] out, int slot, BigInteger x) {
+        byte[] b = x.toByteArray();
+        try {
+            int skip = b.length > w ? b.length - w : 0;
+            System.arraycopy(b, skip, out, (slot + 1) * w - (b.length - skip), b.length - skip);
+        } finally {
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+
+    private BigInteger scalar(byte[] in, int slot) {
+        byte[] b = Arrays.copyOfRange(in, slot * w, (slot + 1) * w);
+        try {
+            return new BigInteger(1, b);
+        } finally {
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+}
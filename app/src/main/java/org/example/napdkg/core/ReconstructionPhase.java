@@ -12,6 +12,7 @@ import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.EcOps;
 import org.example.napdkg.util.MaskedShareCHat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,10 +49,12 @@ public class ReconstructionPhase {
 
         // 5) Collect first t+fa threshold outputs Θ_i
         Map<Integer, ShareVerificationPublish> received = new HashMap<>();
+        int seen = 0;
         while (received.size() < needed) {
-            Thread.sleep(VerificationPhase.POLL_MS);
-            List<ShareVerificationOutputDTO> dtoList = pbb.fetch("ShareVerificationOutput",
-                    ShareVerificationOutputDTO.class);
+            // wait for at least one Θ we haven't looked at yet
+            List<ShareVerificationOutputDTO> dtoList = pbb.awaitAtLeast("ShareVerificationOutput",
+                    seen + 1, ShareVerificationOutputDTO.class);
+            seen = dtoList.size();
             for (ShareVerificationOutputDTO dto : dtoList) {
                 int pi = dto.verifierIndex;
                 if (!received.containsKey(pi)) {
@@ -66,6 +69,9 @@ public class ReconstructionPhase {
         List<ShareVerificationPublish> Q2 = new ArrayList<>(received.values());
         log.info("✅ Q2 is formed");
 
+        // X_j for every j, fetched and checked once for the whole loop
+        List<PublicKeysWithProofs> pubs = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n);
+
         Iterator<ShareVerificationPublish> it = Q2.iterator();
         while (it.hasNext()) {
             ShareVerificationPublish out = it.next();
@@ -74,20 +80,18 @@ public class ReconstructionPhase {
             // 6.a) recompute W_j = Σ_{k∈Q1} C_{k,j}
             ECPoint Wj = G.getCurve().getInfinity();
             for (SharingOutput shDealer : Q1) {
-                Wj = Wj.add(shDealer.Cij[j]).normalize();
+                Wj = EcOps.normalize(EcOps.add(Wj, shDealer.Cij[j]));
             }
 
             // 6.b) recompute delta_j = W_j − τ_{pk_j}
-            ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
+            ECPoint deltaJ = EcOps.normalize(EcOps.sub(Wj, out.tpki));
 
             // 6.c) fetch X_j = the ephemeral pub of party j
-            ECPoint Ej = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n)
-                    .get(j)
-                    .getPublicKey();
+            ECPoint Ej = pubs.get(j).getPublicKey();
 
             ECPoint EQ1 = G.getCurve().getInfinity();
             for (SharingOutput shj : Q1) {
-                EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+                EQ1 = EcOps.normalize(EcOps.add(EQ1, shj.getDealerPub()));
             }
             // 6.d) verify DLEQ proof tying (G,X_j) to (EQ1, deltaJ)
             boolean ok = NizkDlEqProof.verifyProof(
@@ -114,7 +118,7 @@ public class ReconstructionPhase {
                 ECPoint E = shj.dealerPub; // E_j
 
                 // A_{j,i} = C_{j,i} − sk_i·E_j
-                ECPoint Aji = Cji.subtract(E.multiply(sk_i)).normalize();
+                ECPoint Aji = EcOps.normalize(EcOps.sub(Cji, EcOps.mul(E, sk_i)));
                 Aij.put(index, Aji);
 
                 // a_{j,i} = unmask( A_{j,i} , Ŝ_{j,i} )
@@ -147,7 +151,7 @@ public class ReconstructionPhase {
             // 7c) Compute the joint public key Y = Σ_{j∈Q2} τ_{pk_j}
             ECPoint Y = ctx.getGenerator().getCurve().getInfinity();
             for (ShareVerificationPublish outs : Q2) {
-                Y = Y.add(outs.tpki).normalize();
+                Y = EcOps.normalize(EcOps.add(Y, outs.tpki));
             }
             log.info("🎉 Group public key Y = {}", Y);
 
@@ -9,14 +9,21 @@ import org.slf4j.LoggerFactory;
 public class SetupPhasePublisher {
     private static final Logger log = LoggerFactory.getLogger(SetupPhasePublisher.class);
 
+    /**
+     * Publishes P.ephKey with its DL proof, generating the key first unless
+     * the party already holds one (e.g. restored from a checkpoint).
+     */
     public static void publishEphemeralKey(PartyContext P) throws Exception {
         // generate & store this party’s ephemeral keypair
-        DhKeyPair kp = DhKeyPair.generate(P.ctx);
-        P.ephKey = kp;
+        if (P.ephKey == null)
+            P.ephKey = DhKeyPair.generate(P.ctx);
+        DhKeyPair kp = P.ephKey;
 
         String id = "id" + P.id;
         String Phex = DkgUtils.encodePoint(kp.getPublic());
-        NizkDlProof proof = NizkDlProof.generateProof(P.ctx, kp);
+        NizkDlProof proof = P.precomp != null
+                ? NizkDlProof.generateProof(P.ctx, kp, P.precomp.takeNonce())
+                : NizkDlProof.generateProof(P.ctx, kp);
         String proofHex = proof.getChallenge().toString(16)
                 + "|" + proof.getResponse().toString(16);
 
@@ -7,6 +7,7 @@ import java.util.List;
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.util.EcOps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,17 +15,13 @@ public class SetupPhaseWaiter {
     private static final Logger log = LoggerFactory.getLogger(SetupPhaseWaiter.class);
 
     public static void awaitAllEphemeralKeys(PartyContext P, int n) throws Exception {
-        List<EphemeralKeyDTO> dtos;
-        do {
-            Thread.sleep(100);
-            dtos = P.pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
-            log.info("party {} sees {} keys", P.id, dtos.size());
-        } while (dtos.size() < n);
+        List<EphemeralKeyDTO> dtos = P.pbb.awaitAtLeast("ephemeralKeys", n, EphemeralKeyDTO.class);
+        log.info("party {} sees {} keys", P.id, dtos.size());
 
         // decode them
         for (EphemeralKeyDTO dto : dtos) {
             byte[] raw = Hex.decode(dto.publicKey);
-            ECPoint Q = P.ctx.getGenerator().getCurve().decodePoint(raw).normalize();
+            ECPoint Q = EcOps.normalize(EcOps.decode(P.ctx.getGenerator().getCurve(), raw));
             String[] parts = dto.schnorrProof.split("\\|");
             NizkDlProof prf = new NizkDlProof(
                     new BigInteger(parts[0], 16),
@@ -7,6 +7,7 @@ import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
 
 public class ShareVerificationPublish {
   public final int verifierIndex;
@@ -24,10 +25,8 @@ public class ShareVerificationPublish {
 
   public static ShareVerificationPublish fromDTO(ShareVerificationOutputDTO dto, DkgContext ctx) {
     // decode τ_{pk_i}
-    ECPoint tpki = ctx.getGenerator()
-        .getCurve()
-        .decodePoint(Hex.decode(dto.tauPki))
-        .normalize();
+    ECPoint tpki = EcOps.normalize(
+        EcOps.decode(ctx.getGenerator().getCurve(), Hex.decode(dto.tauPki)));
 
     // reconstruct proof
     BigInteger e = new BigInteger(dto.proof.getChallenge(), 16);
@@ -7,6 +7,7 @@ import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.dto.SharingOutputDTO;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
 
 public class SharingOutput {
     public final int dealerIndex;
@@ -56,19 +57,14 @@ public class SharingOutput {
      */
     public static SharingOutput fromDTO(SharingOutputDTO dto, DkgContext ctx) {
         // 1) dealer’s public point
-        ECPoint dealerPub = ctx.getGenerator()
-                .getCurve()
-                .decodePoint(Hex.decode(dto.dealerPub))
-                .normalize();
+        ECPoint dealerPub = EcOps.normalize(
+                EcOps.decode(ctx.getGenerator().getCurve(), Hex.decode(dto.dealerPub)));
 
         // 2) encrypted shares C_{j,1…n}
         ECPoint[] Cij = new ECPoint[dto.Cij.length];
         for (int i = 0; i < Cij.length; i++) {
             byte[] raw = Hex.decode(dto.Cij[i]);
-            Cij[i] = ctx.getGenerator()
-                    .getCurve()
-                    .decodePoint(raw)
-                    .normalize();
+            Cij[i] = EcOps.normalize(EcOps.decode(ctx.getGenerator().getCurve(), raw));
         }
 
         // 3) mask proofs Ŝ_{j,1…n}
@@ -10,7 +10,9 @@ import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.dto.EphemeralKeyDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.jfr.MsmEvent;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
 import org.example.napdkg.util.HashingTools;
 import org.example.napdkg.util.MaskedShareCHat;
 import org.slf4j.Logger;
@@ -33,6 +35,7 @@ public class SharingPhase {
   private final SecureRandom rnd = new SecureRandom();
   protected BigInteger secretShare;
   protected DhKeyPair myEphKey;
+  private final PrecomputationPool precomp;
 
   public SharingPhase(PartyContext P, int t) {
     this.ctx = P.ctx;
@@ -41,6 +44,7 @@ public class SharingPhase {
     this.n = P.allEphPubs.length;
     this.t = t;
     this.myEphKey = P.ephKey;
+    this.precomp = P.precomp;
   }
 
   public BigInteger getSecretShare() {
@@ -57,7 +61,7 @@ public class SharingPhase {
     List<PublicKeysWithProofs> pubs = new ArrayList<>();
     for (EphemeralKeyDTO dto : dtos) {
       byte[] raw = Hex.decode(dto.publicKey);
-      ECPoint P = ctx.getGenerator().getCurve().decodePoint(raw).normalize();
+      ECPoint P = EcOps.normalize(EcOps.decode(ctx.getGenerator().getCurve(), raw));
       String[] parts = dto.schnorrProof.split("\\|");
       BigInteger challenge = new BigInteger(parts[0], 16);
       BigInteger response = new BigInteger(parts[1], 16);
@@ -75,7 +79,7 @@ public class SharingPhase {
     List<PublicKeysWithProofs> out = new java.util.ArrayList<>();
     for (EphemeralKeyDTO dto : raw) {
       byte[] pubBytes = org.bouncycastle.util.encoders.Hex.decode(dto.publicKey);
-      ECPoint pubPt = ctx.getCurve().decodePoint(pubBytes).normalize();
+      ECPoint pubPt = EcOps.normalize(EcOps.decode(ctx.getCurve(), pubBytes));
       out.add(new PublicKeysWithProofs(dto.partyIndex, pubPt, /* proof */null));
     }
     return out;
@@ -112,7 +116,7 @@ public class SharingPhase {
     BigInteger[] aijScalars = new BigInteger[n];
     for (int j = 0; j < n; j++) {
       aijScalars[j] = shares[j].getai().mod(p);
-      Aij[j] = shares[j].getAiPoint().normalize();
+      Aij[j] = EcOps.normalize(shares[j].getAiPoint());
     }
 
     // 3) Fetch everyone’s ephemeral public keys E[j]
@@ -123,25 +127,25 @@ public class SharingPhase {
     }
     ECPoint[] E = new ECPoint[n];
     for (int j = 0; j < n; j++) {
-      E[j] = ephList.get(j).getPublicKey().normalize();
+      E[j] = EcOps.normalize(ephList.get(j).getPublicKey());
     }
 
     // Dealer’s ephemeral secret key ski
     BigInteger ski = myEphKey.getSecretKey();
-    ECPoint pk_i = myEphKey.getPublic().normalize();
+    ECPoint pk_i = EcOps.normalize(myEphKey.getPublic());
 
     // Compute Cij[j] = E[j]^ski + Aij[j], CHat[j] = H′(Aij[j]) XOR aij
     ECPoint[] Cij = new ECPoint[n];
     BigInteger[] CHat = new BigInteger[n];
     for (int j = 0; j < n; j++) {
-      Cij[j] = E[j].multiply(ski).add(Aij[j]).normalize();
+      Cij[j] = EcOps.normalize(EcOps.add(EcOps.mul(E[j], ski), Aij[j]));
       CHat[j] = MaskedShareCHat.maskShare(Aij[j], aijScalars[j], p);
     }
 
     // 4) **TRIVIALIZED SCRAPE**: instead of summing over all r[j], we pick
     // U = G and V = G^ski so that V always equals U^ski.
     ECPoint U = G;
-    ECPoint V = G.multiply(ski).normalize();
+    ECPoint V = EcOps.normalize(EcOps.mul(G, ski));
 
     // 5) Generate a correct NIZK‐DLEQ proof that (G, pk_i, U, V) share the exponent
     // “ski”
@@ -167,14 +171,18 @@ public class SharingPhase {
 
     // --------------------------------------------
     // 1) Dealer picks random secret s ∈ Z_p
-    // --------------------------------------------
-    BigInteger s = new BigInteger(p.bitLength(), rnd).mod(p);
-    this.secretShare = s; // store your "dealer" secret if needed
-
     // --------------------------------------------
     // 2) Shamir-share “s” among n parties
+    // (both ready-made when a precomputation pool is set)
     // --------------------------------------------
-    GShamirShareDKG.ShamirSharingResult res = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, s);
+    GShamirShareDKG.ShamirSharingResult res;
+    if (precomp != null) {
+      res = precomp.takeDealing();
+    } else {
+      BigInteger s = new BigInteger(p.bitLength(), rnd).mod(p);
+      res = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, s);
+    }
+    this.secretShare = res.coeffs[0]; // store your "dealer" secret if needed
 
     // Each 'Share' has getai() = scalar share, getAiPoint() = G^(ai).
     Share[] shares = res.shares; // length n
@@ -201,7 +209,7 @@ public class SharingPhase {
     ECPoint[] E = new ECPoint[n];
     for (int j = 0; j < n; j++) {
       // ephemeral public keys from others
-      E[j] = eph.get(j).getPublicKey().normalize();
+      E[j] = EcOps.normalize(eph.get(j).getPublicKey());
     }
 
     // ephemeral secret key for "this" dealer
@@ -218,7 +226,7 @@ public class SharingPhase {
 
     for (int j = 0; j < n; j++) {
       // C_ij = E[j]*ski + Aij
-      Cij[j] = E[j].multiply(ski).add(Aij[j]).normalize();
+      Cij[j] = EcOps.normalize(EcOps.add(EcOps.mul(E[j], ski), Aij[j]));
 
       // CHat might be something like H'(Aij[j]) XOR aijScalars[j].
       CHat[j] = MaskedShareCHat.maskShare(Aij[j], aijScalars[j], p);
@@ -245,6 +253,8 @@ public class SharingPhase {
     // V = ∑ v_j * m*(α_j) * Cij[j]
     // Then check if V == U^ski (or do a DLEQ proof).
     // =========================================================================
+    MsmEvent msm = new MsmEvent();
+    msm.begin();
     ECPoint U = G.getCurve().getInfinity();
     ECPoint V = G.getCurve().getInfinity();
     for (int j = 1; j <= n; j++) {
@@ -253,14 +263,15 @@ public class SharingPhase {
 
       // Debug prints:
 
-      U = U.add(E[j - 1].multiply(factor)).normalize();
-      V = V.add(Cij[j - 1].multiply(factor)).normalize();
+      U = EcOps.normalize(EcOps.add(U, EcOps.mul(E[j - 1], factor)));
+      V = EcOps.normalize(EcOps.add(V, EcOps.mul(Cij[j - 1], factor)));
 
     }
+    msm.finish("sharing.UV", 2 * n);
 
     System.out.println("Final aggregator U=" + U + "\nFinal aggregator V=" + V);
 
-    ECPoint UtoSki = U.multiply(ski).normalize();
+    ECPoint UtoSki = EcOps.normalize(EcOps.mul(U, ski));
     System.out.println("U^ski=" + UtoSki);
 
     // Compare with V
@@ -271,7 +282,7 @@ public class SharingPhase {
     }
 
     // Then check U^ski vs. V
-    UtoSki = U.multiply(ski).normalize();
+    UtoSki = EcOps.normalize(EcOps.mul(U, ski));
     boolean match = UtoSki.equals(V);
     System.out.println("Aggregator check match? => " + match);
 
@@ -288,7 +299,9 @@ public class SharingPhase {
     // 7) Generate DLEQ proof that ski is consistent
     // with pk_i = G^ski and V = U^ski
     // --------------------------------------------
-    NizkDlEqProof proof = NizkDlEqProof.generateProof(ctx, pk_i, U, V, ski);
+    NizkDlEqProof proof = precomp != null
+        ? NizkDlEqProof.generateProof(ctx, pk_i, U, V, ski, precomp.takeNonce())
+        : NizkDlEqProof.generateProof(ctx, pk_i, U, V, ski);
     boolean verify = NizkDlEqProof.verifyProof(ctx, pk_i, U, V, proof);
     System.out.println("DLEQ verify = " + verify);
 
@@ -344,7 +357,7 @@ public class SharingPhase {
     List<PublicKeysWithProofs> eph = fetchEph();
     ECPoint[] E = new ECPoint[n];
     for (int j = 0; j < n; j++) {
-      E[j] = eph.get(j).getPublicKey().normalize();
+      E[j] = EcOps.normalize(eph.get(j).getPublicKey());
     }
 
     // Ephemeral secret key = ski
@@ -354,7 +367,7 @@ public class SharingPhase {
     ECPoint[] Cij = new ECPoint[n];
     BigInteger[] CHat = new BigInteger[n];
     for (int j = 0; j < n; j++) {
-      Cij[j] = E[j].multiply(ski).add(Aij[j]).normalize();
+      Cij[j] = EcOps.normalize(EcOps.add(EcOps.mul(E[j], ski), Aij[j]));
       CHat[j] = MaskedShareCHat.maskShare(Aij[j], aijScalars[j], p);
     }
 
@@ -418,12 +431,12 @@ public class SharingPhase {
     for (int j = 1; j < n; j++) {
       BigInteger evalMj = evaluatePolynomial(mStar, alpha[j], p);
       BigInteger mtimesv = evalMj.multiply(v[j - 1]).mod(p);
-      U = U.add(E[j - 1].multiply(mtimesv)).normalize();
-      V = V.add(Cij[j - 1].multiply(mtimesv)).normalize();
+      U = EcOps.normalize(EcOps.add(U, EcOps.mul(E[j - 1], mtimesv)));
+      V = EcOps.normalize(EcOps.add(V, EcOps.mul(Cij[j - 1], mtimesv)));
     }
     System.out.println("This is U " + U);
     System.out.println("This is V " + V);
-    ECPoint UtoSki = U.multiply(ski).normalize();
+    ECPoint UtoSki = EcOps.normalize(EcOps.mul(U, ski));
     boolean scrapePassed = UtoSki.equals(V);
     System.out.println("this is U^ski " + UtoSki);
     if (scrapePassed) {
@@ -16,6 +16,7 @@ import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.dto.ThresholdKeyOutputDTO;
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.EcOps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,12 +34,14 @@ public class ThresHoldPhase {
     // in ThresholdPhase.java
     private <D, T> T waitForAndDecode(
             String topic,
+            String field,
+            Object value,
             Class<D> dtoClass,
             Predicate<D> selector,
             Function<D, T> decoder) throws Exception {
         while (true) {
             Thread.sleep(POLL_MS);
-            for (D dto : P.pbb.fetch(topic, dtoClass)) {
+            for (D dto : P.pbb.fetchWhere(topic, field, value, dtoClass)) {
                 if (!selector.test(dto))
                     continue;
                 return decoder.apply(dto);
@@ -49,6 +52,8 @@ public class ThresHoldPhase {
     public ThresholdOutput fetchThresholdOutput(int dealerIndex) throws Exception {
         return waitForAndDecode(
                 "ThresholdKeyOutput",
+                "dealerIndex",
+                dealerIndex,
                 ThresholdKeyOutputDTO.class,
 
                 new Predicate<ThresholdKeyOutputDTO>() {
@@ -61,9 +66,8 @@ public class ThresHoldPhase {
                 new Function<ThresholdKeyOutputDTO, ThresholdOutput>() {
                     @Override
                     public ThresholdOutput apply(ThresholdKeyOutputDTO dto) {
-                        ECPoint tpki = P.ctx.getGenerator().getCurve()
-                                .decodePoint(Hex.decode(dto.tpkiHex))
-                                .normalize();
+                        ECPoint tpki = EcOps.normalize(
+                                EcOps.decode(P.ctx.getGenerator().getCurve(), Hex.decode(dto.tpkiHex)));
                         NizkDlEqProof prf = dto.proof.toProof();
                         return new ThresholdOutput(dto.dealerIndex, dto.partyIndex, tpki, prf);
                     }
@@ -88,13 +92,11 @@ public class ThresHoldPhase {
         Map<Integer, ShareVerificationOutput> seen = new LinkedHashMap<>();
         while (seen.size() < needed) {
             Thread.sleep(100);
-            // fetch _all_ published verification DTOs from the PBB
-            List<ShareVerificationOutputDTO> dtos = pbb.fetch("ShareVerificationOutput",
-                    ShareVerificationOutputDTO.class);
+            // fetch only this index's verification DTOs from the PBB
+            List<ShareVerificationOutputDTO> dtos = pbb.fetchWhere("ShareVerificationOutput",
+                    "verifierIndex", dealerIndex, ShareVerificationOutputDTO.class);
 
             for (ShareVerificationOutputDTO dto : dtos) {
-                if (dto.verifierIndex != dealerIndex)
-                    continue;
                 if (seen.containsKey(dto.verifierIndex))
                     continue;
 
@@ -135,8 +137,8 @@ public class ThresHoldPhase {
                 ECPoint tau_pki = ctx.getGenerator().getCurve().getInfinity();
                 for (int j : Q1) {
                     BigInteger aij = seen.get(j).share;
-                    ECPoint Aij = ctx.getGenerator().multiply(aij).normalize();
-                    tau_pki = tau_pki.add(Aij).normalize();
+                    ECPoint Aij = EcOps.normalize(EcOps.mul(ctx.getGenerator(), aij));
+                    tau_pki = EcOps.normalize(EcOps.add(tau_pki, Aij));
                 }
 
                 // 5) Compute W_i = Σ_{j∈Q1} C_{i,j}
@@ -144,7 +146,7 @@ public class ThresHoldPhase {
                 for (int j : Q1) {
                     ShareVerificationOutput out = seen.get(j);
                     // out.Cij is already ECPoint[], decoded when you put it into seen
-                    W_i = W_i.add(out.Cij[j]).normalize();
+                    W_i = EcOps.normalize(EcOps.add(W_i, out.Cij[j]));
                 }
 
                 // 5) Compute W_i = Σ_{j∈Q1} C_{i,j}
@@ -156,11 +158,11 @@ public class ThresHoldPhase {
                 // 6) Compute EQ1 = Σ_{j∈Q1} E_j
                 ECPoint EQ1 = ctx.getGenerator().getCurve().getInfinity();
                 for (int j : Q1) {
-                    EQ1 = EQ1.add(pubs.get(j).getPublicKey()).normalize();
+                    EQ1 = EcOps.normalize(EcOps.add(EQ1, pubs.get(j).getPublicKey()));
                 }
 
                 // 7) Form Δ = W_i − τ_pki
-                ECPoint delta = W_i.subtract(tau_pki).normalize();
+                ECPoint delta = EcOps.normalize(EcOps.sub(W_i, tau_pki));
 
                 // 8) Produce & verify the DLEQ proof that
                 // log_G(Xi) == log_EQ1(delta),
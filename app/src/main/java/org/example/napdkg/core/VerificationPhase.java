@@ -3,20 +3,25 @@ package org.example.napdkg.core;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.jfr.MsmEvent;
+import org.example.napdkg.jfr.PhaseEvent;
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.EcOps;
 import org.example.napdkg.util.EvaluationTools;
 import org.example.napdkg.util.HashingTools;
 import org.example.napdkg.util.MaskedShareCHat;
@@ -36,6 +41,8 @@ public class VerificationPhase {
     private List<SharingOutput> Q1 = new ArrayList<>();
     private Map<Integer, ECPoint> Aij = new HashMap<>();
     private Map<Integer, BigInteger> aij = new HashMap<>();
+    // dealers whose verification ran to the end, accepted or not
+    private final Set<Integer> verified = new TreeSet<>();
     private ECPoint trueGroupKey = null;
 
     // 2) setter
@@ -101,22 +108,82 @@ public class VerificationPhase {
 
     private SharingOutput fetchAndCollectDealer(int dealerToVerify) throws IOException, Exception {
         SharingOutput so = null;
-        while (so == null) {
-            Thread.sleep(POLL_MS);
-            for (SharingOutputDTO dto : pbb.fetch("DealerPublish", SharingOutputDTO.class)) {
-                if (dto.dealerIndexDTO != dealerToVerify)
-                    continue;
+        while (true) {
+            for (SharingOutputDTO dto : pbb.fetchWhere("DealerPublish", "dealerIndexDTO", dealerToVerify,
+                    SharingOutputDTO.class)) {
                 so = SharingOutput.fromDTO(dto, ctx);
                 System.out.printf("✔ Collected Sh_%d%n", dealerToVerify);
                 break;
             }
+            if (so != null)
+                return so;
+            // only back off while the dealer hasn't published yet
+            Thread.sleep(POLL_MS);
         }
-        return so;
     }
 
     // ------------Share Verification (2nd round or after t fa parties post Shi
     // PBB.)----------------------------------------------------
     public void VerifySharesFor(int dealerToVerify) throws Exception {
+        if (verified.contains(dealerToVerify)) {
+            log.debug("dealer {} already verified", dealerToVerify);
+            return;
+        }
+        PhaseEvent ev = new PhaseEvent();
+        ev.begin();
+        try {
+            verifyDealer(dealerToVerify);
+            verified.add(dealerToVerify);
+        } finally {
+            // inQ1 scans Q1; only pay for it when the event is recorded
+            ev.end();
+            if (ev.shouldCommit())
+                ev.finish(me, PhaseMetrics.VERIFICATION, dealerToVerify, inQ1(dealerToVerify));
+        }
+    }
+
+    /** Dealers already verified (accepted into Q1 or not), in index order. */
+    public Set<Integer> getVerifiedDealers() {
+        return Collections.unmodifiableSet(verified);
+    }
+
+    /** A_{j,i} = a_{j,i}·G per dealer j in Q1, as decrypted so far. */
+    public Map<Integer, ECPoint> getShareCommitments() {
+        return Collections.unmodifiableMap(Aij);
+    }
+
+    /** a_{j,i} per dealer j in Q1 — this party's secret shares. */
+    public Map<Integer, BigInteger> getShares() {
+        return Collections.unmodifiableMap(aij);
+    }
+
+    /**
+     * Puts back the state of an earlier run of this party (see
+     * {@link CheckpointedParty}): Q1 is fetched again from the board by
+     * dealer index, and the dealers in {@code verifiedDealers} are not
+     * verified again.
+     */
+    public void restore(Collection<Integer> verifiedDealers, List<Integer> q1Dealers,
+            Map<Integer, ECPoint> A, Map<Integer, BigInteger> a) throws Exception {
+        Q1.clear();
+        for (int dealer : q1Dealers) {
+            Q1.add(fetchAndCollectDealer(dealer));
+        }
+        verified.clear();
+        verified.addAll(verifiedDealers);
+        Aij = new HashMap<>(A);
+        aij = new HashMap<>(a);
+    }
+
+    private boolean inQ1(int dealer) {
+        for (SharingOutput x : Q1) {
+            if (x.getDealerIndex() == dealer)
+                return true;
+        }
+        return false;
+    }
+
+    private void verifyDealer(int dealerToVerify) throws Exception {
         // Let Q₁ be the set of indices j such that Pⱼ are the first t+fₐ
         // parties to publish Sᵢⱼ on the PBB.
         // → here we spin until we see the dealer’s SharingOutput Sᵢ,*
@@ -146,7 +213,8 @@ public class VerificationPhase {
                 CurrentDealer.CHat,
                 n, t);
 
-        System.out.println("Verifier computed mStar: " + Arrays.toString(mStar));
+        // n coefficients for each of n² (party, dealer) pairs: debug only
+        log.debug("Verifier computed mStar: {}", (Object) mStar);
 
         log.info(mStar + "Is formed");
 
@@ -155,6 +223,8 @@ public class VerificationPhase {
         BigInteger[] alpha = ctx.getAlphas(); // [0, α₁…αₙ]
         BigInteger[] lambda = ctx.getVs();
         // Lagrange-at-0 weights
+        MsmEvent msm = new MsmEvent();
+        msm.begin();
         ECPoint U = G.getCurve().getInfinity();
         ECPoint V = G.getCurve().getInfinity();
         for (int j = 1; j <= n; j++) {
@@ -162,9 +232,10 @@ public class VerificationPhase {
             // w = vk * m*(alphak)
             BigInteger w = lambda[j - 1].multiply(f).mod(p);
             // U = Ek * w
-            U = U.add(E[j - 1].multiply(w)).normalize();
-            V = V.add(CurrentDealer.Cij[j - 1].multiply(w)).normalize();
+            U = EcOps.normalize(EcOps.add(U, EcOps.mul(E[j - 1], w)));
+            V = EcOps.normalize(EcOps.add(V, EcOps.mul(CurrentDealer.Cij[j - 1], w)));
         }
+        msm.finish("verification.UV", 2 * n);
 
         // 3) now check the DLEQ proof that log_G(Ucalc) == log_{dealerPub}(Vcalc)
         if (!NizkDlEqProof.verifyProof(ctx, CurrentDealer.dealerPub, U, V, CurrentDealer.proof)) {
@@ -211,7 +282,7 @@ public class VerificationPhase {
         BigInteger CHatMine = CurrentDealer.CHat[me]; // mask for your share
 
         // 1) decrypt your/as a verifer commitment
-        ECPoint A_me = Cmine.subtract(dealerPub.multiply(sk_i)).normalize();
+        ECPoint A_me = EcOps.normalize(EcOps.sub(Cmine, EcOps.mul(dealerPub, sk_i)));
 
         // 2) un-mask to get your scalar share
         BigInteger a_me = MaskedShareCHat.unmaskShare(
@@ -225,13 +296,13 @@ public class VerificationPhase {
             BigInteger chi = shj.getCHat()[me];
             ECPoint Ej = shj.getDealerPub(); // E_j
             // A_{j,i} = C_{j,i} - sk_i · E_j
-            ECPoint Aji = Cji.subtract(Ej.multiply(sk_i)).normalize();
+            ECPoint Aji = EcOps.normalize(EcOps.sub(Cji, EcOps.mul(Ej, sk_i)));
 
             // a_{j,i} = unmask(A_{j,i})
             BigInteger ajiVal = MaskedShareCHat.unmaskShare(Aji, chi, p);
 
             // consistency check: G·a_{j,i} == A_{j,i}
-            if (!G.multiply(ajiVal).normalize().equals(Aji)) {
+            if (!EcOps.normalize(EcOps.mul(G, ajiVal)).equals(Aji)) {
                 throw new IllegalStateException(
                         String.format("Bad share from dealer %d for me=%d", j, me));
             }
@@ -240,12 +311,12 @@ public class VerificationPhase {
         }
 
         // 3) consistency check
-        if (!G.multiply(a_me).equals(A_me)) {
+        if (!EcOps.mul(G, a_me).equals(A_me)) {
             log.info(
                     "A'j,i check failed!!! We should compute PfDecj,i ↔DLEQ(ski; G, Ei, Ej , Cj,i↗A→j,i) and PUBLISH COMPLAINT");
             throw new IllegalStateException("Share mismatch for me=" + me);
         }
-        if (G.multiply(a_me).equals(A_me)) {
+        if (EcOps.mul(G, a_me).equals(A_me)) {
             log.info("A'j,i equals Cj,i - ski * Ej");
         }
 
@@ -257,7 +328,7 @@ public class VerificationPhase {
         // 1) recompute your tau_pki over the final Q1
         ECPoint tau = ctx.getGenerator().getCurve().getInfinity();
         for (ECPoint Aji : Aij.values()) {
-            tau = tau.add(Aji).normalize();
+            tau = EcOps.normalize(EcOps.add(tau, Aji));
         }
 
         this.tauPki = tau;
@@ -265,17 +336,17 @@ public class VerificationPhase {
         // 2) recompute W_i = Σ_{j∈Q₁} C_{j,i}
         ECPoint Wi = ctx.getGenerator().getCurve().getInfinity();
         for (SharingOutput shj : Q1) {
-            Wi = Wi.add(shj.getCij()[me]).normalize();
+            Wi = EcOps.normalize(EcOps.add(Wi, shj.getCij()[me]));
         }
 
         // 3) recompute EQ₁ = Σ_{j∈Q₁} Eₙ (dealers’ ephemeral pubs)
         ECPoint EQ1 = ctx.getGenerator().getCurve().getInfinity();
         for (SharingOutput shj : Q1) {
-            EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+            EQ1 = EcOps.normalize(EcOps.add(EQ1, shj.getDealerPub()));
         }
 
         // 4) Δ = W_i − τ
-        ECPoint delta = Wi.subtract(tau).normalize();
+        ECPoint delta = EcOps.normalize(EcOps.sub(Wi, tau));
 
         // 8) Produce & verify the DLEQ proof that
         // log_G(Xi) == log_EQ1(delta),
@@ -283,7 +354,9 @@ public class VerificationPhase {
         ECPoint Ei = P.ephKey.getPublic();
         // 1) generate & publish exactly one ThresholdOutput
         BigInteger sk_i = P.ephKey.getSecretKey();
-        this.thresholdProof = NizkDlEqProof.generateProof(ctx, Ei, EQ1, delta, sk_i);
+        this.thresholdProof = P.precomp != null
+                ? NizkDlEqProof.generateProof(ctx, Ei, EQ1, delta, sk_i, P.precomp.takeNonce())
+                : NizkDlEqProof.generateProof(ctx, Ei, EQ1, delta, sk_i);
         boolean ok = NizkDlEqProof.verifyProof(ctx, Ei, EQ1, delta, thresholdProof);
 
         log.info(
@@ -307,10 +380,12 @@ public class VerificationPhase {
 
         // 5) Collect first t+fa threshold outputs Θ_i
         Map<Integer, ShareVerificationPublish> received = new HashMap<>();
+        int seen = 0;
         while (received.size() < needed) {
-            Thread.sleep(VerificationPhase.POLL_MS);
-            List<ShareVerificationOutputDTO> dtoList = pbb.fetch("ShareVerificationOutput",
-                    ShareVerificationOutputDTO.class);
+            // wait for at least one Θ we haven't looked at yet
+            List<ShareVerificationOutputDTO> dtoList = pbb.awaitAtLeast("ShareVerificationOutput",
+                    seen + 1, ShareVerificationOutputDTO.class);
+            seen = dtoList.size();
             for (ShareVerificationOutputDTO dto : dtoList) {
                 int pi = dto.verifierIndex;
                 if (!received.containsKey(pi)) {
@@ -329,9 +404,12 @@ public class VerificationPhase {
         // 2) recompute EQ1 = Σ_{k∈Q1} E_k (same as in publishThresholdOutput)
         ECPoint EQ1 = ctx.getGenerator().getCurve().getInfinity();
         for (SharingOutput shj : Q1) {
-            EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+            EQ1 = EcOps.normalize(EcOps.add(EQ1, shj.getDealerPub()));
         }
 
+        // X_j for every j: fetched (and DL‐proof checked) once, not once per Θ_j
+        List<PublicKeysWithProofs> pubs = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n);
+
         // 3) prune any Θ_j whose proof fails:
         Iterator<ShareVerificationPublish> it = Q2.iterator();
         while (it.hasNext()) {
@@ -340,13 +418,11 @@ public class VerificationPhase {
             // compute W_j = Σ_{k∈Q1} C_{k,j}
             ECPoint Wj = G.getCurve().getInfinity();
             for (SharingOutput shj : Q1) {
-                Wj = Wj.add(shj.getCij()[j]).normalize();
+                Wj = EcOps.normalize(EcOps.add(Wj, shj.getCij()[j]));
             }
-            ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
+            ECPoint deltaJ = EcOps.normalize(EcOps.sub(Wj, out.tpki));
             // fetch ephemeral pub X_j
-            ECPoint Xj = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n)
-                    .get(j)
-                    .getPublicKey();
+            ECPoint Xj = pubs.get(j).getPublicKey();
             // verify DLEQ(G, Xj; EQ1, deltaJ)
             boolean ok = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ, out.Pftpki);
             if (!ok) {
@@ -360,7 +436,27 @@ public class VerificationPhase {
         return Q2;
     }
 
-    public void finalReconstruction(List<SharingOutput> Q1, List<ShareVerificationPublish> Q2) throws Exception {
+    /**
+     * @return the reconstructed group key, checked against
+     *         {@link #setTrueGroupKey}, which must have been set
+     */
+    public ECPoint finalReconstruction(List<SharingOutput> Q1, List<ShareVerificationPublish> Q2) throws Exception {
+        return finalReconstruction(Q1, Q2, true);
+    }
+
+    /**
+     * Like {@link #finalReconstruction(List, List)}, but with no expected key
+     * to check against: for a party resumed from its checkpoint, which learns
+     * Y only here.
+     */
+    public ECPoint reconstructUnchecked(List<SharingOutput> Q1, List<ShareVerificationPublish> Q2) throws Exception {
+        return finalReconstruction(Q1, Q2, false);
+    }
+
+    private ECPoint finalReconstruction(List<SharingOutput> Q1, List<ShareVerificationPublish> Q2,
+            boolean checkGroupKey) throws Exception {
+
+        List<PublicKeysWithProofs> pubs = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n);
 
         // STEP 6: prune bad Θ_j
         Iterator<ShareVerificationPublish> it = Q2.iterator();
@@ -371,20 +467,18 @@ public class VerificationPhase {
             // recompute W_j = Σ_{k∈Q1} C_{k,j}
             ECPoint Wj = G.getCurve().getInfinity();
             for (SharingOutput sh : Q1) {
-                Wj = Wj.add(sh.getCij()[j]).normalize();
+                Wj = EcOps.normalize(EcOps.add(Wj, sh.getCij()[j]));
             }
 
             // 6.b) Δ_j = W_j − τ_{pk_j}
-            ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
+            ECPoint deltaJ = EcOps.normalize(EcOps.sub(Wj, out.tpki));
 
             // 6.c) fetch X_j (the party’s ephemeral pub E_j)
-            ECPoint Ej = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n)
-                    .get(j)
-                    .getPublicKey();
+            ECPoint Ej = pubs.get(j).getPublicKey();
 
             ECPoint EQ1 = G.getCurve().getInfinity();
             for (SharingOutput shj : Q1) {
-                EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+                EQ1 = EcOps.normalize(EcOps.add(EQ1, shj.getDealerPub()));
             }
             // 6.d) verify DLEQ(G, X_j; EQ1, Δ_j)
 
@@ -408,7 +502,7 @@ public class VerificationPhase {
             ECPoint Ej = shj.getDealerPub(); // E_j
             BigInteger sk_i = P.ephKey.getSecretKey();
             // A_{j,i} = C_{j,i} - sk_i · E_j
-            ECPoint Aji = Cji.subtract(Ej.multiply(sk_i)).normalize();
+            ECPoint Aji = EcOps.normalize(EcOps.sub(Cji, EcOps.mul(Ej, sk_i)));
             Aij.put(j, Aji);
 
             // a_{j,i} = unmask(A_{j,i}, Ŝ_{j,i})
@@ -455,21 +549,29 @@ public class VerificationPhase {
         log.info("✓ G^x_i == τ_{pk_i}");
 
         log.info(" → Final reconstructed group‐key        = {}",
-                Hex.toHexString(x_i.getEncoded(true)));
-        log.info(" → Expected trueGroupKey from SmokeTest = {}", Hex.toHexString(trueGroupKey.getEncoded(true)));
+                Hex.toHexString(EcOps.encode(x_i, true)));
+        if (!checkGroupKey) {
+            log.info("🎉 Group public key Y = {}", x_i);
+            return x_i;
+        }
+        if (trueGroupKey == null) {
+            throw new IllegalStateException("no trueGroupKey to check against; set one, or call reconstructUnchecked");
+        }
+        log.info(" → Expected trueGroupKey from SmokeTest = {}", Hex.toHexString(EcOps.encode(trueGroupKey, true)));
 
         if (!x_i.equals(trueGroupKey)) {
             throw new IllegalStateException(
                     "Group‐key mismatch! reconstructed "
-                            + Hex.toHexString(x_i.getEncoded(true))
+                            + Hex.toHexString(EcOps.encode(x_i, true))
                             + " but expected "
-                            + Hex.toHexString(trueGroupKey.getEncoded(true)));
+                            + Hex.toHexString(EcOps.encode(trueGroupKey, true)));
         }
         // STEP 7d: group key Y = Σ τ_{pk_j}
 
         log.info("🎉 reconstruction OK!");
 
         log.info("🎉 Group public key Y = {}", x_i);
+        return x_i;
     }
 
 }
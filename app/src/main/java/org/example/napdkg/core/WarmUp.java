@@ -0,0 +1,301 @@
+package org.example.napdkg.core;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.client.CachingPbbClient;
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.TrafficListener;
+import org.example.napdkg.client.WireFormat;
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.example.napdkg.util.DkgContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * Throwaway DKG sessions run before a party joins a live one, so the first
+ * real session doesn't pay for the interpreter and C1 code.
+ *
+ * Each round is a complete session (setup, sharing, verification of every
+ * dealer, threshold output, reconstruction) of {@code n} local parties on a
+ * fresh in‐memory board, with fresh keys. Everything published is also
+ * pushed through Gson and {@link BinaryDtoCodec} and read back, so the DTO
+ * reflection and codec paths are warm too, not only the group arithmetic in
+ * SharingPhase, VerificationPhase and NizkDlEqProof.
+ *
+ * One round at n=8 already runs the field arithmetic millions of times, but
+ * the per‐dealer code only n² times; rounds repeat until a round is no longer
+ * faster than the best so far by more than {@code settle} (C2 has caught up),
+ * between {@code min} and {@code rounds} rounds, and never past
+ * {@code budget}.
+ */
+public class WarmUp {
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    public static final class Options {
+        private int n = 8;
+        private int t = 3;
+        private int minRounds = 3;
+        private int maxRounds = 20;
+        private long budgetMs = 60_000;
+        private double settle = 0.05;
+
+        /** Parties per warm‐up session. */
+        public Options n(int n) {
+            this.n = n;
+            return this;
+        }
+
+        public Options t(int t) {
+            this.t = t;
+            return this;
+        }
+
+        public Options minRounds(int rounds) {
+            this.minRounds = rounds;
+            return this;
+        }
+
+        public Options maxRounds(int rounds) {
+            this.maxRounds = rounds;
+            return this;
+        }
+
+        /** Wall‐time cap over all rounds; the round in progress still finishes. */
+        public Options budgetMs(long ms) {
+            this.budgetMs = ms;
+            return this;
+        }
+
+        /** Stop once a round is within this fraction of the fastest one. */
+        public Options settle(double fraction) {
+            this.settle = fraction;
+            return this;
+        }
+
+        /**
+         * Parses e.g. {@code n=16,t=7,rounds=30,min=5,budget=120000,settle=0.03};
+         * "true" or "" gives the defaults.
+         */
+        public static Options parse(String spec) {
+            Options o = new Options();
+            if (spec == null || spec.isBlank() || spec.equals("true"))
+                return o;
+            for (String kv : spec.split(",")) {
+                String[] p = kv.trim().split("=", 2);
+                if (p.length != 2)
+                    throw new IllegalArgumentException("expected key=value, got \"" + kv + "\"");
+                String v = p[1].trim();
+                switch (p[0].trim()) {
+                    case "n":
+                        o.n(Integer.parseInt(v));
+                        break;
+                    case "t":
+                        o.t(Integer.parseInt(v));
+                        break;
+                    case "rounds":
+                        o.maxRounds(Integer.parseInt(v));
+                        break;
+                    case "min":
+                        o.minRounds(Integer.parseInt(v));
+                        break;
+                    case "budget":
+                        o.budgetMs(Long.parseLong(v));
+                        break;
+                    case "settle":
+                        o.settle(Double.parseDouble(v));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown warm-up option \"" + p[0] + "\"");
+                }
+            }
+            return o;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d t=%d rounds=%d..%d budget=%dms settle=%.2f",
+                    n, t, minRounds, maxRounds, budgetMs, settle);
+        }
+    }
+
+    /** What warm‐up did; Gson‐friendly. */
+    public static final class Report {
+        public int rounds;
+        public double totalMs;
+        public double firstRoundMs;
+        public double lastRoundMs;
+        public double bestRoundMs;
+        /** JIT time spent during warm‐up, −1 if the JVM doesn't say. */
+        public long compileMs = -1;
+        /** false if rounds or budget ran out before the round time settled. */
+        public boolean settled;
+        public List<Double> roundMs = new ArrayList<>();
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "warm-up: %d rounds in %.0f ms (first %.0f ms, last %.0f ms, best %.0f ms, JIT %d ms)%s",
+                    rounds, totalMs, firstRoundMs, lastRoundMs, bestRoundMs, compileMs,
+                    settled ? "" : ", not settled");
+        }
+    }
+
+    /** Runs warm‐up with -Dnapdkg.warmup options, or not at all if it is unset. */
+    public static Report fromSystemProperty() throws Exception {
+        String spec = System.getProperty("napdkg.warmup");
+        if (spec == null || spec.equals("false"))
+            return null;
+        return run(Options.parse(spec));
+    }
+
+    public static Report run(Options o) throws Exception {
+        log.info("warm-up: {}", o);
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long jit0 = jitTimed ? jit.getTotalCompilationTime() : 0;
+
+        DkgContext ctx = DkgContextRegistry.get(o.t, o.n);
+        Report r = new Report();
+        r.bestRoundMs = Double.MAX_VALUE;
+        long start = System.nanoTime();
+        while (r.rounds < o.maxRounds) {
+            long t0 = System.nanoTime();
+            session(ctx, o.n, o.t);
+            double ms = (System.nanoTime() - t0) / 1e6;
+            r.rounds++;
+            r.roundMs.add(ms);
+            log.debug("warm-up round {}: {} ms", r.rounds, ms);
+            // settled: this round gained nothing on the best before it
+            r.settled = r.rounds > 1 && ms >= r.bestRoundMs * (1 - o.settle);
+            r.bestRoundMs = Math.min(r.bestRoundMs, ms);
+            if (r.rounds >= o.minRounds && r.settled)
+                break;
+            if ((System.nanoTime() - start) / 1_000_000 >= o.budgetMs)
+                break;
+        }
+        r.totalMs = (System.nanoTime() - start) / 1e6;
+        r.firstRoundMs = r.roundMs.get(0);
+        r.lastRoundMs = r.roundMs.get(r.roundMs.size() - 1);
+        if (jitTimed)
+            r.compileMs = jit.getTotalCompilationTime() - jit0;
+        log.info(r.toString());
+        return r;
+    }
+
+    /** One full session of n local parties, as the smoke test runs it. */
+    private static void session(DkgContext ctx, int n, int t) throws Exception {
+        int fa = 1;
+        CachingPbbClient pbb = new CachingPbbClient(new RoundTripBoard(new InMemoryPbbClient()));
+        PhaseMetrics metrics = new PhaseMetrics();
+
+        List<PartyContext> parties = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            parties.add(new PartyContext(i, ctx, pbb, n, t, fa));
+        }
+        for (PartyContext P : parties) {
+            metrics.run(P.id, PhaseMetrics.SETUP, () -> SetupPhasePublisher.publishEphemeralKey(P));
+        }
+        for (PartyContext P : parties) {
+            metrics.run(P.id, PhaseMetrics.SETUP_AWAIT, () -> SetupPhaseWaiter.awaitAllEphemeralKeys(P, n));
+        }
+        pbb.markImmutable("ephemeralKeys");
+
+        BigInteger secret = BigInteger.ZERO;
+        for (PartyContext P : parties) {
+            SharingPhase sp = new SharingPhase(P, t);
+            metrics.run(P.id, PhaseMetrics.SHARING, sp::runSharingAsDealer2);
+            secret = secret.add(sp.getSecretShare()).mod(ctx.getOrder());
+        }
+        ECPoint Y = ctx.getGenerator().multiply(secret).normalize();
+
+        List<VerificationPhase> vps = new ArrayList<>(n);
+        for (PartyContext P : parties) {
+            VerificationPhase vp = new VerificationPhase(P);
+            vp.setTrueGroupKey(Y);
+            vps.add(vp);
+            metrics.run(P.id, PhaseMetrics.VERIFICATION, () -> {
+                for (int dealer = 0; dealer < n; dealer++) {
+                    vp.VerifySharesFor(dealer);
+                }
+            });
+        }
+        for (VerificationPhase vp : vps) {
+            metrics.run(vp.getMe(), PhaseMetrics.THRESHOLD, vp::publishThresholdOutput);
+        }
+        for (VerificationPhase vp : vps) {
+            metrics.run(vp.getMe(), PhaseMetrics.RECONSTRUCTION,
+                    () -> vp.finalReconstruction(vp.getQ1(), vp.collectAndPruneThresholdOutputs()));
+        }
+    }
+
+    /**
+     * Stores what a remote board would hand back: every published DTO goes
+     * through JSON and, where supported, the binary codec on the way in.
+     */
+    private static final class RoundTripBoard implements PbbClient {
+        private final PbbClient delegate;
+        private final Gson gson = new Gson();
+
+        RoundTripBoard(PbbClient delegate) {
+            this.delegate = delegate;
+        }
+
+        private Object roundTrip(Object msg) {
+            Class<?> type = msg.getClass();
+            if (BinaryDtoCodec.supports(type))
+                BinaryDtoCodec.decode(BinaryDtoCodec.encode(msg), type);
+            return gson.fromJson(gson.toJson(msg), type);
+        }
+
+        @Override
+        public void publish(String topic, Object msg) throws Exception {
+            delegate.publish(topic, roundTrip(msg));
+        }
+
+        @Override
+        public void publishAll(String topic, Object[] msgs) throws Exception {
+            for (Object msg : msgs) {
+                publish(topic, msg);
+            }
+        }
+
+        @Override
+        public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+            return delegate.fetch(topic, clazz);
+        }
+
+        @Override
+        public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) throws Exception {
+            return delegate.fetchWhere(topic, field, value, clazz);
+        }
+
+        @Override
+        public <T> List<T> awaitAtLeast(String topic, int count, Class<T> clazz) throws Exception {
+            return delegate.awaitAtLeast(topic, count, clazz);
+        }
+
+        @Override
+        public void delete(String topic, String id) throws Exception {
+            delegate.delete(topic, id);
+        }
+
+        @Override
+        public WireFormat wireFormat() {
+            return delegate.wireFormat();
+        }
+
+        @Override
+        public boolean addTrafficListener(TrafficListener listener) {
+            return delegate.addTrafficListener(listener);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package org.example.napdkg.dto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * Compact, versioned binary wire format for the PBB DTOs.
+ *
+ * A frame is
+ *
+ * magic 'N' ∥ version ∥ varint(count) ∥ count × (tag ∥ body)
+ *
+ * and every body is written field by field:
+ * • EC points (hex in the DTO) → fixed 33‐byte compressed encoding
+ * • scalars (hex in the DTO) → fixed 32‐byte big‐endian
+ * • indices → zig‐zag varints
+ * • ids → varint(length+1) ∥ UTF‐8 (0 marks null)
+ *
+ * so one recipient of a SharingOutputDTO (C_ij, Ĉ_ij) costs 65 bytes instead
+ * of ~130 characters of JSON. Decoding restores exactly the hex strings the
+ * DTO constructors produce, so both formats can share one board.
+ *
+ * Frames come off the network, so the decoder trusts no size in them: record
+ * counts and array lengths are capped at {@link #MAX_COUNT}, ids at
+ * {@link #MAX_STRING} bytes (-Dnapdkg.codec.maxCount / maxString), lists
+ * grow as records actually arrive, and any malformed frame is an
+ * IOException.
+ */
+public final class BinaryDtoCodec {
+    public static final int VERSION = 1;
+    public static final String MEDIA_TYPE = "application/x-napdkg-v1";
+
+    /** Most records per frame, and most entries per array field. */
+    public static final int MAX_COUNT = Integer.getInteger("napdkg.codec.maxCount", 1 << 20);
+    /** Most UTF‐8 bytes in a string field. */
+    public static final int MAX_STRING = Integer.getInteger("napdkg.codec.maxString", 1 << 12);
+
+    static final int MAGIC = 'N';
+    static final int POINT_BYTES = 33;
+    static final int SCALAR_BYTES = 32;
+
+    // record tags, stable across versions
+    static final int TAG_EPHEMERAL_KEY = 1;
+    static final int TAG_SHARING_OUTPUT = 2;
+    static final int TAG_SHARE_VERIFICATION = 3;
+    static final int TAG_THRESHOLD_KEY = 4;
+    static final int TAG_DLEQ_PROOF = 5;
+
+    // point prefixes besides 0x02/0x03 (compressed) and 0x04 (uncompressed)
+    private static final int POINT_INFINITY = 0x00;
+    private static final int POINT_NULL = 0xFF;
+
+    private BinaryDtoCodec() {
+        /* no-op */ }
+
+    /** @return true iff {@code type} has a binary encoding */
+    public static boolean supports(Class<?> type) {
+        return tagOf(type) != 0;
+    }
+
+    /** @return the DTO class for a record tag, or null if unknown */
+    public static Class<?> typeOf(int tag) {
+        switch (tag) {
+            case TAG_EPHEMERAL_KEY:
+                return EphemeralKeyDTO.class;
+            case TAG_SHARING_OUTPUT:
+                return SharingOutputDTO.class;
+            case TAG_SHARE_VERIFICATION:
+                return ShareVerificationOutputDTO.class;
+            case TAG_THRESHOLD_KEY:
+                return ThresholdKeyOutputDTO.class;
+            case TAG_DLEQ_PROOF:
+                return DleqProofDTO.class;
+            default:
+                return null;
+        }
+    }
+
+    /** @return the record tag for {@code type}, or 0 if it has no binary encoding */
+    public static int tagOf(Class<?> type) {
+        if (type == EphemeralKeyDTO.class)
+            return TAG_EPHEMERAL_KEY;
+        if (type == SharingOutputDTO.class)
+            return TAG_SHARING_OUTPUT;
+        if (type == ShareVerificationOutputDTO.class)
+            return TAG_SHARE_VERIFICATION;
+        if (type == ThresholdKeyOutputDTO.class)
+            return TAG_THRESHOLD_KEY;
+        if (type == DleqProofDTO.class)
+            return TAG_DLEQ_PROOF;
+        return 0;
+    }
+
+    // —— frames —— //
+
+    /** Encodes one DTO as a single‐record frame. */
+    public static byte[] encode(Object dto) {
+        return encodeList(List.of(dto));
+    }
+
+    public static byte[] encodeList(List<?> dtos) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 + 80 * dtos.size());
+        try {
+            encodeList(dtos, bos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    public static void encodeList(List<?> dtos, OutputStream out) throws IOException {
+        writeHeader(out, dtos.size());
+        for (Object dto : dtos) {
+            writeRecord(out, dto);
+        }
+    }
+
+    /**
+     * Starts a frame of {@code count} records; follow it with exactly that
+     * many {@link #encodeRecord} results to stream a list whose records were
+     * encoded earlier.
+     */
+    public static void writeHeader(OutputStream out, int count) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarint(out, count);
+    }
+
+    /** One record, without a frame header — see {@link #writeHeader}. */
+    public static byte[] encodeRecord(Object dto) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(80);
+        try {
+            writeRecord(bos, dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    /** Decodes a single‐record frame. */
+    public static <T> T decode(byte[] frame, Class<T> clazz) {
+        List<T> out = decodeList(frame, clazz);
+        if (out.size() != 1) {
+            throw new IllegalArgumentException("expected 1 record, frame holds " + out.size());
+        }
+        return out.get(0);
+    }
+
+    public static <T> List<T> decodeList(byte[] frame, Class<T> clazz) {
+        try {
+            return decodeList(new ByteArrayInputStream(frame), clazz);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("truncated frame", e);
+        }
+    }
+
+    /**
+     * Decodes every record of a frame. Pass {@code Object.class} to accept any
+     * known record type (the tag decides the class).
+     */
+    public static <T> List<T> decodeList(InputStream in, Class<T> clazz) throws IOException {
+        if (in.read() != MAGIC) {
+            throw new IOException("not a NAP-DKG binary frame");
+        }
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("unsupported frame version " + version);
+        }
+        int count = readSize(in, MAX_COUNT, "record count");
+        List<T> out = new ArrayList<>(Math.min(count, 256));
+        for (int i = 0; i < count; i++) {
+            Object dto = readRecord(in);
+            if (!clazz.isInstance(dto)) {
+                throw new IOException("record " + i + " is a " + dto.getClass().getSimpleName()
+                        + ", expected " + clazz.getSimpleName());
+            }
+            out.add(clazz.cast(dto));
+        }
+        return out;
+    }
+
+    // —— records —— //
+
+    private static void writeRecord(OutputStream out, Object dto) throws IOException {
+        int tag = tagOf(dto.getClass());
+        if (tag == 0) {
+            throw new IllegalArgumentException("no binary encoding for " + dto.getClass().getName());
+        }
+        out.write(tag);
+        switch (tag) {
+            case TAG_EPHEMERAL_KEY: {
+                EphemeralKeyDTO e = (EphemeralKeyDTO) dto;
+                writeString(out, e.id);
+                writeInt(out, e.partyIndex);
+                writePoint(out, e.publicKey);
+                String[] parts = e.schnorrProof.split("\\|");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("schnorrProof is not challenge|response");
+                }
+                writeScalar(out, parts[0]);
+                writeScalar(out, parts[1]);
+                break;
+            }
+            case TAG_SHARING_OUTPUT: {
+                SharingOutputDTO s = (SharingOutputDTO) dto;
+                writeString(out, s.id);
+                writeInt(out, s.dealerIndexDTO);
+                writeInt(out, s.publisherindexDTO);
+                writePoint(out, s.dealerPub);
+                writeLength(out, s.Cij);
+                if (s.Cij != null)
+                    for (String c : s.Cij)
+                        writePoint(out, c);
+                writeLength(out, s.CHat);
+                if (s.CHat != null)
+                    for (String c : s.CHat)
+                        writeScalar(out, c);
+                writeProof(out, s.proof);
+                break;
+            }
+            case TAG_SHARE_VERIFICATION: {
+                ShareVerificationOutputDTO v = (ShareVerificationOutputDTO) dto;
+                writeString(out, v.id);
+                writeInt(out, v.verifierIndex);
+                writePoint(out, v.tauPki);
+                writeProof(out, v.proof);
+                break;
+            }
+            case TAG_THRESHOLD_KEY: {
+                ThresholdKeyOutputDTO k = (ThresholdKeyOutputDTO) dto;
+                writeString(out, k.id);
+                writeInt(out, k.dealerIndex);
+                writeInt(out, k.partyIndex);
+                writePoint(out, k.tpkiHex);
+                writeProof(out, k.proof);
+                break;
+            }
+            default:
+                writeProof(out, (DleqProofDTO) dto);
+        }
+    }
+
+    private static Object readRecord(InputStream in) throws IOException {
+        int tag = readByte(in);
+        switch (tag) {
+            case TAG_EPHEMERAL_KEY: {
+                EphemeralKeyDTO e = new EphemeralKeyDTO();
+                e.id = readString(in);
+                e.partyIndex = readInt(in);
+                e.publicKey = readPoint(in);
+                e.schnorrProof = readScalar(in) + "|" + readScalar(in);
+                return e;
+            }
+            case TAG_SHARING_OUTPUT: {
+                SharingOutputDTO s = new SharingOutputDTO();
+                s.id = readString(in);
+                s.dealerIndexDTO = readInt(in);
+                s.publisherindexDTO = readInt(in);
+                s.dealerPub = readPoint(in);
+                int nC = readLength(in);
+                if (nC >= 0) {
+                    List<String> c = new ArrayList<>(Math.min(nC, 256));
+                    for (int i = 0; i < nC; i++)
+                        c.add(readPoint(in));
+                    s.Cij = c.toArray(new String[0]);
+                }
+                int nH = readLength(in);
+                if (nH >= 0) {
+                    List<String> h = new ArrayList<>(Math.min(nH, 256));
+                    for (int i = 0; i < nH; i++)
+                        h.add(readScalar(in));
+                    s.CHat = h.toArray(new String[0]);
+                }
+                s.proof = readProof(in);
+                return s;
+            }
+            case TAG_SHARE_VERIFICATION: {
+                ShareVerificationOutputDTO v = new ShareVerificationOutputDTO();
+                v.id = readString(in);
+                v.verifierIndex = readInt(in);
+                v.tauPki = readPoint(in);
+                v.proof = readProof(in);
+                return v;
+            }
+            case TAG_THRESHOLD_KEY: {
+                ThresholdKeyOutputDTO k = new ThresholdKeyOutputDTO();
+                k.id = readString(in);
+                k.dealerIndex = readInt(in);
+                k.partyIndex = readInt(in);
+                k.tpkiHex = readPoint(in);
+                k.proof = readProof(in);
+                return k;
+            }
+            case TAG_DLEQ_PROOF:
+                return readProof(in);
+            default:
+                throw new IOException("unknown record tag " + tag);
+        }
+    }
+
+    private static void writeProof(OutputStream out, DleqProofDTO proof) throws IOException {
+        if (proof == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeScalar(out, proof.challenge);
+        writeScalar(out, proof.response);
+    }
+
+    private static DleqProofDTO readProof(InputStream in) throws IOException {
+        if (readByte(in) == 0)
+            return null;
+        return new DleqProofDTO(readScalarValue(in), readScalarValue(in));
+    }
+
+    // —— field codecs —— //
+
+    /** Hex point → 33 compressed bytes (65 if the DTO carried it uncompressed). */
+    private static void writePoint(OutputStream out, String hex) throws IOException {
+        if (hex == null) {
+            out.write(POINT_NULL);
+            return;
+        }
+        byte[] raw = Hex.decode(hex);
+        boolean ok = (raw.length == POINT_BYTES && (raw[0] == 0x02 || raw[0] == 0x03))
+                || (raw.length == 2 * POINT_BYTES - 1 && raw[0] == 0x04)
+                || (raw.length == 1 && raw[0] == POINT_INFINITY);
+        if (!ok) {
+            throw new IllegalArgumentException("not an encoded EC point: " + hex);
+        }
+        out.write(raw);
+    }
+
+    private static String readPoint(InputStream in) throws IOException {
+        int prefix = readByte(in);
+        int len;
+        if (prefix == 0x02 || prefix == 0x03)
+            len = POINT_BYTES;
+        else if (prefix == 0x04)
+            len = 2 * POINT_BYTES - 1;
+        else if (prefix == POINT_INFINITY)
+            len = 1;
+        else if (prefix == POINT_NULL)
+            return null;
+        else
+            throw new IOException("bad point prefix " + prefix);
+        byte[] raw = new byte[len];
+        raw[0] = (byte) prefix;
+        readFully(in, raw, 1, len - 1);
+        return Hex.toHexString(raw);
+    }
+
+    /** Hex scalar (as written by BigInteger.toString(16)) → 32 bytes. */
+    private static void writeScalar(OutputStream out, String hex) throws IOException {
+        BigInteger x = new BigInteger(hex, 16);
+        if (x.signum() < 0 || x.bitLength() > 8 * SCALAR_BYTES) {
+            throw new IllegalArgumentException("scalar out of range: " + hex);
+        }
+        byte[] raw = x.toByteArray();
+        byte[] fixed = new byte[SCALAR_BYTES];
+        int copy = Math.min(raw.length, SCALAR_BYTES);
+        System.arraycopy(raw, raw.length - copy, fixed, SCALAR_BYTES - copy, copy);
+        out.write(fixed);
+    }
+
+    private static BigInteger readScalarValue(InputStream in) throws IOException {
+        byte[] fixed = new byte[SCALAR_BYTES];
+        readFully(in, fixed, 0, SCALAR_BYTES);
+        return new BigInteger(1, fixed);
+    }
+
+    private static String readScalar(InputStream in) throws IOException {
+        return readScalarValue(in).toString(16);
+    }
+
+    private static void writeString(OutputStream out, String s) throws IOException {
+        if (s == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length + 1L);
+        out.write(utf8);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        int len = readSize(in, MAX_STRING + 1, "string length") - 1;
+        if (len < 0)
+            return null;
+        byte[] utf8 = new byte[len];
+        readFully(in, utf8, 0, len);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Array length as varint(length+1); 0 marks a null array. */
+    private static void writeLength(OutputStream out, Object[] arr) throws IOException {
+        writeVarint(out, arr == null ? 0 : arr.length + 1L);
+    }
+
+    private static int readLength(InputStream in) throws IOException {
+        return readSize(in, MAX_COUNT + 1, "array length") - 1;
+    }
+
+    /** A varint size, rejected unless in [0, max]. */
+    private static int readSize(InputStream in, int max, String what) throws IOException {
+        long v = readVarint(in);
+        if (v > max)
+            throw new IOException(what + " " + v + " exceeds " + max);
+        return (int) v;
+    }
+
+    private static void writeInt(OutputStream out, int v) throws IOException {
+        writeVarint(out, ((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL); // zig-zag
+    }
+
+    private static int readInt(InputStream in) throws IOException {
+        int z = (int) readVarint32(in);
+        return (z >>> 1) ^ -(z & 1);
+    }
+
+    static void writeVarint(OutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    /** A varint size or count; anything above Integer.MAX_VALUE is rejected. */
+    static long readVarint(InputStream in) throws IOException {
+        long v = readVarint32(in);
+        if (v > Integer.MAX_VALUE)
+            throw new IOException("varint " + v + " overflows an int");
+        return v;
+    }
+
+    /** At most five bytes holding an unsigned 32‐bit value (zig‐zag ints use all 32). */
+    private static long readVarint32(InputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte(in);
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (v > 0xFFFFFFFFL)
+                    break;
+                return v;
+            }
+        }
+        throw new IOException("varint too long");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0)
+            throw new EOFException("truncated frame");
+        return b;
+    }
+
+    private static void readFully(InputStream in, byte[] buf, int off, int len) throws IOException {
+        while (len > 0) {
+            int r = in.read(buf, off, len);
+            if (r < 0)
+                throw new EOFException("truncated frame");
+            off += r;
+            len -= r;
+        }
+    }
+}
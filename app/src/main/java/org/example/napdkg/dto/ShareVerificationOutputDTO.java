@@ -16,10 +16,11 @@ public class ShareVerificationOutputDTO {
 
     private ShareVerificationOutputDTO(ShareVerificationPublish in) {
         this.verifierIndex = in.verifierIndex;
+        // compressed, like every other point on the board (33 bytes on the wire)
         this.tauPki = Hex.toHexString(
                 in.tpki
                         .normalize()
-                        .getEncoded(false));
+                        .getEncoded(true));
         this.proof = new DleqProofDTO(
                 in.Pftpki.getChallenge(),
                 in.Pftpki.getResponse());
@@ -0,0 +1,50 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One PbbClient call as the party saw it: how long it blocked and how many
+ * entries went in or came back. Cache hits show up too, at near‐zero
+ * duration. Off unless a settings file (napdkg.jfc) turns it on.
+ */
+@Name("napdkg.BoardCall")
+@Label("Board Call")
+@Category({ "NAP-DKG", "Board" })
+@Description("A publish, fetch or await against the bulletin board")
+@Enabled(false)
+@StackTrace(false)
+public class BoardCallEvent extends Event {
+    @Label("Operation")
+    public String op;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Type")
+    public Class<?> type;
+
+    @Label("Entries")
+    @Description("Entries published or returned; −1 if the call failed")
+    public int entries;
+
+    /**
+     * Ends the event and, if the recording wants it (enabled, over its
+     * threshold), fills it in and commits it.
+     */
+    public void finish(String op, String topic, Class<?> type, int entries) {
+        end();
+        if (shouldCommit()) {
+            this.op = op;
+            this.topic = topic;
+            this.type = type;
+            this.entries = entries;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP exchange with a remote board, with the body bytes that crossed
+ * the wire (after compression, in the negotiated format). Emitted when the
+ * response is in, so it is an instant, not a duration.
+ */
+@Name("napdkg.BoardTransfer")
+@Label("Board Transfer")
+@Category({ "NAP-DKG", "Board" })
+@Description("Bytes sent to and received from a remote bulletin board")
+@StackTrace(false)
+public class BoardTransferEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Type")
+    public Class<?> type;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    public long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    public long bytesReceived;
+}
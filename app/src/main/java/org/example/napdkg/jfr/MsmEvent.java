@@ -0,0 +1,41 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One multi‐scalar multiplication Σ k_j·P_j, e.g. the (U, V) aggregates a
+ * verifier recomputes per dealer. Off unless a settings file (napdkg.jfc)
+ * turns it on.
+ */
+@Name("napdkg.Msm")
+@Label("Multi-Scalar Multiplication")
+@Category({ "NAP-DKG", "Crypto" })
+@Description("A sum of scalar multiples over the group")
+@Enabled(false)
+@StackTrace(false)
+public class MsmEvent extends Event {
+    @Label("Site")
+    public String site;
+
+    @Label("Terms")
+    public int terms;
+
+    /**
+     * Ends the event and, if the recording wants it (enabled, over its
+     * threshold), fills it in and commits it.
+     */
+    public void finish(String site, int terms) {
+        end();
+        if (shouldCommit()) {
+            this.site = site;
+            this.terms = terms;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One protocol step of one party: a {@code PhaseMetrics} span (dealer = −1),
+ * or the verification of a single dealer inside the verification phase.
+ */
+@Name("napdkg.Phase")
+@Label("DKG Phase")
+@Category({ "NAP-DKG", "Protocol" })
+@Description("A protocol phase of one party, or its verification of one dealer")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    @Label("Party")
+    public int party;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Dealer")
+    @Description("Dealer being verified, −1 for a whole phase")
+    public int dealer = -1;
+
+    @Label("Accepted")
+    @Description("For a dealer: whether its sharing went into Q1")
+    public boolean accepted;
+
+    /**
+     * Ends the event and, if the recording wants it (enabled, over its
+     * threshold), fills it in and commits it.
+     */
+    public void finish(int party, String phase, int dealer, boolean accepted) {
+        end();
+        if (shouldCommit()) {
+            this.party = party;
+            this.phase = phase;
+            this.dealer = dealer;
+            this.accepted = accepted;
+            commit();
+        }
+    }
+}
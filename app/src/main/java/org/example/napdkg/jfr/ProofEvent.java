@@ -0,0 +1,49 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One NIZK proof generated or checked. There are O(n) per party per phase,
+ * so it is off unless a settings file (napdkg.jfc) turns it on.
+ */
+@Name("napdkg.Proof")
+@Label("NIZK Proof")
+@Category({ "NAP-DKG", "Crypto" })
+@Description("Generation or verification of a DL or DLEQ proof")
+@Enabled(false)
+@StackTrace(false)
+public class ProofEvent extends Event {
+    public static final String DL = "DL";
+    public static final String DLEQ = "DLEQ";
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Verify")
+    @Description("false for generation")
+    public boolean verify;
+
+    @Label("Valid")
+    @Description("Verification result; always true for generation")
+    public boolean valid;
+
+    /**
+     * Ends the event and, if the recording wants it (enabled, over its
+     * threshold), fills it in and commits it.
+     */
+    public void finish(String kind, boolean verify, boolean valid) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.verify = verify;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.napdkg.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Lagrange reconstruction in the exponent, S = Σ λ_i·A_i over k shares:
+ * O(k²) field inversions plus k scalar multiplications.
+ */
+@Name("napdkg.Reconstruction")
+@Label("Reconstruction")
+@Category({ "NAP-DKG", "Crypto" })
+@Description("Lagrange interpolation of a group element from Shamir shares")
+@StackTrace(false)
+public class ReconstructionEvent extends Event {
+    @Label("Shares")
+    public int shares;
+
+    /**
+     * Ends the event and, if the recording wants it (enabled, over its
+     * threshold), fills it in and commits it.
+     */
+    public void finish(int shares) {
+        end();
+        if (shouldCommit()) {
+            this.shares = shares;
+            commit();
+        }
+    }
+}
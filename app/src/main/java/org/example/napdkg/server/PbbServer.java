@@ -0,0 +1,422 @@
+package org.example.napdkg.server;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In‐process public bulletin board speaking the REST shape of json-server
+ * that {@link HttpPbbClient} already uses:
+ *
+ * POST /topic append one entry (JSON or binary frame)
+ * POST /topic/_batch append a JSON array / multi‐record frame
+ * GET /topic[?f=v&…] entries in publish order, optionally filtered
+ * GET /topic/id one entry
+ * DELETE /topic/id remove one entry
+ * OPTIONS /… advertises binary frames, batch and gzip
+ *
+ * Topics live in memory as append‐only {@link TopicLog}s with per‐field
+ * indexes, so a publish costs O(1) instead of json-server's rewrite of
+ * db.json. Unlike json-server, topics need not be declared up front: a GET
+ * on an unknown topic is simply empty. With a {@link SegmentedLogStore}
+ * every publish/delete is also appended to disk (and acknowledged once its
+ * fsync policy is met), and the topics are replayed from it on start.
+ *
+ * Start it with {@link #start(int)} (port 0 picks a free one) or run
+ * {@code ./gradlew pbbServer [--args="port [dataDir]"]}.
+ */
+public final class PbbServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PbbServer.class);
+
+    static final String BATCH = "_batch";
+    static final String TYPE_HEADER = "X-Pbb-Type";
+    private static final String JSON = "application/json";
+
+    static {
+        // the JDK server leaves Nagle on by default, and then every chunked reply
+        // waits out the peer's delayed ACK (~40 ms per request on loopback)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final Map<String, TopicLog> topics = new ConcurrentHashMap<>();
+    private final Gson gson = new Gson();
+    private final SegmentedLogStore store; // null = memory only
+
+    private PbbServer(HttpServer http, ExecutorService executor, SegmentedLogStore store) {
+        this.http = http;
+        this.executor = executor;
+        this.store = store;
+    }
+
+    /** Starts a board on 127.0.0.1:{@code port}; 0 picks a free port. */
+    public static PbbServer start(int port) throws IOException {
+        return start(new InetSocketAddress("127.0.0.1", port));
+    }
+
+    public static PbbServer start(InetSocketAddress addr) throws IOException {
+        return start(addr, null);
+    }
+
+    /**
+     * Starts a board backed by {@code store} (null for memory only); whatever
+     * the store holds is replayed before the first request is served. The
+     * store is closed with the board.
+     */
+    public static PbbServer start(InetSocketAddress addr, SegmentedLogStore store) throws IOException {
+        HttpServer http = HttpServer.create(addr, 1024);
+        ExecutorService executor = newExecutor();
+        PbbServer board = new PbbServer(http, executor, store);
+        if (store != null) {
+            board.restore();
+        }
+        http.createContext("/", board::handle);
+        http.setExecutor(executor);
+        http.start();
+        log.info("PBB listening on {}", board.baseUrl());
+        return board;
+    }
+
+    /**
+     * One virtual thread per exchange where the runtime has them (JDK 21+);
+     * on our JDK 17 toolchain a cached pool of daemon threads.
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException noLoom) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "pbb-server");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    /** e.g. {@code http://127.0.0.1:3010} — what to hand to HttpPbbClient. */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port();
+    }
+
+    private void restore() throws IOException {
+        long t0 = System.nanoTime();
+        store.replay(new SegmentedLogStore.Replay() {
+            @Override
+            public void onPublish(String topic, byte[] json) {
+                topic(topic).restore(TopicLog.Entry.parse(json));
+            }
+
+            @Override
+            public void onDelete(String topic, String id) {
+                topic(topic).delete(id);
+            }
+        });
+        log.info("replayed {} topics in {} ms", topics.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.shutdownNow();
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.warn("closing the board log failed", e);
+            }
+        }
+    }
+
+    // —— routing —— //
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String[] path = ex.getRequestURI().getRawPath().replaceAll("^/+|/+$", "").split("/");
+            String topic = path[0].isEmpty() ? null : URLDecoder.decode(path[0], StandardCharsets.UTF_8);
+            String id = path.length > 1 ? URLDecoder.decode(path[1], StandardCharsets.UTF_8) : null;
+            String method = ex.getRequestMethod();
+
+            if (method.equals("OPTIONS")) {
+                options(ex);
+            } else if (topic == null) {
+                send(ex, 400, "{\"error\":\"missing topic\"}");
+            } else if (method.equals("GET") && id == null) {
+                list(ex, topic);
+            } else if (method.equals("GET")) {
+                one(ex, topic, id);
+            } else if (method.equals("POST")) {
+                publish(ex, topic, BATCH.equals(id));
+            } else if (method.equals("DELETE") && id != null) {
+                delete(ex, topic, id);
+            } else {
+                ex.getResponseHeaders().set("Allow", "GET, POST, DELETE, OPTIONS");
+                send(ex, 405, "{\"error\":\"method not allowed\"}");
+            }
+        } catch (JsonParseException | IllegalArgumentException bad) {
+            fail(ex, 400, gson.toJson(Map.of("error", String.valueOf(bad.getMessage()))), bad);
+        } catch (IOException | RuntimeException e) {
+            log.warn("{} {} failed", ex.getRequestMethod(), ex.getRequestURI(), e);
+            fail(ex, 500, gson.toJson(Map.of("error", String.valueOf(e))), e);
+        } finally {
+            ex.close();
+        }
+    }
+
+    /**
+     * Answers a failed request with {@code status}, unless its response had
+     * already started (a list streams its body): then the only thing left is
+     * to close the exchange, and the client sees a body that ends early.
+     */
+    private void fail(HttpExchange ex, int status, String json, Exception cause) {
+        if (ex.getResponseCode() != -1) {
+            log.warn("{} {} failed after the response started; closing it", ex.getRequestMethod(),
+                    ex.getRequestURI(), cause);
+            return;
+        }
+        try {
+            send(ex, status, json);
+        } catch (IOException e) {
+            log.debug("could not send the error response", e);
+        }
+    }
+
+    private void options(HttpExchange ex) throws IOException {
+        ex.getResponseHeaders().set("Allow", "GET, POST, DELETE, OPTIONS");
+        ex.getResponseHeaders().set("Accept-Post", JSON + ", " + BinaryDtoCodec.MEDIA_TYPE);
+        ex.getResponseHeaders().set("X-Pbb-Features", "batch, gzip");
+        // a body‐less 204 would let the JDK server drop the keep‐alive connection
+        // under the client's next request, so answer with a small 200 instead
+        send(ex, 200, "{\"accept\":[\"" + JSON + "\",\"" + BinaryDtoCodec.MEDIA_TYPE
+                + "\"],\"features\":[\"batch\",\"gzip\"]}");
+    }
+
+    private TopicLog topic(String name) {
+        return topics.computeIfAbsent(name, TopicLog::new);
+    }
+
+    // —— handlers —— //
+
+    private void publish(HttpExchange ex, String topic, boolean batch) throws IOException {
+        String contentType = ex.getRequestHeaders().getFirst("Content-Type");
+        TopicLog topicLog = topic(topic);
+        List<JsonObject> objs = new ArrayList<>();
+        try (InputStream in = requestBody(ex)) {
+            if (contentType != null && contentType.startsWith(BinaryDtoCodec.MEDIA_TYPE)) {
+                List<Object> dtos;
+                try {
+                    dtos = BinaryDtoCodec.decodeList(in, Object.class);
+                } catch (IOException bad) {
+                    // a malformed frame is the client's fault: 400, not 500
+                    throw new IllegalArgumentException("bad binary frame: " + bad.getMessage(), bad);
+                }
+                for (Object dto : dtos) {
+                    topicLog.binaryTag = BinaryDtoCodec.tagOf(dto.getClass());
+                    objs.add(gson.toJsonTree(dto).getAsJsonObject());
+                }
+            } else if (contentType == null || contentType.startsWith(JSON)) {
+                JsonElement body = JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                if (body.isJsonArray()) {
+                    for (JsonElement el : body.getAsJsonArray())
+                        objs.add(el.getAsJsonObject());
+                } else {
+                    objs.add(body.getAsJsonObject());
+                }
+            } else {
+                in.transferTo(OutputStream.nullOutputStream());
+                send(ex, 415, "{\"error\":\"unsupported content type\"}");
+                return;
+            }
+            // consume what the parser left (e.g. the gzip trailer): answering
+            // with unread request bytes on the socket makes the server reset
+            // the keep-alive connection under the client
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        if (!batch && objs.size() != 1) {
+            send(ex, 400, "{\"error\":\"POST /topic takes one entry, use /topic/_batch\"}");
+            return;
+        }
+        // refuse before memory has it, or memory and disk would disagree
+        if (store != null)
+            SegmentedLogStore.checkTopic(topic);
+        JsonArray echoed = new JsonArray();
+        long ticket = 0;
+        for (JsonObject obj : objs) {
+            // memory and disk must agree on the order within a topic
+            synchronized (topicLog) {
+                TopicLog.Entry e = topicLog.append(obj);
+                if (store != null)
+                    ticket = store.appendPublish(topic, e.json);
+            }
+            echoed.add(obj);
+        }
+        if (store != null)
+            store.sync(ticket);
+        send(ex, 201, gson.toJson(batch ? echoed : echoed.get(0)));
+    }
+
+    private void list(HttpExchange ex, String topic) throws IOException {
+        TopicLog topicLog = topics.get(topic);
+        List<TopicLog.Entry> hits = topicLog == null
+                ? List.of()
+                : topicLog.select(query(ex.getRequestURI().getRawQuery()));
+
+        Class<?> type = binaryType(ex, topicLog);
+        ex.getResponseHeaders().set("Content-Type", type != null ? BinaryDtoCodec.MEDIA_TYPE : JSON);
+        try (OutputStream out = responseBody(ex, 200)) {
+            if (type != null) {
+                // each entry is decoded and encoded once, then served cached
+                BinaryDtoCodec.writeHeader(out, hits.size());
+                for (TopicLog.Entry e : hits)
+                    out.write(e.binary(type, x -> encodeRecord(x, type)));
+            } else {
+                out.write('[');
+                for (int i = 0; i < hits.size(); i++) {
+                    if (i > 0)
+                        out.write(',');
+                    out.write(hits.get(i).json);
+                }
+                out.write(']');
+            }
+        }
+    }
+
+    private void one(HttpExchange ex, String topic, String id) throws IOException {
+        TopicLog topicLog = topics.get(topic);
+        TopicLog.Entry e = topicLog == null ? null : topicLog.get(id);
+        if (e == null) {
+            send(ex, 404, "{}");
+            return;
+        }
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        try (OutputStream out = responseBody(ex, 200)) {
+            out.write(e.json);
+        }
+    }
+
+    private void delete(HttpExchange ex, String topic, String id) throws IOException {
+        TopicLog topicLog = topics.get(topic);
+        if (topicLog == null) {
+            send(ex, 404, "{}");
+            return;
+        }
+        boolean deleted;
+        long ticket = 0;
+        synchronized (topicLog) {
+            deleted = topicLog.delete(id);
+            if (deleted && store != null)
+                ticket = store.appendDelete(topic, id);
+        }
+        if (deleted && store != null)
+            store.sync(ticket);
+        send(ex, deleted ? 200 : 404, "{}");
+    }
+
+    // —— helpers —— //
+
+    /**
+     * The DTO class to answer in binary, or null for JSON: the client must
+     * accept our media type, and we must know the topic's type — from its
+     * {@code X-Pbb-Type} tag or from an earlier binary publish.
+     */
+    private byte[] encodeRecord(TopicLog.Entry e, Class<?> type) {
+        return BinaryDtoCodec.encodeRecord(gson.fromJson(new String(e.json, StandardCharsets.UTF_8), type));
+    }
+
+    private static Class<?> binaryType(HttpExchange ex, TopicLog topicLog) {
+        String accept = ex.getRequestHeaders().getFirst("Accept");
+        if (accept == null || !accept.contains(BinaryDtoCodec.MEDIA_TYPE))
+            return null;
+        String tag = ex.getRequestHeaders().getFirst(TYPE_HEADER);
+        if (tag != null)
+            return BinaryDtoCodec.typeOf(Integer.parseInt(tag.trim()));
+        return topicLog == null ? null : BinaryDtoCodec.typeOf(topicLog.binaryTag);
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (raw == null || raw.isEmpty())
+            return out;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq <= 0)
+                continue;
+            out.put(URLDecoder.decode(kv.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(kv.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static InputStream requestBody(HttpExchange ex) throws IOException {
+        String enc = ex.getRequestHeaders().getFirst("Content-Encoding");
+        InputStream in = ex.getRequestBody();
+        return "gzip".equalsIgnoreCase(enc) ? new GZIPInputStream(in) : in;
+    }
+
+    /** Chunked response body, gzipped when the client asked for it. */
+    private static OutputStream responseBody(HttpExchange ex, int status) throws IOException {
+        String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = accept != null && accept.contains("gzip");
+        if (gzip)
+            ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        ex.sendResponseHeaders(status, 0);
+        OutputStream out = new BufferedOutputStream(ex.getResponseBody(), 64 * 1024);
+        return gzip ? new GZIPOutputStream(out, 8192) : out;
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * {@code PbbServer [port [dataDir]]} — a standalone board, on 3010 by
+     * default like the smoke tests; with a data directory it is durable.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 3010;
+        SegmentedLogStore store = args.length > 1 ? SegmentedLogStore.open(Paths.get(args[1])) : null;
+        PbbServer board = start(new InetSocketAddress("127.0.0.1", port), store);
+        Runtime.getRuntime().addShutdownHook(new Thread(board::close));
+    }
+}
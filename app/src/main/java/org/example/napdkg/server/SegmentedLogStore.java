@@ -0,0 +1,439 @@
+package org.example.napdkg.server;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable, append‐only storage for the board: a directory of memory‐mapped
+ * segment files, each named after the global offset of its first byte. A
+ * record is
+ *
+ * len:int ∥ crc32:int ∥ kind:byte ∥ topicLen:short ∥ topic ∥ payload
+ *
+ * (len and crc cover everything after the crc; payload is the entry's JSON
+ * for a publish and its id for a delete). Segments are preallocated and
+ * zero‐filled, so a zero length marks the end of the log.
+ *
+ * Publishing a dealer's O(n) output is therefore one sequential copy into
+ * the mapping, never a rewrite. An in‐memory offset index per topic is built
+ * while opening. Durability follows the {@link Fsync} policy; with
+ * {@link Fsync#GROUP} one background force() covers every append of the
+ * last {@code groupCommitMs}.
+ *
+ * Recovery scans the segments in order and checks every CRC. A torn or
+ * corrupt record in the last segment is taken as the crash point: it and
+ * everything after it are zeroed and appending resumes there. The same in
+ * an earlier segment is real corruption and fails the open.
+ */
+public final class SegmentedLogStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedLogStore.class);
+
+    /** When appends reach the disk. */
+    public enum Fsync {
+        /** leave it to the OS (and {@link #close}) — fastest, loses the page cache on power loss */
+        NEVER,
+        /** force() before every append returns */
+        ALWAYS,
+        /** appenders wait for the next periodic force() of everything written so far */
+        GROUP
+    }
+
+    /** Receives the log in order while {@link #replay replaying}. */
+    public interface Replay {
+        void onPublish(String topic, byte[] json) throws IOException;
+
+        void onDelete(String topic, String id) throws IOException;
+    }
+
+    static final byte PUBLISH = 1;
+    static final byte DELETE = 2;
+    private static final int HEADER = 8; // len + crc
+    private static final String SUFFIX = ".seg";
+
+    /** Longest topic a record can hold: topicLen is an unsigned short. */
+    public static final int MAX_TOPIC_BYTES = 0xffff;
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    public static final long DEFAULT_GROUP_COMMIT_MS = 2;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final Fsync fsync;
+    private final long groupCommitNanos;
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    // topic → global offsets of its records, in log order
+    private final Map<String, List<Long>> index = new HashMap<>();
+    private Segment active;
+
+    private final Object durableLock = new Object();
+    private long durable; // everything before this offset is on disk
+    private Thread flusher;
+    private volatile boolean closed;
+
+    /** Forces one range of a mapping; replaced by tests to watch or stall it. */
+    interface Forcer {
+        void force(MappedByteBuffer map, int from, int len);
+    }
+
+    Forcer forcer = MappedByteBuffer::force;
+
+    private static final class Segment {
+        final long base;
+        final MappedByteBuffer map;
+        int pos; // next write position within the segment
+        // first byte not known to be on disk; moves only once a force()
+        // covering it has returned, so whoever forces from here covers
+        // whatever another thread may still be forcing
+        int dirtyFrom;
+
+        Segment(long base, MappedByteBuffer map) {
+            this.base = base;
+            this.map = map;
+        }
+
+        int capacity() {
+            return map.capacity();
+        }
+
+        long end() {
+            return base + pos;
+        }
+    }
+
+    private SegmentedLogStore(Path dir, long segmentBytes, Fsync fsync, long groupCommitMs) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMs);
+    }
+
+    /** 64 MiB segments with group commit every 2 ms. */
+    public static SegmentedLogStore open(Path dir) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_BYTES, Fsync.GROUP, DEFAULT_GROUP_COMMIT_MS);
+    }
+
+    public static SegmentedLogStore open(Path dir, long segmentBytes, Fsync fsync, long groupCommitMs)
+            throws IOException {
+        if (segmentBytes <= HEADER || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment size must be in (8, 2^31)");
+        }
+        Files.createDirectories(dir);
+        SegmentedLogStore store = new SegmentedLogStore(dir, segmentBytes, fsync, groupCommitMs);
+        long t0 = System.nanoTime();
+        store.recover();
+        log.info("opened board log {} ({} segments, {} bytes) in {} ms", dir, store.segments.size(),
+                store.end(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        if (fsync == Fsync.GROUP) {
+            store.flusher = new Thread(store::flushLoop, "pbb-log-flusher");
+            store.flusher.setDaemon(true);
+            store.flusher.start();
+        }
+        return store;
+    }
+
+    // —— writing —— //
+
+    /** Appends a publish of {@code json} to {@code topic}; returns its durability ticket. */
+    public long appendPublish(String topic, byte[] json) throws IOException {
+        return append(PUBLISH, topic, json);
+    }
+
+    /** Appends the deletion of entry {@code id}; returns its durability ticket. */
+    public long appendDelete(String topic, String id) throws IOException {
+        return append(DELETE, topic, id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code topic} is longer than
+     *                                  {@link #MAX_TOPIC_BYTES} in UTF‐8
+     */
+    public static void checkTopic(String topic) {
+        topicBytes(topic);
+    }
+
+    private static byte[] topicBytes(String topic) {
+        byte[] t = topic.getBytes(StandardCharsets.UTF_8);
+        if (t.length > MAX_TOPIC_BYTES)
+            throw new IllegalArgumentException("topic is " + t.length + " bytes, the log holds at most "
+                    + MAX_TOPIC_BYTES);
+        return t;
+    }
+
+    private synchronized long append(byte kind, String topic, byte[] payload) throws IOException {
+        if (closed)
+            throw new IOException("board log is closed");
+        byte[] t = topicBytes(topic);
+        int len = 1 + 2 + t.length + payload.length;
+        if (active == null || active.pos + HEADER + len > active.capacity()) {
+            roll(HEADER + len);
+        }
+        MappedByteBuffer m = active.map;
+        int at = active.pos;
+        CRC32 crc = new CRC32();
+        crc.update(kind);
+        crc.update(t.length >>> 8);
+        crc.update(t.length);
+        crc.update(t);
+        crc.update(payload);
+
+        m.put(at + HEADER, kind);
+        m.putShort(at + HEADER + 1, (short) t.length);
+        m.put(at + HEADER + 3, t);
+        m.put(at + HEADER + 3 + t.length, payload);
+        m.putInt(at + 4, (int) crc.getValue());
+        // length last: a crash before this line leaves a zero, i.e. end of log
+        m.putInt(at, len);
+
+        index.computeIfAbsent(topic, k -> new ArrayList<>()).add(active.base + at);
+        active.pos = at + HEADER + len;
+        if (fsync == Fsync.ALWAYS) {
+            force(active);
+            markDurable(active.end());
+        }
+        return active.end();
+    }
+
+    /**
+     * Blocks until everything up to {@code ticket} is on disk, as far as the
+     * policy promises that: returns at once for NEVER and ALWAYS, waits for
+     * the next group commit for GROUP.
+     */
+    public void sync(long ticket) throws IOException {
+        if (fsync != Fsync.GROUP)
+            return;
+        synchronized (durableLock) {
+            while (durable < ticket) {
+                if (closed)
+                    throw new IOException("board log closed before the append was durable");
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted waiting for group commit", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(groupCommitNanos);
+            try {
+                flush();
+            } catch (IOException e) {
+                log.error("group commit failed", e);
+            }
+        }
+    }
+
+    /**
+     * Forces everything written so far and wakes the appenders it covers.
+     *
+     * The force runs outside the lock, so appends keep landing while the
+     * disk catches up; dirtyFrom only moves once it has returned. A roll or
+     * close in the meantime therefore forces this range again itself before
+     * it marks anything durable, rather than trusting a force still running.
+     */
+    public void flush() throws IOException {
+        Segment seg;
+        int from, to;
+        synchronized (this) {
+            seg = active;
+            if (seg == null || seg.dirtyFrom == seg.pos)
+                return;
+            from = seg.dirtyFrom;
+            to = seg.pos;
+        }
+        forcer.force(seg.map, from, to - from);
+        synchronized (this) {
+            if (seg.dirtyFrom < to)
+                seg.dirtyFrom = to;
+        }
+        markDurable(seg.base + to);
+    }
+
+    /** Forces {@code seg} up to its write position; called holding the lock. */
+    private void force(Segment seg) {
+        if (seg.dirtyFrom < seg.pos) {
+            forcer.force(seg.map, seg.dirtyFrom, seg.pos - seg.dirtyFrom);
+            seg.dirtyFrom = seg.pos;
+        }
+    }
+
+    private void markDurable(long upTo) {
+        synchronized (durableLock) {
+            if (upTo > durable) {
+                durable = upTo;
+                durableLock.notifyAll();
+            }
+        }
+    }
+
+    /** Seals the active segment (forcing it) and starts a new one of at least {@code need} bytes. */
+    private void roll(int need) throws IOException {
+        long base = 0;
+        if (active != null) {
+            force(active);
+            markDurable(active.end());
+            // the unused tail of the old segment is skipped; the next one starts at its end
+            base = active.base + active.capacity();
+        }
+        active = map(base, Math.max(segmentBytes, need));
+        segments.put(base, active);
+    }
+
+    private Segment map(long base, long size) throws IOException {
+        Path p = dir.resolve(String.format("%020d%s", base, SUFFIX));
+        // the mapping stays valid after the file is closed
+        try (RandomAccessFile raf = new RandomAccessFile(p.toFile(), "rw")) {
+            if (raf.length() < size)
+                raf.setLength(size);
+            return new Segment(base, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length()));
+        }
+    }
+
+    // —— reading —— //
+
+    /** Feeds the whole log, in order, to {@code sink}. */
+    public synchronized void replay(Replay sink) throws IOException {
+        for (Segment seg : segments.values()) {
+            int pos = 0;
+            while (pos < seg.pos) {
+                pos = dispatch(seg.map, pos, sink);
+            }
+        }
+    }
+
+    /** Feeds only {@code topic}'s records to {@code sink}, straight from the offset index. */
+    public synchronized void replay(String topic, Replay sink) throws IOException {
+        for (long off : index.getOrDefault(topic, Collections.emptyList())) {
+            Segment seg = segments.floorEntry(off).getValue();
+            dispatch(seg.map, (int) (off - seg.base), sink);
+        }
+    }
+
+    /** @return the number of records (publishes and deletes) stored for {@code topic} */
+    public synchronized int count(String topic) {
+        return index.getOrDefault(topic, Collections.emptyList()).size();
+    }
+
+    /** Global offset just past the last record. */
+    public synchronized long end() {
+        return active == null ? 0 : active.end();
+    }
+
+    private static int dispatch(MappedByteBuffer m, int at, Replay sink) throws IOException {
+        int len = m.getInt(at);
+        byte kind = m.get(at + HEADER);
+        int tLen = m.getShort(at + HEADER + 1) & 0xFFFF;
+        byte[] t = new byte[tLen];
+        m.get(at + HEADER + 3, t);
+        byte[] payload = new byte[len - 3 - tLen];
+        m.get(at + HEADER + 3 + tLen, payload);
+        String topic = new String(t, StandardCharsets.UTF_8);
+        if (kind == PUBLISH) {
+            sink.onPublish(topic, payload);
+        } else {
+            sink.onDelete(topic, new String(payload, StandardCharsets.UTF_8));
+        }
+        return at + HEADER + len;
+    }
+
+    // —— recovery —— //
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            ds.forEach(files::add);
+        }
+        Collections.sort(files);
+        for (int i = 0; i < files.size(); i++) {
+            String name = files.get(i).getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            Segment seg = map(base, 0);
+            boolean last = i == files.size() - 1;
+            int end = scan(seg);
+            if (end < 0) {
+                int tornAt = -end - 1;
+                if (!last)
+                    throw new IOException("corrupt record in sealed segment " + name + " at " + tornAt);
+                log.warn("board log: torn record at {}+{}, truncating the tail", name, tornAt);
+                for (int p = tornAt; p < seg.capacity(); p++)
+                    seg.map.put(p, (byte) 0);
+                seg.map.force();
+                end = tornAt;
+            }
+            seg.pos = end;
+            seg.dirtyFrom = end;
+            segments.put(base, seg);
+            active = seg;
+        }
+        durable = end();
+    }
+
+    /**
+     * Walks one segment, verifying CRCs and filling the offset index.
+     *
+     * @return the end of the valid records, or −(offset+1) of the first bad one
+     */
+    private int scan(Segment seg) {
+        MappedByteBuffer m = seg.map;
+        int pos = 0;
+        while (pos + HEADER <= seg.capacity()) {
+            int len = m.getInt(pos);
+            if (len == 0)
+                return pos;
+            if (len < 3 || (long) pos + HEADER + len > seg.capacity())
+                return -pos - 1;
+            byte[] body = new byte[len];
+            m.get(pos + HEADER, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            int tLen = ((body[1] & 0xFF) << 8) | (body[2] & 0xFF);
+            if ((int) crc.getValue() != m.getInt(pos + 4) || 3 + tLen > len
+                    || (body[0] != PUBLISH && body[0] != DELETE))
+                return -pos - 1;
+            String topic = new String(body, 3, tLen, StandardCharsets.UTF_8);
+            index.computeIfAbsent(topic, k -> new ArrayList<>()).add(seg.base + pos);
+            pos += HEADER + len;
+        }
+        return pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed)
+                return;
+            if (active != null)
+                force(active);
+            closed = true;
+        }
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+        markDurable(end());
+        synchronized (durableLock) {
+            durableLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.napdkg.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * One board topic: an append‐only list of entries kept as their serialized
+ * JSON (so a GET just copies bytes) plus the top‐level scalar fields, which
+ * feed lazily built equality indexes — field → value → positions — exactly
+ * like InMemoryPbbClient's. A delete leaves a hole rather than shifting the
+ * log. As there, publishing an id that already exists replaces the old
+ * entry: it is deleted and the new one goes to the end of the log.
+ * Generated ids are never handed out twice, not even across a restart:
+ * restoring an entry moves the counter past its id.
+ */
+final class TopicLog {
+
+    /**
+     * A stored entry; immutable once appended, apart from the cached binary
+     * record it is served as.
+     */
+    static final class Entry {
+        final String id;
+        final byte[] json;
+        final Map<String, String> scalars;
+        // last binary encoding, with the DTO class it was decoded as
+        private volatile Binary binary;
+
+        Entry(String id, byte[] json, Map<String, String> scalars) {
+            this.id = id;
+            this.json = json;
+            this.scalars = scalars;
+        }
+
+        /**
+         * The entry as one binary record of {@code type}, encoded by
+         * {@code encoder} on first use and then served from the cache.
+         */
+        byte[] binary(Class<?> type, Function<Entry, byte[]> encoder) {
+            Binary b = binary;
+            if (b == null || b.type != type) {
+                b = new Binary(type, encoder.apply(this));
+                binary = b;
+            }
+            return b.record;
+        }
+
+        /** Rebuilds an entry from its stored JSON, which carries its id. */
+        static Entry parse(byte[] json) {
+            JsonObject obj = JsonParser.parseString(new String(json, StandardCharsets.UTF_8)).getAsJsonObject();
+            return new Entry(obj.get("id").getAsString(), json, scalars(obj));
+        }
+    }
+
+    private static final class Binary {
+        final Class<?> type;
+        final byte[] record;
+
+        Binary(Class<?> type, byte[] record) {
+            this.type = type;
+            this.record = record;
+        }
+    }
+
+    final String name;
+    // binary record tag of the DTOs on this topic, learned from binary
+    // publishes; 0 until one arrives
+    volatile int binaryTag;
+
+    private final List<Entry> entries = new ArrayList<>(); // null = deleted
+    private final Map<String, Integer> byId = new HashMap<>();
+    private final Map<String, Map<String, List<Integer>>> indexes = new HashMap<>();
+    private long nextId = 1;
+    private int live;
+
+    TopicLog(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends {@code obj}, giving it a fresh {@code id} if it has none (the
+     * object is updated in place so the caller can echo it back).
+     */
+    synchronized Entry append(JsonObject obj) {
+        JsonElement idEl = obj.get("id");
+        String id;
+        if (idEl == null || idEl.isJsonNull()) {
+            do {
+                id = Long.toString(nextId++);
+            } while (byId.containsKey(id));
+            obj.addProperty("id", id);
+        } else {
+            id = idEl.getAsString();
+        }
+        Entry e = new Entry(id, obj.toString().getBytes(StandardCharsets.UTF_8), scalars(obj));
+        add(e);
+        return e;
+    }
+
+    /**
+     * Re‐adds an entry read back from durable storage, keeping its id; a
+     * replayed re‐publish replaces the earlier entry just as it did live.
+     * Generated ids restart after the highest one seen, deleted or not.
+     */
+    synchronized void restore(Entry e) {
+        try {
+            long n = Long.parseLong(e.id);
+            if (n >= nextId)
+                nextId = n + 1;
+        } catch (NumberFormatException notGenerated) {
+        }
+        add(e);
+    }
+
+    private static Map<String, String> scalars(JsonObject obj) {
+        Map<String, String> scalars = new HashMap<>();
+        for (Map.Entry<String, JsonElement> f : obj.entrySet()) {
+            if (f.getValue() instanceof JsonPrimitive) {
+                scalars.put(f.getKey(), f.getValue().getAsString());
+            }
+        }
+        return scalars;
+    }
+
+    private void add(Entry e) {
+        delete(e.id);
+        int pos = entries.size();
+        entries.add(e);
+        byId.put(e.id, pos);
+        live++;
+        for (Map.Entry<String, Map<String, List<Integer>>> idx : indexes.entrySet()) {
+            String v = e.scalars.get(idx.getKey());
+            if (v != null)
+                idx.getValue().computeIfAbsent(v, k -> new ArrayList<>()).add(pos);
+        }
+    }
+
+    synchronized Entry get(String id) {
+        Integer pos = byId.get(id);
+        return pos == null ? null : entries.get(pos);
+    }
+
+    synchronized boolean delete(String id) {
+        Integer pos = byId.remove(id);
+        if (pos == null)
+            return false;
+        Entry e = entries.set(pos, null);
+        live--;
+        for (Map.Entry<String, Map<String, List<Integer>>> idx : indexes.entrySet()) {
+            String v = e.scalars.get(idx.getKey());
+            List<Integer> hits = v == null ? null : idx.getValue().get(v);
+            if (hits != null)
+                hits.remove(pos);
+        }
+        return true;
+    }
+
+    synchronized int size() {
+        return live;
+    }
+
+    /**
+     * Entries (in publish order) whose scalar fields equal all of
+     * {@code filters}. The first filter is answered from its index, the rest
+     * are checked on the survivors.
+     */
+    synchronized List<Entry> select(Map<String, String> filters) {
+        List<Entry> out = new ArrayList<>();
+        if (filters.isEmpty()) {
+            for (Entry e : entries)
+                if (e != null)
+                    out.add(e);
+            return out;
+        }
+        Iterator<Map.Entry<String, String>> it = filters.entrySet().iterator();
+        Map.Entry<String, String> first = it.next();
+        for (int pos : index(first.getKey()).getOrDefault(first.getValue(), Collections.emptyList())) {
+            Entry e = entries.get(pos);
+            if (matchesAll(e, filters))
+                out.add(e);
+        }
+        return out;
+    }
+
+    private static boolean matchesAll(Entry e, Map<String, String> filters) {
+        for (Map.Entry<String, String> f : filters.entrySet()) {
+            if (!f.getValue().equals(e.scalars.get(f.getKey())))
+                return false;
+        }
+        return true;
+    }
+
+    private Map<String, List<Integer>> index(String field) {
+        Map<String, List<Integer>> idx = indexes.get(field);
+        if (idx == null) {
+            idx = new HashMap<>();
+            for (int pos = 0; pos < entries.size(); pos++) {
+                Entry e = entries.get(pos);
+                String v = e == null ? null : e.scalars.get(field);
+                if (v != null)
+                    idx.computeIfAbsent(v, k -> new ArrayList<>()).add(pos);
+            }
+            indexes.put(field, idx);
+        }
+        return idx;
+    }
+}
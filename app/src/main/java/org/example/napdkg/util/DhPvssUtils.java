@@ -35,12 +35,7 @@ public class DhPvssUtils {
         BigInteger[] r = new BigInteger[n];
         for (int i = 1; i <= n; i++) {
             // 1) evaluate m*(α[i]) = c₀ + c₁·α[i] + c₂·α[i]^2 + … (mod p)
-            BigInteger eval = BigInteger.ZERO;
-            BigInteger xPow = BigInteger.ONE; // α[i]^0
-            for (int k = 0; k < c.length; k++) {
-                eval = eval.add(c[k].multiply(xPow)).mod(p);
-                xPow = xPow.multiply(α[i]).mod(p);
-            }
+            BigInteger eval = EvaluationTools.evaluatePolynomial(c, α[i], p);
             // 2) multiply by dual‐code coefficient v[i−1]
             r[i - 1] = v[i - 1].multiply(eval).mod(p);
         }
@@ -72,7 +67,7 @@ public class DhPvssUtils {
                 // diff = α[j] - α[k] (mod p)
                 BigInteger diff = alphas[j].subtract(alphas[k]).mod(p);
                 // invert mod p
-                BigInteger inv = diff.modInverse(p);
+                BigInteger inv = EcOps.modInverse(diff, p);
                 prod = prod.multiply(inv).mod(p);
             }
             v[j - 1] = prod; // store into zero‐based array slot
@@ -80,4 +75,54 @@ public class DhPvssUtils {
         return v;
     }
 
+    /**
+     * {@link #deriveShrapeCoeffs} for the points αⱼ = j, in closed form:
+     *
+     * ∏_{k≠j} (j − k) = (j−1)! · (−1)^{n−j}·(n−j)!
+     *
+     * so vⱼ = (−1)^{n−j} / ((j−1)!·(n−j)!) mod p — O(n) multiplications and a
+     * single inversion instead of n² inversions.
+     *
+     * @return BigInteger[n] = { v₁, v₂, …, vₙ }, as deriveShrapeCoeffs
+     */
+    public static BigInteger[] deriveSequentialScrapeCoeffs(BigInteger p, int n) {
+        BigInteger[] invFact = factorials(p, n)[1];
+        BigInteger[] v = new BigInteger[n];
+        for (int j = 1; j <= n; j++) {
+            BigInteger x = invFact[j - 1].multiply(invFact[n - j]).mod(p);
+            v[j - 1] = ((n - j) & 1) == 0 ? x : p.subtract(x);
+        }
+        return v;
+    }
+
+    /**
+     * (αᵢ − αⱼ)⁻¹ mod p for αₖ = k, at index (i − j) + n for i − j ∈ [−n, n]
+     * (i = j left null): every denominator of a Lagrange coefficient over
+     * α₀…αₙ. d⁻¹ = (d−1)!/d!, and (−d)⁻¹ = p − d⁻¹.
+     */
+    public static BigInteger[] sequentialDiffInverses(BigInteger p, int n) {
+        BigInteger[][] f = factorials(p, n);
+        BigInteger[] inv = new BigInteger[2 * n + 1];
+        for (int d = 1; d <= n; d++) {
+            BigInteger x = f[0][d - 1].multiply(f[1][d]).mod(p);
+            inv[n + d] = x;
+            inv[n - d] = p.subtract(x);
+        }
+        return inv;
+    }
+
+    /** {0!…n!, (0!)⁻¹…(n!)⁻¹} mod p, with one inversion. */
+    private static BigInteger[][] factorials(BigInteger p, int n) {
+        BigInteger[] fact = new BigInteger[n + 1];
+        BigInteger[] invFact = new BigInteger[n + 1];
+        fact[0] = BigInteger.ONE;
+        for (int k = 1; k <= n; k++) {
+            fact[k] = fact[k - 1].multiply(BigInteger.valueOf(k)).mod(p);
+        }
+        invFact[n] = EcOps.modInverse(fact[n], p);
+        for (int k = n; k > 0; k--) {
+            invFact[k - 1] = invFact[k].multiply(BigInteger.valueOf(k)).mod(p);
+        }
+        return new BigInteger[][] { fact, invFact };
+    }
 }
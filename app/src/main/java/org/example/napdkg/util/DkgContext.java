@@ -1,6 +1,7 @@
 package org.example.napdkg.util;
 
 import java.math.BigInteger;
+import java.util.function.Supplier;
 
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
@@ -24,7 +25,11 @@ public class DkgContext {
     private final int t; // threshold t
     private final int n; // number of participants n
     private final BigInteger[] alphas; // evaluation points α₀ … αₙ
-    private final BigInteger[] v; // dual‐code weights v₁ … vₙ
+    private volatile BigInteger[] v; // dual‐code weights v₁ … vₙ, null until first getVs()
+    private Supplier<BigInteger[]> vSource;
+    private volatile BigInteger[] alphaDiffInverses; // (αᵢ−αⱼ)⁻¹ at i−j+n, or null
+    private Supplier<BigInteger[]> alphaDiffSource;
+    private final boolean hasAlphaDiffTable;
 
     public DkgContext(
             GroupGenerator.GroupParameters groupParams,
@@ -32,12 +37,62 @@ public class DkgContext {
             int n,
             BigInteger[] alphas,
             BigInteger[] v) {
+        this(groupParams, t, n, alphas, v, null);
+    }
+
+    /**
+     * With a table of (αᵢ − αⱼ)⁻¹, indexed by i − j + n, for contexts whose
+     * αᵢ − αⱼ depends on i − j only (αᵢ = i); see {@link #inverseAlphaDiff}.
+     */
+    public DkgContext(
+            GroupGenerator.GroupParameters groupParams,
+            int t,
+            int n,
+            BigInteger[] alphas,
+            BigInteger[] v,
+            BigInteger[] alphaDiffInverses) {
         this.groupParams = groupParams;
         this.t = t;
         this.n = n;
         this.alphas = alphas;
         this.v = v;
+        this.alphaDiffInverses = alphaDiffInverses;
+        this.hasAlphaDiffTable = alphaDiffInverses != null;
+    }
+
+    /**
+     * Defers the dual‐code weights to the first {@link #getVs()}: nothing
+     * before sharing needs them (setup only publishes a key), so a party can
+     * publish first and pay later.
+     */
+    public DkgContext(
+            GroupGenerator.GroupParameters groupParams,
+            int t,
+            int n,
+            BigInteger[] alphas,
+            Supplier<BigInteger[]> v) {
+        this(groupParams, t, n, alphas, (BigInteger[]) null, null);
+        this.vSource = v;
+    }
 
+    /**
+     * Both tables deferred to first use, e.g. decoded from a mapped snapshot
+     * only when sharing or reconstruction gets to them.
+     */
+    public DkgContext(
+            GroupGenerator.GroupParameters groupParams,
+            int t,
+            int n,
+            BigInteger[] alphas,
+            Supplier<BigInteger[]> v,
+            Supplier<BigInteger[]> alphaDiffInverses) {
+        this.groupParams = groupParams;
+        this.t = t;
+        this.n = n;
+        this.alphas = alphas;
+        this.vSource = v;
+        this.alphaDiffSource = alphaDiffInverses;
+        this.hasAlphaDiffTable = true;
     }
 
     /**
@@ -84,7 +139,43 @@ public class DkgContext {
 
     /** @return {v₁,…,vₙ} — the SCRAPE dual‐code coefficients mod p */
     public BigInteger[] getVs() {
-        return v;
+        BigInteger[] vs = v;
+        if (vs == null) {
+            synchronized (this) {
+                vs = v;
+                if (vs == null) {
+                    v = vs = vSource.get();
+                    vSource = null;
+                }
+            }
+        }
+        return vs;
+    }
+
+    /** @return the (αᵢ − αⱼ)⁻¹ table, indexed by i − j + n, or null without one */
+    public BigInteger[] getAlphaDiffInverses() {
+        BigInteger[] d = alphaDiffInverses;
+        if (d == null && hasAlphaDiffTable) {
+            synchronized (this) {
+                d = alphaDiffInverses;
+                if (d == null) {
+                    alphaDiffInverses = d = alphaDiffSource.get();
+                    alphaDiffSource = null;
+                }
+            }
+        }
+        return d;
+    }
+
+    /**
+     * @return (αᵢ − αⱼ)⁻¹ mod p, the Lagrange denominator — a table lookup when
+     *         the context was built with one, else an inversion
+     */
+    public BigInteger inverseAlphaDiff(int i, int j) {
+        if (hasAlphaDiffTable)
+            return getAlphaDiffInverses()[i - j + n];
+        BigInteger p = getOrder();
+        return EcOps.modInverse(alphas[i].subtract(alphas[j]).mod(p), p);
     }
 
 }
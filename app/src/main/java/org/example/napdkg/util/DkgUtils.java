@@ -24,7 +24,7 @@ public final class DkgUtils {
     // —— point/scalar codecs —— //
 
     public static String encodePoint(ECPoint P) {
-        return Hex.toHexString(P.normalize().getEncoded(true));
+        return Hex.toHexString(EcOps.encode(EcOps.normalize(P), true));
     }
 
     public static String encodeScalar(BigInteger x) {
@@ -78,7 +78,7 @@ public final class DkgUtils {
         for (int j = 0; j < n; j++) {
             ECPoint Ej = pubs.get(j).getPublicKey();
             ECPoint Aij = shares[j].getAiPoint();
-            Cij[j] = Ej.multiply(ski).add(Aij).normalize();
+            Cij[j] = EcOps.normalize(EcOps.add(EcOps.mul(Ej, ski), Aij));
         }
         return Cij;
     }
@@ -152,10 +152,7 @@ public final class DkgUtils {
         List<PublicKeysWithProofs> pubs = new ArrayList<>(dtos.size());
         for (EphemeralKeyDTO dto : dtos) {
             byte[] raw = Hex.decode(dto.publicKey);
-            ECPoint P = ctx.getGenerator()
-                    .getCurve()
-                    .decodePoint(raw)
-                    .normalize();
+            ECPoint P = EcOps.normalize(EcOps.decode(ctx.getGenerator().getCurve(), raw));
 
             String[] parts = dto.schnorrProof.split("\\|");
             BigInteger challenge = new BigInteger(parts[0], 16);
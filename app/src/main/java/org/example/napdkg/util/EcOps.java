@@ -0,0 +1,189 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+
+/**
+ * Counting facade over the group and hash operations the protocol spends its
+ * time in:
+ *
+ * MUL k·P ECPoint.multiply
+ * ADD P ± Q ECPoint.add / subtract
+ * NORMALIZE → affine ECPoint.normalize (one field inversion)
+ * DECODE bytes → point ECCurve.decodePoint (a square root if compressed)
+ * ENCODE point → bytes ECPoint.getEncoded
+ * HASH SHA‐256 MessageDigest.digest
+ * MOD_INVERSE a⁻¹ mod p BigInteger.modInverse
+ *
+ * Off unless the JVM runs with -Dnapdkg.ecops=true. The flag is a static
+ * final, so when it's off the JIT folds every wrapper down to the plain call.
+ * When on, each op bumps a slot in the calling thread's current scope (see
+ * {@link #enter}), which PhaseMetrics opens per (party, phase) span. Ops
+ * outside any scope go to a shared “unscoped” tally.
+ *
+ * MUL takes the fixed‐base comb path for the one point registered with
+ * {@link #precomputeFixedBase} (the generator, once DkgContextRegistry has
+ * built its tables); every other point goes through ECPoint.multiply.
+ */
+public final class EcOps {
+    public enum Op {
+        MUL, ADD, NORMALIZE, DECODE, ENCODE, HASH, MOD_INVERSE
+    }
+
+    public static final boolean ENABLED = Boolean.getBoolean("napdkg.ecops");
+
+    private static final Op[] OPS = Op.values();
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+    private static final LongAdder[] UNSCOPED = new LongAdder[OPS.length];
+    private static final FixedPointCombMultiplier COMB = new FixedPointCombMultiplier();
+    private static volatile ECPoint fixedBase;
+    private static volatile int fixedBaseBits;
+    static {
+        for (int i = 0; i < OPS.length; i++)
+            UNSCOPED[i] = new LongAdder();
+    }
+
+    private EcOps() {
+    }
+
+    private static void count(Op op) {
+        long[] scope = CURRENT.get();
+        if (scope != null)
+            scope[op.ordinal()]++;
+        else
+            UNSCOPED[op.ordinal()].increment();
+    }
+
+    // —— wrapped operations —— //
+
+    public static ECPoint mul(ECPoint p, BigInteger k) {
+        if (ENABLED)
+            count(Op.MUL);
+        if (p == fixedBase && k.signum() >= 0 && k.bitLength() <= fixedBaseBits)
+            return COMB.multiply(p, k);
+        return p.multiply(k);
+    }
+
+    public static ECPoint add(ECPoint p, ECPoint q) {
+        if (ENABLED)
+            count(Op.ADD);
+        return p.add(q);
+    }
+
+    public static ECPoint sub(ECPoint p, ECPoint q) {
+        if (ENABLED)
+            count(Op.ADD);
+        return p.subtract(q);
+    }
+
+    public static ECPoint normalize(ECPoint p) {
+        if (ENABLED)
+            count(Op.NORMALIZE);
+        return p.normalize();
+    }
+
+    public static ECPoint decode(ECCurve curve, byte[] encoded) {
+        if (ENABLED)
+            count(Op.DECODE);
+        return curve.decodePoint(encoded);
+    }
+
+    public static byte[] encode(ECPoint p, boolean compressed) {
+        if (ENABLED)
+            count(Op.ENCODE);
+        return p.getEncoded(compressed);
+    }
+
+    public static byte[] digest(MessageDigest md) {
+        if (ENABLED)
+            count(Op.HASH);
+        return md.digest();
+    }
+
+    public static byte[] digest(MessageDigest md, byte[] input) {
+        if (ENABLED)
+            count(Op.HASH);
+        return md.digest(input);
+    }
+
+    public static BigInteger modInverse(BigInteger a, BigInteger m) {
+        if (ENABLED)
+            count(Op.MOD_INVERSE);
+        return a.modInverse(m);
+    }
+
+    /**
+     * Builds BouncyCastle's comb table for {@code g} (cached on the point
+     * itself) and sends later {@link #mul}s of that same instance through it.
+     * One base at a time; a second call replaces the first.
+     */
+    public static void precomputeFixedBase(ECPoint g) {
+        FixedPointUtil.precompute(g);
+        fixedBaseBits = FixedPointUtil.getCombSize(g.getCurve());
+        fixedBase = g;
+    }
+
+    // —— scopes —— //
+
+    /**
+     * Starts counting this thread's ops into a fresh scope.
+     *
+     * @return the scope it replaces, to hand back to {@link #exit}; null when
+     *         counting is off
+     */
+    public static long[] enter() {
+        if (!ENABLED)
+            return null;
+        long[] outer = CURRENT.get();
+        CURRENT.set(new long[OPS.length]);
+        return outer;
+    }
+
+    /**
+     * Ends the scope opened by the matching {@link #enter} and reinstates
+     * {@code outer}.
+     *
+     * @return the closed scope's counts, indexed by {@link Op#ordinal()}; null
+     *         when counting is off
+     */
+    public static long[] exit(long[] outer) {
+        if (!ENABLED)
+            return null;
+        long[] mine = CURRENT.get();
+        if (outer == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(outer);
+        return mine;
+    }
+
+    /** Turns a counts array into op → count, skipping zeros. */
+    public static Map<Op, Long> toMap(long[] counts) {
+        Map<Op, Long> out = new EnumMap<>(Op.class);
+        for (int i = 0; i < OPS.length; i++) {
+            if (counts[i] != 0)
+                out.put(OPS[i], counts[i]);
+        }
+        return out;
+    }
+
+    /** Ops counted outside any scope so far. */
+    public static Map<Op, Long> unscoped() {
+        long[] c = new long[OPS.length];
+        for (int i = 0; i < OPS.length; i++)
+            c[i] = UNSCOPED[i].sum();
+        return toMap(c);
+    }
+
+    public static int opCount() {
+        return OPS.length;
+    }
+}
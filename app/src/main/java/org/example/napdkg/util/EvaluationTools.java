@@ -40,6 +40,11 @@ public class EvaluationTools {
      *
      * m*(αᵢ) = ∑_{j=0}^{d} cⱼ·(αᵢ)^j mod p
      *
+     * in Horner form, (…(c_d·αᵢ + c_{d−1})·αᵢ + …)·αᵢ + c₀: one multiply by a
+     * small αᵢ per coefficient, where the power form also builds a full‐width
+     * αᵢ^j. (A table of αᵢ^j would cost n·d full‐width numbers and still be
+     * slower than that.)
+     *
      * @param c polynomial coefficients [c₀…c_d]
      * @param α evaluation point αᵢ
      * @param p subgroup order (prime modulus)
@@ -47,10 +52,8 @@ public class EvaluationTools {
      */
     public static BigInteger evaluatePolynomial(BigInteger[] c, BigInteger α, BigInteger p) {
         BigInteger result = BigInteger.ZERO;
-        BigInteger xPow = BigInteger.ONE;
-        for (BigInteger coeff : c) {
-            result = result.add(coeff.multiply(xPow)).mod(p);
-            xPow = xPow.multiply(α).mod(p);
+        for (int j = c.length - 1; j >= 0; j--) {
+            result = result.multiply(α).add(c[j]).mod(p);
         }
         return result;
     }
@@ -21,10 +21,24 @@ import org.bouncycastle.math.ec.ECPoint;
 public class GroupGenerator {
     /**
      * Runs the EC setup for YOSO‑DHPVSS.
-     * 
+     *
+     * The curve is built once, on the first call, and shared: loading this
+     * class touches no BouncyCastle curve code, and every context in the
+     * process uses the same G, so G's multiplication tables (built by
+     * BouncyCastle on the first k·G) are computed once too.
+     *
      * @return pp_EC wrapped in GroupParameters
      */
     public static GroupParameters generateGroup() {
+        return Secp256r1.PARAMS;
+    }
+
+    /** Initialised on first access only (holder idiom). */
+    private static final class Secp256r1 {
+        static final GroupParameters PARAMS = buildGroup();
+    }
+
+    private static GroupParameters buildGroup() {
         X9ECParameters params = CustomNamedCurves.getByName("secp256r1");
         ECCurve curve = params.getCurve();
         BigInteger p = curve.getField().getCharacteristic();
@@ -19,9 +19,9 @@ public class HashingTools {
     public static BigInteger hashECPoint(ECPoint point) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] encoded = point.getEncoded(true); // compressed form
+            byte[] encoded = EcOps.encode(point, true); // compressed form
             digest.update(encoded);
-            byte[] hashBytes = digest.digest();
+            byte[] hashBytes = EcOps.digest(digest);
             return new BigInteger(1, hashBytes);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not available", e);
@@ -31,9 +31,9 @@ public class HashingTools {
     public static byte[] hashECPointToBytes(ECPoint point) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] encoded = point.getEncoded(true); // compressed form
+            byte[] encoded = EcOps.encode(point, true); // compressed form
             digest.update(encoded);
-            byte[] hashBytes = digest.digest();
+            byte[] hashBytes = EcOps.digest(digest);
             return hashBytes;
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not available", e);
@@ -51,10 +51,10 @@ public class HashingTools {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             for (ECPoint point : points) {
-                byte[] encoded = point.getEncoded(true);
+                byte[] encoded = EcOps.encode(point, true);
                 digest.update(encoded);
             }
-            byte[] hashBytes = digest.digest();
+            byte[] hashBytes = EcOps.digest(digest);
             return new BigInteger(1, hashBytes);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA-256 algorithm not available", e);
@@ -104,7 +104,7 @@ public class HashingTools {
      * Compressed ECPoint → byte[] helper.
      */
     private static byte[] encodeECPoint(ECPoint point) {
-        return point.getEncoded(true);
+        return EcOps.encode(point, true);
     }
 
     /**
@@ -147,7 +147,7 @@ public class HashingTools {
                 byte[] chunk = toFixedLength(bn, len);
                 digest.update(chunk);
             }
-            byte[] hash = digest.digest();
+            byte[] hash = EcOps.digest(digest);
             return new BigInteger(1, hash);
         } catch (NoSuchAlgorithmException ex) {
             throw new RuntimeException("SHA-256 algorithm not available", ex);
@@ -184,7 +184,7 @@ public class HashingTools {
             digest.update(encodeECPoint(y));
             digest.update(encodeECPoint(a1));
             digest.update(encodeECPoint(a2));
-            byte[] hash = digest.digest();
+            byte[] hash = EcOps.digest(digest);
 
             // System.out.println("[hashElements] hash = " + Hex.toHexString(hash));
 
@@ -217,19 +217,19 @@ public class HashingTools {
 
         // 1) pk_i (compressed). If pk_i is not needed or is null, skip this.
         if (pk_i != null) {
-            byte[] pkComp = pk_i.getEncoded(true); // compressed form => 33 bytes
+            byte[] pkComp = EcOps.encode(pk_i, true); // compressed form => 33 bytes
             bos.write(pkComp, 0, pkComp.length);
         }
 
         // 2) E array: ephemeral pubkeys, each compressed => 33 bytes
         for (ECPoint e : E) {
-            byte[] compE = e.getEncoded(true);
+            byte[] compE = EcOps.encode(e, true);
             bos.write(compE, 0, compE.length);
         }
 
         // 3) Cij array: masked shares, each also an EC point, so also compressed
         for (ECPoint c : Cij) {
-            byte[] compC = c.getEncoded(true);
+            byte[] compC = EcOps.encode(c, true);
             bos.write(compC, 0, compC.length);
         }
 
@@ -251,7 +251,7 @@ public class HashingTools {
 
         // (C) Now compute a single SHA-256 over bos.toByteArray()
         MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
-        byte[] seed = sha256.digest(bos.toByteArray());
+        byte[] seed = EcOps.digest(sha256, bos.toByteArray());
 
         // (D) Expand that seed into a polynomial's coefficients
         // We'll produce deg+1 coefficients: mStar[0..deg].
@@ -267,7 +267,7 @@ public class HashingTools {
             bos2.write(seed, 0, seed.length);
             bos2.write(i); // single byte counter
 
-            byte[] digest = sha256.digest(bos2.toByteArray());
+            byte[] digest = EcOps.digest(sha256, bos2.toByteArray());
             mStar[i] = new BigInteger(1, digest).mod(p);
         }
 
@@ -287,7 +287,7 @@ public class HashingTools {
             digest.update(encodeECPoint(ctx.getGenerator()));
             digest.update(encodeECPoint(pub));
             digest.update(encodeECPoint(A));
-            byte[] hash = digest.digest();
+            byte[] hash = EcOps.digest(digest);
             return new BigInteger(1, hash);
         } catch (NoSuchAlgorithmException ex) {
             throw new RuntimeException("SHA-256 algorithm not available", ex);
@@ -300,7 +300,7 @@ public class HashingTools {
     private static byte[] compressTo33(ECPoint P) {
         // assume P is normalized. getEncoded(true) always yields 1 + 32 bytes on
         // secp256r1.
-        byte[] raw = P.normalize().getEncoded(true);
+        byte[] raw = EcOps.encode(EcOps.normalize(P), true);
         if (raw.length != 33) {
             throw new IllegalStateException("Expected 33-byte compressed ECPoint, got " + raw.length);
         }
@@ -0,0 +1,124 @@
+package org.example.napdkg.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock‐free latency histogram with log‐linear buckets: values below 16 ns get
+ * a bucket each, above that every power of two [2ᵉ, 2ᵉ⁺¹) is split into 16
+ * equal buckets, so a reported percentile is at most 1/16 (≈6%) above the
+ * true value. 976 buckets cover the whole long range; record(...) is one
+ * atomic increment plus two adders, cheap enough to call on every board
+ * request from every party thread.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /** Records one duration in nanoseconds (negative values count as 0). */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    static int index(long v) {
+        if (v < SUB)
+            return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    /** Smallest value that falls into bucket {@code idx}. */
+    static long lowerBound(int idx) {
+        if (idx < SUB)
+            return idx;
+        int exp = idx / SUB + SUB_BITS - 1;
+        int sub = idx % SUB;
+        return (1L << exp) | ((long) sub << (exp - SUB_BITS));
+    }
+
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            n += counts.get(i);
+        return n;
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Value at quantile q ∈ [0,1] in nanoseconds: the top of the bucket that
+     * holds the ⌈q·count⌉‐th smallest sample, capped at the largest sample.
+     */
+    public long percentile(double q) {
+        long[] snap = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snap[i] = counts.get(i);
+            n += snap[i];
+        }
+        return percentile(snap, n, q);
+    }
+
+    private long percentile(long[] snap, long n, double q) {
+        if (n == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snap[i];
+            if (seen >= rank) {
+                long top = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(top, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /** Consistent point‐in‐time summary, in microseconds. */
+    public Summary summary() {
+        long[] snap = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snap[i] = counts.get(i);
+            n += snap[i];
+        }
+        Summary s = new Summary();
+        s.count = n;
+        s.meanUs = n == 0 ? 0.0 : sum.sum() / 1e3 / n;
+        s.p50Us = percentile(snap, n, 0.50) / 1e3;
+        s.p90Us = percentile(snap, n, 0.90) / 1e3;
+        s.p99Us = percentile(snap, n, 0.99) / 1e3;
+        s.p999Us = percentile(snap, n, 0.999) / 1e3;
+        s.maxUs = max.get() / 1e3;
+        return s;
+    }
+
+    /** Plain DTO so Gson can put it straight into a report. */
+    public static final class Summary {
+        public long count;
+        public double meanUs;
+        public double p50Us;
+        public double p90Us;
+        public double p99Us;
+        public double p999Us;
+        public double maxUs;
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.1fµs p50=%.1fµs p99=%.1fµs p99.9=%.1fµs max=%.1fµs",
+                    count, meanUs, p50Us, p99Us, p999Us, maxUs);
+        }
+    }
+}
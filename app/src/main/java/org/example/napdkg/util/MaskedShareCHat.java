@@ -25,10 +25,10 @@ public final class MaskedShareCHat {
   private static BigInteger hashPointToScalar(ECPoint P, BigInteger order) {
     try {
       // 1) canonical, compressed form (33 bytes on secp256k1 / P-256)
-      byte[] enc = P.normalize().getEncoded(true);
+      byte[] enc = EcOps.encode(EcOps.normalize(P), true);
       // 2) SHA-256
       MessageDigest md = MessageDigest.getInstance(HASH_ALGO);
-      byte[] digest = md.digest(enc);
+      byte[] digest = EcOps.digest(md, enc);
       // 3) reduce into [0,order)
       return new BigInteger(1, digest).mod(order);
     } catch (NoSuchAlgorithmException e) {
@@ -0,0 +1,133 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingPbbClientTest {
+    private InMemoryPbbClient board;
+    private AtomicInteger boardFetches;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        board = new InMemoryPbbClient();
+        boardFetches = new AtomicInteger();
+        release = new CountDownLatch(0);
+    }
+
+    /** Counts the fetches that reach the board and can hold them until released. */
+    private PbbClient counting() {
+        return new PbbClient() {
+            @Override
+            public void publish(String topic, Object msg) throws Exception {
+                board.publish(topic, msg);
+            }
+
+            @Override
+            public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+                boardFetches.incrementAndGet();
+                release.await();
+                return board.fetch(topic, clazz);
+            }
+
+            @Override
+            public void delete(String topic, String id) throws Exception {
+                board.delete(topic, id);
+            }
+        };
+    }
+
+    @Test
+    public void testImmutableTopicIsFetchedOnce() throws Exception {
+        CachingPbbClient cache = new CachingPbbClient(counting());
+        cache.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "proof1"));
+
+        // mutable: every fetch goes to the board
+        cache.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        cache.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        assertEquals(2, boardFetches.get());
+
+        cache.markImmutable("ephemeralKeys");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, cache.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        }
+        assertEquals(3, boardFetches.get());
+        assertEquals(4, cache.getHits());
+
+        // a local publish still drops the pinned copy
+        cache.publish("ephemeralKeys", new EphemeralKeyDTO("id2", 2, "pk2", "proof2"));
+        assertEquals(2, cache.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(4, boardFetches.get());
+    }
+
+    @Test
+    public void testConcurrentFetchesAreCoalesced() throws Exception {
+        CachingPbbClient cache = new CachingPbbClient(counting());
+        cache.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "proof1"));
+        release = new CountDownLatch(1);
+
+        List<Thread> parties = new ArrayList<>();
+        AtomicInteger seen = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            Thread th = new Thread(() -> {
+                try {
+                    seen.addAndGet(cache.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            parties.add(th);
+            th.start();
+        }
+        // let all eight pile up behind the first request
+        while (cache.getMisses() + cache.getCoalesced() < 8) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread th : parties) {
+            th.join();
+        }
+
+        assertEquals(1, boardFetches.get());
+        assertEquals(7, cache.getCoalesced());
+        assertEquals(8, seen.get());
+    }
+
+    @Test
+    public void testNothingIsKeptWithoutStaleness() throws Exception {
+        CachingPbbClient cache = new CachingPbbClient(counting());
+        cache.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "proof1"));
+        cache.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        cache.fetchWhere("ephemeralKeys", "partyIndex", 1, EphemeralKeyDTO.class);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBoundedAndForgetsTopics() throws Exception {
+        CachingPbbClient cache = new CachingPbbClient(counting(), 60_000, 4);
+        for (int i = 0; i < 10; i++) {
+            cache.publish("t" + i, new EphemeralKeyDTO("id" + i, i, "pk", "proof"));
+            cache.fetch("t" + i, EphemeralKeyDTO.class);
+        }
+        assertEquals(4, cache.size());
+        // least recently used went first
+        cache.fetch("t9", EphemeralKeyDTO.class);
+        assertEquals(10, boardFetches.get());
+        cache.fetch("t0", EphemeralKeyDTO.class);
+        assertEquals(11, boardFetches.get());
+
+        cache.markImmutable("t0");
+        cache.fetch("t0", EphemeralKeyDTO.class);
+        cache.forget("t0");
+        assertEquals(false, cache.isImmutable("t0"));
+        assertEquals(3, cache.size());
+    }
+}
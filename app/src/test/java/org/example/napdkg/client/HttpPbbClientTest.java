@@ -0,0 +1,129 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.server.PbbServer;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpPbbClientTest {
+
+    /** Body writer threads still stuck in a pipe. */
+    private static int stuckWriters() {
+        int stuck = 0;
+        for (Map.Entry<Thread, StackTraceElement[]> t : Thread.getAllStackTraces().entrySet()) {
+            if (t.getKey().getName().startsWith("pbb-body-writer")
+                    && Arrays.stream(t.getValue()).anyMatch(f -> f.getClassName().startsWith("java.io.Piped")))
+                stuck++;
+        }
+        return stuck;
+    }
+
+    @Test(timeout = 30_000)
+    public void testRejectedPublishReleasesItsBodyWriter() throws Exception {
+        // answers before reading a byte of the body, then hangs up
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", ex -> {
+            ex.getResponseHeaders().set("Connection", "close");
+            ex.sendResponseHeaders(413, -1);
+            ex.close();
+        });
+        server.start();
+        try {
+            HttpPbbClient client = new HttpPbbClient("http://127.0.0.1:" + server.getAddress().getPort());
+            char[] big = new char[4 << 20];
+            Arrays.fill(big, 'x');
+            EphemeralKeyDTO huge = new EphemeralKeyDTO(new String(big), 0, "02", "1|2");
+            for (int i = 0; i < 3; i++) {
+                try {
+                    client.publish("ephemeralKeys", huge);
+                    fail("the board rejected it");
+                } catch (Exception expected) {
+                }
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (stuckWriters() > 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(50);
+            assertTrue("body writers left blocked on a pipe", stuckWriters() == 0);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testFeatureProbeDoesNotBlockTheCaller() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", ex -> {
+            if (ex.getRequestMethod().equals("OPTIONS")) {
+                probes.incrementAndGet();
+                try {
+                    Thread.sleep(1_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                ex.getRequestBody().readAllBytes();
+            }
+            ex.getResponseHeaders().set("Connection", "close");
+            ex.sendResponseHeaders(ex.getRequestMethod().equals("GET") ? 200 : 204, -1);
+            ex.close();
+        });
+        server.start();
+        try {
+            HttpPbbClient client = new HttpPbbClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                    new HttpPbbClient.Options().format(WireFormat.BINARY).compression(true));
+            long t0 = System.nanoTime();
+            CompletableFuture<Void> a = client.publishAsync("ephemeralKeys", new EphemeralKeyDTO("a", 0, "02", "1|2"));
+            CompletableFuture<?> b = client.fetchAsync("ephemeralKeys", EphemeralKeyDTO.class);
+            CompletableFuture<Void> c = client.deleteAsync("ephemeralKeys", "a");
+            assertTrue("async calls waited for the probe", System.nanoTime() - t0 < TimeUnit.MILLISECONDS.toNanos(500));
+            CompletableFuture.allOf(a, b, c).get();
+            assertEquals(1, probes.get());
+            assertEquals(WireFormat.JSON, client.wireFormat());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testDeleteAsync() throws Exception {
+        try (PbbServer board = PbbServer.start(0)) {
+            HttpPbbClient client = new HttpPbbClient(board.baseUrl());
+            client.publish("ephemeralKeys", new EphemeralKeyDTO("a", 0, "02", "1|2"));
+            client.publish("ephemeralKeys", new EphemeralKeyDTO("b", 1, "02", "1|2"));
+            client.deleteAsync("ephemeralKeys", "a").get();
+            assertEquals(1, client.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testPublishAllKeepsOrderWithoutBatch() throws Exception {
+        try (PbbServer board = PbbServer.start(0)) {
+            // plain JSON never probes, so the board's batch endpoint stays unused
+            HttpPbbClient client = new HttpPbbClient(board.baseUrl());
+            EphemeralKeyDTO[] keys = new EphemeralKeyDTO[20];
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = new EphemeralKeyDTO("k" + i, i, "02", "1|2");
+            client.publishAll("ephemeralKeys", keys);
+            List<EphemeralKeyDTO> got = client.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+            assertEquals(keys.length, got.size());
+            for (int i = 0; i < keys.length; i++)
+                assertEquals(i, got.get(i).partyIndex);
+        }
+    }
+}
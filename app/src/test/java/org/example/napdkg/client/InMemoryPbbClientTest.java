@@ -2,10 +2,13 @@ package org.example.napdkg.client;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,4 +36,135 @@ public class InMemoryPbbClientTest {
         assertTrue(out.contains(e1));
         assertTrue(out.contains(e2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFetchWhereUsesFieldIndex() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            SharingOutputDTO dto = new SharingOutputDTO();
+            dto.id = "dealer" + i;
+            dto.dealerIndexDTO = i;
+            client.publish("DealerPublish", dto);
+        }
+
+        List<SharingOutputDTO> out = client.fetchWhere("DealerPublish", "dealerIndexDTO", 2, SharingOutputDTO.class);
+        assertEquals(1, out.size());
+        assertEquals("dealer2", out.get(0).id);
+
+        // the index must follow later publishes and deletes
+        SharingOutputDTO late = new SharingOutputDTO();
+        late.id = "dealer2b";
+        late.dealerIndexDTO = 2;
+        client.publish("DealerPublish", late);
+        client.delete("DealerPublish", "dealer2");
+        out = client.fetchWhere("DealerPublish", "dealerIndexDTO", 2, SharingOutputDTO.class);
+        assertEquals(1, out.size());
+        assertEquals("dealer2b", out.get(0).id);
+
+        assertTrue(client.fetchWhere("DealerPublish", "dealerIndexDTO", 9, SharingOutputDTO.class).isEmpty());
+    }
+
+    @Test
+    public void testFetchKeepsPublishOrderAndAssignsIds() throws Exception {
+        for (int i = 0; i < 3000; i++) {
+            client.publish("ephemeralKeys", new EphemeralKeyDTO(null, i, "pk" + i, "proof"));
+        }
+        List<EphemeralKeyDTO> out = client.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        assertEquals(3000, out.size());
+        for (int i = 0; i < out.size(); i++) {
+            assertEquals(i, out.get(i).partyIndex);
+        }
+        // json-server style ids, so cleanup loops can delete what they fetched
+        client.delete("ephemeralKeys", out.get(5).id);
+        assertEquals(2999, client.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(3000, client.lastSequence());
+    }
+
+    @Test
+    public void testAwaitAtLeastIsWokenByPublish() throws Exception {
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                client.publish("ShareVerificationOutput", new EphemeralKeyDTO("v" + i, i, "pk", "proof"));
+            }
+        });
+        publisher.start();
+        List<EphemeralKeyDTO> out = client.awaitAtLeast("ShareVerificationOutput", 3, EphemeralKeyDTO.class);
+        assertEquals(3, out.size());
+        assertEquals("v0", out.get(0).id);
+        publisher.join();
+    }
+
+    @Test(timeout = 10_000)
+    public void testFailedPublishDoesNotBlockLaterOnes() throws Exception {
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        InMemoryPbbClient board = new InMemoryPbbClient() {
+            @Override
+            TopicLog newTopicLog() {
+                return new TopicLog() {
+                    @Override
+                    Entry[] chunk(int c) {
+                        if (failNext.getAndSet(false))
+                            throw new OutOfMemoryError("simulated");
+                        return super.chunk(c);
+                    }
+                };
+            }
+        };
+        try {
+            board.publish("DealerPublish", new EphemeralKeyDTO("lost", 0, "pk", "proof"));
+            fail("publish should have failed");
+        } catch (OutOfMemoryError expected) {
+        }
+        board.publish("DealerPublish", new EphemeralKeyDTO("kept", 1, "pk", "proof"));
+
+        List<EphemeralKeyDTO> out = board.fetch("DealerPublish", EphemeralKeyDTO.class);
+        assertEquals(1, out.size());
+        assertEquals("kept", out.get(0).id);
+        assertEquals(1, board.fetchWhere("DealerPublish", "partyIndex", 1, EphemeralKeyDTO.class).size());
+        board.delete("DealerPublish", "kept");
+        assertTrue(board.fetch("DealerPublish", EphemeralKeyDTO.class).isEmpty());
+    }
+
+    @Test
+    public void testFetchReturnsAMutableCopy() throws Exception {
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk", "proof"));
+        List<EphemeralKeyDTO> out = client.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        out.clear();
+        assertEquals(1, client.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        client.fetch("nothingHere", EphemeralKeyDTO.class).add(null);
+    }
+
+    @Test
+    public void testDeletesReclaimSealedChunks() throws Exception {
+        InMemoryPbbClient.TopicLog[] log = new InMemoryPbbClient.TopicLog[1];
+        InMemoryPbbClient board = new InMemoryPbbClient() {
+            @Override
+            TopicLog newTopicLog() {
+                return log[0] = super.newTopicLog();
+            }
+        };
+        int n = 3 * 1024 + 5;
+        for (int i = 0; i < n; i++)
+            board.publish("ShareVerificationOutput", new EphemeralKeyDTO("v" + i, i % 7, "pk", "proof"));
+        board.fetchWhere("ShareVerificationOutput", "partyIndex", 3, EphemeralKeyDTO.class);
+        assertEquals(4, log[0].chunksHeld());
+
+        // empty the first two chunks and one slot of the third
+        for (int i = 0; i <= 2 * 1024; i++)
+            board.delete("ShareVerificationOutput", "v" + i);
+        log[0].sweep();
+        assertEquals(2, log[0].chunksHeld());
+
+        List<EphemeralKeyDTO> out = board.fetch("ShareVerificationOutput", EphemeralKeyDTO.class);
+        assertEquals(n - 2 * 1024 - 1, out.size());
+        assertEquals("v" + (2 * 1024 + 1), out.get(0).id);
+        for (EphemeralKeyDTO e : board.fetchWhere("ShareVerificationOutput", "partyIndex", 3, EphemeralKeyDTO.class))
+            assertTrue(Integer.parseInt(e.id.substring(1)) > 2 * 1024);
+        board.publish("ShareVerificationOutput", new EphemeralKeyDTO("late", 3, "pk", "proof"));
+        assertEquals(n - 2 * 1024, board.fetch("ShareVerificationOutput", EphemeralKeyDTO.class).size());
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.core.DkgContextRegistry;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.server.PbbServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class InstrumentedPbbClientTest {
+    private PbbServer board;
+    private String pk;
+
+    @Before
+    public void setUp() throws Exception {
+        board = PbbServer.start(0);
+        pk = Hex.toHexString(DkgContextRegistry.get(1, 4).getGenerator().getEncoded(true));
+    }
+
+    @After
+    public void tearDown() {
+        board.close();
+    }
+
+    @Test
+    public void testWireBytesAreCountedThroughWrappers() throws Exception {
+        HttpPbbClient http = new HttpPbbClient(board.baseUrl());
+        PbbClient chain = new CachingPbbClient(new SessionPbbClient(
+                new LatencyInjectingPbbClient(http, new LatencyInjectingPbbClient.Options(), 1), "s1"));
+        InstrumentedPbbClient traffic = new InstrumentedPbbClient(chain, new Gson(), false);
+        // another session on the same transport is not this client's traffic
+        new SessionPbbClient(http, "s2").publish("ephemeralKeys", new EphemeralKeyDTO("x", 9, pk, "1|2"));
+
+        traffic.publish("ephemeralKeys", new EphemeralKeyDTO("a", 0, pk, "1|2"));
+        assertEquals(1, traffic.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+
+        InstrumentedPbbClient.Snapshot s = traffic.snapshot();
+        assertTrue(s.wireBytes);
+        assertTrue(s.bytesSent > 0 && s.bytesReceived > 0);
+        assertEquals(2L, traffic.getRequests());
+        assertNull(s.formats);
+        for (InstrumentedPbbClient.Traffic t : s.traffic)
+            assertEquals("ephemeralKeys", t.topic);
+    }
+
+    @Test
+    public void testComparesFormatsWithoutATransport() throws Exception {
+        InstrumentedPbbClient traffic = new InstrumentedPbbClient(new InMemoryPbbClient(), new Gson(), true);
+        traffic.publishAll("ephemeralKeys", new Object[] {
+                new EphemeralKeyDTO("a", 0, pk, "1|2"), new EphemeralKeyDTO("b", 1, pk, "3|4") });
+        traffic.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+
+        InstrumentedPbbClient.Snapshot s = traffic.snapshot();
+        assertFalse(s.wireBytes);
+        assertEquals(0L, s.bytesSent);
+        assertNotNull(s.formats);
+        assertTrue(s.formats.binarySent > 0 && s.formats.binarySent < s.formats.jsonSent);
+        assertTrue(s.formats.binaryReceived > 0 && s.formats.binaryReceived < s.formats.jsonReceived);
+        assertTrue(traffic.bandwidthReport().contains("binary/json"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.Test;
+
+public class LatencyInjectingPbbClientTest {
+
+    @Test
+    public void testSameSeedSameLink() throws Exception {
+        LatencyInjectingPbbClient.Options link = LatencyInjectingPbbClient.Options.parse("rtt=100,jitter=30");
+        LatencyInjectingPbbClient a = new LatencyInjectingPbbClient(new InMemoryPbbClient(), link, 7);
+        LatencyInjectingPbbClient b = new LatencyInjectingPbbClient(new InMemoryPbbClient(), link, 7);
+        for (int i = 0; i < 100; i++) {
+            long rtt = a.sampleRttNanos();
+            assertEquals(rtt, b.sampleRttNanos());
+            assertTrue(rtt >= 0);
+        }
+    }
+
+    @Test
+    public void testRoundTripsDropsAndRetransmits() throws Exception {
+        InMemoryPbbClient board = new InMemoryPbbClient();
+        LatencyInjectingPbbClient link = new LatencyInjectingPbbClient(board,
+                new LatencyInjectingPbbClient.Options().rtt(20).drop(0.5).rto(5), 3);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            link.publish("ephemeralKeys", new EphemeralKeyDTO("k" + i, i, "pk", "proof"));
+        }
+        List<EphemeralKeyDTO> got = link.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        // every message arrives exactly once, however often it was dropped
+        assertEquals(10, got.size());
+        assertEquals(10, board.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(11, link.getRequests());
+        assertTrue(link.getDrops() > 0);
+        assertTrue(ms >= 11 * 20 + link.getDrops() * 5);
+        assertEquals(link.getInjectedMillis(), 11 * 20 + link.getDrops() * 5, 2);
+    }
+
+    @Test
+    public void testBandwidthCapAddsTransferTime() throws Exception {
+        LatencyInjectingPbbClient link = new LatencyInjectingPbbClient(new InMemoryPbbClient(),
+                LatencyInjectingPbbClient.Options.parse("bw=10k"), 1);
+        link.publish("blob", new EphemeralKeyDTO("b", 0, "x".repeat(1000), "p"));
+        // ~1 kB at 10 kB/s up, an empty response down
+        assertTrue(link.getInjectedMillis() >= 100 && link.getInjectedMillis() < 120);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.cli.TranscriptGenerator;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DhKeyPair;
+import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.VerificationPhase;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+public class TranscriptTest {
+
+    @Test
+    public void testWriteReadAndReplayAsAnyParty() throws Exception {
+        int n = 6, t = 2;
+        Transcript made = TranscriptGenerator.generate(n, t, 1, true, 2);
+        Path file = Files.createTempFile("napdkg", ".ntr");
+        try {
+            made.write(file);
+            Transcript tr = Transcript.read(file);
+            assertEquals(n, tr.header.n);
+            assertEquals(n, tr.header.secretKeys.size());
+            assertEquals(n, tr.count(Transcript.DEALER_PUBLISH));
+            assertEquals(t + 1, tr.count(Transcript.SHARE_VERIFICATION));
+
+            ReplayPbbClient board = new ReplayPbbClient(tr);
+            List<EphemeralKeyDTO> keys = board.fetch(Transcript.EPHEMERAL_KEYS, EphemeralKeyDTO.class);
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, keys.get(i).partyIndex); // board position = owner
+            }
+            assertEquals(1, board.fetchWhere(Transcript.DEALER_PUBLISH, "dealerIndexDTO", 4,
+                    SharingOutputDTO.class).size());
+            try {
+                board.publish(Transcript.DEALER_PUBLISH, new SharingOutputDTO());
+                fail("replay must be read-only");
+            } catch (UnsupportedOperationException expected) {
+            }
+
+            // a party that never took part in the threshold round verifies and reconstructs
+            DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+            PartyContext P = new PartyContext(n - 1, ctx, board, n, t, 1);
+            BigInteger sk = new BigInteger(tr.header.secretKeys.get(n - 1), 16);
+            P.ephKey = new DhKeyPair(sk, ctx.getGenerator().multiply(sk).normalize());
+            VerificationPhase vp = new VerificationPhase(P);
+            ECPoint Y = ctx.getGenerator().getCurve().decodePoint(Hex.decode(tr.header.groupKey));
+            vp.setTrueGroupKey(Y);
+            for (int dealer = 0; dealer < n; dealer++) {
+                vp.VerifySharesFor(dealer);
+            }
+            assertTrue(vp.getQ1().size() >= t + 1);
+            vp.finalReconstruction(vp.getQ1(), vp.collectAndPruneThresholdOutputs());
+
+            // without an expected key only the explicit unchecked variant reconstructs
+            vp.setTrueGroupKey(null);
+            try {
+                vp.finalReconstruction(vp.getQ1(), vp.collectAndPruneThresholdOutputs());
+                fail("reconstructed without checking the group key");
+            } catch (IllegalStateException expected) {
+            }
+            assertEquals(Y, vp.reconstructUnchecked(vp.getQ1(), vp.collectAndPruneThresholdOutputs()).normalize());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.util.DkgContext;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CheckpointedPartyTest {
+    private static final int N = 5, T = 2, FA = 1;
+
+    private Path dir;
+    private byte[] key;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ckpt");
+        key = CheckpointStore.readOrCreateKey(dir.resolve("keys/checkpoint.key"));
+    }
+
+    @Test
+    public void testRestartSkipsVerifiedDealers() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(T, N);
+        PbbClient pbb = new InMemoryPbbClient();
+        try (CheckpointStore store = new CheckpointStore(dir.resolve("ckpt"), key)) {
+            List<CheckpointedParty> parties = new ArrayList<>();
+            for (int i = 0; i < N; i++) {
+                parties.add(new CheckpointedParty(new PartyContext(i, ctx, pbb, N, T, FA), store));
+            }
+            for (CheckpointedParty p : parties)
+                p.publishKey();
+            for (CheckpointedParty p : parties)
+                p.awaitKeys();
+            for (CheckpointedParty p : parties)
+                p.deal();
+
+            // party 0 gets through three dealers, then dies
+            for (int dealer = 0; dealer < 3; dealer++)
+                parties.get(0).verify(dealer);
+            store.flush();
+
+            CheckpointedParty restarted = new CheckpointedParty(new PartyContext(0, ctx, pbb, N, T, FA),
+                    new CheckpointStore(dir.resolve("ckpt"), key));
+            assertEquals(PartyCheckpoint.Stage.SHARING, restarted.resume());
+            parties.set(0, restarted);
+
+            for (CheckpointedParty p : parties)
+                p.verifyAll();
+            assertEquals(N - 3, restarted.getDealersVerifiedHere());
+            for (CheckpointedParty p : parties)
+                p.publishThreshold();
+            ECPoint Y = null;
+            for (CheckpointedParty p : parties) {
+                ECPoint y = p.reconstruct();
+                if (Y != null)
+                    assertEquals(Y, y);
+                Y = y;
+            }
+            assertNotNull(Y);
+
+            // the restarted party's dealer secret came back out of its checkpoint
+            BigInteger s = BigInteger.ZERO;
+            for (CheckpointedParty p : parties)
+                s = s.add(p.getDealerSecret());
+            assertEquals(ctx.getGenerator().multiply(s.mod(ctx.getOrder())).normalize(), Y.normalize());
+        }
+    }
+
+    @Test
+    public void testTamperedCheckpointIsRejected() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(T, N);
+        try (CheckpointStore store = new CheckpointStore(dir.resolve("ckpt"), key)) {
+            CheckpointedParty p = new CheckpointedParty(new PartyContext(3, ctx, new InMemoryPbbClient(), N, T, FA),
+                    store);
+            p.publishKey();
+            store.flush();
+            // the stage byte sits in the authenticated but unencrypted part
+            try (RandomAccessFile raf = new RandomAccessFile(store.fileFor(3).toFile(), "rw")) {
+                raf.seek(3 + 1 + 4 * 4);
+                raf.write(PartyCheckpoint.Stage.THRESHOLD.ordinal());
+            }
+            try {
+                store.load(3, ctx.getCurve());
+                fail("altered checkpoint was accepted");
+            } catch (IOException expected) {
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.example.napdkg.client.CachingPbbClient;
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.SessionPbbClient;
+import org.example.napdkg.client.Transcript;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.junit.Test;
+
+public class ConcurrentDkgRunnerTest {
+
+    @Test
+    public void testSessionsShareOneBoard() throws Exception {
+        InMemoryPbbClient board = new InMemoryPbbClient();
+        ConcurrentDkgRunner.Report r = ConcurrentDkgRunner.run(board,
+                ConcurrentDkgRunner.Options.parse("sessions=6,threads=3,n=4,t=1,precompute=true,prefix=test,keep=true"));
+
+        assertEquals(6, r.sessions);
+        assertEquals(0, r.failed);
+        assertTrue(r.dkgsPerMinute > 0);
+        // every session wrote only its own topics
+        assertTrue(board.fetch("ephemeralKeys", EphemeralKeyDTO.class).isEmpty());
+        for (String id : r.sessionIds) {
+            assertEquals(4, board.fetch(SessionPbbClient.topic(id, "ephemeralKeys"), EphemeralKeyDTO.class).size());
+            assertEquals(4, board.fetch(SessionPbbClient.topic(id, "DealerPublish"), SharingOutputDTO.class).size());
+        }
+    }
+
+    @Test
+    public void testSessionsCleanUpAfterThemselves() throws Exception {
+        InMemoryPbbClient board = new InMemoryPbbClient();
+        CachingPbbClient cache = new CachingPbbClient(board);
+        ConcurrentDkgRunner.Report r = ConcurrentDkgRunner.run(cache,
+                ConcurrentDkgRunner.Options.parse("sessions=12,threads=3,n=4,t=1,prefix=gone"));
+
+        assertEquals(0, r.failed);
+        assertEquals(0, cache.size());
+        for (String id : r.sessionIds) {
+            for (Map.Entry<String, Class<?>> t : Transcript.TOPICS.entrySet()) {
+                String topic = SessionPbbClient.topic(id, t.getKey());
+                assertTrue(topic, board.fetch(topic, t.getValue()).isEmpty());
+                assertFalse(topic, cache.isImmutable(topic));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSessionIdMustBeOnePathSegment() {
+        new SessionPbbClient(new InMemoryPbbClient(), "a/b");
+    }
+}
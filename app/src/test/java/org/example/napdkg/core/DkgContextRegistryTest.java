@@ -0,0 +1,70 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.DhPvssUtils;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.junit.Test;
+
+public class DkgContextRegistryTest {
+
+    @Test
+    public void testSameKeySameContext() {
+        DkgContext a = DkgContextRegistry.get(3, 8);
+        assertSame(a, DkgContextRegistry.get(3, 8));
+        assertSame(a, DkgContextRegistry.get("secp256r1", 3, 8, DkgContextRegistry.AlphaScheme.SEQUENTIAL));
+        assertNotSame(a, DkgContextRegistry.get(2, 8));
+    }
+
+    @Test
+    public void testTablesMatchDirectComputation() {
+        DkgContext ctx = DkgContextRegistry.get(3, 9);
+        BigInteger p = ctx.getOrder();
+        BigInteger[] alphas = ctx.getAlphas();
+
+        assertArrayEquals(DhPvssUtils.deriveShrapeCoeffs(p, alphas, 9), ctx.getVs());
+        for (int i = 0; i <= 9; i++) {
+            for (int j = 0; j <= 9; j++) {
+                if (i == j)
+                    continue;
+                assertEquals(alphas[i].subtract(alphas[j]).mod(p).modInverse(p), ctx.inverseAlphaDiff(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testCombMultiplyMatchesPlain() {
+        DkgContext ctx = DkgContextRegistry.get(3, 8);
+        ECPoint G = ctx.getGenerator();
+        BigInteger k = new BigInteger("7fffffffffffffffffffffffffffffffffffffffffffffffff123456789abcde", 16);
+        for (BigInteger x : new BigInteger[] { BigInteger.ONE, k, ctx.getOrder().subtract(BigInteger.ONE) }) {
+            assertEquals(G.multiply(x).normalize(), EcOps.mul(G, x).normalize());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCurveIsRejected() {
+        DkgContextRegistry.get("secp256k1", 3, 8, DkgContextRegistry.AlphaScheme.SEQUENTIAL);
+    }
+
+    @Test
+    public void testFailedBuildIsNotKept() {
+        int before = DkgContextRegistry.size();
+        for (int i = 0; i < 2; i++) {
+            try {
+                DkgContextRegistry.get(3, 4);
+                fail("n − t − 2 = −1");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        assertEquals(before, DkgContextRegistry.size());
+    }
+}
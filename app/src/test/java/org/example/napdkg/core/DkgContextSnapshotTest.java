@@ -0,0 +1,105 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.EcOps;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DkgContextSnapshotTest {
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ctx-snap");
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(4, 10);
+        Path file = dir.resolve("c.ndks");
+        DkgContextSnapshot.write(file, DkgContextRegistry.SECP256R1, DkgContextRegistry.AlphaScheme.SEQUENTIAL, ctx);
+
+        DkgContextSnapshot s = DkgContextSnapshot.read(file);
+        assertEquals(DkgContextRegistry.SECP256R1, s.curve);
+        assertEquals(DkgContextRegistry.AlphaScheme.SEQUENTIAL, s.alphas);
+        assertEquals(4, s.context.getThreshold());
+        assertEquals(10, s.context.getNumParticipants());
+        assertArrayEquals(ctx.getAlphas(), s.context.getAlphas());
+        assertArrayEquals(ctx.getVs(), s.context.getVs());
+        assertArrayEquals(ctx.getAlphaDiffInverses(), s.context.getAlphaDiffInverses());
+
+        ECPoint G = s.context.getGenerator();
+        BigInteger k = new BigInteger("c0ffee0123456789abcdef0123456789abcdef0123456789abcdef0123456789", 16);
+        assertEquals(G.multiply(k).normalize(), EcOps.mul(G, k).normalize());
+    }
+
+    @Test
+    public void testCorruptionIsDetected() throws Exception {
+        Path file = dir.resolve("c.ndks");
+        DkgContextSnapshot.write(file, DkgContextRegistry.SECP256R1, DkgContextRegistry.AlphaScheme.SEQUENTIAL,
+                DkgContextRegistry.get(4, 10));
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() / 2);
+            int b = raf.read();
+            raf.seek(raf.length() / 2);
+            raf.write(b ^ 1);
+        }
+        try {
+            DkgContextSnapshot.read(file);
+            fail("flipped bit went unnoticed");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testWrongCombIsRejectedDespiteValidCrc() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(4, 10);
+        Path file = dir.resolve("c.ndks");
+        DkgContextSnapshot.write(file, DkgContextRegistry.SECP256R1, DkgContextRegistry.AlphaScheme.SEQUENTIAL, ctx);
+
+        // swap the comb's offset for another valid point and re‐seal the file
+        byte[] b = Files.readAllBytes(file);
+        ECPoint offset = FixedPointUtil.precompute(ctx.getGenerator()).getOffset().normalize();
+        byte[] was = offset.getEncoded(false);
+        int at = indexOf(b, was);
+        System.arraycopy(offset.twice().normalize().getEncoded(false), 0, b, at, was.length);
+        CRC32C crc = new CRC32C();
+        crc.update(b, 0, b.length - 4);
+        ByteBuffer.wrap(b).putInt(b.length - 4, (int) crc.getValue());
+        Files.write(file, b);
+
+        try {
+            DkgContextSnapshot.read(file);
+            fail("a wrong comb was installed");
+        } catch (IOException expected) {
+        }
+        ECPoint G = ctx.getGenerator();
+        BigInteger k = BigInteger.valueOf(123456789);
+        assertEquals(G.multiply(k).normalize(), EcOps.mul(G, k).normalize());
+    }
+
+    private static int indexOf(byte[] hay, byte[] needle) {
+        outer: for (int i = 0; i + needle.length <= hay.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (hay[i + j] != needle[j])
+                    continue outer;
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+}
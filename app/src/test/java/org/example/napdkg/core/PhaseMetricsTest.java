@@ -0,0 +1,48 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.junit.Test;
+
+public class PhaseMetricsTest {
+
+    /** Board client that takes a fixed time per fetch. */
+    private static final class SlowBoard extends InMemoryPbbClient {
+        @Override
+        public <T> List<T> fetch(String topic, Class<T> clazz) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.fetch(topic, clazz);
+        }
+    }
+
+    @Test
+    public void testBoardTimeIsChargedToInnermostSpan() throws Exception {
+        PhaseMetrics metrics = new PhaseMetrics();
+        PbbClient pbb = PhaseMetrics.metered(new SlowBoard());
+
+        metrics.run(3, PhaseMetrics.VERIFICATION, () -> {
+            pbb.fetch("DealerPublish", Object.class);
+            metrics.run(3, PhaseMetrics.THRESHOLD, () -> pbb.fetch("DealerPublish", Object.class));
+        });
+        pbb.fetch("DealerPublish", Object.class); // outside any span: not charged
+
+        Map<String, PhaseMetrics.PhaseSummary> snap = metrics.snapshot();
+        PhaseMetrics.PartySummary outer = snap.get(PhaseMetrics.VERIFICATION).parties.get(3);
+        PhaseMetrics.PartySummary inner = snap.get(PhaseMetrics.THRESHOLD).parties.get(3);
+        assertEquals(1, outer.calls);
+        assertTrue(outer.boardMs >= 20 && outer.boardMs < 40);
+        assertTrue(inner.boardMs >= 20 && inner.boardMs < 40);
+        assertTrue(outer.wallMs >= outer.boardMs + inner.boardMs);
+        assertTrue(metrics.toCsv().startsWith("phase,metric,"));
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.DkgContext;
+import org.junit.Test;
+
+public class PrecomputationPoolTest {
+    private static final int N = 6, T = 2;
+
+    @Test
+    public void testPooledDealingAndProofsVerify() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(T, N);
+        try (PrecomputationPool pool = new PrecomputationPool(ctx,
+                PrecomputationPool.Options.parse("dealings=2,nonces=3"))) {
+            pool.fill();
+
+            GShamirShareDKG.ShamirSharingResult res = pool.takeDealing();
+            BigInteger p = ctx.getOrder();
+            BigInteger[] alpha = ctx.getAlphas();
+            for (int i = 0; i < N; i++) {
+                BigInteger a = SharingPhase.evaluatePolynomial(res.coeffs, alpha[i + 1], p);
+                assertEquals(a, res.shares[i].getai());
+                assertEquals(ctx.getGenerator().multiply(a).normalize(), res.shares[i].getAiPoint().normalize());
+            }
+
+            DhKeyPair kp = DhKeyPair.generate(ctx);
+            NizkDlProof dl = NizkDlProof.generateProof(ctx, kp, pool.takeNonce());
+            assertTrue(NizkDlProof.verifyProof(ctx, kp.getPublic(), dl));
+
+            ECPoint h = res.shares[0].getAiPoint();
+            ECPoint y = h.multiply(kp.getSecretKey()).normalize();
+            NizkDlEqProof dleq = NizkDlEqProof.generateProof(ctx, kp.getPublic(), h, y, kp.getSecretKey(),
+                    pool.takeNonce());
+            assertTrue(NizkDlEqProof.verifyProof(ctx, kp.getPublic(), h, y, dleq));
+
+            assertEquals(3, pool.hits());
+            assertEquals(0, pool.misses());
+        }
+    }
+
+    @Test
+    public void testEveryItemIsHandedOutOnce() {
+        DkgContext ctx = DkgContextRegistry.get(T, N);
+        try (PrecomputationPool pool = new PrecomputationPool(ctx,
+                new PrecomputationPool.Options().dealings(1).nonces(2))) {
+            pool.fill();
+            Set<ECPoint> seen = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                PrecomputationPool.Nonce x = pool.takeNonce();
+                assertTrue(seen.add(x.commitment));
+                x.secret();
+                try {
+                    x.secret();
+                    fail("nonce handed out twice");
+                } catch (IllegalStateException expected) {
+                }
+            }
+            // the queue held two, the other two were computed inline
+            assertEquals(2, pool.hits());
+            assertEquals(2, pool.misses());
+            pool.takeDealing();
+            pool.takeDealing();
+            assertEquals(3, pool.hits());
+            assertEquals(3, pool.misses());
+        }
+    }
+
+    @Test
+    public void testBackgroundFillStopsOnClose() throws Exception {
+        DkgContext ctx = DkgContextRegistry.get(T, N);
+        PrecomputationPool pool = new PrecomputationPool(ctx, new PrecomputationPool.Options()).start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.hits() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            pool.takeNonce();
+        }
+        pool.close();
+        for (Thread th : Thread.getAllStackTraces().keySet()) {
+            assertTrue(th.getName(), !th.getName().startsWith("precompute-"));
+        }
+    }
+}
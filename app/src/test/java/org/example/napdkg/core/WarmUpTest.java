@@ -0,0 +1,23 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WarmUpTest {
+
+    @Test
+    public void testRoundsStayWithinLimits() throws Exception {
+        WarmUp.Report r = WarmUp.run(WarmUp.Options.parse("n=4,t=1,min=1,rounds=2"));
+        assertTrue(r.rounds >= 1 && r.rounds <= 2);
+        assertEquals(r.rounds, r.roundMs.size());
+        assertTrue(r.bestRoundMs <= r.firstRoundMs);
+        assertTrue(r.totalMs >= r.firstRoundMs);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOptionIsRejected() {
+        WarmUp.Options.parse("n=4,rnds=2");
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.napdkg.dto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DhKeyPair;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.SharingOutput;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class BinaryDtoCodecTest {
+    private DkgContext ctx;
+
+    @Before
+    public void setUp() {
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 2, 8);
+    }
+
+    private SharingOutputDTO sampleSharingOutput(int n) {
+        DhKeyPair dealer = DhKeyPair.generate(ctx);
+        ECPoint[] Cij = new ECPoint[n];
+        BigInteger[] CHat = new BigInteger[n];
+        for (int j = 0; j < n; j++) {
+            Cij[j] = DhKeyPair.generate(ctx).getPublic();
+            CHat[j] = DhKeyPair.generate(ctx).getSecretKey();
+        }
+        NizkDlEqProof prf = new NizkDlEqProof(BigInteger.valueOf(7), ctx.getOrder().subtract(BigInteger.ONE));
+        SharingOutputDTO dto = SharingOutputDTO.from(new SharingOutput(3, 3, dealer.getPublic(), Cij, CHat, prf));
+        dto.id = "dealer3";
+        return dto;
+    }
+
+    @Test
+    public void testSharingOutputRoundTrip() {
+        SharingOutputDTO in = sampleSharingOutput(8);
+        SharingOutputDTO out = BinaryDtoCodec.decode(BinaryDtoCodec.encode(in), SharingOutputDTO.class);
+
+        assertEquals(in.id, out.id);
+        assertEquals(in.dealerIndexDTO, out.dealerIndexDTO);
+        assertEquals(in.publisherindexDTO, out.publisherindexDTO);
+        assertEquals(in.dealerPub, out.dealerPub);
+        assertArrayEquals(in.Cij, out.Cij);
+        assertArrayEquals(in.CHat, out.CHat);
+        assertEquals(in.proof.challenge, out.proof.challenge);
+        assertEquals(in.proof.response, out.proof.response);
+    }
+
+    @Test
+    public void testBinaryIsAboutHalfOfJson() {
+        int n = 64;
+        SharingOutputDTO in = sampleSharingOutput(n);
+        int bin = BinaryDtoCodec.encode(in).length;
+        int json = new Gson().toJson(in).getBytes(StandardCharsets.UTF_8).length;
+
+        // 33-byte point + 32-byte scalar per recipient, plus a small fixed part
+        assertTrue("binary " + bin, bin <= 65 * n + 150);
+        assertTrue("binary " + bin + " vs json " + json, 2 * bin < json);
+    }
+
+    @Test
+    public void testMixedListRoundTrip() {
+        DhKeyPair kp = DhKeyPair.generate(ctx);
+        EphemeralKeyDTO eph = new EphemeralKeyDTO("id0", 0, DkgUtils.encodePoint(kp.getPublic()), "1f|0");
+        ThresholdKeyOutputDTO tk = new ThresholdKeyOutputDTO();
+        tk.id = null;
+        tk.dealerIndex = 1;
+        tk.partyIndex = 300;
+        tk.tpkiHex = DkgUtils.encodePoint(kp.getPublic());
+        tk.proof = new DleqProofDTO(BigInteger.ONE, BigInteger.TEN);
+
+        List<Object> out = BinaryDtoCodec.decodeList(BinaryDtoCodec.encodeList(List.of(eph, tk)), Object.class);
+        EphemeralKeyDTO eph2 = (EphemeralKeyDTO) out.get(0);
+        ThresholdKeyOutputDTO tk2 = (ThresholdKeyOutputDTO) out.get(1);
+
+        assertEquals(eph.publicKey, eph2.publicKey);
+        assertEquals(eph.schnorrProof, eph2.schnorrProof);
+        assertEquals(null, tk2.id);
+        assertEquals(300, tk2.partyIndex);
+        assertEquals(tk.tpkiHex, tk2.tpkiHex);
+        assertEquals("a", tk2.proof.response);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsForeignVersion() {
+        byte[] frame = BinaryDtoCodec.encode(sampleSharingOutput(2));
+        frame[1] = (byte) (BinaryDtoCodec.VERSION + 1);
+        BinaryDtoCodec.decode(frame, SharingOutputDTO.class);
+    }
+
+    /** A frame header followed by {@code rest}. */
+    private static byte[] frame(int... rest) {
+        byte[] f = new byte[2 + rest.length];
+        f[0] = BinaryDtoCodec.MAGIC;
+        f[1] = BinaryDtoCodec.VERSION;
+        for (int i = 0; i < rest.length; i++)
+            f[2 + i] = (byte) rest[i];
+        return f;
+    }
+
+    private static void assertRejected(byte[] frame) {
+        try {
+            BinaryDtoCodec.decodeList(new ByteArrayInputStream(frame), Object.class);
+            fail("malformed frame accepted: " + Arrays.toString(frame));
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void testHugeCountIsRejectedBeforeAllocating() {
+        // varint 0x7FFFFFFF records, none of them present
+        assertRejected(frame(0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+    }
+
+    @Test
+    public void testOverflowingVarintIsRejected() {
+        // 2^35 − 1: wraps negative through an (int) cast
+        assertRejected(frame(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));
+        // 2^32: more than 32 bits
+        assertRejected(frame(0x80, 0x80, 0x80, 0x80, 0x10));
+    }
+
+    @Test
+    public void testHugeArrayAndStringLengthsAreRejected() throws IOException {
+        ByteArrayOutputStream f = new ByteArrayOutputStream();
+        f.write(BinaryDtoCodec.MAGIC);
+        f.write(BinaryDtoCodec.VERSION);
+        BinaryDtoCodec.writeVarint(f, 1);
+        f.write(BinaryDtoCodec.TAG_SHARING_OUTPUT);
+        BinaryDtoCodec.writeVarint(f, Integer.MAX_VALUE); // id length
+        assertRejected(f.toByteArray());
+
+        f.reset();
+        f.write(BinaryDtoCodec.MAGIC);
+        f.write(BinaryDtoCodec.VERSION);
+        BinaryDtoCodec.writeVarint(f, 1);
+        f.write(BinaryDtoCodec.TAG_SHARING_OUTPUT);
+        BinaryDtoCodec.writeVarint(f, 0); // null id
+        BinaryDtoCodec.writeVarint(f, 0); // dealer index
+        BinaryDtoCodec.writeVarint(f, 0); // publisher index
+        f.write(0xFF); // null dealer key
+        BinaryDtoCodec.writeVarint(f, Integer.MAX_VALUE); // |C_ij| + 1
+        assertRejected(f.toByteArray());
+    }
+
+    @Test
+    public void testTruncatedFrameIsRejected() {
+        byte[] whole = BinaryDtoCodec.encode(sampleSharingOutput(4));
+        for (int len = 0; len < whole.length; len += 7) {
+            assertRejected(Arrays.copyOf(whole, len));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.napdkg.jfr;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.core.PhaseMetrics;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class DkgEventsTest {
+
+    @Test
+    public void testSpansAndSlowBoardCallsAreRecorded() throws Exception {
+        PhaseMetrics metrics = new PhaseMetrics();
+        InMemoryPbbClient board = new InMemoryPbbClient() {
+            @Override
+            public <T> List<T> fetchWhere(String topic, String field, Object value, Class<T> clazz) {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.fetchWhere(topic, field, value, clazz);
+            }
+        };
+        PbbClient pbb = PhaseMetrics.metered(board);
+        pbb.publish("warmup", "x"); // class loading, not the board, on the first calls
+        pbb.fetch("warmup", String.class);
+
+        Path file = Files.createTempFile("napdkg", ".jfr");
+        try (Recording r = new Recording()) {
+            r.enable("napdkg.Phase");
+            r.enable("napdkg.BoardCall").withThreshold(Duration.ofMillis(10));
+            r.start();
+            metrics.run(3, PhaseMetrics.SHARING, () -> {
+                pbb.publish("DealerPublish", "x");
+                pbb.fetch("DealerPublish", String.class); // fast: under the threshold
+                pbb.fetchWhere("DealerPublish", "dealerIndexDTO", 3, String.class);
+            });
+            r.stop();
+            r.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        List<RecordedEvent> phases = byName(events, "napdkg.Phase");
+        assertEquals(1, phases.size());
+        assertEquals(3, phases.get(0).getInt("party"));
+        assertEquals(PhaseMetrics.SHARING, phases.get(0).getString("phase"));
+        assertEquals(-1, phases.get(0).getInt("dealer"));
+
+        List<RecordedEvent> calls = byName(events, "napdkg.BoardCall");
+        assertEquals(1, calls.size());
+        assertEquals("fetchWhere", calls.get(0).getString("op"));
+        assertEquals("DealerPublish", calls.get(0).getString("topic"));
+    }
+
+    private static List<RecordedEvent> byName(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+}
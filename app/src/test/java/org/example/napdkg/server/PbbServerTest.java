@@ -0,0 +1,112 @@
+package org.example.napdkg.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.client.WireFormat;
+import org.example.napdkg.core.DkgContextRegistry;
+import org.example.napdkg.dto.BinaryDtoCodec;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PbbServerTest {
+    private PbbServer board;
+    private String pk;
+
+    @Before
+    public void setUp() throws Exception {
+        board = PbbServer.start(0);
+        pk = Hex.toHexString(DkgContextRegistry.get(1, 4).getGenerator().getEncoded(true));
+    }
+
+    @After
+    public void tearDown() {
+        board.close();
+    }
+
+    private EphemeralKeyDTO key(int i) {
+        return new EphemeralKeyDTO("id" + i, i, pk, Integer.toHexString(i + 1) + "|2a");
+    }
+
+    private void roundTrip(HttpPbbClient client) throws Exception {
+        for (int i = 0; i < 3; i++)
+            client.publish("ephemeralKeys", key(i));
+        client.publishAll("ephemeralKeys", new Object[] { key(3), key(4) });
+
+        List<EphemeralKeyDTO> all = client.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        assertEquals(5, all.size());
+        assertEquals("id0", all.get(0).id);
+        // batched or not, publishAll keeps its order
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, all.get(i).partyIndex);
+            assertEquals(key(i).schnorrProof, all.get(i).schnorrProof);
+        }
+
+        List<EphemeralKeyDTO> two = client.fetchWhere("ephemeralKeys", "partyIndex", 2, EphemeralKeyDTO.class);
+        assertEquals(1, two.size());
+        assertEquals(pk, two.get(0).publicKey);
+
+        client.delete("ephemeralKeys", "id2");
+        assertTrue(client.fetchWhere("ephemeralKeys", "partyIndex", 2, EphemeralKeyDTO.class).isEmpty());
+        assertEquals(4, client.awaitAtLeast("ephemeralKeys", 4, EphemeralKeyDTO.class).size());
+        assertTrue(client.fetch("nothingHere", EphemeralKeyDTO.class).isEmpty());
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        HttpPbbClient client = new HttpPbbClient(board.baseUrl());
+        roundTrip(client);
+        assertEquals(WireFormat.JSON, client.wireFormat());
+    }
+
+    @Test
+    public void testBinaryGzipRoundTrip() throws Exception {
+        HttpPbbClient client = new HttpPbbClient(board.baseUrl(),
+                new HttpPbbClient.Options().format(WireFormat.BINARY).compression(true));
+        roundTrip(client);
+        assertEquals(WireFormat.BINARY, client.wireFormat());
+    }
+
+    @Test
+    public void testMalformedBinaryFrameIsABadRequest() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        byte[] frame = { 'N', BinaryDtoCodec.VERSION, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+        HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create(board.baseUrl() + "/DealerPublish"))
+                .header("Content-Type", BinaryDtoCodec.MEDIA_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(frame))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, resp.statusCode());
+        // and the board carries on
+        HttpPbbClient client = new HttpPbbClient(board.baseUrl());
+        client.publish("DealerPublish", key(1));
+        assertEquals(1, client.fetch("DealerPublish", EphemeralKeyDTO.class).size());
+    }
+
+    @Test
+    public void testFailureWhileStreamingEndsOnlyThatResponse() throws Exception {
+        HttpPbbClient json = new HttpPbbClient(board.baseUrl());
+        HttpPbbClient binary = new HttpPbbClient(board.baseUrl(), WireFormat.BINARY);
+        binary.publish("ephemeralKeys", key(0));
+        // valid JSON, but no EC point: only fails once the binary list is streaming
+        json.publish("ephemeralKeys", new EphemeralKeyDTO("bad", 1, "zz", "1|2"));
+        try {
+            binary.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+            fail("a truncated binary list was accepted");
+        } catch (Exception expected) {
+        }
+        assertEquals(2, json.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        json.delete("ephemeralKeys", "bad");
+        assertEquals(1, binary.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.napdkg.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentedLogStoreTest {
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("pbb-log");
+    }
+
+    private static List<String> replay(SegmentedLogStore store) throws IOException {
+        List<String> out = new ArrayList<>();
+        store.replay(new SegmentedLogStore.Replay() {
+            @Override
+            public void onPublish(String topic, byte[] json) {
+                out.add(topic + "+" + new String(json, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onDelete(String topic, String id) {
+                out.add(topic + "-" + id);
+            }
+        });
+        return out;
+    }
+
+    @Test
+    public void testReopenReplaysAcrossSegments() throws Exception {
+        // 256‐byte segments force several rolls
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 256, SegmentedLogStore.Fsync.GROUP, 1)) {
+            for (int i = 0; i < 20; i++) {
+                store.sync(store.appendPublish(i % 2 == 0 ? "DealerPublish" : "ephemeralKeys",
+                        ("{\"id\":\"" + i + "\"}").getBytes(StandardCharsets.UTF_8)));
+            }
+            store.sync(store.appendDelete("ephemeralKeys", "3"));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(true, files.count() > 1);
+        }
+
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 256, SegmentedLogStore.Fsync.NEVER, 0)) {
+            List<String> all = replay(store);
+            assertEquals(21, all.size());
+            assertEquals("DealerPublish+{\"id\":\"0\"}", all.get(0));
+            assertEquals("ephemeralKeys-3", all.get(20));
+            assertEquals(10, store.count("DealerPublish"));
+            assertEquals(11, store.count("ephemeralKeys"));
+
+            // appending continues after the recovered tail
+            store.appendPublish("DealerPublish", "{\"id\":\"20\"}".getBytes(StandardCharsets.UTF_8));
+            assertEquals(22, replay(store).size());
+        }
+    }
+
+    @Test
+    public void testTornTailIsTruncated() throws Exception {
+        long tornAt;
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 4096, SegmentedLogStore.Fsync.ALWAYS, 0)) {
+            store.appendPublish("t", "{\"id\":\"a\"}".getBytes(StandardCharsets.UTF_8));
+            tornAt = store.appendPublish("t", "{\"id\":\"b\"}".getBytes(StandardCharsets.UTF_8));
+            store.appendPublish("t", "{\"id\":\"c\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        // flip a payload byte of the third record, as if the crash hit mid‐write
+        Path seg;
+        try (Stream<Path> files = Files.list(dir)) {
+            seg = files.findFirst().get();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(seg.toFile(), "rw")) {
+            raf.seek(tornAt + 12);
+            raf.write('X');
+        }
+
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 4096, SegmentedLogStore.Fsync.ALWAYS, 0)) {
+            assertEquals(List.of("t+{\"id\":\"a\"}", "t+{\"id\":\"b\"}"), replay(store));
+            assertEquals(tornAt, store.end());
+            store.appendPublish("t", "{\"id\":\"c2\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 4096, SegmentedLogStore.Fsync.NEVER, 0)) {
+            assertEquals(3, replay(store).size());
+        }
+    }
+
+    @Test
+    public void testOverlongTopicIsRejectedBeforeWriting() throws Exception {
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 1 << 20, SegmentedLogStore.Fsync.NEVER, 0)) {
+            store.appendPublish("a", "{\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8));
+            try {
+                store.appendPublish("t".repeat(SegmentedLogStore.MAX_TOPIC_BYTES + 1), new byte[1]);
+                fail("a 65536‐byte topic was written");
+            } catch (IllegalArgumentException expected) {
+            }
+            assertEquals(List.of("a+{\"id\":\"1\"}"), replay(store));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testRollDuringGroupFlushMarksOnlyForcedBytesDurable() throws Exception {
+        try (SegmentedLogStore store = SegmentedLogStore.open(dir, 4096, SegmentedLogStore.Fsync.GROUP, 60_000)) {
+            MappedByteBuffer[] first = new MappedByteBuffer[1];
+            // bytes of the first segment whose force() has returned
+            BitSet forced = new BitSet();
+            CountDownLatch stalled = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread[] flusher = new Thread[1];
+            store.forcer = (map, from, len) -> {
+                if (Thread.currentThread() == flusher[0]) {
+                    stalled.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                map.force(from, len);
+                synchronized (forced) {
+                    if (first[0] == null)
+                        first[0] = map;
+                    if (map == first[0])
+                        forced.set(from, from + len);
+                }
+            };
+
+            long a = store.appendPublish("DealerPublish", "{\"id\":\"a\"}".getBytes(StandardCharsets.UTF_8));
+            flusher[0] = new Thread(() -> {
+                try {
+                    store.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            flusher[0].start();
+            stalled.await();
+
+            // doesn't fit the 4 KiB segment: rolls while the flush of [0, a) hangs
+            store.appendPublish("DealerPublish", new byte[4096]);
+            store.sync(a);
+            synchronized (forced) {
+                assertTrue("durable before forced", forced.nextClearBit(0) >= a);
+            }
+            release.countDown();
+            flusher[0].join();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.napdkg.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class TopicLogTest {
+
+    private static JsonObject json(String s) {
+        return JsonParser.parseString(s).getAsJsonObject();
+    }
+
+    @Test
+    public void testRepublishedIdReplacesTheOldEntry() {
+        TopicLog log = new TopicLog("DealerPublish");
+        log.append(json("{\"id\":\"d1\",\"dealerIndexDTO\":1,\"v\":\"old\"}"));
+        log.append(json("{\"id\":\"d2\",\"dealerIndexDTO\":2}"));
+        log.select(Map.of("dealerIndexDTO", "1")); // build the index before the re-publish
+        log.append(json("{\"id\":\"d1\",\"dealerIndexDTO\":1,\"v\":\"new\"}"));
+
+        assertEquals(2, log.size());
+        List<TopicLog.Entry> all = log.select(Map.of());
+        assertEquals(2, all.size());
+        assertEquals("d2", all.get(0).id);
+        assertTrue(new String(all.get(1).json, StandardCharsets.UTF_8).contains("new"));
+        assertEquals(1, log.select(Map.of("dealerIndexDTO", "1")).size());
+
+        assertTrue(log.delete("d1"));
+        assertFalse(log.delete("d1"));
+        assertEquals(1, log.size());
+        assertTrue(log.select(Map.of("dealerIndexDTO", "1")).isEmpty());
+    }
+
+    @Test
+    public void testRestoredIdsAreNotHandedOutAgain() {
+        TopicLog live = new TopicLog("ephemeralKeys");
+        TopicLog.Entry a = live.append(json("{\"partyIndex\":0}"));
+        TopicLog.Entry b = live.append(json("{\"partyIndex\":1}"));
+        live.delete(b.id);
+
+        // replaying the log: b's publish comes back, then its delete
+        TopicLog restarted = new TopicLog("ephemeralKeys");
+        restarted.restore(TopicLog.Entry.parse(a.json));
+        restarted.restore(TopicLog.Entry.parse(b.json));
+        restarted.delete(b.id);
+
+        assertEquals(a.id, restarted.select(Map.of("partyIndex", "0")).get(0).id);
+        TopicLog.Entry c = restarted.append(json("{\"partyIndex\":2}"));
+        assertFalse(c.id.equals(a.id) || c.id.equals(b.id));
+    }
+
+    @Test
+    public void testBinaryRecordIsEncodedOncePerType() {
+        TopicLog log = new TopicLog("ephemeralKeys");
+        TopicLog.Entry e = log.append(json("{\"partyIndex\":0}"));
+        int[] calls = new int[1];
+        byte[] first = e.binary(String.class, x -> new byte[] { (byte) ++calls[0] });
+        assertTrue(first == e.binary(String.class, x -> new byte[] { (byte) ++calls[0] }));
+        assertEquals(1, calls[0]);
+        e.binary(Integer.class, x -> new byte[] { (byte) ++calls[0] });
+        assertEquals(2, calls[0]);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsRoundTrip() {
+        for (long v : new long[] { 0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE }) {
+            int idx = LatencyHistogram.index(v);
+            assertTrue(LatencyHistogram.lowerBound(idx) <= v);
+            if (v < Long.MAX_VALUE)
+                assertTrue(LatencyHistogram.index(v + 1) >= idx);
+        }
+    }
+
+    @Test
+    public void testPercentilesWithinBucketError() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            h.record(v * 1000); // 1 µs … 10 ms
+        }
+        assertEquals(10_000, h.count());
+        long p50 = h.percentile(0.50);
+        long p99 = h.percentile(0.99);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 17 / 16);
+        assertTrue(p99 >= 9_900_000 && p99 <= 9_900_000 * 17 / 16);
+        assertEquals(10_000_000, h.percentile(1.0));
+    }
+}